@@ -2,6 +2,7 @@ package com.location.client;
 
 import com.location.client.core.DataSourceProvider;
 import com.location.client.core.Preferences;
+import com.location.client.telemetry.MetricsExporter;
 import com.location.client.ui.MainFrame;
 import com.location.client.ui.Theme;
 import javax.swing.SwingUtilities;
@@ -9,6 +10,7 @@ import java.awt.EventQueue;
 
 public class App {
   public static void main(String[] args) {
+    MetricsExporter.startFromEnvironment();
     EventQueue.invokeLater(() -> {
       Theme.ensureInitialized();
       new StartupSelector(args, App::launch).showAndRun();
@@ -54,6 +54,34 @@ public interface DataSourceProvider extends AutoCloseable {
 
   List<Models.Resource> listResources();
 
+  /**
+   * Ressources portant chacun des tags listés (séparés par des virgules, casse ignorée, tag entier) ;
+   * toutes si aucun tag. Par défaut filtré localement, la source REST filtre en base.
+   */
+  default List<Models.Resource> listResources(String tags) {
+    java.util.Set<String> requested = normalizeTags(tags);
+    if (requested.isEmpty()) {
+      return listResources();
+    }
+    return listResources().stream()
+        .filter(r -> normalizeTags(r.tags()).containsAll(requested))
+        .toList();
+  }
+
+  /** Tags normalisés comme sur le serveur : découpés, sans espaces, en minuscules, sans doublon. */
+  static java.util.Set<String> normalizeTags(String tags) {
+    java.util.Set<String> out = new java.util.LinkedHashSet<>();
+    if (tags != null) {
+      for (String tag : tags.split(",")) {
+        String normalized = tag.trim().toLowerCase(java.util.Locale.ROOT);
+        if (!normalized.isEmpty()) {
+          out.add(normalized);
+        }
+      }
+    }
+    return out;
+  }
+
   default List<Models.ResourceType> listResourceTypes() {
     return java.util.List.of();
   }
@@ -85,8 +113,52 @@ public interface DataSourceProvider extends AutoCloseable {
   List<Models.Intervention> listInterventions(
       java.time.OffsetDateTime from, java.time.OffsetDateTime to, String resourceId);
 
+  /**
+   * Interventions de la plage, transmises par lots au fil de la lecture. Par défaut, un seul lot
+   * issu de {@link #listInterventions}.
+   */
+  default void streamInterventions(
+      java.time.OffsetDateTime from,
+      java.time.OffsetDateTime to,
+      String resourceId,
+      java.util.function.Consumer<List<Models.Intervention>> batches) {
+    batches.accept(listInterventions(from, to, resourceId));
+  }
+
+  /**
+   * Toute la vue planning de la plage en un appel ({@code agencyId} nul : toutes les agences ;
+   * {@code tags} comme pour {@link #listResources(String)}), ou {@code null} si la source ne sait
+   * pas la fournir : le planning lit alors chaque liste à part. Une source qui lit la vue en flux
+   * peut écarter dès leur lecture les interventions refusées par {@code keep}.
+   */
+  default Models.PlanningSnapshot loadPlanningSnapshot(
+      java.time.OffsetDateTime from,
+      java.time.OffsetDateTime to,
+      String agencyId,
+      String tags,
+      java.util.function.Predicate<Models.Intervention> keep) {
+    return null;
+  }
+
   Models.Intervention createIntervention(Models.Intervention intervention);
 
+  /**
+   * Crée un lot d'interventions et renvoie le nombre effectivement créé ; les lignes refusées
+   * (conflit, validation) sont ignorées. Par défaut, une création unitaire par intervention.
+   */
+  default int importInterventions(List<Models.Intervention> interventions) {
+    int created = 0;
+    for (Models.Intervention intervention : interventions) {
+      try {
+        createIntervention(intervention);
+        created++;
+      } catch (RuntimeException ex) {
+        // ligne refusée : on continue avec les suivantes
+      }
+    }
+    return created;
+  }
+
   Models.Intervention updateIntervention(Models.Intervention intervention);
 
   void deleteIntervention(String id);
@@ -312,6 +384,27 @@ public interface DataSourceProvider extends AutoCloseable {
     throw new UnsupportedOperationException("getInterventionTags non disponible dans " + getLabel());
   }
 
+  /**
+   * Tags de plusieurs interventions. Par défaut, un appel unitaire par identifiant ; les
+   * interventions en échec sont absentes du résultat.
+   */
+  default java.util.Map<String, java.util.List<String>> getInterventionTags(
+      java.util.Collection<String> interventionIds) {
+    java.util.Map<String, java.util.List<String>> out = new java.util.LinkedHashMap<>();
+    for (String id : interventionIds) {
+      if (id == null || id.isBlank() || out.containsKey(id)) {
+        continue;
+      }
+      try {
+        java.util.List<String> tags = getInterventionTags(id);
+        out.put(id, tags == null ? java.util.List.of() : java.util.List.copyOf(tags));
+      } catch (RuntimeException ignored) {
+        // un tag manquant ne doit pas bloquer le chargement
+      }
+    }
+    return out;
+  }
+
   default void setInterventionTags(String interventionId, java.util.List<String> tags) {
     throw new UnsupportedOperationException("setInterventionTags non disponible dans " + getLabel());
   }
@@ -0,0 +1,169 @@
+package com.location.client.core;
+
+import com.location.client.telemetry.Metrics;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.HttpEntity;
+import org.apache.hc.core5.http.io.entity.HttpEntityWrapper;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+/**
+ * Client HTTP partagé par {@link RestDataSource} : pool de connexions dimensionné, délais de
+ * connexion, d'attente du pool et de réponse, connexions inactives purgées, réponses gzip
+ * décodées de façon transparente. Publie dans {@link Metrics} l'attente de connexion
+ * ({@code http.pool.wait.us}) et les octets échangés sur le réseau ({@code http.bytes.in},
+ * {@code http.bytes.out}, avant décompression).
+ */
+final class HttpTransport {
+
+  /** Réglages du transport ; {@link #fromEnvironment()} lit les variables {@code LOCATION_HTTP_*}. */
+  record Settings(
+      int maxConnections,
+      int maxConnectionsPerRoute,
+      Timeout connectTimeout,
+      Timeout poolTimeout,
+      Timeout responseTimeout,
+      TimeValue idleEviction) {
+
+    static Settings fromEnvironment() {
+      return new Settings(
+          intEnv("LOCATION_HTTP_MAX_CONNECTIONS", 20),
+          intEnv("LOCATION_HTTP_MAX_PER_ROUTE", 10),
+          Timeout.ofSeconds(intEnv("LOCATION_HTTP_CONNECT_TIMEOUT_S", 5)),
+          Timeout.ofSeconds(intEnv("LOCATION_HTTP_POOL_TIMEOUT_S", 10)),
+          // au-delà du battement SSE (15 s) pour ne pas couper le flux des changements
+          Timeout.ofSeconds(intEnv("LOCATION_HTTP_READ_TIMEOUT_S", 60)),
+          TimeValue.ofSeconds(30));
+    }
+
+    private static int intEnv(String name, int fallback) {
+      String value = System.getenv(name);
+      if (value == null || value.isBlank()) {
+        return fallback;
+      }
+      try {
+        return Math.max(1, Integer.parseInt(value.trim()));
+      } catch (NumberFormatException ex) {
+        return fallback;
+      }
+    }
+  }
+
+  private HttpTransport() {}
+
+  static CloseableHttpClient create(Settings settings) {
+    PoolingHttpClientConnectionManager pool = new TimedPool();
+    pool.setMaxTotal(settings.maxConnections());
+    pool.setDefaultMaxPerRoute(settings.maxConnectionsPerRoute());
+    pool.setDefaultConnectionConfig(
+        ConnectionConfig.custom()
+            .setConnectTimeout(settings.connectTimeout())
+            .setSocketTimeout(settings.responseTimeout())
+            .setValidateAfterInactivity(TimeValue.ofSeconds(5))
+            .build());
+    return HttpClients.custom()
+        .setConnectionManager(pool)
+        .setDefaultRequestConfig(
+            RequestConfig.custom()
+                .setConnectionRequestTimeout(settings.poolTimeout())
+                .setResponseTimeout(settings.responseTimeout())
+                .build())
+        .evictIdleConnections(settings.idleEviction())
+        .evictExpiredConnections()
+        .addRequestInterceptorLast(
+            (request, entity, context) -> {
+              if (entity != null && entity.getContentLength() > 0) {
+                Metrics.get().increment("http.bytes.out", entity.getContentLength());
+              }
+            })
+        // intercepteur appelé avant la décompression : on compte les octets reçus du réseau
+        .addResponseInterceptorLast(
+            (response, entity, context) -> {
+              if (response instanceof ClassicHttpResponse classic && classic.getEntity() != null) {
+                classic.setEntity(new CountingEntity(classic.getEntity()));
+              }
+            })
+        .build();
+  }
+
+  /** Pool qui mesure le temps passé à attendre une connexion libre. */
+  private static final class TimedPool extends PoolingHttpClientConnectionManager {
+    @Override
+    public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+      LeaseRequest lease = super.lease(id, route, requestTimeout, state);
+      return new LeaseRequest() {
+        @Override
+        public ConnectionEndpoint get(Timeout timeout)
+            throws InterruptedException, ExecutionException, TimeoutException {
+          long start = System.nanoTime();
+          try {
+            return lease.get(timeout);
+          } finally {
+            Metrics.get().observe("http.pool.wait.us", (System.nanoTime() - start) / 1_000L);
+          }
+        }
+
+        @Override
+        public boolean cancel() {
+          return lease.cancel();
+        }
+      };
+    }
+  }
+
+  private static final class CountingEntity extends HttpEntityWrapper {
+    CountingEntity(HttpEntity wrapped) {
+      super(wrapped);
+    }
+
+    @Override
+    public InputStream getContent() throws IOException {
+      return new CountingStream(super.getContent());
+    }
+
+    @Override
+    public void writeTo(OutputStream out) throws IOException {
+      try (InputStream in = getContent()) {
+        in.transferTo(out);
+      }
+    }
+  }
+
+  private static final class CountingStream extends FilterInputStream {
+    CountingStream(InputStream in) {
+      super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+      int b = super.read();
+      if (b >= 0) {
+        Metrics.get().increment("http.bytes.in");
+      }
+      return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+      int n = super.read(buffer, offset, length);
+      if (n > 0) {
+        Metrics.get().increment("http.bytes.in", n);
+      }
+      return n;
+    }
+  }
+}
@@ -143,6 +143,14 @@ public final class Models {
       Instant end,
       boolean recurring) {}
 
+  /**
+   * Changement poussé par le serveur ({@code /api/v1/changes}). {@code intervention} n'est
+   * renseignée que pour une intervention créée ou modifiée ; l'entité {@code reset} demande un
+   * rechargement complet.
+   */
+  public record Change(
+      long version, String entity, String op, String id, Intervention intervention) {}
+
   public record RecurringUnavailability(
       String id,
       String resourceId,
@@ -194,4 +202,19 @@ public final class Models {
       java.util.List<DocLine> lines) {}
 
   public record ResourceType(String id, String name, String iconName) {}
+
+  /**
+   * Vue planning reçue d'un bloc. {@code version} est celle du flux de changements : les
+   * changements de version inférieure ou égale y sont déjà appliqués.
+   */
+  public record PlanningSnapshot(
+      long version,
+      List<Agency> agencies,
+      List<ResourceType> resourceTypes,
+      java.util.Map<String, String> typeIdByResource,
+      List<Resource> resources,
+      List<Client> clients,
+      List<Intervention> interventions,
+      List<Unavailability> unavailabilities,
+      java.util.Map<String, List<String>> interventionTags) {}
 }
@@ -1,10 +1,14 @@
 package com.location.client.core;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.location.client.telemetry.Metrics;
 import com.location.client.ui.uikit.Log;
 import com.location.client.ui.uikit.Notify;
 import java.io.BufferedReader;
@@ -20,10 +24,15 @@ import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 import java.util.function.Supplier;
 import org.apache.hc.client5.http.classic.methods.HttpDelete;
 import org.apache.hc.client5.http.classic.methods.HttpGet;
@@ -33,8 +42,8 @@ import org.apache.hc.client5.http.classic.methods.HttpPut;
 import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpResponse;
-import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.core5.http.ClassicHttpRequest;
+import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.apache.hc.core5.http.ContentType;
 import org.apache.hc.core5.http.HttpEntity;
 import org.apache.hc.core5.http.io.entity.EntityUtils;
@@ -45,14 +54,35 @@ public class RestDataSource implements DataSourceProvider {
   private final Log log = Log.get(RestDataSource.class);
   private final ConcurrentHashMap<String, Long> circuitOpenUntil = new ConcurrentHashMap<>();
   private final ConcurrentHashMap<String, Integer> circuitFailures = new ConcurrentHashMap<>();
+  private final ConcurrentHashMap<String, CachedResponse> conditionalCache = new ConcurrentHashMap<>();
+  /** Derniers tags connus par intervention, rafraîchis à chaque chargement groupé. */
+  private final ConcurrentHashMap<String, java.util.List<String>> tagCache = new ConcurrentHashMap<>();
+  /** Identifiants par requête groupée, pour rester sous la limite serveur et celle des URL. */
+  static final int TAG_BATCH_SIZE = 100;
+  /** Interventions transmises par lot lors d'une lecture en flux. */
+  static final int STREAM_BATCH = 500;
+  /** Serveur sans {@code /planning/snapshot} (404) : on ne le redemande plus. */
+  private volatile boolean snapshotUnsupported;
 
   private static final String DEFAULT_AGENCY_ID =
       System.getenv().getOrDefault("LOCATION_DEFAULT_AGENCY_ID", "A1");
-  private final CloseableHttpClient http = HttpClients.createDefault();
+  private final CloseableHttpClient http =
+      HttpTransport.create(HttpTransport.Settings.fromEnvironment());
+  /**
+   * Incrémenté au début et à la fin de chaque écriture : un GET émis ensuite ne rejoint pas un GET
+   * identique parti avant, qui pourrait ne pas la voir.
+   */
+  private final AtomicLong writeEpoch = new AtomicLong();
+  /** GET identiques en cours (même agence, utilisateur et URL) : un seul appel réseau partagé. */
+  private final InFlight<JsonNode> jsonCalls = new InFlight<>();
+  private final InFlight<List<Models.Intervention>> interventionCalls = new InFlight<>();
   private final ObjectMapper om = new ObjectMapper();
   private final AtomicReference<String> bearer = new AtomicReference<>();
   private final AtomicBoolean pingThreadStarted = new AtomicBoolean();
   private final AtomicLong lastPingEpochMs = new AtomicLong();
+  private final AtomicLong lastEventId = new AtomicLong(-1);
+  private final AtomicReference<ClassicHttpResponse> activeStream = new AtomicReference<>();
+  private final List<Consumer<Models.Change>> changeListeners = new CopyOnWriteArrayList<>();
 
   private static final String DEFAULT_USERNAME =
       System.getenv().getOrDefault("LOCATION_USERNAME", "demo");
@@ -78,6 +108,8 @@ public class RestDataSource implements DataSourceProvider {
     this.password = password != null ? password : DEFAULT_PASSWORD;
     bearer.set(null);
     lastPingEpochMs.set(0L);
+    conditionalCache.clear();
+    tagCache.clear();
   }
 
   public synchronized void setCredentials(String username, String password) {
@@ -253,7 +285,7 @@ public class RestDataSource implements DataSourceProvider {
   public List<Models.Agency> listAgencies() {
     try {
       ensureLogin();
-      JsonNode node = executeForJson(() -> new HttpGet(baseUrl + "/api/v1/agencies"));
+      JsonNode node = executeForJsonConditional(baseUrl + "/api/v1/agencies");
       List<Models.Agency> result = new ArrayList<>();
       if (node.isArray()) {
         for (JsonNode agency : node) {
@@ -338,7 +370,7 @@ public class RestDataSource implements DataSourceProvider {
   public List<Models.Client> listClients() {
     try {
       ensureLogin();
-      JsonNode node = executeForJson(() -> new HttpGet(baseUrl + "/api/v1/clients"));
+      JsonNode node = executeForJsonConditional(baseUrl + "/api/v1/clients");
       List<Models.Client> result = new ArrayList<>();
       if (node.isArray()) {
         for (JsonNode client : node) {
@@ -537,9 +569,19 @@ public class RestDataSource implements DataSourceProvider {
 
   @Override
   public void setCurrentAgencyId(String agencyId) {
+    boolean changed = !java.util.Objects.equals(this.currentAgencyId, agencyId);
     this.currentAgencyId = agencyId;
+    if (changed) {
+      restartChangeStream();
+    }
   }
 
+  /**
+   * Flux SSE de l'agence courante ({@code /api/v1/changes}) : chaque événement, battement de cœur
+   * compris, met à jour le témoin de connexion ; les changements sont transmis aux écouteurs. Après
+   * une coupure, la reconnexion envoie {@code Last-Event-ID} pour ne recevoir que les changements
+   * manqués.
+   */
   public void startPingThread() {
     if (!pingThreadStarted.compareAndSet(false, true)) {
       return;
@@ -550,10 +592,14 @@ public class RestDataSource implements DataSourceProvider {
               while (!Thread.currentThread().isInterrupted()) {
                 try {
                   ensureLogin();
-                  ClassicHttpRequest request =
-                      ClassicRequestBuilder.get(baseUrl + "/api/system/ping")
-                          .addHeader("Accept", "text/event-stream")
-                          .build();
+                  ClassicRequestBuilder builder =
+                      ClassicRequestBuilder.get(baseUrl + "/api/v1/changes")
+                          .addHeader("Accept", "text/event-stream");
+                  long resumeFrom = lastEventId.get();
+                  if (resumeFrom >= 0) {
+                    builder.addHeader("Last-Event-ID", Long.toString(resumeFrom));
+                  }
+                  ClassicHttpRequest request = builder.build();
                   applyHeaders(request);
                   http.execute(
                       request,
@@ -572,23 +618,21 @@ public class RestDataSource implements DataSourceProvider {
                                       StandardCharsets.UTF_8);
                           throw httpError(sc, "SSE HTTP " + sc + (body.isEmpty() ? "" : " → " + body));
                         }
+                        activeStream.set(response);
                         try (BufferedReader reader =
                             new BufferedReader(
                                 new InputStreamReader(
                                     response.getEntity().getContent(), StandardCharsets.UTF_8))) {
-                          String line;
-                          while ((line = reader.readLine()) != null) {
-                            if (line.startsWith("data:")) {
-                              lastPingEpochMs.set(System.currentTimeMillis());
-                            }
-                          }
+                          readEvents(reader);
+                        } finally {
+                          activeStream.set(null);
                         }
                         return null;
                       });
                 } catch (UnauthorizedException e) {
                   bearer.set(null);
                   lastPingEpochMs.set(0L);
-                } catch (IOException e) {
+                } catch (IOException | RuntimeException e) {
                   lastPingEpochMs.set(0L);
                   try {
                     Thread.sleep(1000L);
@@ -604,26 +648,114 @@ public class RestDataSource implements DataSourceProvider {
     t.start();
   }
 
+  /** Écouteurs appelés sur le thread SSE : à eux de repasser sur l'EDT. */
+  public void addChangeListener(Consumer<Models.Change> listener) {
+    if (listener != null) {
+      changeListeners.add(listener);
+    }
+  }
+
+  private void readEvents(BufferedReader reader) throws IOException {
+    String id = null;
+    String event = "message";
+    StringBuilder data = new StringBuilder();
+    String line;
+    while ((line = reader.readLine()) != null) {
+      if (!line.isEmpty()) {
+        int colon = line.indexOf(':');
+        String field = colon < 0 ? line : line.substring(0, colon);
+        String value = colon < 0 ? "" : line.substring(colon + 1);
+        if (value.startsWith(" ")) {
+          value = value.substring(1);
+        }
+        switch (field) {
+          case "id" -> id = value;
+          case "event" -> event = value;
+          case "data" -> data.append(data.length() == 0 ? "" : "\n").append(value);
+          default -> {}
+        }
+        continue;
+      }
+      lastPingEpochMs.set(System.currentTimeMillis());
+      dispatchEvent(id, event, data.toString());
+      id = null;
+      event = "message";
+      data.setLength(0);
+    }
+  }
+
+  private void dispatchEvent(String id, String event, String data) {
+    long version = -1;
+    if (id != null && !id.isBlank()) {
+      try {
+        version = Long.parseLong(id.trim());
+        lastEventId.set(version);
+      } catch (NumberFormatException ignored) {
+        // identifiant non numérique : pas de reprise possible
+      }
+    }
+    Models.Change change = null;
+    if ("reset".equals(event)) {
+      change = new Models.Change(version, "reset", "reset", null, null);
+    } else if ("change".equals(event)) {
+      try {
+        JsonNode node = om.readTree(data);
+        String entity = node.path("entity").asText();
+        String op = node.path("op").asText();
+        JsonNode payload = node.path("data");
+        Models.Intervention intervention =
+            "intervention".equals(entity) && payload.isObject() ? parseIntervention(payload) : null;
+        change = new Models.Change(version, entity, op, node.path("id").asText(), intervention);
+      } catch (IOException | RuntimeException e) {
+        log.warn("Changement illisible: " + e.getMessage());
+        change = new Models.Change(version, "reset", "reset", null, null);
+      }
+    }
+    if (change != null) {
+      for (Consumer<Models.Change> listener : changeListeners) {
+        try {
+          listener.accept(change);
+        } catch (RuntimeException e) {
+          log.warn("Écouteur de changements en erreur: " + e.getMessage());
+        }
+      }
+    }
+  }
+
+  /** Le flux est propre à une agence : il est rouvert, sans reprise, au changement d'agence. */
+  private void restartChangeStream() {
+    lastEventId.set(-1);
+    ClassicHttpResponse stream = activeStream.getAndSet(null);
+    if (stream != null) {
+      try {
+        stream.close();
+      } catch (IOException ignored) {
+        // la boucle de lecture se reconnecte
+      }
+    }
+  }
+
   public long getLastPingEpochMs() {
     return lastPingEpochMs.get();
   }
 
   @Override
   public List<Models.Resource> listResources() {
+    return listResources(null);
+  }
+
+  @Override
+  public List<Models.Resource> listResources(String tags) {
+    String query = String.join(",", DataSourceProvider.normalizeTags(tags));
     try {
       ensureLogin();
-      JsonNode node = executeForJson(() -> new HttpGet(baseUrl + "/api/v1/resources"));
+      JsonNode node =
+          executeForJsonConditional(
+              baseUrl + "/api/v1/resources" + (query.isEmpty() ? "" : "?tags=" + encode(query)));
       List<Models.Resource> result = new ArrayList<>();
       if (node.isArray()) {
         for (JsonNode resource : node) {
-          String id = resource.path("id").asText();
-          String name = resource.path("name").asText();
-          String license = resource.path("licensePlate").isMissingNode() ? null : resource.path("licensePlate").asText(null);
-          Integer color = resource.path("colorRgb").isInt() ? resource.path("colorRgb").asInt() : null;
-          String agencyId = resource.path("agency").path("id").asText();
-          String tags = resource.path("tags").asText(null);
-          Integer capacity = resource.path("capacityTons").isInt() ? resource.path("capacityTons").asInt() : null;
-          result.add(new Models.Resource(id, name, license, color, agencyId, tags, capacity));
+          result.add(parseResource(resource));
         }
       }
       return result;
@@ -632,18 +764,30 @@ public class RestDataSource implements DataSourceProvider {
     }
   }
 
+  /** Agence imbriquée ({@code /resources}) ou simple identifiant ({@code /planning/snapshot}). */
+  private static Models.Resource parseResource(JsonNode resource) {
+    String id = resource.path("id").asText();
+    String name = resource.path("name").asText();
+    String license = resource.path("licensePlate").isMissingNode() ? null : resource.path("licensePlate").asText(null);
+    Integer color = resource.path("colorRgb").isInt() ? resource.path("colorRgb").asInt() : null;
+    String agencyId =
+        resource.has("agencyId")
+            ? resource.path("agencyId").asText()
+            : resource.path("agency").path("id").asText();
+    String tags = resource.path("tags").asText(null);
+    Integer capacity = resource.path("capacityTons").isInt() ? resource.path("capacityTons").asInt() : null;
+    return new Models.Resource(id, name, license, color, agencyId, tags, capacity);
+  }
+
   @Override
   public List<Models.ResourceType> listResourceTypes() {
     try {
       ensureLogin();
-      JsonNode node = executeForJson(() -> new HttpGet(baseUrl + "/api/v1/resource-types"));
+      JsonNode node = executeForJsonConditional(baseUrl + "/api/v1/resource-types");
       List<Models.ResourceType> result = new ArrayList<>();
       if (node.isArray()) {
         for (JsonNode type : node) {
-          String id = type.path("id").asText();
-          String name = type.path("name").asText();
-          String icon = type.path("iconName").asText();
-          result.add(new Models.ResourceType(id, name, icon));
+          result.add(parseResourceType(type));
         }
       }
       return result;
@@ -652,6 +796,13 @@ public class RestDataSource implements DataSourceProvider {
     }
   }
 
+  private static Models.ResourceType parseResourceType(JsonNode type) {
+    String id = type.path("id").asText();
+    String name = type.path("name").asText();
+    String icon = type.path("iconName").asText();
+    return new Models.ResourceType(id, name, icon);
+  }
+
   @Override
   public Models.ResourceType saveResourceType(Models.ResourceType resourceType) {
     if (resourceType == null) {
@@ -701,67 +852,320 @@ public class RestDataSource implements DataSourceProvider {
     }
   }
 
+  /**
+   * {@code GET /api/v1/planning/snapshot} : une seule requête (compressée) pour toute la vue. Un
+   * serveur qui ne connaît pas cette route renvoie 404 : on retombe alors sur les lectures séparées.
+   * La réponse est lue en flux, un élément à la fois : les interventions refusées par {@code keep}
+   * sont écartées dès leur lecture, sans arbre JSON de toute la vue. Les tags reçus rafraîchissent
+   * le cache local. Le serveur exige une période : sans elle, lectures séparées.
+   */
   @Override
-  public List<Models.Intervention> listInterventions(OffsetDateTime from, OffsetDateTime to, String resourceId) {
+  public Models.PlanningSnapshot loadPlanningSnapshot(
+      OffsetDateTime from,
+      OffsetDateTime to,
+      String agencyId,
+      String tags,
+      Predicate<Models.Intervention> keep) {
+    if (snapshotUnsupported || from == null || to == null) {
+      return null;
+    }
+    List<String> params = new ArrayList<>();
+    params.add("from=" + encode(from.toString()));
+    params.add("to=" + encode(to.toString()));
+    if (agencyId != null) {
+      params.add("agency=" + encode(agencyId));
+    }
+    String tagQuery = String.join(",", DataSourceProvider.normalizeTags(tags));
+    if (!tagQuery.isEmpty()) {
+      params.add("tags=" + encode(tagQuery));
+    }
+    String url =
+        baseUrl
+            + "/api/v1/planning/snapshot?"
+            + String.join("&", params);
     try {
       ensureLogin();
-      StringBuilder url = new StringBuilder(baseUrl + "/api/v1/interventions");
-      List<String> params = new ArrayList<>();
-      if (from != null) {
-        params.add("from=" + encode(from.toString()));
-      }
-      if (to != null) {
-        params.add("to=" + encode(to.toString()));
+      Models.PlanningSnapshot snapshot =
+          execute(
+              () -> new HttpGet(url),
+              res -> {
+                int sc = res.getCode();
+                HttpEntity entity = res.getEntity();
+                if (sc == 404) {
+                  EntityUtils.consumeQuietly(entity);
+                  return null;
+                }
+                if (sc < 200 || sc >= 300) {
+                  String body =
+                      entity == null
+                          ? ""
+                          : new String(entity.getContent().readAllBytes(), StandardCharsets.UTF_8);
+                  throw httpError(sc, "HTTP " + sc + " → " + body);
+                }
+                try (InputStream in = entity.getContent()) {
+                  return readPlanningSnapshot(in, keep);
+                }
+              });
+      if (snapshot == null) {
+        snapshotUnsupported = true;
       }
-      if (resourceId != null) {
-        params.add("resourceId=" + encode(resourceId));
+      return snapshot;
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private Models.PlanningSnapshot readPlanningSnapshot(
+      InputStream in, Predicate<Models.Intervention> keep) throws IOException {
+    long version = 0L;
+    List<Models.Agency> agencies = new ArrayList<>();
+    List<Models.ResourceType> types = new ArrayList<>();
+    List<Models.Resource> resources = new ArrayList<>();
+    java.util.Map<String, String> typeIdByResource = new java.util.HashMap<>();
+    List<Models.Client> clients = new ArrayList<>();
+    List<Models.Intervention> interventions = new ArrayList<>();
+    java.util.Set<String> keptIds = new java.util.HashSet<>();
+    boolean interventionsRead = false;
+    List<Models.Unavailability> unavailabilities = new ArrayList<>();
+    java.util.Map<String, List<String>> received = new java.util.HashMap<>();
+    try (JsonParser parser = om.createParser(in)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IOException("Vue planning : objet JSON attendu");
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        parser.nextToken();
+        switch (field) {
+          case "version" -> version = parser.getValueAsLong();
+          case "agencies" -> readArray(parser, node -> agencies.add(parseAgency(node)));
+          case "resourceTypes" -> readArray(parser, node -> types.add(parseResourceType(node)));
+          case "resources" ->
+              readArray(
+                  parser,
+                  node -> {
+                    Models.Resource parsed = parseResource(node);
+                    resources.add(parsed);
+                    typeIdByResource.put(parsed.id(), textOrNull(node, "resourceTypeId"));
+                  });
+          case "clients" ->
+              readArray(
+                  parser,
+                  node -> {
+                    Models.Client parsed = readClient(node);
+                    if (parsed != null) {
+                      clients.add(parsed);
+                    }
+                  });
+          case "interventions" -> {
+            readArray(
+                parser,
+                node -> {
+                  Models.Intervention parsed = parseIntervention(node);
+                  if (keep.test(parsed)) {
+                    interventions.add(parsed);
+                    keptIds.add(parsed.id());
+                  }
+                });
+            interventionsRead = true;
+          }
+          case "unavailabilities" ->
+              readArray(parser, node -> unavailabilities.add(parseUnavailability(node)));
+          case "tags" -> readTags(parser, interventionsRead ? keptIds : null, received);
+          default -> parser.skipChildren();
+        }
       }
-      if (!params.isEmpty()) {
-        url.append('?').append(String.join("&", params));
+    }
+    java.util.Map<String, List<String>> tags = new java.util.HashMap<>();
+    for (Models.Intervention intervention : interventions) {
+      List<String> copy = List.copyOf(received.getOrDefault(intervention.id(), List.of()));
+      tags.put(intervention.id(), copy);
+      tagCache.put(intervention.id(), copy);
+    }
+    return new Models.PlanningSnapshot(
+        version,
+        agencies,
+        types,
+        typeIdByResource,
+        resources,
+        clients,
+        interventions,
+        unavailabilities,
+        tags);
+  }
+
+  /** Lit un tableau élément par élément ; seul l'élément courant est matérialisé en arbre. */
+  private static void readArray(JsonParser parser, Consumer<JsonNode> element) throws IOException {
+    if (parser.currentToken() != JsonToken.START_ARRAY) {
+      parser.skipChildren();
+      return;
+    }
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      element.accept(parser.readValueAsTree());
+    }
+  }
+
+  /** Tags par intervention ; ceux des interventions déjà écartées ({@code only}) sont sautés. */
+  private static void readTags(
+      JsonParser parser, java.util.Set<String> only, java.util.Map<String, List<String>> into)
+      throws IOException {
+    if (parser.currentToken() != JsonToken.START_OBJECT) {
+      parser.skipChildren();
+      return;
+    }
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String id = parser.currentName();
+      if (parser.nextToken() != JsonToken.START_ARRAY || (only != null && !only.contains(id))) {
+        parser.skipChildren();
+        continue;
       }
-      JsonNode node = executeForJson(() -> new HttpGet(url.toString()));
-      List<Models.Intervention> result = new ArrayList<>();
-      if (node.isArray()) {
-        for (JsonNode intervention : node) {
-          String id = intervention.path("id").asText();
-          String title = intervention.path("title").asText();
-          String agency = intervention.path("agencyId").asText();
-          List<String> resources = readResourceIds(intervention);
-          String client = intervention.path("clientId").asText();
-          JsonNode driverNode = intervention.path("driverId");
-          String driver = driverNode.isMissingNode() || driverNode.isNull() ? null : driverNode.asText();
-          java.time.Instant start = java.time.Instant.parse(intervention.path("start").asText());
-          java.time.Instant end = java.time.Instant.parse(intervention.path("end").asText());
-          JsonNode notesNode = intervention.path("notes");
-          String notes = notesNode.isMissingNode() || notesNode.isNull() ? null : notesNode.asText();
-          JsonNode internalNotesNode = intervention.path("internalNotes");
-          String internalNotes =
-              internalNotesNode.isMissingNode() || internalNotesNode.isNull()
-                  ? null
-                  : internalNotesNode.asText();
-          JsonNode priceNode = intervention.path("price");
-          Double price = priceNode.isMissingNode() || priceNode.isNull() ? null : priceNode.asDouble();
-          result.add(
-              new Models.Intervention(
-                  id,
-                  agency,
-                  resources,
-                  client,
-                  driver,
-                  title,
-                  start,
-                  end,
-                  notes,
-                  internalNotes,
-                  price));
-        }
+      List<String> values = new ArrayList<>();
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        values.add(parser.getValueAsString());
       }
-      return result;
+      into.put(id, values);
+    }
+  }
+
+  @Override
+  public List<Models.Intervention> listInterventions(OffsetDateTime from, OffsetDateTime to, String resourceId) {
+    String key =
+        "interventions\n" + currentAgencyId + "\n" + username + "\n" + from + "\n" + to + "\n"
+            + resourceId;
+    try {
+      List<Models.Intervention> shared =
+          interventionCalls.coalesce(
+              key,
+              () -> {
+                List<Models.Intervention> result = new ArrayList<>();
+                streamInterventions(from, to, resourceId, result::addAll);
+                return List.copyOf(result);
+              });
+      return new ArrayList<>(shared);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Lit la plage en NDJSON ({@code Accept: application/x-ndjson}), un objet à la fois : ni l'arbre
+   * JSON complet ni la réponse brute ne sont gardés en mémoire. Les interventions sont transmises
+   * par lots de {@link #STREAM_BATCH} dans l'ordre du serveur (début, puis identifiant) ; si une
+   * coupure provoque une nouvelle tentative, les lignes déjà transmises sont sautées. Un tableau
+   * JSON classique est accepté aussi.
+   */
+  @Override
+  public void streamInterventions(
+      OffsetDateTime from,
+      OffsetDateTime to,
+      String resourceId,
+      Consumer<List<Models.Intervention>> batches) {
+    StringBuilder url = new StringBuilder(baseUrl + "/api/v1/interventions");
+    List<String> params = new ArrayList<>();
+    if (from != null) {
+      params.add("from=" + encode(from.toString()));
+    }
+    if (to != null) {
+      params.add("to=" + encode(to.toString()));
+    }
+    if (resourceId != null) {
+      params.add("resourceId=" + encode(resourceId));
+    }
+    if (!params.isEmpty()) {
+      url.append('?').append(String.join("&", params));
+    }
+    AtomicReference<Models.Intervention> lastDelivered = new AtomicReference<>();
+    AtomicReference<HttpGet> current = new AtomicReference<>();
+    try {
+      ensureLogin();
+      execute(
+          () -> {
+            HttpGet get = new HttpGet(url.toString());
+            get.addHeader("Accept", "application/x-ndjson, application/json");
+            current.set(get);
+            return get;
+          },
+          res -> {
+            int sc = res.getCode();
+            HttpEntity entity = res.getEntity();
+            if (sc < 200 || sc >= 300) {
+              String body =
+                  entity == null
+                      ? ""
+                      : new String(entity.getContent().readAllBytes(), StandardCharsets.UTF_8);
+              throw httpError(sc, "HTTP " + sc + " → " + body);
+            }
+            if (entity == null) {
+              return null;
+            }
+            Models.Intervention resumeAfter = lastDelivered.get();
+            List<Models.Intervention> batch = new ArrayList<>(STREAM_BATCH);
+            try (InputStream in = entity.getContent();
+                MappingIterator<JsonNode> rows = om.readerFor(JsonNode.class).readValues(in)) {
+              while (rows.hasNextValue()) {
+                Models.Intervention parsed = parseIntervention(rows.nextValue());
+                if (resumeAfter != null && !isAfter(parsed, resumeAfter)) {
+                  continue;
+                }
+                batch.add(parsed);
+                if (batch.size() == STREAM_BATCH) {
+                  deliver(batches, batch, current.get());
+                  lastDelivered.set(parsed);
+                  batch = new ArrayList<>(STREAM_BATCH);
+                }
+              }
+            }
+            if (!batch.isEmpty()) {
+              deliver(batches, batch, current.get());
+              lastDelivered.set(batch.get(batch.size() - 1));
+            }
+            return null;
+          });
     } catch (IOException e) {
       throw new RuntimeException(e);
     }
   }
 
+  /** Un consommateur qui abandonne coupe la connexion plutôt que de lire la suite du flux. */
+  private static void deliver(
+      Consumer<List<Models.Intervention>> batches,
+      List<Models.Intervention> batch,
+      HttpGet request) {
+    try {
+      batches.accept(batch);
+    } catch (java.util.concurrent.CancellationException e) {
+      request.cancel();
+      throw e;
+    }
+  }
+
+  private static boolean isAfter(Models.Intervention row, Models.Intervention last) {
+    int byStart = row.start().compareTo(last.start());
+    return byStart > 0 || (byStart == 0 && row.id().compareTo(last.id()) > 0);
+  }
+
+  private Models.Intervention parseIntervention(JsonNode intervention) {
+    String id = intervention.path("id").asText();
+    String title = intervention.path("title").asText();
+    String agency = intervention.path("agencyId").asText();
+    List<String> resources = readResourceIds(intervention);
+    String client = intervention.path("clientId").asText();
+    JsonNode driverNode = intervention.path("driverId");
+    String driver = driverNode.isMissingNode() || driverNode.isNull() ? null : driverNode.asText();
+    java.time.Instant start = java.time.Instant.parse(intervention.path("start").asText());
+    java.time.Instant end = java.time.Instant.parse(intervention.path("end").asText());
+    JsonNode notesNode = intervention.path("notes");
+    String notes = notesNode.isMissingNode() || notesNode.isNull() ? null : notesNode.asText();
+    JsonNode internalNotesNode = intervention.path("internalNotes");
+    String internalNotes =
+        internalNotesNode.isMissingNode() || internalNotesNode.isNull()
+            ? null
+            : internalNotesNode.asText();
+    JsonNode priceNode = intervention.path("price");
+    Double price = priceNode.isMissingNode() || priceNode.isNull() ? null : priceNode.asDouble();
+    return new Models.Intervention(
+        id, agency, resources, client, driver, title, start, end, notes, internalNotes, price);
+  }
+
   @Override
   public Models.Intervention createIntervention(Models.Intervention intervention) {
     try {
@@ -770,49 +1174,7 @@ public class RestDataSource implements DataSourceProvider {
           executeForJson(
               () -> {
                 HttpPost post = new HttpPost(baseUrl + "/api/v1/interventions");
-                ObjectNode payload = om.createObjectNode();
-                payload.put("agencyId", intervention.agencyId());
-                String primaryResource = intervention.resourceId();
-                if (primaryResource != null && !primaryResource.isBlank()) {
-                  payload.put("resourceId", primaryResource);
-                } else {
-                  payload.putNull("resourceId");
-                }
-                if (intervention.resourceIds() != null && !intervention.resourceIds().isEmpty()) {
-                  ArrayNode array = om.createArrayNode();
-                  for (String rid : intervention.resourceIds()) {
-                    if (rid != null && !rid.isBlank()) {
-                      array.add(rid);
-                    }
-                  }
-                  payload.set("resourceIds", array);
-                }
-                payload.put("clientId", intervention.clientId());
-                if (intervention.driverId() != null) {
-                  payload.put("driverId", intervention.driverId());
-                } else {
-                  payload.putNull("driverId");
-                }
-                payload.put("title", intervention.title());
-                payload.put(
-                    "start", OffsetDateTime.ofInstant(intervention.start(), ZoneOffset.UTC).toString());
-                payload.put(
-                    "end", OffsetDateTime.ofInstant(intervention.end(), ZoneOffset.UTC).toString());
-                if (intervention.notes() != null) {
-                  payload.put("notes", intervention.notes());
-                } else {
-                  payload.putNull("notes");
-                }
-                if (intervention.internalNotes() != null) {
-                  payload.put("internalNotes", intervention.internalNotes());
-                } else {
-                  payload.putNull("internalNotes");
-                }
-                if (intervention.price() != null) {
-                  payload.put("price", intervention.price());
-                } else {
-                  payload.putNull("price");
-                }
+                ObjectNode payload = interventionPayload(intervention);
                 post.setEntity(new StringEntity(payload.toString(), ContentType.APPLICATION_JSON));
                 return post;
               });
@@ -844,6 +1206,76 @@ public class RestDataSource implements DataSourceProvider {
     }
   }
 
+  /** Un seul appel à {@code POST /api/v1/interventions/import} pour tout le lot. */
+  @Override
+  public int importInterventions(List<Models.Intervention> interventions) {
+    if (interventions == null || interventions.isEmpty()) {
+      return 0;
+    }
+    try {
+      ensureLogin();
+      JsonNode report =
+          executeForJson(
+              () -> {
+                HttpPost post = new HttpPost(baseUrl + "/api/v1/interventions/import");
+                ArrayNode rows = om.createArrayNode();
+                for (Models.Intervention intervention : interventions) {
+                  rows.add(interventionPayload(intervention));
+                }
+                post.setEntity(new StringEntity(rows.toString(), ContentType.APPLICATION_JSON));
+                return post;
+              });
+      return report.path("created").asInt();
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private ObjectNode interventionPayload(Models.Intervention intervention) {
+    ObjectNode payload = om.createObjectNode();
+    payload.put("agencyId", intervention.agencyId());
+    String primaryResource = intervention.resourceId();
+    if (primaryResource != null && !primaryResource.isBlank()) {
+      payload.put("resourceId", primaryResource);
+    } else {
+      payload.putNull("resourceId");
+    }
+    if (intervention.resourceIds() != null && !intervention.resourceIds().isEmpty()) {
+      ArrayNode array = om.createArrayNode();
+      for (String rid : intervention.resourceIds()) {
+        if (rid != null && !rid.isBlank()) {
+          array.add(rid);
+        }
+      }
+      payload.set("resourceIds", array);
+    }
+    payload.put("clientId", intervention.clientId());
+    if (intervention.driverId() != null) {
+      payload.put("driverId", intervention.driverId());
+    } else {
+      payload.putNull("driverId");
+    }
+    payload.put("title", intervention.title());
+    payload.put("start", OffsetDateTime.ofInstant(intervention.start(), ZoneOffset.UTC).toString());
+    payload.put("end", OffsetDateTime.ofInstant(intervention.end(), ZoneOffset.UTC).toString());
+    if (intervention.notes() != null) {
+      payload.put("notes", intervention.notes());
+    } else {
+      payload.putNull("notes");
+    }
+    if (intervention.internalNotes() != null) {
+      payload.put("internalNotes", intervention.internalNotes());
+    } else {
+      payload.putNull("internalNotes");
+    }
+    if (intervention.price() != null) {
+      payload.put("price", intervention.price());
+    } else {
+      payload.putNull("price");
+    }
+    return payload;
+  }
+
   @Override
   public Models.Intervention updateIntervention(Models.Intervention intervention) {
     try {
@@ -1077,13 +1509,7 @@ public class RestDataSource implements DataSourceProvider {
       List<Models.Unavailability> result = new ArrayList<>();
       if (node.isArray()) {
         for (JsonNode unav : node) {
-          String id = unav.path("id").asText();
-          String rid = unav.path("resourceId").asText();
-          String reason = unav.path("reason").asText();
-          java.time.Instant start = java.time.Instant.parse(unav.path("start").asText());
-          java.time.Instant end = java.time.Instant.parse(unav.path("end").asText());
-          boolean recurring = unav.path("recurring").asBoolean(false);
-          result.add(new Models.Unavailability(id, rid, reason, start, end, recurring));
+          result.add(parseUnavailability(unav));
         }
       }
       return result;
@@ -1092,6 +1518,16 @@ public class RestDataSource implements DataSourceProvider {
     }
   }
 
+  private static Models.Unavailability parseUnavailability(JsonNode unav) {
+    String id = unav.path("id").asText();
+    String rid = unav.path("resourceId").asText();
+    String reason = unav.path("reason").asText();
+    java.time.Instant start = java.time.Instant.parse(unav.path("start").asText());
+    java.time.Instant end = java.time.Instant.parse(unav.path("end").asText());
+    boolean recurring = unav.path("recurring").asBoolean(false);
+    return new Models.Unavailability(id, rid, reason, start, end, recurring);
+  }
+
   @Override
   public Models.Unavailability createUnavailability(Models.Unavailability unavailability) {
     try {
@@ -1614,7 +2050,7 @@ public class RestDataSource implements DataSourceProvider {
     try {
       ensureLogin();
       JsonNode node =
-          executeForJson(() -> new HttpGet(baseUrl + "/api/v1/templates/" + encodeSegment(docType)));
+          executeForJsonConditional(baseUrl + "/api/v1/templates/" + encodeSegment(docType));
       if (node.isNull() || node.isMissingNode()) {
         return new Models.EmailTemplate(docType, "", "");
       }
@@ -1652,8 +2088,7 @@ public class RestDataSource implements DataSourceProvider {
     try {
       ensureLogin();
       JsonNode node =
-          executeForJson(
-              () -> new HttpGet(baseUrl + "/api/v1/templates/doc/" + encodeSegment(docType)));
+          executeForJsonConditional(baseUrl + "/api/v1/templates/doc/" + encodeSegment(docType));
       if (node.isNull() || node.isMissingNode()) {
         return new Models.DocTemplate("");
       }
@@ -1691,7 +2126,7 @@ public class RestDataSource implements DataSourceProvider {
       if (kind != null) {
         url.append("?kind=").append(encode(kind.name()));
       }
-      JsonNode node = executeForJson(() -> new HttpGet(url.toString()));
+      JsonNode node = executeForJsonConditional(url.toString());
       if (node == null || node.isNull() || !node.isArray()) {
         return java.util.List.of();
       }
@@ -2003,7 +2438,103 @@ public class RestDataSource implements DataSourceProvider {
     }
   }
 
+  /**
+   * GET revalidé : la dernière réponse (par agence, utilisateur et URL) est renvoyée telle quelle
+   * quand le serveur répond 304 à {@code If-None-Match}, sans retransfert ni reparsing.
+   */
+  private JsonNode executeForJsonConditional(String url) throws IOException {
+    String key = currentAgencyId + "\n" + username + "\n" + url;
+    return jsonCalls.coalesce(key, () -> revalidate(key, url));
+  }
+
+  private JsonNode revalidate(String key, String url) throws IOException {
+    CachedResponse cached = conditionalCache.get(key);
+    return execute(
+        () -> {
+          HttpGet get = new HttpGet(url);
+          if (cached != null) {
+            get.addHeader("If-None-Match", cached.etag());
+          }
+          return get;
+        },
+        res -> {
+          int sc = res.getCode();
+          if (sc == 304 && cached != null) {
+            EntityUtils.consumeQuietly(res.getEntity());
+            Metrics.get().increment("http.cache.hit");
+            return cached.body();
+          }
+          HttpEntity entity = res.getEntity();
+          String body =
+              entity == null
+                  ? ""
+                  : new String(entity.getContent().readAllBytes(), StandardCharsets.UTF_8);
+          if (sc < 200 || sc >= 300) {
+            throw httpError(sc, "HTTP " + sc + " → " + body);
+          }
+          JsonNode node = body.isEmpty() ? om.nullNode() : om.readTree(body);
+          org.apache.hc.core5.http.Header etag = res.getFirstHeader("ETag");
+          if (etag != null && etag.getValue() != null && !etag.getValue().isBlank()) {
+            conditionalCache.put(key, new CachedResponse(etag.getValue(), node));
+          } else {
+            conditionalCache.remove(key);
+          }
+          Metrics.get().increment("http.cache.miss");
+          return node;
+        });
+  }
+
+  private record CachedResponse(String etag, JsonNode body) {}
+
   private JsonNode executeForJson(Supplier<HttpUriRequestBase> supplier) throws IOException {
+    HttpUriRequestBase probe = supplier.get();
+    if (!"GET".equals(probe.getMethod())) {
+      return fetchJson(supplier);
+    }
+    String key = currentAgencyId + "\n" + username + "\n" + probe.getRequestUri();
+    return jsonCalls.coalesce(key, () -> fetchJson(supplier));
+  }
+
+  /** Appels en cours d'un même type de résultat, partagés par clé et par époque d'écriture. */
+  private final class InFlight<T> {
+    private final ConcurrentHashMap<String, CompletableFuture<T>> calls = new ConcurrentHashMap<>();
+
+    /**
+     * Exécute {@code call}, sauf si un appel de même clé est déjà en cours depuis la dernière
+     * écriture : on attend alors son résultat (ou son erreur) au lieu de refaire la requête.
+     */
+    T coalesce(String key, IoSupplier<T> call) throws IOException {
+      String shared = writeEpoch.get() + "\n" + key;
+      CompletableFuture<T> mine = new CompletableFuture<>();
+      CompletableFuture<T> running = calls.putIfAbsent(shared, mine);
+      if (running != null) {
+        Metrics.get().increment("http.coalesced");
+        try {
+          return running.join();
+        } catch (CompletionException e) {
+          if (e.getCause() instanceof IOException io) {
+            throw io;
+          }
+          if (e.getCause() instanceof RuntimeException re) {
+            throw re;
+          }
+          throw e;
+        }
+      }
+      try {
+        T value = call.get();
+        mine.complete(value);
+        return value;
+      } catch (Throwable e) {
+        mine.completeExceptionally(e);
+        throw e;
+      } finally {
+        calls.remove(shared, mine);
+      }
+    }
+  }
+
+  private JsonNode fetchJson(Supplier<HttpUriRequestBase> supplier) throws IOException {
     return execute(
         supplier,
         res -> {
@@ -2029,15 +2560,28 @@ public class RestDataSource implements DataSourceProvider {
                 () -> {
                   HttpUriRequestBase request = supplier.get();
                   applyHeaders(request);
-                  return http.execute(
-                      request,
-                      response -> {
-                        if (response.getCode() == 401) {
-                          EntityUtils.consumeQuietly(response.getEntity());
-                          throw new UnauthorizedException();
-                        }
-                        return handler.handle(response);
-                      });
+                  boolean write = !"GET".equals(request.getMethod());
+                  if (write) {
+                    writeEpoch.incrementAndGet();
+                  }
+                  long started = System.nanoTime();
+                  try {
+                    return http.execute(
+                        request,
+                        response -> {
+                          if (response.getCode() == 401) {
+                            EntityUtils.consumeQuietly(response.getEntity());
+                            throw new UnauthorizedException();
+                          }
+                          return handler.handle(response);
+                        });
+                  } finally {
+                    if (write) {
+                      writeEpoch.incrementAndGet();
+                    }
+                    Metrics.get()
+                        .observe("http.request.us", (System.nanoTime() - started) / 1_000L);
+                  }
                 }));
   }
 
@@ -2070,6 +2614,8 @@ public class RestDataSource implements DataSourceProvider {
       throw e;
     } catch (IOException e) {
       throw e;
+    } catch (java.util.concurrent.CancellationException e) {
+      throw e;
     } catch (Exception e) {
       if (e instanceof IOException ioe) {
         throw ioe;
@@ -2093,6 +2639,9 @@ public class RestDataSource implements DataSourceProvider {
         T result = call.call();
         circuitFailures.remove(key);
         return result;
+      } catch (java.util.concurrent.CancellationException e) {
+        // abandon demandé par l'appelant : ni nouvelle tentative ni échec réseau
+        throw e;
       } catch (Exception e) {
         last = e;
         int fail = circuitFailures.merge(key, 1, Integer::sum);
@@ -2228,6 +2777,10 @@ public class RestDataSource implements DataSourceProvider {
     if (interventionId == null || interventionId.isBlank()) {
       return java.util.List.of();
     }
+    java.util.List<String> cached = tagCache.get(interventionId);
+    if (cached != null) {
+      return cached;
+    }
     String url = baseUrl + "/api/v1/interventions/" + encodeSegment(interventionId) + "/tags";
     HttpGet get = new HttpGet(url);
     applyHeaders(get);
@@ -2243,13 +2796,57 @@ public class RestDataSource implements DataSourceProvider {
       try (InputStream in = entity.getContent()) {
         java.util.List<String> tags =
             om.readValue(in, new TypeReference<java.util.List<String>>() {});
-        return tags == null ? java.util.List.of() : java.util.List.copyOf(tags);
+        java.util.List<String> copy = tags == null ? java.util.List.of() : java.util.List.copyOf(tags);
+        tagCache.put(interventionId, copy);
+        return copy;
       }
     } catch (IOException ex) {
       return java.util.List.of();
     }
   }
 
+  /**
+   * Tags de plusieurs interventions via {@code GET /interventions/tags?ids=...}, par lots de
+   * {@link #TAG_BATCH_SIZE}. Les réponses rafraîchissent le cache local ; un lot en échec est servi
+   * depuis ce cache quand c'est possible.
+   */
+  @Override
+  public java.util.Map<String, java.util.List<String>> getInterventionTags(
+      java.util.Collection<String> interventionIds) {
+    java.util.List<String> ids =
+        interventionIds.stream()
+            .filter(id -> id != null && !id.isBlank())
+            .distinct()
+            .toList();
+    java.util.Map<String, java.util.List<String>> out = new java.util.LinkedHashMap<>();
+    for (int from = 0; from < ids.size(); from += TAG_BATCH_SIZE) {
+      java.util.List<String> batch = ids.subList(from, Math.min(ids.size(), from + TAG_BATCH_SIZE));
+      String url =
+          baseUrl + "/api/v1/interventions/tags?ids=" + encode(String.join(",", batch));
+      try {
+        JsonNode node = executeForJson(() -> new HttpGet(url));
+        for (String id : batch) {
+          java.util.List<String> tags = new ArrayList<>();
+          JsonNode values = node == null ? null : node.get(id);
+          if (values != null && values.isArray()) {
+            values.forEach(v -> tags.add(v.asText()));
+          }
+          java.util.List<String> copy = java.util.List.copyOf(tags);
+          tagCache.put(id, copy);
+          out.put(id, copy);
+        }
+      } catch (IOException | RuntimeException ex) {
+        for (String id : batch) {
+          java.util.List<String> cached = tagCache.get(id);
+          if (cached != null) {
+            out.put(id, cached);
+          }
+        }
+      }
+    }
+    return out;
+  }
+
   @Override
   public void setInterventionTags(String interventionId, java.util.List<String> tags) {
     if (interventionId == null || interventionId.isBlank()) {
@@ -2263,10 +2860,19 @@ public class RestDataSource implements DataSourceProvider {
     try {
       String body = om.writeValueAsString(payload);
       post.setEntity(new StringEntity(body, ContentType.APPLICATION_JSON));
+      writeEpoch.incrementAndGet();
       try (CloseableHttpResponse response = http.execute(post)) {
         EntityUtils.consumeQuietly(response.getEntity());
+        if (response.getCode() / 100 == 2) {
+          tagCache.put(interventionId, java.util.List.copyOf(payload));
+        } else {
+          tagCache.remove(interventionId);
+        }
+      } finally {
+        writeEpoch.incrementAndGet();
       }
     } catch (IOException ex) {
+      tagCache.remove(interventionId);
       // ignoré : l'API REST est best effort sur les tags
     }
   }
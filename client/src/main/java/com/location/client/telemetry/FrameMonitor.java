@@ -1,12 +1,15 @@
 package com.location.client.telemetry;
 
-import java.util.ArrayDeque;
-import java.util.Arrays;
-import java.util.Deque;
+import java.time.Duration;
 import javax.swing.Timer;
 
-/** D3 — Surveille l'EDT : frame-time p95 et freezes (lag EDT > seuil). */
+/**
+ * D3 — Surveille l'EDT : frame-time p95/p99 sur la dernière minute et freezes (lag EDT > seuil).
+ * Les durées de frame sont observées dans {@link Metrics} sous {@value #FRAME_KEY} (µs).
+ */
 public final class FrameMonitor {
+  static final String FRAME_KEY = "ux.frame.us";
+  private static final Duration WINDOW = Duration.ofMinutes(1);
   private static final FrameMonitor INSTANCE = new FrameMonitor();
 
   public static FrameMonitor get() {
@@ -16,9 +19,7 @@ public final class FrameMonitor {
   private final Metrics metrics = Metrics.get();
   private final Timer heartbeat;
   private long lastBeat = System.nanoTime();
-  private final Deque<Double> framesMs = new ArrayDeque<>();
   private int freezes = 0;
-  private final int window = 200;
   private final double freezeThresholdMs = 120.0;
 
   private FrameMonitor() {
@@ -50,29 +51,24 @@ public final class FrameMonitor {
   }
 
   public void observeFrame(double ms) {
-    framesMs.addLast(ms);
-    while (framesMs.size() > window) {
-      framesMs.removeFirst();
-    }
+    metrics.observe(FRAME_KEY, Math.round(ms * 1_000.0));
   }
 
   public double p95FrameMs() {
-    if (framesMs.isEmpty()) {
-      return 0.0;
-    }
-    Double[] values = framesMs.toArray(new Double[0]);
-    Arrays.sort(values);
-    int index = (int) Math.round((values.length - 1) * 0.95);
-    index = Math.max(0, Math.min(values.length - 1, index));
-    return values[index];
+    return metrics.latency(FRAME_KEY, WINDOW).p95() / 1_000.0;
+  }
+
+  public double p99FrameMs() {
+    return metrics.latency(FRAME_KEY, WINDOW).p99() / 1_000.0;
   }
 
   public int freezeCount() {
     return freezes;
   }
 
+  /** Nombre de frames mesurées sur la fenêtre glissante. */
   public int windowSize() {
-    return window;
+    return (int) metrics.latency(FRAME_KEY, WINDOW).count();
   }
 
   public int freezeThresholdMs() {
@@ -0,0 +1,204 @@
+package com.location.client.telemetry;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Histogramme de latences à mémoire fixe et sans verrou, façon HDR : les valeurs (entiers
+ * positifs, dans l'unité de l'appelant) tombent dans des seaux logarithmiques découpés en {@value
+ * #SUB_BUCKETS} sous-seaux, soit une erreur relative d'au plus 1/{@value #SUB_BUCKETS} sur les
+ * percentiles. Les valeurs sous {@value #SUB_BUCKETS} sont exactes.
+ *
+ * <p>En plus du cumul depuis le démarrage, une fenêtre glissante de {@code slots} tranches de
+ * {@code slotMillis} permet de lire les percentiles récents : une tranche périmée est remise à
+ * zéro par le premier enregistrement qui la réutilise.
+ */
+public final class LatencyHistogram {
+  static final int SUB_BITS = 4;
+  static final int SUB_BUCKETS = 1 << SUB_BITS;
+  /** Couvre jusqu'à 2^44 unités (plus de 200 jours en microsecondes). */
+  private static final int MAGNITUDES = 41;
+  static final int BUCKETS = MAGNITUDES * SUB_BUCKETS;
+
+  private static final int DEFAULT_SLOTS = 6;
+  private static final long DEFAULT_SLOT_MILLIS = 10_000L;
+
+  private final Window total = new Window();
+  private final Window[] slots;
+  private final AtomicLongArray slotEpochs;
+  private final long slotMillis;
+  private final LongSupplier clock;
+
+  /** Cumul plus fenêtre glissante d'une minute (six tranches de dix secondes). */
+  public LatencyHistogram() {
+    this(DEFAULT_SLOTS, DEFAULT_SLOT_MILLIS, System::currentTimeMillis);
+  }
+
+  LatencyHistogram(int slots, long slotMillis, LongSupplier clock) {
+    this.slots = new Window[Math.max(1, slots)];
+    for (int i = 0; i < this.slots.length; i++) {
+      this.slots[i] = new Window();
+    }
+    this.slotEpochs = new AtomicLongArray(this.slots.length);
+    for (int i = 0; i < this.slots.length; i++) {
+      slotEpochs.set(i, Long.MIN_VALUE);
+    }
+    this.slotMillis = Math.max(1L, slotMillis);
+    this.clock = clock;
+  }
+
+  public void record(long value) {
+    long v = Math.max(0L, value);
+    int bucket = bucketOf(v);
+    total.add(bucket, v);
+    long epoch = clock.getAsLong() / slotMillis;
+    int index = (int) Math.floorMod(epoch, (long) slots.length);
+    long seen = slotEpochs.get(index);
+    if (seen < epoch && slotEpochs.compareAndSet(index, seen, epoch)) {
+      slots[index].clear();
+    }
+    if (slotEpochs.get(index) == epoch) {
+      slots[index].add(bucket, v);
+    }
+  }
+
+  /** Tout ce qui a été enregistré depuis la création. */
+  public Snapshot snapshot() {
+    return total.snapshot();
+  }
+
+  /** Enregistrements des dernières tranches couvrant au plus {@code window}. */
+  public Snapshot snapshot(Duration window) {
+    long epoch = clock.getAsLong() / slotMillis;
+    long span =
+        Math.min(slots.length, Math.max(1L, (window.toMillis() + slotMillis - 1) / slotMillis));
+    long[] counts = new long[BUCKETS];
+    long count = 0;
+    long sum = 0;
+    long max = 0;
+    for (int i = 0; i < slots.length; i++) {
+      long slotEpoch = slotEpochs.get(i);
+      if (slotEpoch > epoch - span && slotEpoch <= epoch) {
+        Window w = slots[i];
+        for (int b = 0; b < BUCKETS; b++) {
+          long c = w.counts.get(b);
+          counts[b] += c;
+          count += c;
+        }
+        sum += w.sum.get();
+        max = Math.max(max, w.max.get());
+      }
+    }
+    return new Snapshot(counts, count, sum, max);
+  }
+
+  static int bucketOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int magnitude = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS + 1;
+    if (magnitude >= MAGNITUDES) {
+      return BUCKETS - 1;
+    }
+    int sub = (int) (value >>> (magnitude - 1)) & (SUB_BUCKETS - 1);
+    return magnitude * SUB_BUCKETS + sub;
+  }
+
+  /** Plus grande valeur rangée dans le seau {@code bucket}. */
+  static long upperBound(int bucket) {
+    int magnitude = bucket / SUB_BUCKETS;
+    int sub = bucket % SUB_BUCKETS;
+    if (magnitude == 0) {
+      return sub;
+    }
+    long lower = ((long) (SUB_BUCKETS | sub)) << (magnitude - 1);
+    return lower + (1L << (magnitude - 1)) - 1;
+  }
+
+  private static final class Window {
+    final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    final AtomicLong sum = new AtomicLong();
+    final AtomicLong max = new AtomicLong();
+
+    void add(int bucket, long value) {
+      counts.incrementAndGet(bucket);
+      sum.addAndGet(value);
+      max.accumulateAndGet(value, Math::max);
+    }
+
+    void clear() {
+      for (int b = 0; b < BUCKETS; b++) {
+        counts.set(b, 0L);
+      }
+      sum.set(0L);
+      max.set(0L);
+    }
+
+    Snapshot snapshot() {
+      long[] copy = new long[BUCKETS];
+      long count = 0;
+      for (int b = 0; b < BUCKETS; b++) {
+        copy[b] = counts.get(b);
+        count += copy[b];
+      }
+      return new Snapshot(copy, count, sum.get(), max.get());
+    }
+  }
+
+  /** Vue figée d'un histogramme ; les percentiles sont des bornes hautes de seau. */
+  public static final class Snapshot {
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    Snapshot(long[] counts, long count, long sum, long max) {
+      this.counts = counts;
+      this.count = count;
+      this.sum = sum;
+      this.max = max;
+    }
+
+    public long count() {
+      return count;
+    }
+
+    public long max() {
+      return max;
+    }
+
+    public double mean() {
+      return count == 0 ? 0d : sum / (double) count;
+    }
+
+    /** Valeur sous laquelle tombe la fraction {@code quantile} (entre 0 et 1) des mesures. */
+    public long percentile(double quantile) {
+      if (count == 0) {
+        return 0L;
+      }
+      long rank = Math.max(1L, (long) Math.ceil(Math.min(1d, Math.max(0d, quantile)) * count));
+      long seen = 0;
+      for (int b = 0; b < counts.length; b++) {
+        seen += counts[b];
+        if (seen >= rank) {
+          return Math.min(upperBound(b), max);
+        }
+      }
+      return max;
+    }
+
+    public long p50() {
+      return percentile(0.50);
+    }
+
+    public long p95() {
+      return percentile(0.95);
+    }
+
+    public long p99() {
+      return percentile(0.99);
+    }
+  }
+}
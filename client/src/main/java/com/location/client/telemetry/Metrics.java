@@ -1,5 +1,6 @@
 package com.location.client.telemetry;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
@@ -7,6 +8,8 @@ import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -19,6 +22,7 @@ import java.util.function.Consumer;
 public final class Metrics {
   private static final Metrics INSTANCE = new Metrics();
   private static final int MAX_EVENTS = 400;
+  private static final LatencyHistogram EMPTY = new LatencyHistogram();
 
   public static Metrics get() {
     return INSTANCE;
@@ -70,6 +74,30 @@ public final class Metrics {
     Stats stats = histograms.computeIfAbsent(key, k -> new Stats());
     stats.total.addAndGet(value);
     stats.count.incrementAndGet();
+    stats.latency.record(value);
+  }
+
+  /** Distribution de toutes les valeurs observées pour {@code key}, dans l'unité de la clé. */
+  public LatencyHistogram.Snapshot latency(String key) {
+    Stats stats = key == null ? null : histograms.get(key);
+    return stats == null ? EMPTY.snapshot() : stats.latency.snapshot();
+  }
+
+  /** Distribution des valeurs observées récemment (au plus une minute). */
+  public LatencyHistogram.Snapshot latency(String key, Duration window) {
+    Stats stats = key == null ? null : histograms.get(key);
+    return stats == null ? EMPTY.snapshot() : stats.latency.snapshot(window);
+  }
+
+  /** Clés ayant au moins une observation. */
+  public Set<String> latencyKeys() {
+    return Set.copyOf(histograms.keySet());
+  }
+
+  public Map<String, Long> counters() {
+    Map<String, Long> copy = new TreeMap<>();
+    counters.forEach((key, value) -> copy.put(key, value.get()));
+    return copy;
   }
 
   public double avgMs(String key) {
@@ -141,6 +169,7 @@ public final class Metrics {
   private static final class Stats {
     final AtomicLong total = new AtomicLong();
     final AtomicLong count = new AtomicLong();
+    final LatencyHistogram latency = new LatencyHistogram();
   }
 
   public static final class Event {
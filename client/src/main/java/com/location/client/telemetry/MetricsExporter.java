@@ -0,0 +1,126 @@
+package com.location.client.telemetry;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Export périodique des métriques : compteurs et, pour chaque clé observée, nombre, p50, p95, p99
+ * et max sur la dernière minute. Une ligne JSON par export, ajoutée à un fichier local ou envoyée
+ * en POST à une URL {@code http(s)://}. Activé par {@code LOCATION_METRICS_EXPORT} (cible) et
+ * {@code LOCATION_METRICS_EXPORT_SECONDS} (période, 60 par défaut).
+ */
+public final class MetricsExporter {
+  private static final Logger LOGGER = Logger.getLogger(MetricsExporter.class.getName());
+  private static final Duration WINDOW = Duration.ofMinutes(1);
+  private static final ObjectMapper JSON = new ObjectMapper();
+
+  private final Metrics metrics;
+  private final String target;
+  private final HttpClient http;
+
+  MetricsExporter(Metrics metrics, String target) {
+    this.metrics = metrics;
+    this.target = target;
+    this.http = isHttp(target) ? HttpClient.newHttpClient() : null;
+  }
+
+  /** Démarre l'export si {@code LOCATION_METRICS_EXPORT} est défini ; sans effet sinon. */
+  public static void startFromEnvironment() {
+    String target = System.getenv("LOCATION_METRICS_EXPORT");
+    if (target == null || target.isBlank()) {
+      return;
+    }
+    long period = 60L;
+    try {
+      String raw = System.getenv("LOCATION_METRICS_EXPORT_SECONDS");
+      if (raw != null && !raw.isBlank()) {
+        period = Math.max(5L, Long.parseLong(raw.trim()));
+      }
+    } catch (NumberFormatException ignored) {
+      // période par défaut
+    }
+    MetricsExporter exporter = new MetricsExporter(Metrics.get(), target.trim());
+    ScheduledExecutorService scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            r -> {
+              Thread t = new Thread(r, "metrics-export");
+              t.setDaemon(true);
+              return t;
+            });
+    scheduler.scheduleAtFixedRate(exporter::exportQuietly, period, period, TimeUnit.SECONDS);
+  }
+
+  ObjectNode snapshot() {
+    ObjectNode root = JSON.createObjectNode();
+    root.put("ts", Instant.now().toString());
+    ObjectNode counters = root.putObject("counters");
+    metrics.counters().forEach(counters::put);
+    ObjectNode latencies = root.putObject("latencies");
+    metrics.latencyKeys().stream()
+        .sorted()
+        .forEach(
+            key -> {
+              LatencyHistogram.Snapshot s = metrics.latency(key, WINDOW);
+              if (s.count() == 0) {
+                return;
+              }
+              ObjectNode node = latencies.putObject(key);
+              node.put("count", s.count());
+              node.put("p50", s.p50());
+              node.put("p95", s.p95());
+              node.put("p99", s.p99());
+              node.put("max", s.max());
+            });
+    return root;
+  }
+
+  void export() throws IOException, InterruptedException {
+    String line = JSON.writeValueAsString(snapshot());
+    if (http != null) {
+      HttpRequest request =
+          HttpRequest.newBuilder(URI.create(target))
+              .timeout(Duration.ofSeconds(10))
+              .header("Content-Type", "application/json")
+              .POST(HttpRequest.BodyPublishers.ofString(line))
+              .build();
+      http.send(request, HttpResponse.BodyHandlers.discarding());
+    } else {
+      Files.writeString(
+          Path.of(target),
+          line + System.lineSeparator(),
+          StandardCharsets.UTF_8,
+          StandardOpenOption.CREATE,
+          StandardOpenOption.APPEND);
+    }
+  }
+
+  private void exportQuietly() {
+    try {
+      export();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } catch (IOException | RuntimeException ex) {
+      LOGGER.log(Level.WARNING, "Export des métriques impossible vers " + target, ex);
+    }
+  }
+
+  private static boolean isHttp(String target) {
+    return target.startsWith("http://") || target.startsWith("https://");
+  }
+}
@@ -3,36 +3,208 @@ package com.location.client.ui;
 import com.location.client.core.Models;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
 
+/**
+ * Détection des chevauchements par ressource : chaque couloir est trié par début puis balayé en
+ * gardant les interventions encore en cours (O(n log n + k) au lieu de toutes les paires).
+ */
 public final class ConflictUtil {
   private ConflictUtil() {}
 
   public record Conflict(Models.Intervention a, Models.Intervention b, String resourceId) {}
 
+  /**
+   * Tous les conflits, dans l'ordre historique du parcours paire à paire : {@code a} précède
+   * {@code b} dans la liste, puis ressources dans l'ordre de {@code a.resourceIds()}.
+   */
   public static List<Conflict> computeConflicts(List<Models.Intervention> interventions) {
     List<Conflict> out = new ArrayList<>();
     if (interventions == null || interventions.isEmpty()) {
       return out;
     }
+    Map<Models.Intervention, Integer> position = new IdentityHashMap<>();
+    Map<String, List<Models.Intervention>> lanes = new LinkedHashMap<>();
     for (int i = 0; i < interventions.size(); i++) {
-      Models.Intervention a = interventions.get(i);
-      for (int j = i + 1; j < interventions.size(); j++) {
-        Models.Intervention b = interventions.get(j);
-        if (!overlap(a.start(), a.end(), b.start(), b.end())) {
-          continue;
+      Models.Intervention intervention = interventions.get(i);
+      if (intervention == null) {
+        continue;
+      }
+      position.put(intervention, i);
+      addToLanes(lanes, intervention, null);
+    }
+    lanes.forEach((resourceId, lane) -> sweep(resourceId, lane, out));
+    for (int i = 0; i < out.size(); i++) {
+      Conflict conflict = out.get(i);
+      if (position.get(conflict.a()) > position.get(conflict.b())) {
+        out.set(i, new Conflict(conflict.b(), conflict.a(), conflict.resourceId()));
+      }
+    }
+    out.sort(
+        Comparator.comparingInt((Conflict c) -> position.get(c.a()))
+            .thenComparingInt(c -> position.get(c.b()))
+            .thenComparingInt(c -> c.a().resourceIds().indexOf(c.resourceId())));
+    return out;
+  }
+
+  /**
+   * Conflits tenus à jour couloir par couloir : ajouter, déplacer ou supprimer une intervention ne
+   * rebalaie que les ressources qu'elle quitte ou rejoint. Non thread-safe (EDT).
+   */
+  public static final class Index {
+    private final Map<String, Models.Intervention> byId = new HashMap<>();
+    private final Map<String, List<Models.Intervention>> lanes = new LinkedHashMap<>();
+    private final Map<String, List<Conflict>> byResource = new HashMap<>();
+
+    private Index() {}
+
+    public static Index of(Collection<Models.Intervention> interventions) {
+      Index index = new Index();
+      if (interventions != null) {
+        for (Models.Intervention intervention : interventions) {
+          if (intervention != null) {
+            index.byId.put(intervention.id(), intervention);
+            addToLanes(index.lanes, intervention, null);
+          }
         }
-        if (a.resourceIds() == null || b.resourceIds() == null) {
-          continue;
+      }
+      index.lanes.keySet().forEach(index::resweep);
+      return index;
+    }
+
+    /** Ajoute ou remplace (même identifiant) une intervention. */
+    public void put(Models.Intervention intervention) {
+      if (intervention == null) {
+        return;
+      }
+      Set<String> touched = new HashSet<>();
+      Models.Intervention previous = byId.put(intervention.id(), intervention);
+      if (previous != null) {
+        removeFromLanes(previous, touched);
+      }
+      addToLanes(lanes, intervention, touched);
+      touched.forEach(this::resweep);
+    }
+
+    public void remove(String id) {
+      Models.Intervention previous = byId.remove(id);
+      if (previous == null) {
+        return;
+      }
+      Set<String> touched = new HashSet<>();
+      removeFromLanes(previous, touched);
+      touched.forEach(this::resweep);
+    }
+
+    public List<Conflict> conflicts() {
+      List<Conflict> all = new ArrayList<>();
+      for (String resourceId : lanes.keySet()) {
+        all.addAll(byResource.getOrDefault(resourceId, List.of()));
+      }
+      return all;
+    }
+
+    /** Conflits impliquant l'intervention, sur toutes ses ressources. */
+    public List<Conflict> conflictsOf(String id) {
+      Models.Intervention intervention = byId.get(id);
+      if (intervention == null || intervention.resourceIds() == null) {
+        return List.of();
+      }
+      List<Conflict> out = new ArrayList<>();
+      for (String resourceId : new HashSet<>(intervention.resourceIds())) {
+        for (Conflict conflict : byResource.getOrDefault(resourceId, List.of())) {
+          if (conflict.a() == intervention || conflict.b() == intervention) {
+            out.add(conflict);
+          }
         }
-        for (String resourceId : a.resourceIds()) {
-          if (resourceId != null && b.resourceIds().contains(resourceId)) {
-            out.add(new Conflict(a, b, resourceId));
+      }
+      return out;
+    }
+
+    private void removeFromLanes(Models.Intervention intervention, Set<String> touched) {
+      for (String resourceId : intervention.resourceIds()) {
+        List<Models.Intervention> lane = lanes.get(resourceId);
+        if (lane != null && lane.remove(intervention)) {
+          touched.add(resourceId);
+          if (lane.isEmpty()) {
+            lanes.remove(resourceId);
           }
         }
       }
     }
-    return out;
+
+    private void resweep(String resourceId) {
+      List<Models.Intervention> lane = lanes.get(resourceId);
+      if (lane == null) {
+        byResource.remove(resourceId);
+        return;
+      }
+      List<Conflict> conflicts = new ArrayList<>();
+      sweep(resourceId, lane, conflicts);
+      if (conflicts.isEmpty()) {
+        byResource.remove(resourceId);
+      } else {
+        byResource.put(resourceId, conflicts);
+      }
+    }
+  }
+
+  /** Range l'intervention datée dans le couloir de chacune de ses ressources (une fois chacune). */
+  private static void addToLanes(
+      Map<String, List<Models.Intervention>> lanes,
+      Models.Intervention intervention,
+      Set<String> touched) {
+    if (intervention.start() == null
+        || intervention.end() == null
+        || intervention.resourceIds() == null) {
+      return;
+    }
+    for (String resourceId : intervention.resourceIds()) {
+      if (resourceId == null) {
+        continue;
+      }
+      List<Models.Intervention> lane = lanes.computeIfAbsent(resourceId, id -> new ArrayList<>());
+      if (lane.isEmpty() || lane.get(lane.size() - 1) != intervention) {
+        lane.add(intervention);
+      }
+      if (touched != null) {
+        touched.add(resourceId);
+      }
+    }
+  }
+
+  /**
+   * Balayage d'un couloir : seules les interventions non terminées au début de la suivante restent
+   * actives, donc chaque comparaison restante produit (presque toujours) un conflit.
+   */
+  private static void sweep(String resourceId, List<Models.Intervention> lane, List<Conflict> out) {
+    if (lane.size() < 2) {
+      return;
+    }
+    List<Models.Intervention> sorted = new ArrayList<>(lane);
+    sorted.sort(Comparator.comparing(Models.Intervention::start));
+    PriorityQueue<Models.Intervention> active =
+        new PriorityQueue<>(Comparator.comparing(Models.Intervention::end));
+    for (Models.Intervention b : sorted) {
+      while (!active.isEmpty() && !active.peek().end().isAfter(b.start())) {
+        active.poll();
+      }
+      for (Models.Intervention a : active) {
+        if (overlap(a.start(), a.end(), b.start(), b.end())) {
+          out.add(new Conflict(a, b, resourceId));
+        }
+      }
+      active.add(b);
+    }
   }
 
   private static boolean overlap(Instant startA, Instant endA, Instant startB, Instant endB) {
@@ -9,7 +9,9 @@ import java.awt.event.ActionEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import javax.swing.AbstractAction;
 import javax.swing.JButton;
 import javax.swing.JDialog;
@@ -20,13 +22,21 @@ import javax.swing.JTable;
 import javax.swing.JTextField;
 import javax.swing.ListSelectionModel;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
 import javax.swing.table.AbstractTableModel;
 
+/**
+ * Recherche globale sur un {@link SearchIndex} de lignes partagé entre ouvertures : clients et
+ * ressources y sont tenus à jour à chaque recharge du planning ({@link #indexPlanning}), les documents sont
+ * rafraîchis en arrière-plan à chaque ouverture sans bloquer la saisie.
+ */
 public class GlobalSearchDialog extends JDialog {
   public record Row(String type, String id, String label) {}
 
+  private static final int LIMIT = 200;
+
   public interface ResultListener {
     void onOpen(Row row);
   }
@@ -34,14 +44,19 @@ public class GlobalSearchDialog extends JDialog {
   private final DataSourceProvider dataSourceProvider;
   private final JTextField input = new JTextField();
   private final JTable table = new JTable();
-  private final List<Row> all = new ArrayList<>();
+  private final SearchIndex<Row> index;
   private final List<Row> filtered = new ArrayList<>();
   private final Model model = new Model();
   private ResultListener listener;
 
   public GlobalSearchDialog(Window owner, DataSourceProvider dsp) {
+    this(owner, dsp, newIndex());
+  }
+
+  public GlobalSearchDialog(Window owner, DataSourceProvider dsp, SearchIndex<Row> index) {
     super(owner, "Recherche globale", ModalityType.APPLICATION_MODAL);
     this.dataSourceProvider = dsp;
+    this.index = index;
     setLayout(new BorderLayout(6, 6));
     add(input, BorderLayout.NORTH);
 
@@ -93,8 +108,30 @@ public class GlobalSearchDialog extends JDialog {
     pack();
     setLocationRelativeTo(owner);
 
-    loadData();
     filter();
+    refreshInBackground();
+  }
+
+  /** Index vide, à conserver entre ouvertures et à passer au constructeur. */
+  public static SearchIndex<Row> newIndex() {
+    return new SearchIndex<>(
+        row -> row.type() + ':' + row.id(), row -> Arrays.asList(row.label(), row.id(), row.type()));
+  }
+
+  /**
+   * Remplace les lignes clients et ressources de {@code index}, sans toucher aux documents.
+   * {@code resources} doit être la liste complète, pas celle filtrée pour le planning.
+   */
+  public static void indexPlanning(
+      SearchIndex<Row> index, List<Models.Client> clients, List<Models.Resource> resources) {
+    List<Row> rows = new ArrayList<>();
+    for (Row row : index.values()) {
+      if (!"Client".equals(row.type()) && !"Ressource".equals(row.type())) {
+        rows.add(row);
+      }
+    }
+    rows.addAll(planningRows(clients, resources));
+    index.update(rows);
   }
 
   public GlobalSearchDialog onOpen(ResultListener listener) {
@@ -102,35 +139,79 @@ public class GlobalSearchDialog extends JDialog {
     return this;
   }
 
-  private void loadData() {
-    all.clear();
-    try {
-      for (Models.Client client : dataSourceProvider.listClients()) {
-        all.add(new Row("Client", client.id(), client.name()));
-      }
-      for (Models.Resource resource : dataSourceProvider.listResources()) {
-        StringBuilder label = new StringBuilder(resource.name());
-        if (resource.tags() != null && !resource.tags().isBlank()) {
-          label.append(" [").append(resource.tags()).append(']');
+  /**
+   * Relit les documents (et, si le planning ne les a pas encore fournis, clients et ressources)
+   * hors de l'EDT puis met l'index à jour et relance le filtre.
+   */
+  private void refreshInBackground() {
+    boolean fetchPlanning = index.values().stream().noneMatch(row -> "Client".equals(row.type()));
+    new SwingWorker<List<Row>, Void>() {
+      @Override
+      protected List<Row> doInBackground() {
+        List<Row> rows = new ArrayList<>();
+        if (fetchPlanning) {
+          rows.addAll(
+              planningRows(dataSourceProvider.listClients(), dataSourceProvider.listResources()));
         }
-        if (resource.capacityTons() != null) {
-          label.append(" (").append(resource.capacityTons()).append("t)");
+        for (Models.Doc doc : dataSourceProvider.listDocs(null, null)) {
+          rows.add(new Row("Document", doc.id(), doc.title()));
+        }
+        return rows;
+      }
+
+      @Override
+      protected void done() {
+        List<Row> fetched;
+        try {
+          fetched = get();
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          return;
+        } catch (ExecutionException ex) {
+          if (isDisplayable()) {
+            JOptionPane.showMessageDialog(
+                GlobalSearchDialog.this,
+                "Erreur lors du chargement des données : " + ex.getCause().getMessage(),
+                "Recherche globale",
+                JOptionPane.ERROR_MESSAGE);
+          }
+          return;
         }
-        if (resource.licensePlate() != null && !resource.licensePlate().isBlank()) {
-          label.append(" – ").append(resource.licensePlate());
+        List<Row> rows = new ArrayList<>();
+        if (!fetchPlanning) {
+          for (Row row : index.values()) {
+            if (!"Document".equals(row.type())) {
+              rows.add(row);
+            }
+          }
         }
-        all.add(new Row("Ressource", resource.id(), label.toString()));
+        rows.addAll(fetched);
+        index.update(rows);
+        filter();
+      }
+    }.execute();
+  }
+
+  private static List<Row> planningRows(
+      List<Models.Client> clients, List<Models.Resource> resources) {
+    List<Row> rows = new ArrayList<>();
+    for (Models.Client client : clients == null ? List.<Models.Client>of() : clients) {
+      rows.add(new Row("Client", client.id(), client.name()));
+    }
+    for (Models.Resource resource : resources == null ? List.<Models.Resource>of() : resources) {
+      StringBuilder label = new StringBuilder(String.valueOf(resource.name()));
+      if (resource.tags() != null && !resource.tags().isBlank()) {
+        label.append(" [").append(resource.tags()).append(']');
+      }
+      if (resource.capacityTons() != null) {
+        label.append(" (").append(resource.capacityTons()).append("t)");
       }
-      for (Models.Doc doc : dataSourceProvider.listDocs(null, null)) {
-        all.add(new Row("Document", doc.id(), doc.title()));
+      if (resource.licensePlate() != null && !resource.licensePlate().isBlank()) {
+        label.append(" – ").append(resource.licensePlate());
       }
-    } catch (RuntimeException ex) {
-      JOptionPane.showMessageDialog(
-          this,
-          "Erreur lors du chargement des données : " + ex.getMessage(),
-          "Recherche globale",
-          JOptionPane.ERROR_MESSAGE);
+      rows.add(new Row("Ressource", resource.id(), label.toString()));
     }
+    return rows;
   }
 
   private void filter() {
@@ -140,10 +221,8 @@ public class GlobalSearchDialog extends JDialog {
       model.fireTableDataChanged();
       return;
     }
-    for (Row row : all) {
-      if (matches(row, query)) {
-        filtered.add(row);
-      }
+    for (SearchIndex.Hit<Row> hit : index.search(query, LIMIT)) {
+      filtered.add(hit.value());
     }
     model.fireTableDataChanged();
     if (!filtered.isEmpty()) {
@@ -151,14 +230,6 @@ public class GlobalSearchDialog extends JDialog {
     }
   }
 
-  private boolean matches(Row row, String query) {
-    return contains(row.label(), query) || contains(row.id(), query) || contains(row.type(), query);
-  }
-
-  private boolean contains(String value, String query) {
-    return value != null && value.toLowerCase().contains(query);
-  }
-
   private void openSelection() {
     int selected = table.getSelectedRow();
     if (selected >= 0 && selected < filtered.size()) {
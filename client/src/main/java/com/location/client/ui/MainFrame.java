@@ -58,6 +58,8 @@ public class MainFrame extends JFrame {
   private final TopBar topBar;
   private final Sidebar sidebar;
   private final JToolBar selectionBar = new JToolBar();
+  private final SearchIndex<GlobalSearchDialog.Row> globalSearchIndex =
+      GlobalSearchDialog.newIndex();
   private final JButton selectionInfo = new JButton();
   private final JButton activityButton = new JButton("Activité");
   private final JLabel connectionBadge = new JLabel();
@@ -90,6 +92,7 @@ public class MainFrame extends JFrame {
     this.sidebar = new Sidebar(this::handleNavigation);
     minimap.setWorkingHours(planning.getStartHour(), planning.getEndHour());
     planning.addReloadListener(this::updateMinimap);
+    planning.addReloadListener(this::refreshGlobalSearchIndex);
 
     final java.beans.PropertyChangeListener conflictsResolver =
         evt -> {
@@ -103,6 +106,7 @@ public class MainFrame extends JFrame {
     initializeCurrentAgency();
 
     if (dsp instanceof RestDataSource rest) {
+      rest.addChangeListener(change -> Ui.ensure(() -> planning.applyChange(change)));
       rest.startPingThread();
       connectionBadge.setText("🟡 REST — tentative de connexion…");
       heartbeat = new Timer(1000, e -> updateConnectionBadge(rest));
@@ -905,14 +909,15 @@ public class MainFrame extends JFrame {
   }
 
   private void refreshData() {
-    planning.reload();
-    populateAgencyMenu(planning.getAgencies());
-    planning.repaint();
-    topBar.refreshCombos();
-    updateBadges();
+    planning.reload(
+        () -> {
+          populateAgencyMenu(planning.getAgencies());
+          topBar.refreshCombos();
+          updateBadges();
+          updateMinimap();
+        });
     prefs.setCurrentAgencyId(dsp.getCurrentAgencyId());
     prefs.save();
-    updateMinimap();
   }
 
   private void updateMinimap() {
@@ -1227,9 +1232,34 @@ public class MainFrame extends JFrame {
     return commands.toArray(new CommandPaletteDialog.Command[0]);
   }
 
+  /**
+   * Réindexe clients et ressources pour la recherche globale. Les ressources du planning sont
+   * filtrées (agence, recherche, tags) : l'index lit la liste complète, servie par le cache ETag.
+   */
+  private void refreshGlobalSearchIndex() {
+    List<Models.Client> clients = planning.getClients();
+    new SwingWorker<List<Models.Resource>, Void>() {
+      @Override
+      protected List<Models.Resource> doInBackground() {
+        return dsp.listResources();
+      }
+
+      @Override
+      protected void done() {
+        try {
+          GlobalSearchDialog.indexPlanning(globalSearchIndex, clients, get());
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        } catch (java.util.concurrent.ExecutionException ex) {
+          // Index inchangé : la prochaine recharge du planning réessaiera.
+        }
+      }
+    }.execute();
+  }
+
   private void openGlobalSearch() {
     GlobalSearchDialog dialog =
-        new GlobalSearchDialog(this, dsp)
+        new GlobalSearchDialog(this, dsp, globalSearchIndex)
             .onOpen(
                 row -> {
                   switch (row.type()) {
@@ -0,0 +1,351 @@
+package com.location.client.ui;
+
+import com.location.client.core.Models;
+import java.awt.Rectangle;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Disposition retenue du planning : pour chaque ressource, les interventions de la fenêtre
+ * affichée triées par début et réparties en couloirs (premier couloir libre). Elle n'est
+ * recalculée que si la liste, la fenêtre ou une intervention changent ; abscisses et rectangles des
+ * tuiles restent en cache jusqu'au prochain changement de géométrie. Chaque ressource porte aussi
+ * un arbre d'intervalles sur les abscisses, pour le dessin et la détection au pointeur en
+ * O(log n + k). Non thread-safe (EDT).
+ */
+final class PlanningLayout {
+  private static final Comparator<Placement> BY_START =
+      Comparator.comparing(p -> p.intervention.start());
+
+  /** Tuile d'une intervention dans le couloir d'une ressource. */
+  final class Placement {
+    final Models.Intervention intervention;
+    final String resourceId;
+    private int lane;
+    private int x1;
+    private int x2;
+    private int xStamp = -1;
+    private Rectangle rect;
+    private int rectStamp = -1;
+
+    private Placement(Models.Intervention intervention, String resourceId) {
+      this.intervention = intervention;
+      this.resourceId = resourceId;
+    }
+
+    int lane() {
+      return lane;
+    }
+
+    int x1() {
+      refreshX();
+      return x1;
+    }
+
+    int x2() {
+      refreshX();
+      return x2;
+    }
+
+    private void refreshX() {
+      if (xStamp != geometryStamp && xMapper != null) {
+        x1 = xMapper.applyAsInt(intervention.start());
+        x2 = xMapper.applyAsInt(intervention.end());
+        xStamp = geometryStamp;
+      }
+    }
+  }
+
+  private static final class ResourceLanes {
+    final List<Placement> byStart = new ArrayList<>();
+    final Map<String, Placement> byId = new HashMap<>();
+    int laneCount = 1;
+    /**
+     * Arbre d'intervalles implicite : tuiles triées par abscisse gauche, le nœud d'une tranche
+     * [l, r) étant son milieu et {@code xMax} le bord droit maximal de la tranche.
+     */
+    private Placement[] byX = new Placement[0];
+    private int[] xLo = new int[0];
+    private int[] xHi = new int[0];
+    private int[] xMax = new int[0];
+    private int xStamp = -1;
+
+    void add(Placement placement) {
+      int at = Collections.binarySearch(byStart, placement, BY_START);
+      if (at < 0) {
+        at = -at - 1;
+      } else {
+        while (at < byStart.size()
+            && !byStart.get(at).intervention.start().isAfter(placement.intervention.start())) {
+          at++;
+        }
+      }
+      byStart.add(at, placement);
+      if (placement.intervention.id() != null) {
+        byId.put(placement.intervention.id(), placement);
+      }
+      xStamp = -1;
+    }
+
+    boolean remove(String id) {
+      Placement placement = id == null ? null : byId.remove(id);
+      xStamp = -1;
+      return placement != null && byStart.remove(placement);
+    }
+
+    /** Les bornes ne suivent pas toujours l'ordre des débuts (fin hors fenêtre) : tri explicite. */
+    void indexX(int stamp) {
+      if (xStamp == stamp) {
+        return;
+      }
+      int n = byStart.size();
+      byX = byStart.toArray(new Placement[0]);
+      Arrays.sort(byX, Comparator.comparingInt(p -> Math.min(p.x1(), p.x2())));
+      xLo = new int[n];
+      xHi = new int[n];
+      xMax = new int[n];
+      for (int i = 0; i < n; i++) {
+        xLo[i] = Math.min(byX[i].x1(), byX[i].x2());
+        xHi[i] = Math.max(byX[i].x1(), byX[i].x2());
+      }
+      fillMax(0, n);
+      xStamp = stamp;
+    }
+
+    private int fillMax(int l, int r) {
+      if (l >= r) {
+        return Integer.MIN_VALUE;
+      }
+      int mid = (l + r) >>> 1;
+      xMax[mid] = Math.max(xHi[mid], Math.max(fillMax(l, mid), fillMax(mid + 1, r)));
+      return xMax[mid];
+    }
+
+    void collect(int l, int r, int minX, int maxX, List<Placement> out) {
+      if (l >= r) {
+        return;
+      }
+      int mid = (l + r) >>> 1;
+      if (xMax[mid] < minX) {
+        return;
+      }
+      collect(l, mid, minX, maxX, out);
+      if (xLo[mid] > maxX) {
+        return;
+      }
+      if (xHi[mid] >= minX) {
+        out.add(byX[mid]);
+      }
+      collect(mid + 1, r, minX, maxX, out);
+    }
+
+    /** Premier couloir libre, comme le balayage historique, mais en O(n log n). */
+    void assign() {
+      TreeSet<Integer> free = new TreeSet<>();
+      PriorityQueue<Placement> busy =
+          new PriorityQueue<>(Comparator.comparing(p -> p.intervention.end()));
+      int lanes = 0;
+      for (Placement placement : byStart) {
+        while (!busy.isEmpty()
+            && !placement.intervention.start().isBefore(busy.peek().intervention.end())) {
+          free.add(busy.poll().lane);
+        }
+        Integer lane = free.pollFirst();
+        placement.lane = lane == null ? lanes++ : lane;
+        busy.add(placement);
+      }
+      laneCount = Math.max(1, lanes);
+    }
+  }
+
+  private final Function<Models.Intervention, List<String>> resourcesOf;
+  private final Map<String, ResourceLanes> byResource = new HashMap<>();
+  private final Map<String, Models.Intervention> byId = new HashMap<>();
+  private List<Models.Intervention> source;
+  private Instant from;
+  private Instant to;
+  private Object geometry;
+  private ToIntFunction<Instant> xMapper;
+  private int geometryStamp;
+  private int rectStamp;
+
+  PlanningLayout(Function<Models.Intervention, List<String>> resourcesOf) {
+    this.resourcesOf = resourcesOf;
+  }
+
+  /** Vrai si la disposition correspond déjà à cette liste (même instance) et cette fenêtre. */
+  boolean isCurrent(List<Models.Intervention> data, Instant from, Instant to) {
+    return source == data && Objects.equals(this.from, from) && Objects.equals(this.to, to);
+  }
+
+  void rebuild(List<Models.Intervention> data, Instant from, Instant to) {
+    byResource.clear();
+    byId.clear();
+    this.source = data;
+    this.from = from;
+    this.to = to;
+    if (data != null) {
+      for (Models.Intervention intervention : data) {
+        if (inWindow(intervention)) {
+          if (intervention.id() != null) {
+            byId.put(intervention.id(), intervention);
+          }
+          for (String resourceId : distinctResources(intervention)) {
+            lanesFor(resourceId).byStart.add(new Placement(intervention, resourceId));
+          }
+        }
+      }
+    }
+    for (ResourceLanes lanes : byResource.values()) {
+      lanes.byStart.sort(BY_START);
+      for (Placement placement : lanes.byStart) {
+        if (placement.intervention.id() != null) {
+          lanes.byId.put(placement.intervention.id(), placement);
+        }
+      }
+      lanes.assign();
+    }
+    geometryStamp++;
+    rectStamp++;
+  }
+
+  /**
+   * Remplace {@code previous} par {@code updated} (l'un ou l'autre nul pour un ajout ou une
+   * suppression) en ne recalculant que les couloirs des ressources concernées.
+   *
+   * @return vrai si le nombre de couloirs d'une ressource a changé (hauteurs de lignes à refaire)
+   */
+  boolean replace(
+      List<Models.Intervention> data, Models.Intervention previous, Models.Intervention updated) {
+    source = data;
+    Set<String> touched = new LinkedHashSet<>();
+    if (previous != null) {
+      byId.remove(previous.id());
+      for (String resourceId : distinctResources(previous)) {
+        ResourceLanes lanes = byResource.get(resourceId);
+        if (lanes != null && lanes.remove(previous.id())) {
+          touched.add(resourceId);
+        }
+      }
+    }
+    if (updated != null && inWindow(updated)) {
+      if (updated.id() != null) {
+        byId.put(updated.id(), updated);
+      }
+      for (String resourceId : distinctResources(updated)) {
+        lanesFor(resourceId).add(new Placement(updated, resourceId));
+        touched.add(resourceId);
+      }
+    }
+    boolean countsChanged = false;
+    for (String resourceId : touched) {
+      ResourceLanes lanes = byResource.get(resourceId);
+      int before = lanes.laneCount;
+      lanes.assign();
+      if (lanes.byStart.isEmpty()) {
+        byResource.remove(resourceId);
+      }
+      countsChanged |= before != lanes.laneCount;
+    }
+    rectStamp++;
+    return countsChanged;
+  }
+
+  /**
+   * Les abscisses dépendent de la largeur de colonne et de la fenêtre : elles sont recalculées
+   * paresseusement quand {@code key} change.
+   */
+  void ensureGeometry(Object key, ToIntFunction<Instant> mapper) {
+    xMapper = mapper;
+    if (!Objects.equals(geometry, key)) {
+      geometry = key;
+      geometryStamp++;
+      rectStamp++;
+    }
+  }
+
+  /** À appeler quand la position ou la hauteur des lignes change. */
+  void invalidateRects() {
+    rectStamp++;
+  }
+
+  int laneCount(String resourceId) {
+    ResourceLanes lanes = resourceId == null ? null : byResource.get(resourceId);
+    return lanes == null ? 1 : lanes.laneCount;
+  }
+
+  Placement placement(String interventionId, String resourceId) {
+    ResourceLanes lanes = resourceId == null ? null : byResource.get(resourceId);
+    return lanes == null || interventionId == null ? null : lanes.byId.get(interventionId);
+  }
+
+  /** Tuiles de la ressource, triées par début. */
+  List<Placement> placements(String resourceId) {
+    ResourceLanes lanes = resourceId == null ? null : byResource.get(resourceId);
+    return lanes == null ? List.of() : Collections.unmodifiableList(lanes.byStart);
+  }
+
+  /**
+   * Tuiles de la ressource dont l'étendue horizontale croise [minX, maxX], par abscisse croissante.
+   * L'index est reconstruit paresseusement après un changement de géométrie ou de la ressource.
+   */
+  List<Placement> placementsBetween(String resourceId, int minX, int maxX) {
+    ResourceLanes lanes = resourceId == null ? null : byResource.get(resourceId);
+    if (lanes == null || minX > maxX) {
+      return List.of();
+    }
+    lanes.indexX(geometryStamp);
+    List<Placement> out = new ArrayList<>();
+    lanes.collect(0, lanes.byX.length, minX, maxX, out);
+    return out;
+  }
+
+  /** Intervention affichée dans la fenêtre, par identifiant. */
+  Models.Intervention intervention(String id) {
+    return id == null ? null : byId.get(id);
+  }
+
+  Rectangle rect(Placement placement, Supplier<Rectangle> builder) {
+    if (placement.rectStamp != rectStamp || placement.rect == null) {
+      placement.rect = builder.get();
+      placement.rectStamp = rectStamp;
+    }
+    return placement.rect;
+  }
+
+  private boolean inWindow(Models.Intervention intervention) {
+    return intervention != null
+        && intervention.start() != null
+        && intervention.end() != null
+        && (to == null || intervention.start().isBefore(to))
+        && (from == null || intervention.end().isAfter(from));
+  }
+
+  private Set<String> distinctResources(Models.Intervention intervention) {
+    Set<String> ids = new LinkedHashSet<>();
+    for (String resourceId : resourcesOf.apply(intervention)) {
+      if (resourceId != null) {
+        ids.add(resourceId);
+      }
+    }
+    return ids;
+  }
+
+  private ResourceLanes lanesFor(String resourceId) {
+    return byResource.computeIfAbsent(resourceId, id -> new ResourceLanes());
+  }
+}
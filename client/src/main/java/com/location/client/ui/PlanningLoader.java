@@ -0,0 +1,497 @@
+package com.location.client.ui;
+
+import com.location.client.core.DataSourceProvider;
+import com.location.client.core.Models;
+import java.text.Collator;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Chargement des données du planning, sans état Swing. Quand la source fournit la vue agrégée
+ * ({@link DataSourceProvider#loadPlanningSnapshot}), tout arrive en une réponse ; sinon les lectures
+ * indépendantes partent en parallèle, celles qui en dépendent (type de chaque ressource, tags de
+ * chaque intervention) dès que possible. Filtres, tri et conflits produisent ensuite un {@link
+ * Snapshot} immuable que le panneau applique d'un bloc sur l'EDT. Aucune étape n'attend une autre
+ * en bloquant un thread.
+ */
+final class PlanningLoader {
+  /** Interventions par lecture groupée de tags, pour pouvoir abandonner entre deux lots. */
+  static final int TAG_CHUNK = 500;
+  /** Lectures réseau du planning, bornées pour ménager le pool HTTP. */
+  static final ExecutorService EXECUTOR =
+      Executors.newFixedThreadPool(
+          4,
+          new java.util.concurrent.ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+              Thread t = new Thread(r, "planning-load-" + count.incrementAndGet());
+              t.setDaemon(true);
+              return t;
+            }
+          });
+
+  /** Filtres et fenêtre lus sur l'EDT au moment de la demande. */
+  record Query(
+      String agencyId,
+      String resourceTags,
+      String resourceId,
+      String resourceSearch,
+      String clientId,
+      String titleQuery,
+      String interventionTag,
+      boolean onlyConflicts,
+      boolean noConflicts,
+      OffsetDateTime from,
+      OffsetDateTime to,
+      Set<String> collapsedTypes,
+      String untypedKey) {
+    Query {
+      collapsedTypes = Set.copyOf(collapsedTypes);
+    }
+  }
+
+  /**
+   * Résultat complet d'un rechargement. {@code version} : version du flux de changements déjà
+   * incluse (vue agrégée), 0 si inconnue.
+   */
+  record Snapshot(
+      long version,
+      List<Models.Agency> agencies,
+      List<Models.ResourceType> resourceTypes,
+      Map<String, String> typeIdByResource,
+      List<Models.Resource> resources,
+      List<Models.Client> clients,
+      List<Models.Intervention> interventions,
+      Map<String, List<String>> interventionTags,
+      List<ConflictUtil.Conflict> conflicts,
+      List<Models.Unavailability> unavailabilities) {}
+
+  private final DataSourceProvider dsp;
+  private final Function<Models.Intervention, List<String>> resourcesOf;
+
+  PlanningLoader(
+      DataSourceProvider dsp, Function<Models.Intervention, List<String>> resourcesOf) {
+    this.dsp = dsp;
+    this.resourcesOf = resourcesOf;
+  }
+
+  /**
+   * Lance le chargement sur {@code executor} ({@code Runnable::run} pour un chargement synchrone).
+   * Chaque étape vérifie {@code cancelled} et abandonne par {@link CancellationException} ; une
+   * lecture déjà partie va à son terme mais son résultat est ignoré.
+   */
+  CompletableFuture<Snapshot> load(Query query, Executor executor, BooleanSupplier cancelled) {
+    return load(query, executor, cancelled, received -> {});
+  }
+
+  /**
+   * Variante qui signale, au fil de la lecture en flux, le nombre d'interventions reçues. Chaque
+   * lot est filtré dès réception : seules les interventions retenues restent en mémoire.
+   */
+  CompletableFuture<Snapshot> load(
+      Query query, Executor executor, BooleanSupplier cancelled, IntConsumer received) {
+    return fetch(
+            () ->
+                dsp.loadPlanningSnapshot(
+                    query.from(),
+                    query.to(),
+                    normalize(query.agencyId()),
+                    normalize(query.resourceTags()),
+                    keepIntervention(query)),
+            executor,
+            cancelled)
+        .thenComposeAsync(
+            aggregate ->
+                aggregate == null
+                    ? loadSeparately(query, executor, cancelled, received)
+                    : CompletableFuture.completedFuture(
+                        fromAggregate(query, aggregate, cancelled, received)),
+            executor);
+  }
+
+  /**
+   * Vue agrégée : mêmes filtres qu'en lectures séparées. La source les applique déjà aux
+   * interventions en lisant la réponse ; ils sont réappliqués ici pour celles qui l'ignorent.
+   */
+  private Snapshot fromAggregate(
+      Query query,
+      Models.PlanningSnapshot aggregate,
+      BooleanSupplier cancelled,
+      IntConsumer received) {
+    checkCancelled(cancelled);
+    received.accept(aggregate.interventions().size());
+    String rid = normalize(query.resourceId());
+    List<Models.Intervention> interventions =
+        aggregate.interventions().stream().filter(keepIntervention(query)).toList();
+    List<Models.Unavailability> unavailabilities = aggregate.unavailabilities();
+    if (rid != null) {
+      unavailabilities =
+          unavailabilities.stream().filter(u -> rid.equals(u.resourceId())).toList();
+    }
+    return assemble(
+        aggregate.version(),
+        query,
+        aggregate.agencies(),
+        aggregate.resourceTypes(),
+        new HashMap<>(aggregate.typeIdByResource()),
+        filterResources(aggregate.resources(), query),
+        aggregate.clients(),
+        interventions,
+        aggregate.interventionTags(),
+        unavailabilities);
+  }
+
+  private CompletableFuture<Snapshot> loadSeparately(
+      Query query, Executor executor, BooleanSupplier cancelled, IntConsumer received) {
+    CompletableFuture<List<Models.Agency>> agencies =
+        fetch(dsp::listAgencies, executor, cancelled);
+    CompletableFuture<List<Models.ResourceType>> types =
+        fetch(
+            () -> {
+              try {
+                List<Models.ResourceType> fetched = dsp.listResourceTypes();
+                return fetched == null ? List.of() : fetched;
+              } catch (RuntimeException ex) {
+                return List.of();
+              }
+            },
+            executor,
+            cancelled);
+    CompletableFuture<List<Models.Resource>> resources =
+        fetch(
+            () -> filterResources(dsp.listResources(normalize(query.resourceTags())), query),
+            executor,
+            cancelled);
+    CompletableFuture<List<Models.Client>> clients = fetch(dsp::listClients, executor, cancelled);
+    CompletableFuture<List<Models.Intervention>> interventions =
+        fetch(() -> streamInterventions(query, cancelled, received), executor, cancelled);
+    CompletableFuture<List<Models.Unavailability>> unavailabilities =
+        fetch(
+            () ->
+                dsp.listUnavailabilities(query.from(), query.to(), normalize(query.resourceId())),
+            executor,
+            cancelled);
+    CompletableFuture<Map<String, String>> typeIds =
+        resources.thenApplyAsync(list -> resourceTypeIds(list, cancelled), executor);
+    CompletableFuture<Map<String, List<String>>> tags =
+        interventions.thenApplyAsync(list -> interventionTags(list, cancelled), executor);
+    return CompletableFuture.allOf(
+            agencies, types, resources, clients, interventions, unavailabilities, typeIds, tags)
+        .thenApplyAsync(
+            ignored -> {
+              checkCancelled(cancelled);
+              return assemble(
+                  0L,
+                  query,
+                  agencies.join(),
+                  types.join(),
+                  typeIds.join(),
+                  resources.join(),
+                  clients.join(),
+                  interventions.join(),
+                  tags.join(),
+                  unavailabilities.join());
+            },
+            executor);
+  }
+
+  /** Types connus (plus « sans type ») : les autres sont retirés des préférences de repli. */
+  static Set<String> knownTypeIds(List<Models.ResourceType> types, String untypedKey) {
+    Set<String> known =
+        types.stream()
+            .map(Models.ResourceType::id)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    known.add(untypedKey);
+    return known;
+  }
+
+  /** Type forcé déplié : celui de la ressource filtrée, s'il y en a une. */
+  static String forcedType(Query query, Map<String, String> typeIdByResource) {
+    String rid = query.resourceId();
+    return rid == null || rid.isBlank() ? null : typeIdByResource.get(rid);
+  }
+
+  private Snapshot assemble(
+      long version,
+      Query query,
+      List<Models.Agency> agencies,
+      List<Models.ResourceType> types,
+      Map<String, String> typeIdByResource,
+      List<Models.Resource> fetchedResources,
+      List<Models.Client> clients,
+      List<Models.Intervention> fetched,
+      Map<String, List<String>> fetchedTags,
+      List<Models.Unavailability> fetchedUnavailabilities) {
+    Set<String> collapsed = new LinkedHashSet<>(query.collapsedTypes());
+    collapsed.retainAll(knownTypeIds(types, query.untypedKey()));
+    String forced = forcedType(query, typeIdByResource);
+    if (forced != null) {
+      collapsed.remove(forced);
+    }
+    Map<String, Integer> typeOrder = new HashMap<>();
+    for (int i = 0; i < types.size(); i++) {
+      Models.ResourceType type = types.get(i);
+      if (type != null && type.id() != null) {
+        typeOrder.put(type.id(), i);
+      }
+    }
+    Collator collator = Collator.getInstance();
+    List<Models.Resource> resources =
+        fetchedResources.stream()
+            .filter(
+                r -> {
+                  if (r == null || r.id() == null) {
+                    return true;
+                  }
+                  String typeId = typeIdByResource.get(r.id());
+                  return typeId == null || !collapsed.contains(typeId);
+                })
+            .sorted(
+                (a, b) -> {
+                  if (a == null || b == null) {
+                    return a == null ? (b == null ? 0 : -1) : 1;
+                  }
+                  String ta = a.id() == null ? null : typeIdByResource.get(a.id());
+                  String tb = b.id() == null ? null : typeIdByResource.get(b.id());
+                  int oa = typeOrder.getOrDefault(ta, Integer.MAX_VALUE / 2);
+                  int ob = typeOrder.getOrDefault(tb, Integer.MAX_VALUE / 2);
+                  if (oa != ob) {
+                    return Integer.compare(oa, ob);
+                  }
+                  String an = a.name() == null ? "" : a.name();
+                  String bn = b.name() == null ? "" : b.name();
+                  return collator.compare(an, bn);
+                })
+            .toList();
+    Set<String> visibleIds =
+        resources.stream().map(Models.Resource::id).collect(Collectors.toSet());
+
+    List<Models.Intervention> data = fetched;
+    String tagFilter = query.interventionTag();
+    if (tagFilter != null && !tagFilter.isBlank()) {
+      data = data.stream().filter(i -> matchesTag(i, fetchedTags, tagFilter)).toList();
+    }
+    if (query.resourceTags() != null && !query.resourceTags().isBlank()) {
+      data =
+          data.stream()
+              .filter(i -> resourcesOf.apply(i).stream().anyMatch(visibleIds::contains))
+              .toList();
+    }
+    List<ConflictUtil.Conflict> conflicts = ConflictUtil.computeConflicts(data);
+    if (query.onlyConflicts() && !conflicts.isEmpty()) {
+      Set<String> conflictIds = conflictIds(conflicts);
+      data = data.stream().filter(i -> i.id() != null && conflictIds.contains(i.id())).toList();
+      conflicts = ConflictUtil.computeConflicts(data);
+    }
+    if (query.noConflicts() && !conflicts.isEmpty()) {
+      Set<String> conflictIds = conflictIds(conflicts);
+      data = data.stream().filter(i -> i.id() == null || !conflictIds.contains(i.id())).toList();
+      conflicts = ConflictUtil.computeConflicts(data);
+    }
+    Set<String> keptIds =
+        data.stream().map(Models.Intervention::id).filter(Objects::nonNull).collect(Collectors.toSet());
+    Map<String, List<String>> tags = new HashMap<>(fetchedTags);
+    tags.keySet().retainAll(keptIds);
+    List<Models.Unavailability> unavailabilities =
+        fetchedUnavailabilities.stream()
+            .filter(u -> visibleIds.contains(u.resourceId()))
+            .toList();
+    return new Snapshot(
+        version,
+        List.copyOf(agencies),
+        List.copyOf(types),
+        Collections.unmodifiableMap(typeIdByResource),
+        resources,
+        List.copyOf(clients),
+        data,
+        Collections.unmodifiableMap(tags),
+        List.copyOf(conflicts),
+        unavailabilities);
+  }
+
+  private static List<Models.Resource> filterResources(
+      List<Models.Resource> fetched, Query query) {
+    List<Models.Resource> out = fetched;
+    String agency = query.agencyId();
+    if (agency != null && !agency.isBlank()) {
+      out = out.stream().filter(r -> agency.equals(r.agencyId())).toList();
+    }
+    String rid = query.resourceId();
+    if (rid != null && !rid.isBlank()) {
+      out = out.stream().filter(r -> rid.equals(r.id())).toList();
+    }
+    String needle = query.resourceSearch();
+    if (needle != null && !needle.isBlank()) {
+      out =
+          out.stream()
+              .filter(
+                  r -> {
+                    if (r == null) {
+                      return false;
+                    }
+                    String name = r.name();
+                    return name != null && name.toLowerCase(Locale.ROOT).contains(needle);
+                  })
+              .toList();
+    }
+    return out;
+  }
+
+  private List<Models.Intervention> streamInterventions(
+      Query query, BooleanSupplier cancelled, IntConsumer received) {
+    List<Models.Intervention> kept = new ArrayList<>();
+    int[] count = {0};
+    dsp.streamInterventions(
+        query.from(),
+        query.to(),
+        normalize(query.resourceId()),
+        batch -> {
+          checkCancelled(cancelled);
+          kept.addAll(filterInterventions(batch, query));
+          count[0] += batch.size();
+          received.accept(count[0]);
+        });
+    return kept;
+  }
+
+  private static List<Models.Intervention> filterInterventions(
+      List<Models.Intervention> fetched, Query query) {
+    Predicate<Models.Intervention> keep = interventionFilter(query);
+    return fetched.stream().filter(keep).toList();
+  }
+
+  /** Filtres agence, client et titre, appliqués à chaque intervention reçue. */
+  private static Predicate<Models.Intervention> interventionFilter(Query query) {
+    String agency = query.agencyId();
+    String cid = query.clientId();
+    String q =
+        query.titleQuery() == null || query.titleQuery().isBlank()
+            ? null
+            : query.titleQuery().toLowerCase();
+    return i ->
+        (agency == null || agency.isBlank() || agency.equals(i.agencyId()))
+            && (cid == null || cid.isBlank() || cid.equals(i.clientId()))
+            && (q == null || (i.title() != null && i.title().toLowerCase().contains(q)));
+  }
+
+  /** Filtre de la vue agrégée : celui des lectures séparées, plus la ressource filtrée. */
+  private Predicate<Models.Intervention> keepIntervention(Query query) {
+    Predicate<Models.Intervention> keep = interventionFilter(query);
+    String rid = normalize(query.resourceId());
+    return rid == null ? keep : keep.and(i -> resourcesOf.apply(i).contains(rid));
+  }
+
+  private Map<String, String> resourceTypeIds(
+      List<Models.Resource> resources, BooleanSupplier cancelled) {
+    Map<String, String> typeIds = new HashMap<>();
+    for (Models.Resource resource : resources) {
+      checkCancelled(cancelled);
+      if (resource == null || resource.id() == null) {
+        continue;
+      }
+      String typeId;
+      try {
+        typeId = dsp.getResourceTypeForResource(resource.id());
+      } catch (RuntimeException ignored) {
+        typeId = null;
+      }
+      typeIds.put(resource.id(), typeId);
+    }
+    return typeIds;
+  }
+
+  private Map<String, List<String>> interventionTags(
+      List<Models.Intervention> items, BooleanSupplier cancelled) {
+    List<String> ids = new ArrayList<>();
+    for (Models.Intervention intervention : items) {
+      String id = intervention == null ? null : intervention.id();
+      if (id != null && !id.isBlank()) {
+        ids.add(id);
+      }
+    }
+    Map<String, List<String>> tags = new LinkedHashMap<>();
+    for (int from = 0; from < ids.size(); from += TAG_CHUNK) {
+      checkCancelled(cancelled);
+      try {
+        tags.putAll(
+            dsp.getInterventionTags(ids.subList(from, Math.min(ids.size(), from + TAG_CHUNK))));
+      } catch (RuntimeException ignored) {
+        // ignore les échecs réseau pour ne pas bloquer le rechargement
+      }
+    }
+    return tags;
+  }
+
+  private static boolean matchesTag(
+      Models.Intervention intervention, Map<String, List<String>> tags, String needle) {
+    if (intervention == null || intervention.id() == null || intervention.id().isBlank()) {
+      return false;
+    }
+    List<String> values = tags.get(intervention.id());
+    if (values == null) {
+      return false;
+    }
+    for (String tag : values) {
+      if (tag != null && tag.toLowerCase(Locale.ROOT).contains(needle)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static Set<String> conflictIds(List<ConflictUtil.Conflict> conflicts) {
+    return conflicts.stream()
+        .flatMap(c -> Stream.of(c.a().id(), c.b().id()))
+        .filter(id -> id != null && !id.isBlank())
+        .collect(Collectors.toSet());
+  }
+
+  private static <T> CompletableFuture<T> fetch(
+      Supplier<T> supplier, Executor executor, BooleanSupplier cancelled) {
+    return CompletableFuture.supplyAsync(
+        () -> {
+          checkCancelled(cancelled);
+          return supplier.get();
+        },
+        executor);
+  }
+
+  private static void checkCancelled(BooleanSupplier cancelled) {
+    if (cancelled.getAsBoolean()) {
+      throw new CancellationException("Rechargement remplacé");
+    }
+  }
+
+  private static String normalize(String value) {
+    if (value == null) {
+      return null;
+    }
+    String trimmed = value.trim();
+    return trimmed.isEmpty() ? null : trimmed;
+  }
+}
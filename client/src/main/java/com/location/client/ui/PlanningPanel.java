@@ -2,6 +2,7 @@ package com.location.client.ui;
 
 import com.location.client.core.DataSourceProvider;
 import com.location.client.core.Models;
+import com.location.client.core.RestDataSource;
 import com.location.client.ui.icons.SvgIconLoader;
 import java.awt.AlphaComposite;
 import java.awt.BasicStroke;
@@ -45,6 +46,7 @@ import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
@@ -97,7 +99,20 @@ import com.location.client.ui.uikit.Toasts;
 
 public class PlanningPanel extends JPanel {
   // --- Virtualization & caches ---
-  private final java.util.Map<String, java.awt.Rectangle> tileRectCache = new java.util.HashMap<>();
+  private final PlanningLayout layout = new PlanningLayout(this::effectiveResourceIds);
+  private final PlanningLoader loader;
+  /** Numéro du dernier rechargement demandé : un résultat plus ancien est ignoré. */
+  private final java.util.concurrent.atomic.AtomicLong reloadGeneration =
+      new java.util.concurrent.atomic.AtomicLong();
+  private long appliedGeneration;
+  /** Version du flux de changements déjà incluse dans les données affichées (0 : inconnue). */
+  private long appliedChangeVersion;
+  /** Interventions déjà reçues par le rechargement en cours, affichées tant qu'il n'a pas abouti. */
+  private int reloadReceived;
+  private final List<Runnable> pendingReloadCallbacks = new ArrayList<>();
+  private List<Models.Intervention> heatmapSource;
+  private Object heatmapKey;
+  private int[] heatmapCache = new int[0];
   private int lastColWidth = -1;
   private java.time.OffsetDateTime lastViewFrom = null;
   private java.time.OffsetDateTime lastViewTo = null;
@@ -151,6 +166,14 @@ public class PlanningPanel extends JPanel {
   private List<Models.Intervention> interventions = List.of();
   private List<Models.Unavailability> unavailabilities = List.of();
   private final java.util.List<ConflictUtil.Conflict> conflicts = new java.util.ArrayList<>();
+  /** Couloirs de conflits pour les mises à jour unitaires ; reconstruits au besoin après reload. */
+  private ConflictUtil.Index conflictLanes;
+  /** Interventions en conflit, pour le rendu (tenu à jour par setConflicts). */
+  private final java.util.Set<String> conflictIds = new java.util.HashSet<>();
+  private final java.util.Set<String> conflictKeys = new java.util.HashSet<>();
+  private int conflictsStamp;
+  private Object minimapConflictKey;
+  private int[] minimapConflictCache = new int[0];
   private final java.util.List<ConflictEntry> conflictEntries = new java.util.ArrayList<>();
   private javax.swing.JPanel conflictsPanel;
   private javax.swing.JLabel conflictsHeaderLabel;
@@ -176,6 +199,11 @@ public class PlanningPanel extends JPanel {
     conflictsDebounce.setRepeats(false);
   }
   private volatile boolean conflictsDirty = false;
+  /** Rafales de changements serveur : un seul rechargement. */
+  private final javax.swing.Timer changeReload = new javax.swing.Timer(500, e -> reload());
+  {
+    changeReload.setRepeats(false);
+  }
   private final java.util.Map<String, javax.swing.Icon> iconCache = new java.util.HashMap<>();
   // Mini-map overview
   private boolean minimapVisible = true;
@@ -222,14 +250,23 @@ public class PlanningPanel extends JPanel {
   private javax.swing.JList<String> bookmarksList;
   private javax.swing.DefaultListModel<String> bookmarksModel;
   // C2 — Palette GoTo/Find (Ctrl+K / Meta+K)
+  private static final int PALETTE_LIMIT = 50;
   private javax.swing.JDialog paletteDlg;
   private javax.swing.JTextField paletteInput;
   private javax.swing.JList<String> paletteList;
   private javax.swing.DefaultListModel<String> paletteModel;
   private final java.util.List<Object> paletteHits = new java.util.ArrayList<>();
-  private java.util.List<Models.Intervention> idxInterv = new java.util.ArrayList<>();
-  private final java.util.Map<String, Models.Resource> idxResByName = new java.util.HashMap<>();
-  private final java.util.Map<String, Models.Client> idxClientByName = new java.util.HashMap<>();
+  private final SearchIndex<Models.Intervention> idxInterv =
+      new SearchIndex<>(
+          Models.Intervention::id, i -> java.util.Arrays.asList(i.title(), i.notes()));
+  private final SearchIndex<Models.Intervention> idxTags =
+      new SearchIndex<>(Models.Intervention::id, i -> this.interventionTags.get(i.id()));
+  private final SearchIndex<Models.Resource> idxResources =
+      new SearchIndex<>(Models.Resource::id, r -> java.util.Collections.singletonList(r.name()));
+  private final SearchIndex<Models.Client> idxClients =
+      new SearchIndex<>(Models.Client::id, c -> java.util.Collections.singletonList(c.name()));
+  /** Les listes ont changé depuis la dernière mise à jour des index de la palette. */
+  private boolean searchIndexStale = true;
   private final java.util.Deque<String> paletteHistory = new java.util.ArrayDeque<>();
   private int paletteHistoryCursor = -1;
   private final java.util.prefs.Preferences palettePrefs =
@@ -278,6 +315,8 @@ public class PlanningPanel extends JPanel {
   private static final int BASE_HEADER_H = 28;
   private static final int CHIP_BAR_H = 24;
   private static final int ROW_H = 60;
+  /** Largeur minimale d'une tuile (16) plus le décalage d'animation (8) : marge de recherche en x. */
+  private static final int TILE_X_SLOP = 24;
   private static final int TIME_W = 80;
   private static final int HOURS = 12;
   // S14: horizontal zoom (1.0 = default)
@@ -304,8 +343,6 @@ public class PlanningPanel extends JPanel {
   private boolean dragResizeLeft;
   private boolean dragResizeRight;
   private Models.Intervention selected;
-  private final java.util.Map<String, Integer> laneIndexById = new java.util.HashMap<>();
-  private final java.util.Map<String, Integer> laneCountByResource = new java.util.HashMap<>();
   private final java.util.Map<String, Integer> textWidthCache =
       new java.util.LinkedHashMap<>(128, 0.75f, true) {
         @Override
@@ -885,6 +922,7 @@ public class PlanningPanel extends JPanel {
             });
 
     this.dsp = dsp;
+    this.loader = new PlanningLoader(dsp, this::effectiveResourceIds);
     setLayout(null);
 
     inspectorPanel = new JPanel(new GridBagLayout());
@@ -1776,203 +1814,131 @@ public class PlanningPanel extends JPanel {
   }
 
   public void reload() {
+    reload(null);
+  }
+
+  /**
+   * Recharge le planning. Sur l'EDT avec le backend REST, les lectures partent en arrière-plan et
+   * seul le dernier rechargement demandé est appliqué ; {@code after} s'exécute ensuite sur l'EDT.
+   * Ailleurs (source en mémoire, appel hors EDT), le chargement reste synchrone.
+   */
+  public void reload(Runnable after) {
+    PlanningLoader.Query query = reloadQuery();
+    long generation = reloadGeneration.incrementAndGet();
+    if (!SwingUtilities.isEventDispatchThread() || !(dsp instanceof RestDataSource)) {
+      pendingReloadCallbacks.clear();
+      applyReload(loader.load(query, Runnable::run, () -> false).join());
+      if (after != null) {
+        after.run();
+      }
+      return;
+    }
+    if (after != null) {
+      pendingReloadCallbacks.add(after);
+    }
+    loader
+        .load(
+            query,
+            PlanningLoader.EXECUTOR,
+            () -> generation != reloadGeneration.get(),
+            received -> showReloadProgress(generation, received))
+        .whenComplete(
+            (snapshot, error) ->
+                SwingUtilities.invokeLater(
+                    () -> {
+                      if (generation != reloadGeneration.get()) {
+                        return;
+                      }
+                      List<Runnable> callbacks = List.copyOf(pendingReloadCallbacks);
+                      pendingReloadCallbacks.clear();
+                      if (error != null) {
+                        appliedGeneration = generation;
+                        Throwable cause =
+                            error instanceof java.util.concurrent.CompletionException
+                                    && error.getCause() != null
+                                ? error.getCause()
+                                : error;
+                        notifyError("Chargement du planning impossible : " + cause.getMessage());
+                        return;
+                      }
+                      applyReload(snapshot);
+                      callbacks.forEach(Runnable::run);
+                    }));
+  }
+
+  private void showReloadProgress(long generation, int received) {
+    SwingUtilities.invokeLater(
+        () -> {
+          if (generation == reloadGeneration.get() && isReloadPending()) {
+            reloadReceived = received;
+            repaint();
+          }
+        });
+  }
+
+  /** Vrai tant que le dernier rechargement demandé n'a pas abouti. */
+  private boolean isReloadPending() {
+    return reloadGeneration.get() != appliedGeneration;
+  }
+
+  private PlanningLoader.Query reloadQuery() {
+    return new PlanningLoader.Query(
+        filterAgencyId,
+        filterTags,
+        filterResourceId,
+        searchQuery,
+        filterClientId,
+        filterQuery,
+        interventionTagFilter,
+        filterOnlyConflicts,
+        filterNoConflicts,
+        getViewFrom(),
+        getViewTo(),
+        collapsedTypes,
+        UNTYPED_TYPE_KEY);
+  }
+
+  /** Remplace d'un bloc les données affichées ; la sélection est reprise si elle existe encore. */
+  private void applyReload(PlanningLoader.Snapshot snapshot) {
+    appliedGeneration = reloadGeneration.get();
+    appliedChangeVersion = snapshot.version();
+    reloadReceived = 0;
     invalidateLayoutCaches();
     String selectedId = getSelectedInterventionId();
     String selectedResourceId = selectedResourceId();
     java.util.Set<String> preservedSelection = new LinkedHashSet<>(multiSelectionIds);
-    agencies = dsp.listAgencies();
-    List<Models.Resource> fetchedResources = dsp.listResources();
-    String agency = filterAgencyId;
-    if (agency != null && !agency.isBlank()) {
-      fetchedResources =
-          fetchedResources.stream().filter(r -> agency.equals(r.agencyId())).toList();
-    }
-    if (filterTags != null && !filterTags.isBlank()) {
-      Set<String> requested =
-          Arrays.stream(filterTags.toLowerCase().split("\\s*,\\s*")).filter(s -> !s.isBlank()).collect(Collectors.toSet());
-      if (!requested.isEmpty()) {
-        fetchedResources =
-            fetchedResources.stream()
-                .filter(
-                    r ->
-                        r.tags() != null
-                            && requested.stream()
-                                .allMatch(t -> r.tags().toLowerCase().contains(t)))
-                .toList();
-      }
-    }
-    if (filterResourceId != null && !filterResourceId.isBlank()) {
-      String rid = filterResourceId;
-      fetchedResources = fetchedResources.stream().filter(r -> rid.equals(r.id())).toList();
-    }
-    if (searchQuery != null && !searchQuery.isBlank()) {
-      String needle = searchQuery;
-      fetchedResources =
-          fetchedResources.stream()
-              .filter(
-                  r -> {
-                    if (r == null) {
-                      return false;
-                    }
-                    String name = r.name();
-                    return name != null && name.toLowerCase(Locale.ROOT).contains(needle);
-                  })
-              .toList();
-    }
-    List<Models.ResourceType> fetchedTypes;
-    try {
-      fetchedTypes = dsp.listResourceTypes();
-    } catch (RuntimeException ex) {
-      fetchedTypes = List.of();
-    }
-    if (fetchedTypes == null) {
-      fetchedTypes = List.of();
-    }
-    resourceTypes = fetchedTypes;
+    agencies = snapshot.agencies();
+    resourceTypes = snapshot.resourceTypes();
     rebuildTypeColors();
     java.util.Set<String> knownTypeIds =
-        resourceTypes.stream()
-            .map(Models.ResourceType::id)
-            .filter(Objects::nonNull)
-            .collect(Collectors.toCollection(LinkedHashSet::new));
-    knownTypeIds.add(UNTYPED_TYPE_KEY);
+        PlanningLoader.knownTypeIds(resourceTypes, UNTYPED_TYPE_KEY);
     collapsedTypes.retainAll(knownTypeIds);
     saveCollapsedTypes();
     pinnedTypes.retainAll(knownTypeIds);
     savePinnedTypes();
 
     resourceTypeIdByResource.clear();
-    for (Models.Resource resource : fetchedResources) {
-      if (resource == null) {
-        continue;
-      }
-      String id = resource.id();
-      if (id == null) {
-        continue;
-      }
-      String typeId = null;
-      try {
-        typeId = dsp.getResourceTypeForResource(id);
-      } catch (RuntimeException ignored) {
-        typeId = null;
-      }
-      resourceTypeIdByResource.put(id, typeId);
-    }
-
-    if (filterResourceId != null && !filterResourceId.isBlank()) {
-      String forcedType = resourceTypeIdByResource.get(filterResourceId);
-      if (forcedType != null) {
-        if (collapsedTypes.remove(forcedType)) {
-          saveCollapsedTypes();
-        }
-      }
-    }
-
-    java.util.Map<String, Integer> typeOrder = new java.util.HashMap<>();
-    for (int i = 0; i < resourceTypes.size(); i++) {
-      Models.ResourceType type = resourceTypes.get(i);
-      if (type != null && type.id() != null) {
-        typeOrder.put(type.id(), i);
-      }
+    resourceTypeIdByResource.putAll(snapshot.typeIdByResource());
+    String forcedType = PlanningLoader.forcedType(reloadQuery(), resourceTypeIdByResource);
+    if (forcedType != null && collapsedTypes.remove(forcedType)) {
+      saveCollapsedTypes();
     }
 
-    java.text.Collator collator = java.text.Collator.getInstance();
-    List<Models.Resource> sortedResources =
-        fetchedResources.stream()
-            .filter(
-                r -> {
-                  if (r == null || r.id() == null) {
-                    return true;
-                  }
-                  String typeId = resourceTypeIdByResource.get(r.id());
-                  return typeId == null || !collapsedTypes.contains(typeId);
-                })
-            .sorted(
-                (a, b) -> {
-                  if (a == null || b == null) {
-                    return a == null ? (b == null ? 0 : -1) : 1;
-                  }
-                  String ta = a.id() == null ? null : resourceTypeIdByResource.get(a.id());
-                  String tb = b.id() == null ? null : resourceTypeIdByResource.get(b.id());
-                  int oa = typeOrder.getOrDefault(ta, Integer.MAX_VALUE / 2);
-                  int ob = typeOrder.getOrDefault(tb, Integer.MAX_VALUE / 2);
-                  if (oa != ob) {
-                    return Integer.compare(oa, ob);
-                  }
-                  String an = a.name() == null ? "" : a.name();
-                  String bn = b.name() == null ? "" : b.name();
-                  return collator.compare(an, bn);
-                })
-            .toList();
-
-    resources = sortedResources;
+    resources = snapshot.resources();
     rebuildResourceIndex();
     rebuildDisplayIndex();
     rebuildResourceColors();
 
-    clients = dsp.listClients();
-
-    OffsetDateTime from = getViewFrom();
-    OffsetDateTime to = getViewTo();
-    List<Models.Intervention> data = dsp.listInterventions(from, to, normalize(filterResourceId));
-    if (agency != null && !agency.isBlank()) {
-      data = data.stream().filter(i -> agency.equals(i.agencyId())).toList();
-    }
-    if (filterClientId != null && !filterClientId.isBlank()) {
-      String cid = filterClientId;
-      data = data.stream().filter(i -> cid.equals(i.clientId())).toList();
-    }
-    if (filterQuery != null && !filterQuery.isBlank()) {
-      String q = filterQuery.toLowerCase();
-      data =
-          data.stream()
-              .filter(i -> i.title() != null && i.title().toLowerCase().contains(q))
-              .toList();
-    }
-    loadInterventionTags(data);
-    if (interventionTagFilter != null && !interventionTagFilter.isBlank()) {
-      data = data.stream().filter(this::matchesInterventionTagFilter).toList();
-    }
-    if (filterTags != null && !filterTags.isBlank()) {
-      Set<String> visibleIds = resources.stream().map(Models.Resource::id).collect(Collectors.toSet());
-      data =
-          data.stream()
-              .filter(i -> effectiveResourceIds(i).stream().anyMatch(visibleIds::contains))
-              .toList();
-    }
-    List<ConflictUtil.Conflict> computedConflicts = ConflictUtil.computeConflicts(data);
-    if (filterOnlyConflicts && !computedConflicts.isEmpty()) {
-      Set<String> conflictIds =
-          computedConflicts.stream()
-              .flatMap(c -> Stream.of(c.a().id(), c.b().id()))
-              .filter(id -> id != null && !id.isBlank())
-              .collect(Collectors.toSet());
-      data =
-          data.stream()
-              .filter(i -> i.id() != null && conflictIds.contains(i.id()))
-              .toList();
-      computedConflicts = ConflictUtil.computeConflicts(data);
-    }
-    if (filterNoConflicts && !computedConflicts.isEmpty()) {
-      Set<String> conflictIds =
-          computedConflicts.stream()
-              .flatMap(c -> Stream.of(c.a().id(), c.b().id()))
-              .filter(id -> id != null && !id.isBlank())
-              .collect(Collectors.toSet());
-      data =
-          data.stream()
-              .filter(i -> i.id() == null || !conflictIds.contains(i.id()))
-              .toList();
-      computedConflicts = ConflictUtil.computeConflicts(data);
-    }
-    retainInterventionTagsFor(data);
-    conflicts.clear();
-    conflicts.addAll(computedConflicts);
+    clients = snapshot.clients();
+    interventionTags.clear();
+    interventionTags.putAll(snapshot.interventionTags());
+    setConflicts(snapshot.conflicts());
+    conflictLanes = null;
     try {
       Notify.post("conflicts.update", List.copyOf(conflicts));
     } catch (Throwable ignore) {
     }
-    interventions = data;
+    interventions = snapshot.interventions();
     java.util.Set<String> availableIds =
         interventions.stream()
             .map(Models.Intervention::id)
@@ -2006,12 +1972,7 @@ public class PlanningPanel extends JPanel {
       }
     }
 
-    List<Models.Unavailability> unav =
-        dsp.listUnavailabilities(from, to, normalize(filterResourceId));
-    Set<String> visibleResourceIds =
-        resources.stream().map(Models.Resource::id).collect(Collectors.toSet());
-    unavailabilities =
-        unav.stream().filter(u -> visibleResourceIds.contains(u.resourceId())).toList();
+    unavailabilities = snapshot.unavailabilities();
     computeDynamicRows();
     notifyReloadListeners();
     fireSelectionChanged();
@@ -2020,6 +1981,107 @@ public class PlanningPanel extends JPanel {
     scheduleConflictsRebuild();
   }
 
+  /**
+   * Applique un changement poussé par le serveur, sauf s'il figure déjà dans la dernière vue
+   * agrégée chargée. Une intervention créée, modifiée ou supprimée est patchée en place quand aucun
+   * filtre ne dépend d'autres données ; sinon (ressources, indisponibilités, reprise impossible) un
+   * rechargement complet est regroupé.
+   */
+  public void applyChange(Models.Change change) {
+    if (change == null || change.version() <= appliedChangeVersion) {
+      return;
+    }
+    if (!"intervention".equals(change.entity())
+        || change.id() == null
+        || !canPatchInterventions()
+        || isReloadPending()) {
+      changeReload.restart();
+      return;
+    }
+    patchIntervention(change.id(), "upsert".equals(change.op()) ? change.intervention() : null);
+  }
+
+  /**
+   * Remplace (ou retire si {@code updated} est nul) une intervention sans recharger : conflits et
+   * couloirs ne sont recalculés que pour ses ressources.
+   */
+  private void patchIntervention(String id, Models.Intervention updated) {
+    List<Models.Intervention> next = new ArrayList<>(interventions.size() + 1);
+    Models.Intervention previous = null;
+    for (Models.Intervention intervention : interventions) {
+      if (intervention != null && id.equals(intervention.id())) {
+        previous = intervention;
+      } else if (intervention != null) {
+        next.add(intervention);
+      }
+    }
+    boolean removed = previous != null;
+    boolean visible = updated != null && isInView(updated);
+    if (!removed && !visible) {
+      return;
+    }
+    if (visible) {
+      next.add(updated);
+      next.sort(Comparator.comparing(Models.Intervention::start));
+    }
+    invalidateLayoutCaches();
+    if (conflictLanes == null) {
+      conflictLanes = ConflictUtil.Index.of(interventions);
+    }
+    if (visible) {
+      conflictLanes.put(updated);
+    } else {
+      conflictLanes.remove(id);
+    }
+    setConflicts(conflictLanes.conflicts());
+    try {
+      Notify.post("conflicts.update", List.copyOf(conflicts));
+    } catch (Throwable ignore) {
+    }
+    if (layout.isCurrent(interventions, getViewFrom().toInstant(), getViewTo().toInstant())) {
+      layout.replace(next, previous, visible ? updated : null);
+    }
+    interventions = next;
+    if (!visible) {
+      multiSelectionIds.remove(id);
+      interventionTags.remove(id);
+      if (id.equals(getSelectedInterventionId())) {
+        setSelected(null);
+      }
+    } else if (id.equals(getSelectedInterventionId())) {
+      setSelected(updated, selectedResourceId(), false);
+    }
+    computeDynamicRows();
+    notifyReloadListeners();
+    fireSelectionChanged();
+    recomputeMiniBins();
+    repaint();
+    scheduleConflictsRebuild();
+  }
+
+  private boolean canPatchInterventions() {
+    return (filterClientId == null || filterClientId.isBlank())
+        && (filterQuery == null || filterQuery.isBlank())
+        && (filterTags == null || filterTags.isBlank())
+        && (interventionTagFilter == null || interventionTagFilter.isBlank())
+        && !filterOnlyConflicts
+        && !filterNoConflicts;
+  }
+
+  private boolean isInView(Models.Intervention intervention) {
+    if (filterAgencyId != null
+        && !filterAgencyId.isBlank()
+        && !filterAgencyId.equals(intervention.agencyId())) {
+      return false;
+    }
+    String rid = normalize(filterResourceId);
+    if (rid != null && !effectiveResourceIds(intervention).contains(rid)) {
+      return false;
+    }
+    return intervention.end().isAfter(getViewFrom().toInstant())
+        && intervention.start().isBefore(getViewTo().toInstant());
+  }
+
   public void addReloadListener(Runnable listener) {
     if (listener != null) {
       reloadListeners.add(listener);
@@ -2037,6 +2099,7 @@ public class PlanningPanel extends JPanel {
   }
 
   private void notifyReloadListeners() {
+    searchIndexStale = true;
     if (reloadListeners.isEmpty()) {
       return;
     }
@@ -2211,7 +2274,7 @@ public class PlanningPanel extends JPanel {
   }
 
   private void invalidateLayoutCaches() {
-    tileRectCache.clear();
+    layout.invalidateRects();
     lastColWidth = -1;
     lastViewFrom = null;
     lastViewTo = null;
@@ -2230,7 +2293,7 @@ public class PlanningPanel extends JPanel {
         || lastColWidth != columnWidth
         || !Objects.equals(lastViewFrom, viewFrom)
         || !Objects.equals(lastViewTo, viewTo)) {
-      tileRectCache.clear();
+      layout.invalidateRects();
       lastWidth = width;
       lastHeight = height;
       lastColWidth = columnWidth;
@@ -2293,65 +2356,6 @@ public class PlanningPanel extends JPanel {
     return interventionTagFilter;
   }
 
-  private void loadInterventionTags(List<Models.Intervention> items) {
-    interventionTags.clear();
-    if (items == null || items.isEmpty()) {
-      return;
-    }
-    for (Models.Intervention intervention : items) {
-      if (intervention == null) {
-        continue;
-      }
-      String id = intervention.id();
-      if (id == null || id.isBlank()) {
-        continue;
-      }
-      try {
-        List<String> tags = dsp.getInterventionTags(id);
-        interventionTags.put(id, tags == null ? List.of() : List.copyOf(tags));
-      } catch (RuntimeException ignored) {
-        // ignore les échecs réseau pour ne pas bloquer le rechargement
-      }
-    }
-  }
-
-  private void retainInterventionTagsFor(List<Models.Intervention> items) {
-    if (items == null) {
-      interventionTags.clear();
-      return;
-    }
-    Set<String> ids =
-        items.stream()
-            .map(Models.Intervention::id)
-            .filter(Objects::nonNull)
-            .collect(Collectors.toSet());
-    interventionTags.keySet().removeIf(id -> !ids.contains(id));
-  }
-
-  private boolean matchesInterventionTagFilter(Models.Intervention intervention) {
-    if (intervention == null) {
-      return false;
-    }
-    if (interventionTagFilter == null || interventionTagFilter.isBlank()) {
-      return true;
-    }
-    String id = intervention.id();
-    if (id == null || id.isBlank()) {
-      return false;
-    }
-    List<String> tags = interventionTags.get(id);
-    if (tags == null || tags.isEmpty()) {
-      return false;
-    }
-    String needle = interventionTagFilter;
-    for (String tag : tags) {
-      if (tag != null && tag.toLowerCase(Locale.ROOT).contains(needle)) {
-        return true;
-      }
-    }
-    return false;
-  }
-
   public void setDay(LocalDate value) {
     if (value == null || value.equals(day)) {
       return;
@@ -2720,57 +2724,38 @@ public class PlanningPanel extends JPanel {
     }
   }
 
-  private void computeLanes(java.time.Instant from, java.time.Instant to) {
-    laneIndexById.clear();
-    laneCountByResource.clear();
-    java.util.Map<String, java.util.List<Models.Intervention>> byResource = new java.util.HashMap<>();
-    for (Models.Intervention intervention : interventions) {
-      if (intervention == null) {
+  /**
+   * Couloirs recalculés seulement si la liste d'interventions ou la fenêtre a changé ; les
+   * abscisses des tuiles suivent la largeur de colonne et le premier jour affiché.
+   */
+  private void ensureLayout(java.time.Instant from, java.time.Instant to) {
+    if (!layout.isCurrent(interventions, from, to)) {
+      layout.rebuild(interventions, from, to);
+      computeDynamicRows();
+    }
+    layout.ensureGeometry(
+        java.util.List.of(colWidth, getViewStart(), getViewDays()), this::xForInstant);
+  }
+
+  /** Tuiles des lignes visibles dont l'étendue horizontale croise la zone affichée. */
+  private java.util.List<Tile> visibleTiles(
+      java.awt.Rectangle vis, int firstDisplayRow, int lastDisplayRow) {
+    java.util.List<Tile> tiles = new java.util.ArrayList<>();
+    for (int idx = Math.max(0, firstDisplayRow); idx <= lastDisplayRow; idx++) {
+      Integer mapped = idx < displayToResource.size() ? displayToResource.get(idx) : null;
+      if (mapped == null || mapped < 0 || mapped >= resources.size()) {
         continue;
       }
-      if (intervention.end().isAfter(from) && intervention.start().isBefore(to)) {
-        for (String resourceId : effectiveResourceIds(intervention)) {
-          if (resourceId == null) {
-            continue;
-          }
-          byResource
-              .computeIfAbsent(resourceId, key -> new java.util.ArrayList<>())
-              .add(intervention);
-        }
+      Models.Resource resource = resources.get(mapped);
+      if (resource == null) {
+        continue;
       }
-    }
-    for (java.util.Map.Entry<String, java.util.List<Models.Intervention>> entry : byResource.entrySet()) {
-      String resourceId = entry.getKey();
-      java.util.List<Models.Intervention> list = entry.getValue();
-      list.sort(java.util.Comparator.comparing(Models.Intervention::start));
-      java.util.List<java.time.Instant> laneEnds = new java.util.ArrayList<>();
-      for (Models.Intervention intervention : list) {
-        int laneIndex = -1;
-        for (int idx = 0; idx < laneEnds.size(); idx++) {
-          if (!intervention.start().isBefore(laneEnds.get(idx))) {
-            laneIndex = idx;
-            break;
-          }
-        }
-        if (laneIndex < 0) {
-          laneIndex = laneEnds.size();
-          laneEnds.add(intervention.end());
-        } else {
-          java.time.Instant currentEnd = laneEnds.get(laneIndex);
-          if (intervention.end().isAfter(currentEnd)) {
-            laneEnds.set(laneIndex, intervention.end());
-          }
-        }
-        if (intervention.id() != null) {
-          String key = laneKey(intervention.id(), resourceId);
-          if (key != null) {
-            laneIndexById.put(key, laneIndex);
-          }
-        }
+      for (PlanningLayout.Placement placement :
+          layout.placementsBetween(resource.id(), vis.x - TILE_X_SLOP, vis.x + vis.width)) {
+        tiles.add(new Tile(placement.intervention, mapped, placement.x1(), placement.x2()));
       }
-      laneCountByResource.put(resourceId, Math.max(1, laneEnds.size()));
     }
-    computeDynamicRows();
+    return tiles;
   }
 
   @Override
@@ -2819,7 +2804,7 @@ public class PlanningPanel extends JPanel {
       revalidate();
     }
 
-    computeLanes(viewFrom.toInstant(), viewTo.toInstant());
+    ensureLayout(viewFrom.toInstant(), viewTo.toInstant());
     ensureRowLayout();
     badgeBounds.clear();
     chipRects.clear();
@@ -3023,47 +3008,21 @@ public class PlanningPanel extends JPanel {
       paintHatched(g2, Math.min(x1, x2), y, Math.max(12, Math.abs(x2 - x1)), height, unav.recurring());
     }
 
-    for (Models.Intervention i : interventions) {
-      for (String rid : effectiveResourceIds(i)) {
-        int r = indexOfResource(rid);
-        if (!isResourceVisibleInRect(r, vis)) {
-          continue;
-        }
-        int x1 = xForInstant(i.start());
-        int x2 = xForInstant(i.end());
-        int minX = Math.min(x1, x2);
-        int maxX = Math.max(x1, x2);
-        if (maxX < vis.x || minX > vis.x + vis.width) {
-          continue;
-        }
-        Tile t = tileFor(i, r);
-        paintTile(g2, t);
-      }
+    java.util.List<Tile> visibleTiles =
+        visibleTiles(vis, firstVisibleDisplayRow, lastVisibleDisplayRow);
+    for (Tile t : visibleTiles) {
+      paintTile(g2, t);
     }
 
     g2.setFont(getFont());
-    for (Models.Intervention i : interventions) {
-      if (i.notes() == null || i.notes().isBlank()) {
+    for (Tile t : visibleTiles) {
+      if (t.i.notes() == null || t.i.notes().isBlank()) {
         continue;
       }
-      for (String rid : effectiveResourceIds(i)) {
-        int r = indexOfResource(rid);
-        if (!isResourceVisibleInRect(r, vis)) {
-          continue;
-        }
-        int x1 = xForInstant(i.start());
-        int x2 = xForInstant(i.end());
-        int minX = Math.min(x1, x2);
-        int maxX = Math.max(x1, x2);
-        if (maxX < vis.x || minX > vis.x + vis.width) {
-          continue;
-        }
-        Tile t = tileFor(i, r);
-        int iconX = Math.max(t.x1, t.x2) - 18;
-        int iconY = rowY(r) + 18;
-        g2.setColor(new Color(30, 30, 30, 200));
-        g2.drawString("\uD83D\uDCD3", iconX, iconY);
-      }
+      int iconX = Math.max(t.x1, t.x2) - 18;
+      int iconY = rowY(t.row) + 18;
+      g2.setColor(new Color(30, 30, 30, 200));
+      g2.drawString("\uD83D\uDCD3", iconX, iconY);
     }
 
     if (selected != null) {
@@ -3094,15 +3053,16 @@ public class PlanningPanel extends JPanel {
       g2pulse.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha));
       g2pulse.setColor(new Color(220, 50, 47));
       g2pulse.setStroke(new BasicStroke(2.5f));
-      for (Models.Intervention intervention : interventions) {
+      for (Tile tile : visibleTiles) {
+        Models.Intervention intervention = tile.i;
         if (!isInConflict(intervention.id())) {
           continue;
         }
         int row = indexOfResource(intervention.resourceId());
-        if (!isResourceVisibleInRect(row, vis)) {
+        if (row != tile.row) {
           continue;
         }
-        java.awt.Rectangle rect = tileRect(tileFor(intervention, row));
+        java.awt.Rectangle rect = tileRect(tile);
         if (rect == null) {
           continue;
         }
@@ -3147,13 +3107,14 @@ public class PlanningPanel extends JPanel {
         double avgTtrMs = metrics.avgMs("conflicts.ttr.ms");
         double apiAvgMs = metrics.avgMs("api.updateIntervention.ms");
         double frameP95 = frameMon.p95FrameMs();
+        double frameP99 = frameMon.p99FrameMs();
         String line2 =
             "Avg TTR: "
                 + String.format(java.util.Locale.ROOT, "%.1fs", avgTtrMs / 1000.0)
                 + "  API avg: "
                 + String.format(java.util.Locale.ROOT, "%.0fms", apiAvgMs)
-                + "  Frame p95: "
-                + String.format(java.util.Locale.ROOT, "%.0fms", frameP95);
+                + "  Frame p95/p99: "
+                + String.format(java.util.Locale.ROOT, "%.0f/%.0fms", frameP95, frameP99);
         String line3 =
             "Actions: reassign="
                 + metrics.getCounter("action.reassign")
@@ -3196,10 +3157,60 @@ public class PlanningPanel extends JPanel {
         metricsGraphics.dispose();
       }
     }
+    if (reloadReceived > 0 && isReloadPending()) {
+      paintReloadProgress(g2, vis);
+    }
     // D3 — frame time (mesuré au paint) pour p95
     frameMon.observeFrame((System.nanoTime() - framePaintStartNs) / 1_000_000.0);
   }
 
+  private void paintReloadProgress(Graphics2D g2, java.awt.Rectangle vis) {
+    Graphics2D g = (Graphics2D) g2.create();
+    try {
+      g.setFont(g.getFont().deriveFont(11f));
+      java.awt.FontMetrics fm = g.getFontMetrics();
+      String text = "Chargement… " + reloadReceived + " interventions";
+      int pad = 6;
+      int boxWidth = fm.stringWidth(text) + pad * 2;
+      int boxHeight = fm.getHeight() + pad;
+      int x = vis.x + vis.width - boxWidth - 8;
+      int y = vis.y + headerHeight() + 6;
+      g.setColor(darkTheme ? new Color(26, 26, 30, 220) : new Color(245, 245, 248, 220));
+      g.fillRoundRect(x, y, boxWidth, boxHeight, 10, 10);
+      g.setColor(darkTheme ? new Color(235, 235, 238) : new Color(40, 40, 44));
+      g.drawString(text, x + pad, y + pad / 2 + fm.getAscent());
+    } finally {
+      g.dispose();
+    }
+  }
+
+  /** Abscisses distinctes des marqueurs de conflit, recalculées si les conflits ou l'axe changent. */
+  private int[] minimapConflictXs(int axX, int axW) {
+    Object key =
+        java.util.List.of(
+            conflictsStamp, axX, axW, multiSpanStartInstant(), multiSpanEndInstant());
+    if (key.equals(minimapConflictKey)) {
+      return minimapConflictCache;
+    }
+    java.util.BitSet xs = new java.util.BitSet();
+    for (ConflictUtil.Conflict conflict : conflicts) {
+      if (conflict == null) {
+        continue;
+      }
+      java.time.Instant a = conflict.a() != null ? conflict.a().start() : null;
+      java.time.Instant b = conflict.b() != null ? conflict.b().start() : null;
+      java.time.Instant mid = mid(a, b);
+      if (mid == null) {
+        continue;
+      }
+      int cx = axX + (int) Math.round(instantToRatio(mid) * axW);
+      xs.set(Math.max(axX, Math.min(axX + axW - 2, cx)));
+    }
+    minimapConflictKey = key;
+    minimapConflictCache = xs.stream().toArray();
+    return minimapConflictCache;
+  }
+
   private void paintMinimap(Graphics2D baseGraphics) {
     Graphics2D gh = (Graphics2D) baseGraphics.create();
     int mmH = MINIMAP_HEIGHT;
@@ -3239,18 +3250,7 @@ public class PlanningPanel extends JPanel {
     }
 
     gh.setColor(new Color(235, 87, 87, 220));
-    for (ConflictUtil.Conflict conflict : conflicts) {
-      if (conflict == null) {
-        continue;
-      }
-      java.time.Instant a = conflict.a() != null ? conflict.a().start() : null;
-      java.time.Instant b = conflict.b() != null ? conflict.b().start() : null;
-      java.time.Instant mid = mid(a, b);
-      if (mid == null) {
-        continue;
-      }
-      int cx = axX + (int) Math.round(instantToRatio(mid) * axW);
-      cx = Math.max(axX, Math.min(axX + axW - 2, cx));
+    for (int cx : minimapConflictXs(axX, axW)) {
       gh.fillRect(cx, axY + 2, 2, Math.max(1, Math.min(4, axH - 4)));
     }
 
@@ -3767,7 +3767,7 @@ public class PlanningPanel extends JPanel {
 
   private void openPalette() {
     ensurePalette();
-    buildSearchIndex();
+    refreshSearchIndex();
     paletteInput.setText("");
     loadHistory();
     updatePaletteResults();
@@ -3791,24 +3791,16 @@ public class PlanningPanel extends JPanel {
     dialog.setSize(width, height);
   }
 
-  private void buildSearchIndex() {
-    idxInterv = new java.util.ArrayList<>(interventions != null ? interventions : java.util.List.of());
-    idxResByName.clear();
-    if (resources != null) {
-      for (Models.Resource resource : resources) {
-        if (resource.name() != null) {
-          idxResByName.put(resource.name().toLowerCase(), resource);
-        }
-      }
-    }
-    idxClientByName.clear();
-    if (clients != null) {
-      for (Models.Client client : clients) {
-        if (client.name() != null) {
-          idxClientByName.put(client.name().toLowerCase(), client);
-        }
-      }
+  /** Rapproche les index de la palette des listes courantes, si un rechargement les a changées. */
+  private void refreshSearchIndex() {
+    if (!searchIndexStale) {
+      return;
     }
+    idxInterv.update(interventions);
+    idxTags.update(interventions);
+    idxResources.update(resources);
+    idxClients.update(clients);
+    searchIndexStale = false;
   }
 
   private void updatePaletteResults() {
@@ -3834,88 +3826,41 @@ public class PlanningPanel extends JPanel {
         paletteHits.add(instant);
       }
     }
+    refreshSearchIndex();
     if (query.startsWith("@")) {
       String rq = lowerQuery.substring(1);
-      java.util.List<java.util.Map.Entry<String, Models.Resource>> entries =
-          new java.util.ArrayList<>(idxResByName.entrySet());
-      entries.sort(
-          (a, b) -> Integer.compare(fuzzyScore(b.getKey(), rq), fuzzyScore(a.getKey(), rq)));
-      for (java.util.Map.Entry<String, Models.Resource> entry : entries) {
-        int score = fuzzyScore(entry.getKey(), rq);
-        if (score <= 0) {
-          continue;
-        }
-        String name = entry.getValue().name();
-        paletteModel.addElement(html("Ressource : ", highlight(name, rq)));
-        paletteHits.add(entry.getValue());
-        if (paletteModel.size() > 50) {
-          break;
-        }
+      for (SearchIndex.Hit<Models.Resource> hit : idxResources.search(rq, PALETTE_LIMIT)) {
+        paletteModel.addElement(html("Ressource : ", highlight(hit.key(), rq)));
+        paletteHits.add(hit.value());
       }
     } else if (query.startsWith("%")) {
       String cq = lowerQuery.substring(1);
-      java.util.List<java.util.Map.Entry<String, Models.Client>> entries =
-          new java.util.ArrayList<>(idxClientByName.entrySet());
-      entries.sort(
-          (a, b) -> Integer.compare(fuzzyScore(b.getKey(), cq), fuzzyScore(a.getKey(), cq)));
-      for (java.util.Map.Entry<String, Models.Client> entry : entries) {
-        int score = fuzzyScore(entry.getKey(), cq);
-        if (score <= 0) {
-          continue;
-        }
-        String name = entry.getValue().name();
-        paletteModel.addElement(html("Client : ", highlight(name, cq)));
-        paletteHits.add(entry.getValue());
-        if (paletteModel.size() > 50) {
-          break;
-        }
+      for (SearchIndex.Hit<Models.Client> hit : idxClients.search(cq, PALETTE_LIMIT)) {
+        paletteModel.addElement(html("Client : ", highlight(hit.key(), cq)));
+        paletteHits.add(hit.value());
       }
     } else if (query.startsWith("#")) {
       String tq = lowerQuery.substring(1);
-      for (Models.Intervention it : idxInterv) {
-        java.util.List<String> tags = it.tags() != null ? it.tags() : java.util.List.of();
-        for (String tag : tags) {
-          if (tag == null) {
-            continue;
-          }
-          int score = fuzzyScore(tag.toLowerCase(), tq);
-          if (score > 0) {
-            String label = html("Tag : #", highlight(tag, tq) + " — " + escape(it.title()));
-            paletteModel.addElement(label);
-            paletteHits.add(it);
-            break;
-          }
-        }
-      }
-    }
-    java.util.List<Models.Intervention> interventionsSorted = new java.util.ArrayList<>(idxInterv);
-    interventionsSorted.sort(
-        (a, b) -> {
-          int scoreA = Math.max(fuzzyScore(safeLower(a.title()), lowerQuery), fuzzyScore(safeLower(a.notes()), lowerQuery));
-          int scoreB = Math.max(fuzzyScore(safeLower(b.title()), lowerQuery), fuzzyScore(safeLower(b.notes()), lowerQuery));
-          return Integer.compare(scoreB, scoreA);
-        });
-    int added = 0;
-    for (Models.Intervention it : interventionsSorted) {
-      if (added > 50) {
-        break;
-      }
-      String title = it.title() != null ? it.title() : "";
-      String notes = it.notes() != null ? it.notes() : "";
-      int score = Math.max(fuzzyScore(title.toLowerCase(), lowerQuery), fuzzyScore(notes.toLowerCase(), lowerQuery));
-      if (score > 0) {
+      for (SearchIndex.Hit<Models.Intervention> hit : idxTags.search(tq, PALETTE_LIMIT)) {
         String label =
-            html(
-                "Intervention : ",
-                highlight(title, lowerQuery)
-                    + "  ("
-                    + escape(timeLabel(it.start(), it.end()))
-                    + ")");
+            html("Tag : #", highlight(hit.key(), tq) + " — " + escape(hit.value().title()));
         paletteModel.addElement(label);
-        paletteHits.add(it);
-        added++;
+        paletteHits.add(hit.value());
       }
     }
+    for (SearchIndex.Hit<Models.Intervention> hit : idxInterv.search(lowerQuery, PALETTE_LIMIT)) {
+      Models.Intervention it = hit.value();
+      String title = it.title() != null ? it.title() : "";
+      String label =
+          html(
+              "Intervention : ",
+              highlight(title, lowerQuery)
+                  + "  ("
+                  + escape(timeLabel(it.start(), it.end()))
+                  + ")");
+      paletteModel.addElement(label);
+      paletteHits.add(it);
+    }
     if (paletteModel.isEmpty()) {
       paletteModel.addElement("Aucun résultat pour \"" + query + "\"");
     }
@@ -3958,36 +3903,6 @@ public class PlanningPanel extends JPanel {
     paletteDlg.setVisible(false);
   }
 
-  private int fuzzyScore(String haystack, String needle) {
-    if (haystack == null || needle == null) {
-      return 0;
-    }
-    String hay = haystack.toLowerCase();
-    String ned = needle.toLowerCase();
-    int i = 0;
-    int j = 0;
-    int score = 0;
-    int streak = 0;
-    while (i < hay.length() && j < ned.length()) {
-      char ch = hay.charAt(i);
-      char cn = ned.charAt(j);
-      if (ch == cn) {
-        streak++;
-        score += 5 + Math.min(4, streak);
-        j++;
-        i++;
-      } else {
-        streak = 0;
-        i++;
-        score -= 1;
-      }
-    }
-    if (j < ned.length()) {
-      return 0;
-    }
-    return Math.max(1, score);
-  }
-
   private String highlight(String text, String query) {
     if (text == null) {
       return "";
@@ -4026,10 +3941,6 @@ public class PlanningPanel extends JPanel {
     return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
   }
 
-  private String safeLower(String text) {
-    return text == null ? "" : text.toLowerCase();
-  }
-
   private void pushHistory(String query) {
     if (!paletteHistory.isEmpty() && paletteHistory.peekFirst().equalsIgnoreCase(query)) {
       return;
@@ -4283,22 +4194,10 @@ public class PlanningPanel extends JPanel {
     if (bodyHeight <= 0) {
       return;
     }
-    ZoneId zone = ZoneId.systemDefault();
-    LocalDate startDate = getViewStart();
+    int[] counts = heatmapCounts(viewDays, stepsPerDay);
     for (int dayIndex = 0; dayIndex < viewDays; dayIndex++) {
-      LocalDate currentDay = startDate.plusDays(dayIndex);
       for (int step = 0; step < stepsPerDay; step++) {
-        java.time.ZonedDateTime slotStartZdt =
-            currentDay.atTime(START_HOUR, 0).atZone(zone).plusMinutes((long) slotMinutes * step);
-        Instant slotStart = slotStartZdt.toInstant();
-        Instant slotEnd = slotStartZdt.plusMinutes(slotMinutes).toInstant();
-        int count = 0;
-        for (Models.Intervention intervention : interventions) {
-          if (intervention.end().isAfter(slotStart)
-              && intervention.start().isBefore(slotEnd)) {
-            count++;
-          }
-        }
+        int count = counts[dayIndex * stepsPerDay + step];
         if (count <= 0) {
           continue;
         }
@@ -4317,6 +4216,82 @@ public class PlanningPanel extends JPanel {
     }
   }
 
+  /**
+   * Nombre d'interventions par créneau, recalculé seulement quand la liste ou la fenêtre change :
+   * les créneaux étant triés, chaque intervention couvre une plage contiguë trouvée par dichotomie
+   * et cumulée dans un tableau de différences.
+   */
+  private int[] heatmapCounts(int viewDays, int stepsPerDay) {
+    Object key = java.util.List.of(getViewStart(), viewDays, stepsPerDay, slotMinutes);
+    if (heatmapSource == interventions && key.equals(heatmapKey)) {
+      return heatmapCache;
+    }
+    ZoneId zone = ZoneId.systemDefault();
+    LocalDate startDate = getViewStart();
+    int slots = viewDays * stepsPerDay;
+    Instant[] slotStarts = new Instant[slots];
+    Instant[] slotEnds = new Instant[slots];
+    for (int dayIndex = 0; dayIndex < viewDays; dayIndex++) {
+      LocalDate currentDay = startDate.plusDays(dayIndex);
+      for (int step = 0; step < stepsPerDay; step++) {
+        java.time.ZonedDateTime slotStartZdt =
+            currentDay.atTime(START_HOUR, 0).atZone(zone).plusMinutes((long) slotMinutes * step);
+        slotStarts[dayIndex * stepsPerDay + step] = slotStartZdt.toInstant();
+        slotEnds[dayIndex * stepsPerDay + step] = slotStartZdt.plusMinutes(slotMinutes).toInstant();
+      }
+    }
+    int[] diff = new int[slots + 1];
+    for (Models.Intervention intervention : interventions) {
+      if (intervention == null || intervention.start() == null || intervention.end() == null) {
+        continue;
+      }
+      int first = firstSlotEndingAfter(slotEnds, intervention.start());
+      int last = firstSlotStartingAtOrAfter(slotStarts, intervention.end()) - 1;
+      if (first <= last) {
+        diff[first]++;
+        diff[last + 1]--;
+      }
+    }
+    int[] counts = new int[slots];
+    int running = 0;
+    for (int slot = 0; slot < slots; slot++) {
+      running += diff[slot];
+      counts[slot] = running;
+    }
+    heatmapSource = interventions;
+    heatmapKey = key;
+    heatmapCache = counts;
+    return counts;
+  }
+
+  private static int firstSlotEndingAfter(Instant[] slotEnds, Instant instant) {
+    int lo = 0;
+    int hi = slotEnds.length;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (slotEnds[mid].isAfter(instant)) {
+        hi = mid;
+      } else {
+        lo = mid + 1;
+      }
+    }
+    return lo;
+  }
+
+  private static int firstSlotStartingAtOrAfter(Instant[] slotStarts, Instant instant) {
+    int lo = 0;
+    int hi = slotStarts.length;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (!slotStarts[mid].isBefore(instant)) {
+        hi = mid;
+      } else {
+        lo = mid + 1;
+      }
+    }
+    return lo;
+  }
+
   private void drawTimeRuler(Graphics2D baseGraphics, int usableWidth, int chipBar, int headerH) {
     if (usableWidth <= 0) {
       return;
@@ -5203,6 +5178,7 @@ public class PlanningPanel extends JPanel {
     try {
       dsp.setInterventionTags(id, sanitized);
       interventionTags.put(id, java.util.List.copyOf(sanitized));
+      searchIndexStale = true;
       String summary = sanitized.isEmpty() ? "Aucun tag" : String.join(", ", sanitized);
       notifySuccess("Tags mis à jour", summary);
       java.util.List<String> beforeSnapshot = java.util.List.copyOf(before);
@@ -5215,8 +5191,7 @@ public class PlanningPanel extends JPanel {
             } catch (RuntimeException ex) {
               Toolkit.getDefaultToolkit().beep();
             }
-            reload();
-            selectAndRevealIntervention(id);
+            reload(() -> selectAndRevealIntervention(id));
           },
           () -> {
             try {
@@ -5224,11 +5199,9 @@ public class PlanningPanel extends JPanel {
             } catch (RuntimeException ex) {
               Toolkit.getDefaultToolkit().beep();
             }
-            reload();
-            selectAndRevealIntervention(id);
+            reload(() -> selectAndRevealIntervention(id));
           });
-      reload();
-      selectAndRevealIntervention(id);
+      reload(() -> selectAndRevealIntervention(id));
     } catch (UnsupportedOperationException ex) {
       Toolkit.getDefaultToolkit().beep();
       JOptionPane.showMessageDialog(
@@ -5322,10 +5295,12 @@ public class PlanningPanel extends JPanel {
             Models.Intervention saved = dsp.updateIntervention(updated);
             setSelected(saved);
             hoverIntervention = saved;
-            reload();
-            if (saved != null && saved.id() != null) {
-              selectAndRevealIntervention(saved.id());
-            }
+            reload(
+                () -> {
+                  if (saved != null && saved.id() != null) {
+                    selectAndRevealIntervention(saved.id());
+                  }
+                });
             pushUpdateHistory("Renommage", before, saved);
             if (saved != null && saved.id() != null) {
               notifySuccess("Intervention renommée", "Renommage: " + trimmed);
@@ -5364,10 +5339,12 @@ public class PlanningPanel extends JPanel {
             Models.Intervention saved = dsp.updateIntervention(shifted);
             setSelected(saved);
             hoverIntervention = saved;
-            reload();
-            if (saved != null && saved.id() != null) {
-              selectAndRevealIntervention(saved.id());
-            }
+            reload(
+                () -> {
+                  if (saved != null && saved.id() != null) {
+                    selectAndRevealIntervention(saved.id());
+                  }
+                });
             pushUpdateHistory("Décalage", before, saved);
             if (saved != null && saved.id() != null) {
               notifySuccess("Intervention décalée", "Décalage +30 min: " + saved.id());
@@ -5612,14 +5589,12 @@ public class PlanningPanel extends JPanel {
     for (java.util.Map.Entry<String, java.awt.Rectangle> entry : badgeBounds.entrySet()) {
       java.awt.Rectangle bounds = entry.getValue();
       if (bounds != null && bounds.contains(p)) {
-        String id = entry.getKey();
-        if (id == null) {
-          continue;
+        Models.Intervention intervention = layout.intervention(entry.getKey());
+        if (intervention == null) {
+          intervention = findInterventionById(entry.getKey());
         }
-        for (Models.Intervention intervention : interventions) {
-          if (id.equals(intervention.id())) {
-            return intervention;
-          }
+        if (intervention != null) {
+          return intervention;
         }
       }
     }
@@ -5655,32 +5630,20 @@ public class PlanningPanel extends JPanel {
       return new java.awt.Rectangle();
     }
     String resourceId = resourceIdAtRow(t.row);
-    int laneCount = Math.max(1, laneCountByResource.getOrDefault(resourceId, 1));
-    int laneIndex = 0;
-    String interventionId = t.i.id();
-    if (interventionId != null) {
-      String key = laneKey(interventionId, resourceId);
-      if (key != null) {
-        laneIndex = laneIndexById.getOrDefault(key, 0);
-      }
-    }
-    laneIndex = Math.max(0, Math.min(laneCount - 1, laneIndex));
+    int laneCount = layout.laneCount(resourceId);
+    PlanningLayout.Placement placement = layout.placement(t.i.id(), resourceId);
+    int laneIndex = placement == null ? 0 : Math.max(0, Math.min(laneCount - 1, placement.lane()));
     int offset = animationOffsetFor(t.i, resourceId);
-    if (t.alpha != 1f || offset != 0) {
+    if (placement == null
+        || t.alpha != 1f
+        || offset != 0
+        || placement.intervention != t.i
+        || t.x1 != placement.x1()
+        || t.x2 != placement.x2()) {
       return buildTileRect(t, laneIndex, laneCount, offset);
     }
-    String key = tileKey(t);
-    if (key != null) {
-      String cacheKey = key + "|" + t.row + "|" + laneIndex + "|" + laneCount;
-      java.awt.Rectangle cached = tileRectCache.get(cacheKey);
-      if (cached != null) {
-        return cached;
-      }
-      java.awt.Rectangle rect = buildTileRect(t, laneIndex, laneCount, 0);
-      tileRectCache.put(cacheKey, rect);
-      return rect;
-    }
-    return buildTileRect(t, laneIndex, laneCount, 0);
+    int lane = laneIndex;
+    return layout.rect(placement, () -> buildTileRect(t, lane, laneCount, 0));
   }
 
   private java.awt.Rectangle buildTileRect(Tile t, int laneIndex, int laneCount, int xOffset) {
@@ -5734,30 +5697,21 @@ public class PlanningPanel extends JPanel {
     }
     String resourceId = resourceIdAtRow(t.row);
     String id = t.i.id();
-    if (!conflicts.isEmpty() && id != null) {
-      for (ConflictUtil.Conflict conflict : conflicts) {
-        boolean sameIntervention =
-            id.equals(conflict.a().id()) || id.equals(conflict.b().id());
-        boolean sameResource =
-            conflict.resourceId() == null || Objects.equals(conflict.resourceId(), resourceId);
-        if (sameIntervention && sameResource) {
-          return true;
-        }
-      }
+    if (id != null && conflictIds.contains(id) && conflictKeys.contains(laneKey(id, resourceId))) {
+      return true;
     }
     if (resourceId == null) {
       return false;
     }
     Instant s = instantForX(Math.min(t.x1, t.x2));
     Instant e = instantForX(Math.max(t.x1, t.x2));
-    for (Models.Intervention intervention : interventions) {
-      if (Objects.equals(intervention.id(), id)) {
-        continue;
-      }
-      if (!effectiveResourceIds(intervention).contains(resourceId)) {
-        continue;
+    // Couloir de la ressource trié par début : on s'arrête à la première tuile qui commence après.
+    for (PlanningLayout.Placement placement : layout.placements(resourceId)) {
+      Models.Intervention intervention = placement.intervention;
+      if (!intervention.start().isBefore(e)) {
+        break;
       }
-      if (intervention.end().isAfter(s) && intervention.start().isBefore(e)) {
+      if (!Objects.equals(intervention.id(), id) && intervention.end().isAfter(s)) {
         return true;
       }
     }
@@ -5776,14 +5730,11 @@ public class PlanningPanel extends JPanel {
     if (resource == null) {
       return Optional.empty();
     }
-    String resourceId = resource.id();
-    for (Models.Intervention i : interventions) {
-      if (!effectiveResourceIds(i).contains(resourceId)) {
-        continue;
-      }
-      Tile t = tileFor(i, row);
-      Rectangle rect = tileRect(t);
-      if (rect.contains(p)) {
+    ensureLayout(getViewFrom().toInstant(), getViewTo().toInstant());
+    for (PlanningLayout.Placement placement :
+        layout.placementsBetween(resource.id(), p.x - TILE_X_SLOP, p.x)) {
+      Tile t = new Tile(placement.intervention, row, placement.x1(), placement.x2());
+      if (tileRect(t).contains(p)) {
         return Optional.of(t);
       }
     }
@@ -6052,6 +6003,7 @@ public class PlanningPanel extends JPanel {
       try {
         dsp.setInterventionTags(intervention.id(), tags);
         interventionTags.put(intervention.id(), java.util.List.copyOf(tags));
+        searchIndexStale = true;
         updated = true;
       } catch (RuntimeException ex) {
         failed = true;
@@ -6101,10 +6053,12 @@ public class PlanningPanel extends JPanel {
         }
       }
       setSelected(applied);
-      reload();
-      if (applied.id() != null) {
-        selectAndRevealIntervention(applied.id());
-      }
+      reload(
+          () -> {
+            if (applied.id() != null) {
+              selectAndRevealIntervention(applied.id());
+            }
+          });
       notifySuccess("Affectations mises à jour", "Ressources: " + String.join(", ", sanitized));
       pushUpdateHistory("Affectations", original, applied);
     } catch (RuntimeException ex) {
@@ -6457,7 +6411,11 @@ public class PlanningPanel extends JPanel {
       ensureAvailability(resource.id(), start, end);
       Models.Intervention persisted = dsp.updateIntervention(updated);
       setSelected(persisted, resource.id());
-      reload();
+      if (canPatchInterventions() && persisted.id() != null) {
+        patchIntervention(persisted.id(), persisted);
+      } else {
+        reload();
+      }
       notifySuccess("Déplacement appliqué", "Déplacement intervention " + persisted.id());
       pushUpdateHistory("Déplacement", before, persisted);
     } catch (RuntimeException ex) {
@@ -6477,7 +6435,8 @@ public class PlanningPanel extends JPanel {
       return null;
     }
     Models.Intervention i = ot.get().i;
-    Models.Resource resource = resources.stream().filter(r -> r.id().equals(i.resourceId())).findFirst().orElse(null);
+    int resourceIndex = indexOfResource(i.resourceId());
+    Models.Resource resource = resourceIndex >= 0 ? resources.get(resourceIndex) : null;
     Models.Client client = clients.stream().filter(c -> c.id().equals(i.clientId())).findFirst().orElse(null);
     ZonedDateTime start = i.start().atZone(ZoneId.systemDefault());
     ZonedDateTime end = i.end().atZone(ZoneId.systemDefault());
@@ -6874,7 +6833,7 @@ public class PlanningPanel extends JPanel {
       } else {
         int resourceIndex = mapped;
         String resId = resources.get(resourceIndex).id();
-        int lanes = Math.max(1, laneCountByResource.getOrDefault(resId, 1));
+        int lanes = layout.laneCount(resId);
         height = Math.max(ROW_H, lanes * 56);
         rowHeights[resourceIndex] = height;
         rowYPositions[resourceIndex] = y;
@@ -6883,6 +6842,7 @@ public class PlanningPanel extends JPanel {
       displayRowYPositions[d] = y;
       y += height;
     }
+    layout.invalidateRects();
   }
 
   private void ensureRowLayout() {
@@ -6948,14 +6908,18 @@ public class PlanningPanel extends JPanel {
       return -1;
     }
     ensureRowLayout();
-    for (int idx = 0; idx < displayToResource.size(); idx++) {
-      int top = displayRowY(idx);
-      int bottom = top + displayRowH(idx);
-      if (y >= top && y < bottom) {
-        return idx;
-      }
+    int count = displayToResource.size();
+    if (displayRowYPositions == null || displayRowYPositions.length != count) {
+      return -1;
     }
-    return -1;
+    int idx = java.util.Arrays.binarySearch(displayRowYPositions, y);
+    if (idx < 0) {
+      idx = -idx - 2;
+    }
+    if (idx < 0 || idx >= count) {
+      return -1;
+    }
+    return y < displayRowY(idx) + displayRowH(idx) ? idx : -1;
   }
 
   private int rowAtY(int y) {
@@ -7146,22 +7110,27 @@ public class PlanningPanel extends JPanel {
         });
   }
 
-  private boolean isInConflict(String interventionId) {
-    if (interventionId == null || conflicts == null || conflicts.isEmpty()) {
-      return false;
-    }
-    for (ConflictUtil.Conflict conflict : conflicts) {
+  private void setConflicts(List<ConflictUtil.Conflict> computed) {
+    conflicts.clear();
+    conflicts.addAll(computed);
+    conflictsStamp++;
+    conflictIds.clear();
+    conflictKeys.clear();
+    for (ConflictUtil.Conflict conflict : computed) {
       if (conflict == null) {
         continue;
       }
-      if (conflict.a() != null && interventionId.equals(conflict.a().id())) {
-        return true;
-      }
-      if (conflict.b() != null && interventionId.equals(conflict.b().id())) {
-        return true;
+      for (Models.Intervention side : new Models.Intervention[] {conflict.a(), conflict.b()}) {
+        if (side != null && side.id() != null) {
+          conflictIds.add(side.id());
+          conflictKeys.add(laneKey(side.id(), conflict.resourceId()));
+        }
       }
     }
-    return false;
+  }
+
+  private boolean isInConflict(String interventionId) {
+    return interventionId != null && conflictIds.contains(interventionId);
   }
 
   public void selectAndRevealIntervention(String id) {
@@ -7304,6 +7273,7 @@ public class PlanningPanel extends JPanel {
     java.time.Duration dur = java.time.Duration.between(later.start(), later.end());
     java.time.Instant targetStart = first.end();
     int maxSteps = Math.max(1, (24 * 60) / slotMinutes);
+    ConflictUtil.Index lanes = ConflictUtil.Index.of(interventions);
     for (int i = 0; i < maxSteps; i++) {
       java.time.Instant candStart = targetStart.plus(java.time.Duration.ofMinutes((long) slotMinutes * i));
       java.time.Instant candEnd = candStart.plus(dur);
@@ -7312,15 +7282,7 @@ public class PlanningPanel extends JPanel {
       } catch (RuntimeException ex) {
         continue;
       }
-      java.util.List<Models.Intervention> tmp = new java.util.ArrayList<>(interventions);
-      int idx = -1;
-      for (int k = 0; k < tmp.size(); k++) {
-        if (tmp.get(k).id().equals(later.id())) {
-          idx = k;
-          break;
-        }
-      }
-      if (idx >= 0) {
+      if (findInterventionById(later.id()) != null) {
         Models.Intervention moved = new Models.Intervention(
             later.id(),
             later.agencyId(),
@@ -7331,16 +7293,9 @@ public class PlanningPanel extends JPanel {
             candStart,
             candEnd,
             later.notes());
-        tmp.set(idx, moved);
-        var newConf = ConflictUtil.computeConflicts(tmp);
-        boolean ok = true;
-        for (var c : newConf) {
-          if ((c.a() != null && later.id().equals(c.a().id()))
-              || (c.b() != null && later.id().equals(c.b().id()))) {
-            ok = false;
-            break;
-          }
-        }
+        // Seuls les couloirs de l'intervention déplacée sont rebalayés à chaque essai.
+        lanes.put(moved);
+        boolean ok = lanes.conflictsOf(later.id()).isEmpty();
         if (ok) {
           try {
             Models.Intervention before = copyOf(later);
@@ -7402,6 +7357,7 @@ public class PlanningPanel extends JPanel {
     try {
       dsp.setInterventionTags(id, after);
       interventionTags.put(id, java.util.List.copyOf(after));
+      searchIndexStale = true;
       notifySuccess("Tag ajouté", "Tag " + trimmed + " ajouté à " + id);
       java.util.List<String> beforeSnapshot = java.util.List.copyOf(before);
       java.util.List<String> afterSnapshot = java.util.List.copyOf(after);
@@ -7413,8 +7369,7 @@ public class PlanningPanel extends JPanel {
             } catch (RuntimeException ex) {
               Toolkit.getDefaultToolkit().beep();
             }
-            reload();
-            selectAndRevealIntervention(id);
+            reload(() -> selectAndRevealIntervention(id));
           },
           () -> {
             try {
@@ -7422,11 +7377,9 @@ public class PlanningPanel extends JPanel {
             } catch (RuntimeException ex) {
               Toolkit.getDefaultToolkit().beep();
             }
-            reload();
-            selectAndRevealIntervention(id);
+            reload(() -> selectAndRevealIntervention(id));
           });
-      reload();
-      selectAndRevealIntervention(id);
+      reload(() -> selectAndRevealIntervention(id));
     } catch (UnsupportedOperationException ex) {
       Toolkit.getDefaultToolkit().beep();
       JOptionPane.showMessageDialog(
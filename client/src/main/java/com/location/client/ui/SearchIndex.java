@@ -0,0 +1,239 @@
+package com.location.client.ui;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Index de recherche floue partagé par la palette et la recherche globale. Chaque élément porte
+ * une ou plusieurs clés (titre, notes, nom...) dont la forme minuscule et la signature de
+ * caractères sont calculées une fois, à l'indexation. Une recherche écarte d'abord, par simple
+ * masque, les clés qui ne contiennent pas tous les caractères de la requête, note les autres et ne
+ * garde que les {@code limit} meilleures dans un tas borné.
+ *
+ * <p>La correspondance étant une sous-séquence (« mrt » trouve « Martin »), un index de trigrammes
+ * écarterait des résultats valides : la signature par caractère est le filtre exact le plus fin.
+ * {@link #update} rapproche une nouvelle liste de l'index existant par identifiant et ne recalcule
+ * que les clés qui ont changé. Non synchronisé : à utiliser depuis l'EDT.
+ */
+public final class SearchIndex<T> {
+  /** Résultat : l'élément, son score et la clé (casse d'origine) qui l'a le mieux noté. */
+  public record Hit<T>(T value, int score, String key) {}
+
+  private static final class Entry<T> {
+    T value;
+    String[] keys;
+    String[] lowerKeys;
+    long[] masks;
+  }
+
+  private record Candidate(int slot, int score, int keyIndex) {}
+
+  private static final Comparator<Candidate> WORST_FIRST =
+      Comparator.comparingInt(Candidate::score)
+          .thenComparing(Comparator.comparingInt(Candidate::slot).reversed());
+
+  private final Function<? super T, String> idOf;
+  private final Function<? super T, ? extends Collection<String>> keysOf;
+  private final List<Entry<T>> slots = new ArrayList<>();
+  private final Map<String, Integer> slotById = new HashMap<>();
+  private final Deque<Integer> freeSlots = new ArrayDeque<>();
+
+  public SearchIndex(
+      Function<? super T, String> idOf, Function<? super T, ? extends Collection<String>> keysOf) {
+    this.idOf = Objects.requireNonNull(idOf);
+    this.keysOf = Objects.requireNonNull(keysOf);
+  }
+
+  /**
+   * Remplace le contenu par {@code items} (sans identifiant : ignorés). Les éléments inchangés
+   * gardent leurs clés précalculées ; seuls les nouveaux et les modifiés sont réindexés.
+   */
+  public void update(Collection<? extends T> items) {
+    Set<String> seen = new HashSet<>();
+    if (items != null) {
+      for (T item : items) {
+        String id = item == null ? null : idOf.apply(item);
+        if (id == null || !seen.add(id)) {
+          continue;
+        }
+        String[] keys = keys(item);
+        Integer slot = slotById.get(id);
+        if (slot == null) {
+          slot = freeSlots.isEmpty() ? slots.size() : freeSlots.pop();
+          if (slot == slots.size()) {
+            slots.add(null);
+          }
+          slotById.put(id, slot);
+        }
+        Entry<T> entry = slots.get(slot);
+        if (entry == null) {
+          entry = new Entry<>();
+          slots.set(slot, entry);
+        }
+        entry.value = item;
+        if (!Arrays.equals(entry.keys, keys)) {
+          index(entry, keys);
+        }
+      }
+    }
+    slotById
+        .entrySet()
+        .removeIf(
+            e -> {
+              if (seen.contains(e.getKey())) {
+                return false;
+              }
+              slots.set(e.getValue(), null);
+              freeSlots.push(e.getValue());
+              return true;
+            });
+  }
+
+  public int size() {
+    return slotById.size();
+  }
+
+  public boolean isEmpty() {
+    return slotById.isEmpty();
+  }
+
+  /** Éléments indexés, dans l'ordre des emplacements. */
+  public List<T> values() {
+    List<T> values = new ArrayList<>(slotById.size());
+    for (Entry<T> entry : slots) {
+      if (entry != null) {
+        values.add(entry.value);
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Les {@code limit} meilleurs éléments pour {@code query}, du meilleur au moins bon ; à score
+   * égal, l'ordre d'indexation. Une requête vide retient tout.
+   */
+  public List<Hit<T>> search(String query, int limit) {
+    if (query == null || limit <= 0) {
+      return List.of();
+    }
+    String needle = query.toLowerCase();
+    long needleMask = mask(needle);
+    PriorityQueue<Candidate> best = new PriorityQueue<>(limit + 1, WORST_FIRST);
+    for (int slot = 0; slot < slots.size(); slot++) {
+      Entry<T> entry = slots.get(slot);
+      if (entry == null) {
+        continue;
+      }
+      int bestScore = 0;
+      int bestKey = -1;
+      for (int k = 0; k < entry.lowerKeys.length; k++) {
+        if ((entry.masks[k] & needleMask) != needleMask) {
+          continue;
+        }
+        int score = fuzzyScore(entry.lowerKeys[k], needle);
+        if (score > bestScore) {
+          bestScore = score;
+          bestKey = k;
+        }
+      }
+      if (bestKey < 0) {
+        continue;
+      }
+      Candidate candidate = new Candidate(slot, bestScore, bestKey);
+      if (best.size() < limit) {
+        best.add(candidate);
+      } else if (WORST_FIRST.compare(candidate, best.peek()) > 0) {
+        best.poll();
+        best.add(candidate);
+      }
+    }
+    List<Candidate> ordered = new ArrayList<>(best);
+    ordered.sort(WORST_FIRST.reversed());
+    List<Hit<T>> hits = new ArrayList<>(ordered.size());
+    for (Candidate candidate : ordered) {
+      Entry<T> entry = slots.get(candidate.slot());
+      hits.add(new Hit<>(entry.value, candidate.score(), entry.keys[candidate.keyIndex()]));
+    }
+    return hits;
+  }
+
+  /**
+   * Note de sous-séquence de {@code needle} dans {@code haystack}, tous deux déjà en minuscules :
+   * bonus pour les caractères consécutifs, pénalité par caractère sauté, 0 si absent.
+   */
+  static int fuzzyScore(String haystack, String needle) {
+    int i = 0;
+    int j = 0;
+    int score = 0;
+    int streak = 0;
+    while (i < haystack.length() && j < needle.length()) {
+      if (haystack.charAt(i) == needle.charAt(j)) {
+        streak++;
+        score += 5 + Math.min(4, streak);
+        j++;
+      } else {
+        streak = 0;
+        score -= 1;
+      }
+      i++;
+    }
+    if (j < needle.length()) {
+      return 0;
+    }
+    return Math.max(1, score);
+  }
+
+  /** Un bit par lettre ou chiffre ; les autres caractères se partagent les bits restants. */
+  static long mask(String lower) {
+    long mask = 0L;
+    for (int i = 0; i < lower.length(); i++) {
+      char c = lower.charAt(i);
+      int bit;
+      if (c >= 'a' && c <= 'z') {
+        bit = c - 'a';
+      } else if (c >= '0' && c <= '9') {
+        bit = 26 + (c - '0');
+      } else {
+        bit = 36 + c % 28;
+      }
+      mask |= 1L << bit;
+    }
+    return mask;
+  }
+
+  private String[] keys(T item) {
+    Collection<String> raw = keysOf.apply(item);
+    if (raw == null) {
+      return new String[0];
+    }
+    List<String> keys = new ArrayList<>(raw.size());
+    for (String key : raw) {
+      if (key != null && !key.isEmpty()) {
+        keys.add(key);
+      }
+    }
+    return keys.toArray(String[]::new);
+  }
+
+  private static void index(Entry<?> entry, String[] keys) {
+    entry.keys = keys;
+    entry.lowerKeys = new String[keys.length];
+    entry.masks = new long[keys.length];
+    for (int k = 0; k < keys.length; k++) {
+      entry.lowerKeys[k] = keys[k].toLowerCase();
+      entry.masks[k] = mask(entry.lowerKeys[k]);
+    }
+  }
+}
@@ -8,6 +8,7 @@ import java.awt.Window;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import javax.swing.AbstractAction;
@@ -100,7 +101,7 @@ public class StressTestDialog extends JDialog {
       int spread = (Integer) daysSpinner.getValue();
       LocalDate base = todayCheckbox.isSelected() ? planning.getDay() : planning.getDay().plusDays(1);
       Random random = new Random();
-      int created = 0;
+      List<Models.Intervention> batch = new ArrayList<>(requested);
       for (int i = 0; i < requested; i++) {
         Models.Resource resource = resources.get(random.nextInt(resources.size()));
         LocalDate day = base.plusDays(random.nextInt(spread));
@@ -122,12 +123,19 @@ public class StressTestDialog extends JDialog {
                 start,
                 end,
                 null);
-        try {
-          dsp.createIntervention(payload);
-          created++;
-        } catch (RuntimeException ex) {
-          // On ignore les erreurs unitaires (conflits, validations REST, etc.).
-        }
+        batch.add(payload);
+      }
+      // Un seul appel pour tout le lot ; les lignes en conflit sont simplement écartées.
+      int created;
+      try {
+        created = dsp.importInterventions(batch);
+      } catch (RuntimeException ex) {
+        JOptionPane.showMessageDialog(
+            StressTestDialog.this,
+            "Échec de la génération : " + ex.getMessage(),
+            "Génération",
+            JOptionPane.ERROR_MESSAGE);
+        return;
       }
       planning.reload();
       Toasts.success(StressTestDialog.this, created + " interventions générées");
@@ -0,0 +1,115 @@
+package com.location.client.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.location.client.telemetry.Metrics;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RestDataSourceCacheTest {
+  private HttpServer server;
+  private final AtomicReference<String> agencies =
+      new AtomicReference<>("[{\"id\":\"A1\",\"name\":\"Agence 1\"}]");
+  private final AtomicInteger fullResponses = new AtomicInteger();
+  private final AtomicInteger notModified = new AtomicInteger();
+  private final AtomicInteger tagRequests = new AtomicInteger();
+
+  @BeforeEach
+  void start() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/auth/login", exchange -> send(exchange, 200, "{\"token\":\"t\"}", null));
+    server.createContext(
+        "/api/v1/agencies",
+        exchange -> {
+          String body = agencies.get();
+          String etag = "\"" + Integer.toHexString(body.hashCode()) + "\"";
+          if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            notModified.incrementAndGet();
+            send(exchange, 304, null, etag);
+          } else {
+            fullResponses.incrementAndGet();
+            send(exchange, 200, body, etag);
+          }
+        });
+    server.createContext(
+        "/api/v1/interventions",
+        exchange -> {
+          tagRequests.incrementAndGet();
+          String query = exchange.getRequestURI().getQuery();
+          if (!exchange.getRequestURI().getPath().endsWith("/interventions/tags") || query == null) {
+            send(exchange, 200, "[\"unitaire\"]", null);
+            return;
+          }
+          StringBuilder body = new StringBuilder("{");
+          for (String id : query.substring("ids=".length()).split(",")) {
+            body.append(body.length() > 1 ? "," : "")
+                .append('"').append(id).append("\":[\"t-").append(id).append("\"]");
+          }
+          send(exchange, 200, body.append('}').toString(), null);
+        });
+    server.start();
+  }
+
+  @AfterEach
+  void stop() {
+    server.stop(0);
+  }
+
+  @Test
+  void unchangedListIsServedFromMemoryAfterRevalidation() {
+    RestDataSource rest =
+        new RestDataSource("http://127.0.0.1:" + server.getAddress().getPort(), "u", "p");
+    long hits = Metrics.get().getCounter("http.cache.hit");
+
+    assertEquals("Agence 1", rest.listAgencies().get(0).name());
+    assertEquals("Agence 1", rest.listAgencies().get(0).name());
+    assertEquals(1, fullResponses.get());
+    assertEquals(1, notModified.get());
+    assertEquals(hits + 1, Metrics.get().getCounter("http.cache.hit"));
+
+    agencies.set("[{\"id\":\"A1\",\"name\":\"Agence renommée\"}]");
+    List<Models.Agency> refreshed = rest.listAgencies();
+    assertEquals("Agence renommée", refreshed.get(0).name());
+    assertEquals(2, fullResponses.get());
+  }
+
+  @Test
+  void tagsAreFetchedInBatchesAndReusedForSingleLookups() {
+    RestDataSource rest =
+        new RestDataSource("http://127.0.0.1:" + server.getAddress().getPort(), "u", "p");
+    List<String> ids = IntStream.range(0, 250).mapToObj(i -> "I" + i).toList();
+
+    Map<String, List<String>> tags = rest.getInterventionTags(ids);
+
+    assertEquals(250, tags.size());
+    assertEquals(List.of("t-I249"), tags.get("I249"));
+    assertEquals(3, tagRequests.get());
+    assertEquals(List.of("t-I7"), rest.getInterventionTags("I7"));
+    assertEquals(3, tagRequests.get());
+  }
+
+  private static void send(HttpExchange exchange, int status, String body, String etag)
+      throws IOException {
+    if (etag != null) {
+      exchange.getResponseHeaders().add("ETag", etag);
+    }
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    byte[] bytes = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+    exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+    if (bytes.length > 0) {
+      exchange.getResponseBody().write(bytes);
+    }
+    exchange.close();
+  }
+}
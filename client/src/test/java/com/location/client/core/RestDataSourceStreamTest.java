@@ -0,0 +1,156 @@
+package com.location.client.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RestDataSourceStreamTest {
+  private static final int ROWS = 1_200;
+
+  private HttpServer server;
+  private final AtomicInteger rangeRequests = new AtomicInteger();
+  private final AtomicReference<String> accept = new AtomicReference<>();
+
+  @BeforeEach
+  void start() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/auth/login", exchange -> send(exchange, "{\"token\":\"t\"}"));
+    server.createContext(
+        "/api/v1/interventions",
+        exchange -> {
+          rangeRequests.incrementAndGet();
+          accept.set(exchange.getRequestHeaders().getFirst("Accept"));
+          exchange.getResponseHeaders().add("Content-Type", "application/x-ndjson");
+          exchange.sendResponseHeaders(200, 0);
+          Instant start = Instant.parse("2025-03-03T08:00:00Z");
+          try (OutputStream out = exchange.getResponseBody()) {
+            for (int i = 0; i < ROWS; i++) {
+              String row =
+                  String.format(
+                      "{\"id\":\"I%04d\",\"agencyId\":\"A1\",\"resourceIds\":[\"R1\"],"
+                          + "\"clientId\":\"C1\",\"title\":\"T%d\",\"start\":\"%s\",\"end\":\"%s\"}\n",
+                      i, i, start.plusSeconds(60L * i), start.plusSeconds(60L * i + 3600));
+              out.write(row.getBytes(StandardCharsets.UTF_8));
+            }
+          } catch (IOException ignored) {
+            // client parti avant la fin
+          }
+        });
+    server.createContext(
+        "/api/v1/planning/snapshot",
+        exchange ->
+            send(
+                exchange,
+                "{\"version\":7,\"agencyId\":\"A1\",\"agencies\":[{\"id\":\"A1\",\"name\":\"Agence\"}],"
+                    + "\"resourceTypes\":[],\"resources\":[],\"clients\":[],"
+                    + "\"interventions\":["
+                    + snapshotRow("I1", "A1")
+                    + ","
+                    + snapshotRow("I2", "A2")
+                    + "],\"unavailabilities\":null,"
+                    + "\"tags\":{\"I1\":[\"urgent\"],\"I2\":[\"ignoré\"]}}"));
+    server.start();
+  }
+
+  @AfterEach
+  void stop() {
+    server.stop(0);
+  }
+
+  @Test
+  void ndjsonRangeIsDeliveredInOrderedBatches() {
+    RestDataSource rest = rest();
+    List<Integer> sizes = new ArrayList<>();
+    List<String> ids = new ArrayList<>();
+
+    rest.streamInterventions(
+        null,
+        null,
+        null,
+        batch -> {
+          sizes.add(batch.size());
+          batch.forEach(i -> ids.add(i.id()));
+        });
+
+    assertTrue(accept.get().startsWith("application/x-ndjson"));
+    assertEquals(List.of(500, 500, 200), sizes);
+    assertEquals("I0000", ids.get(0));
+    assertEquals("I1199", ids.get(ROWS - 1));
+    assertEquals(ROWS, rest.listInterventions(null, null, null).size());
+  }
+
+  @Test
+  void cancelledConsumerStopsTheStreamWithoutRetrying() {
+    RestDataSource rest = rest();
+    AtomicInteger delivered = new AtomicInteger();
+
+    assertThrows(
+        CancellationException.class,
+        () ->
+            rest.streamInterventions(
+                null,
+                null,
+                null,
+                batch -> {
+                  delivered.addAndGet(batch.size());
+                  throw new CancellationException("remplacé");
+                }));
+
+    assertEquals(500, delivered.get());
+    assertEquals(1, rangeRequests.get());
+  }
+
+  @Test
+  void snapshotIsReadInStreamAndFiltersInterventionsAsTheyArrive() {
+    Models.PlanningSnapshot snapshot =
+        rest()
+            .loadPlanningSnapshot(
+                OffsetDateTime.parse("2025-03-03T00:00:00Z"),
+                OffsetDateTime.parse("2025-03-10T00:00:00Z"),
+                "A1",
+                null,
+                i -> "A1".equals(i.agencyId()));
+
+    assertEquals(7L, snapshot.version());
+    assertEquals(List.of("A1"), snapshot.agencies().stream().map(Models.Agency::id).toList());
+    assertEquals(
+        List.of("I1"), snapshot.interventions().stream().map(Models.Intervention::id).toList());
+    assertEquals(java.util.Map.of("I1", List.of("urgent")), snapshot.interventionTags());
+    assertTrue(snapshot.unavailabilities().isEmpty());
+  }
+
+  private static String snapshotRow(String id, String agencyId) {
+    return "{\"id\":\"" + id + "\",\"agencyId\":\"" + agencyId + "\",\"resourceIds\":[\"R1\"],"
+        + "\"clientId\":\"C1\",\"title\":\"T\",\"start\":\"2025-03-03T08:00:00Z\","
+        + "\"end\":\"2025-03-03T09:00:00Z\"}";
+  }
+
+  private RestDataSource rest() {
+    return new RestDataSource("http://127.0.0.1:" + server.getAddress().getPort(), "u", "p");
+  }
+
+  private static void send(HttpExchange exchange, String body) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, bytes.length);
+    exchange.getResponseBody().write(bytes);
+    exchange.close();
+  }
+}
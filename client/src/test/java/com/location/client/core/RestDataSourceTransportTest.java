@@ -0,0 +1,137 @@
+package com.location.client.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.location.client.telemetry.Metrics;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RestDataSourceTransportTest {
+  private HttpServer server;
+  private final AtomicInteger agencyRequests = new AtomicInteger();
+  private final CountDownLatch release = new CountDownLatch(1);
+  private volatile String agenciesBody = "[{\"id\":\"A1\",\"name\":\"Agence 1\"}]";
+
+  @BeforeEach
+  void start() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.setExecutor(java.util.concurrent.Executors.newCachedThreadPool());
+    server.createContext("/auth/login", exchange -> send(exchange, "{\"token\":\"t\"}", false));
+    server.createContext(
+        "/api/v1/agencies",
+        exchange -> {
+          agencyRequests.incrementAndGet();
+          try {
+            release.await(5, TimeUnit.SECONDS);
+          } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+          }
+          String accept = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+          send(exchange, agenciesBody, accept != null && accept.contains("gzip"));
+        });
+    server.start();
+  }
+
+  @AfterEach
+  void stop() {
+    server.stop(0);
+  }
+
+  @Test
+  void identicalConcurrentGetsShareOneRequest() throws Exception {
+    RestDataSource rest = rest();
+    rest.listClients(); // évite que la connexion initiale se fasse pendant la mesure
+    long coalesced = Metrics.get().getCounter("http.coalesced");
+
+    CompletableFuture<List<Models.Agency>> first = CompletableFuture.supplyAsync(rest::listAgencies);
+    while (agencyRequests.get() == 0) {
+      Thread.sleep(5);
+    }
+    CompletableFuture<List<Models.Agency>> second = CompletableFuture.supplyAsync(rest::listAgencies);
+    while (Metrics.get().getCounter("http.coalesced") == coalesced) {
+      Thread.sleep(5);
+    }
+    release.countDown();
+
+    assertEquals("Agence 1", first.get(5, TimeUnit.SECONDS).get(0).name());
+    assertEquals("Agence 1", second.get(5, TimeUnit.SECONDS).get(0).name());
+    assertEquals(1, agencyRequests.get());
+  }
+
+  @Test
+  void getIssuedAfterAWriteDoesNotJoinAnEarlierOne() throws Exception {
+    RestDataSource rest = rest();
+    rest.listClients();
+
+    CompletableFuture<List<Models.Agency>> first = CompletableFuture.supplyAsync(rest::listAgencies);
+    while (agencyRequests.get() == 0) {
+      Thread.sleep(5);
+    }
+    rest.deleteClient("C1");
+    CompletableFuture<List<Models.Agency>> second = CompletableFuture.supplyAsync(rest::listAgencies);
+    while (agencyRequests.get() < 2) {
+      Thread.sleep(5);
+    }
+    release.countDown();
+
+    assertEquals("Agence 1", first.get(5, TimeUnit.SECONDS).get(0).name());
+    assertEquals("Agence 1", second.get(5, TimeUnit.SECONDS).get(0).name());
+    assertEquals(2, agencyRequests.get());
+  }
+
+  @Test
+  void gzipBodiesAreDecodedAndCountedCompressed() {
+    release.countDown();
+    StringBuilder body = new StringBuilder("[");
+    for (int i = 0; i < 2_000; i++) {
+      body.append(i == 0 ? "" : ",")
+          .append("{\"id\":\"A").append(i).append("\",\"name\":\"Agence numéro ").append(i)
+          .append("\"}");
+    }
+    agenciesBody = body.append(']').toString();
+    int raw = agenciesBody.getBytes(StandardCharsets.UTF_8).length;
+    RestDataSource rest = rest();
+    rest.listClients();
+    long before = Metrics.get().getCounter("http.bytes.in");
+
+    assertEquals(2_000, rest.listAgencies().size());
+
+    long received = Metrics.get().getCounter("http.bytes.in") - before;
+    assertTrue(received > 0 && received < raw / 4, "octets reçus : " + received + " / " + raw);
+  }
+
+  private RestDataSource rest() {
+    server.createContext("/api/v1/clients", exchange -> send(exchange, "[]", false));
+    return new RestDataSource("http://127.0.0.1:" + server.getAddress().getPort(), "u", "p");
+  }
+
+  private static void send(HttpExchange exchange, String body, boolean gzip) throws IOException {
+    byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    if (gzip) {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      try (GZIPOutputStream zip = new GZIPOutputStream(out)) {
+        zip.write(bytes);
+      }
+      bytes = out.toByteArray();
+      exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+    }
+    exchange.getResponseHeaders().add("Content-Type", "application/json");
+    exchange.sendResponseHeaders(200, bytes.length);
+    exchange.getResponseBody().write(bytes);
+    exchange.close();
+  }
+}
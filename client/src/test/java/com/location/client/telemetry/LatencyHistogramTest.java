@@ -0,0 +1,72 @@
+package com.location.client.telemetry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void percentilesStayWithinBucketPrecision() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    Random random = new Random(18);
+    long[] values = new long[50_000];
+    for (int i = 0; i < values.length; i++) {
+      // queue lourde : la plupart des mesures sont courtes, quelques-unes très longues
+      values[i] = (long) Math.exp(random.nextDouble() * 14);
+      histogram.record(values[i]);
+    }
+    Arrays.sort(values);
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+    assertEquals(values.length, snapshot.count());
+    assertEquals(values[values.length - 1], snapshot.max());
+    for (double q : new double[] {0.5, 0.95, 0.99}) {
+      long exact = values[(int) Math.ceil(q * values.length) - 1];
+      long estimate = snapshot.percentile(q);
+      assertTrue(estimate >= exact, q + " : " + estimate + " < " + exact);
+      assertTrue(
+          estimate <= exact + exact / LatencyHistogram.SUB_BUCKETS + 1,
+          q + " : " + estimate + " trop loin de " + exact);
+    }
+  }
+
+  @Test
+  void slidingWindowForgetsOldSlots() {
+    AtomicLong now = new AtomicLong(0);
+    LatencyHistogram histogram = new LatencyHistogram(3, 1_000L, now::get);
+    histogram.record(5_000);
+    now.set(1_500);
+    histogram.record(10);
+    now.set(3_200);
+    histogram.record(20);
+
+    LatencyHistogram.Snapshot recent = histogram.snapshot(Duration.ofSeconds(3));
+    assertEquals(2, recent.count());
+    assertEquals(20, recent.max());
+    assertEquals(1, histogram.snapshot(Duration.ofSeconds(1)).count());
+    assertEquals(3, histogram.snapshot().count());
+    assertEquals(5_000, histogram.snapshot().max());
+  }
+
+  @Test
+  void concurrentWritersLoseNothing() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    IntStream.range(0, 8)
+        .parallel()
+        .forEach(
+            t -> {
+              for (int i = 0; i < 100_000; i++) {
+                histogram.record(i % 1_000);
+              }
+            });
+    assertEquals(800_000, histogram.snapshot().count());
+    assertEquals(999, histogram.snapshot().max());
+  }
+}
@@ -0,0 +1,41 @@
+package com.location.client.ui;
+
+import com.location.client.core.Models;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Mesure du calcul complet et d'un déplacement unitaire ({@code -Dbench=true}). Semaine type de
+ * 300 camions ; une itération de chauffe puis la médiane de cinq mesures.
+ */
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+class ConflictUtilBenchmark {
+
+  @Test
+  void computeAndMove() {
+    for (int size : new int[] {1_000, 10_000, 50_000}) {
+      List<Models.Intervention> data = ConflictUtilTest.random(new Random(size), size, 300);
+      long full = median(() -> ConflictUtil.computeConflicts(data));
+      ConflictUtil.Index index = ConflictUtil.Index.of(data);
+      Models.Intervention target = data.get(size / 2);
+      long move = median(() -> index.put(target));
+      System.out.printf(
+          "conflicts n=%d : calcul complet %.2f ms, déplacement %.3f ms%n",
+          size, full / 1e6, move / 1e6);
+    }
+  }
+
+  private static long median(Runnable task) {
+    task.run();
+    long[] samples = new long[5];
+    for (int i = 0; i < samples.length; i++) {
+      long start = System.nanoTime();
+      task.run();
+      samples[i] = System.nanoTime() - start;
+    }
+    java.util.Arrays.sort(samples);
+    return samples[samples.length / 2];
+  }
+}
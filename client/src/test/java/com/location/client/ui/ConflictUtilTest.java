@@ -0,0 +1,130 @@
+package com.location.client.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.location.client.core.Models;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class ConflictUtilTest {
+  private static final Instant BASE = Instant.parse("2025-03-03T00:00:00Z");
+
+  @Test
+  void sweepMatchesPairwiseScanIncludingOrder() {
+    List<Models.Intervention> data = random(new Random(42), 600, 25);
+    assertEquals(pairwise(data), ConflictUtil.computeConflicts(data));
+  }
+
+  @Test
+  void touchingIntervalsAndMissingTimesAreNotConflicts() {
+    List<Models.Intervention> data =
+        List.of(
+            intervention("A", List.of("R1"), 0, 60),
+            intervention("B", List.of("R1"), 60, 120),
+            new Models.Intervention(
+                "C", "AG", List.of("R1"), "C", null, "C", null, BASE.plusSeconds(600), null, null,
+                null));
+    assertTrue(ConflictUtil.computeConflicts(data).isEmpty());
+  }
+
+  @Test
+  void indexFollowsMovesAndDeletesLikeAFullRecompute() {
+    Random random = new Random(7);
+    List<Models.Intervention> data = new ArrayList<>(random(random, 300, 10));
+    ConflictUtil.Index index = ConflictUtil.Index.of(data);
+    for (int step = 0; step < 200; step++) {
+      int i = random.nextInt(data.size());
+      if (step % 10 == 9) {
+        index.remove(data.remove(i).id());
+      } else {
+        Models.Intervention moved = shifted(data.get(i), random.nextInt(240) - 120);
+        data.set(i, moved);
+        index.put(moved);
+      }
+      assertEquals(keys(ConflictUtil.computeConflicts(data)), keys(index.conflicts()));
+    }
+    String id = data.get(0).id();
+    assertEquals(
+        keys(
+            ConflictUtil.computeConflicts(data).stream()
+                .filter(c -> c.a().id().equals(id) || c.b().id().equals(id))
+                .toList()),
+        keys(index.conflictsOf(id)));
+  }
+
+  static List<Models.Intervention> random(Random random, int count, int resources) {
+    List<Models.Intervention> out = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      List<String> ids = new ArrayList<>();
+      ids.add("R" + random.nextInt(resources));
+      if (random.nextInt(5) == 0) {
+        ids.add("R" + random.nextInt(resources));
+      }
+      int start = random.nextInt(7 * 24 * 60);
+      out.add(intervention("I" + i, ids, start, start + 30 + random.nextInt(240)));
+    }
+    return out;
+  }
+
+  private static Models.Intervention intervention(
+      String id, List<String> resources, int startMinutes, int endMinutes) {
+    return new Models.Intervention(
+        id,
+        "AG",
+        resources,
+        "C",
+        null,
+        id,
+        BASE.plus(Duration.ofMinutes(startMinutes)),
+        BASE.plus(Duration.ofMinutes(endMinutes)),
+        null,
+        null,
+        null);
+  }
+
+  private static Models.Intervention shifted(Models.Intervention i, int minutes) {
+    Duration delta = Duration.ofMinutes(minutes);
+    return new Models.Intervention(
+        i.id(), i.agencyId(), i.resourceIds(), i.clientId(), i.driverId(), i.title(),
+        i.start().plus(delta), i.end().plus(delta), i.notes(), i.internalNotes(), i.price());
+  }
+
+  /** Ancienne implémentation, toutes paires, comme référence. */
+  private static List<ConflictUtil.Conflict> pairwise(List<Models.Intervention> data) {
+    List<ConflictUtil.Conflict> out = new ArrayList<>();
+    for (int i = 0; i < data.size(); i++) {
+      Models.Intervention a = data.get(i);
+      for (int j = i + 1; j < data.size(); j++) {
+        Models.Intervention b = data.get(j);
+        if (!(a.start().isBefore(b.end()) && a.end().isAfter(b.start()))) {
+          continue;
+        }
+        for (String r : new java.util.LinkedHashSet<>(a.resourceIds())) {
+          if (b.resourceIds().contains(r)) {
+            out.add(new ConflictUtil.Conflict(a, b, r));
+          }
+        }
+      }
+    }
+    return out;
+  }
+
+  private static Set<String> keys(List<ConflictUtil.Conflict> conflicts) {
+    return conflicts.stream()
+        .map(
+            c -> {
+              String x = c.a().id();
+              String y = c.b().id();
+              return (x.compareTo(y) < 0 ? x + "|" + y : y + "|" + x) + "@" + c.resourceId();
+            })
+        .collect(Collectors.toCollection(HashSet::new));
+  }
+}
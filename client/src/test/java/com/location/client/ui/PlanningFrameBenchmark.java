@@ -0,0 +1,147 @@
+package com.location.client.ui;
+
+import com.location.client.core.MockDataSource;
+import com.location.client.core.Models;
+import java.awt.Graphics2D;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Temps de rendu d'une vue semaine ({@code -Dbench=true}) : les dix premières ressources, seules
+ * visibles, gardent la même charge ; les interventions ajoutées vont sur les 290 autres. Le coût
+ * d'un repaint doit rester stable quand le total grandit. La détection au pointeur (infobulle) est
+ * mesurée sur 20 ressources chargées de 1 000 tuiles chacune.
+ */
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+class PlanningFrameBenchmark {
+  private static final LocalDate MONDAY = LocalDate.of(2025, 3, 3);
+
+  @Test
+  void repaintCostFollowsVisibleTiles() throws Exception {
+    for (int hidden : new int[] {1_000, 10_000, 50_000}) {
+      SwingUtilities.invokeAndWait(() -> measure(hidden));
+    }
+  }
+
+  @Test
+  void pointerHitTestsStayCheapOnDenseRows() throws Exception {
+    SwingUtilities.invokeAndWait(
+        () -> {
+          Random random = new Random(20);
+          List<Models.Resource> resources = resources(20);
+          List<Models.Intervention> interventions = new ArrayList<>();
+          Instant base = MONDAY.atStartOfDay(ZoneId.systemDefault()).toInstant();
+          for (int i = 0; i < 20_000; i++) {
+            Instant start = base.plus(Duration.ofMinutes(random.nextInt(7 * 24 * 60)));
+            interventions.add(
+                intervention(i, String.format("R%03d", i % 20), start, 30 + random.nextInt(90)));
+          }
+          PlanningPanel panel = panel(resources, interventions);
+          panel.setSize(4000, 20 * 60 * 40);
+          BufferedImage image = new BufferedImage(1400, 500, BufferedImage.TYPE_INT_ARGB);
+          Graphics2D g = image.createGraphics();
+          panel.paint(g);
+          g.dispose();
+          int moves = 20_000;
+          long start = System.nanoTime();
+          int hits = 0;
+          for (int m = 0; m < moves; m++) {
+            MouseEvent move =
+                new MouseEvent(
+                    panel, MouseEvent.MOUSE_MOVED, 0L, 0, random.nextInt(panel.getWidth()),
+                    random.nextInt(panel.getHeight()), 0, false);
+            if (panel.getToolTipText(move) != null) {
+              hits++;
+            }
+          }
+          System.out.printf(
+              "infobulle, 20000 tuiles : %.1f µs par mouvement (%d tuiles touchées)%n",
+              (System.nanoTime() - start) / 1e3 / moves, hits);
+        });
+  }
+
+  private static List<Models.Resource> resources(int count) {
+    List<Models.Resource> resources = new ArrayList<>();
+    for (int r = 0; r < count; r++) {
+      resources.add(
+          new Models.Resource(
+              String.format("R%03d", r), String.format("R%03d", r), null, null, "A1", null, null));
+    }
+    return resources;
+  }
+
+  private static Models.Intervention intervention(
+      int index, String resourceId, Instant start, int minutes) {
+    return new Models.Intervention(
+        "I" + index, "A1", List.of(resourceId), "C1", null, "Tâche " + index, start,
+        start.plus(Duration.ofMinutes(minutes)), null, null, null);
+  }
+
+  private static PlanningPanel panel(
+      List<Models.Resource> resources, List<Models.Intervention> interventions) {
+    PlanningPanel panel =
+        new PlanningPanel(
+            new MockDataSource() {
+              @Override
+              public List<Models.Resource> listResources() {
+                return resources;
+              }
+
+              @Override
+              public List<Models.Intervention> listInterventions(
+                  OffsetDateTime from, OffsetDateTime to, String resourceId) {
+                return interventions;
+              }
+            });
+    panel.setWeekMode(true);
+    panel.setDay(MONDAY);
+    panel.reload();
+    return panel;
+  }
+
+  private static void measure(int hidden) {
+    List<Models.Resource> resources = resources(300);
+    List<Models.Intervention> interventions = new ArrayList<>();
+    Random random = new Random(hidden);
+    Instant base = MONDAY.atStartOfDay(ZoneId.systemDefault()).toInstant();
+    for (int i = 0; i < 200 + hidden; i++) {
+      String resourceId = String.format("R%03d", i < 200 ? i % 10 : 10 + random.nextInt(290));
+      Instant start = base.plus(Duration.ofMinutes(random.nextInt(7 * 24 * 60)));
+      interventions.add(intervention(i, resourceId, start, 60 + random.nextInt(180)));
+    }
+    PlanningPanel panel = panel(resources, interventions);
+    JViewport viewport = new JViewport();
+    viewport.setSize(1400, 500);
+    viewport.setView(panel);
+    panel.setSize(1400, 300 * 60);
+    BufferedImage image = new BufferedImage(1400, 500, BufferedImage.TYPE_INT_ARGB);
+    long[] samples = new long[15];
+    for (int i = -5; i < samples.length; i++) {
+      Graphics2D g = image.createGraphics();
+      g.setClip(0, 0, 1400, 500);
+      long start = System.nanoTime();
+      panel.paint(g);
+      long elapsed = System.nanoTime() - start;
+      g.dispose();
+      if (i >= 0) {
+        samples[i] = elapsed;
+      }
+    }
+    java.util.Arrays.sort(samples);
+    System.out.printf(
+        "planning repaint, %d interventions hors écran : médiane %.2f ms%n",
+        hidden, samples[samples.length / 2] / 1e6);
+  }
+}
@@ -0,0 +1,126 @@
+package com.location.client.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.location.client.core.Models;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class PlanningLayoutTest {
+  private static final Instant FROM = Instant.parse("2025-03-03T00:00:00Z");
+  private static final Instant TO = FROM.plus(Duration.ofDays(7));
+
+  @Test
+  void overlappingTilesTakeTheFirstFreeLane() {
+    List<Models.Intervention> data =
+        List.of(at("A", "R1", 0, 120), at("B", "R1", 60, 180), at("C", "R1", 120, 200));
+    PlanningLayout layout = new PlanningLayout(Models.Intervention::resourceIds);
+    layout.rebuild(data, FROM, TO);
+
+    assertEquals(2, layout.laneCount("R1"));
+    assertEquals(0, layout.placement("A", "R1").lane());
+    assertEquals(1, layout.placement("B", "R1").lane());
+    assertEquals(0, layout.placement("C", "R1").lane());
+    assertTrue(layout.isCurrent(data, FROM, TO));
+    assertFalse(layout.isCurrent(new ArrayList<>(data), FROM, TO));
+  }
+
+  @Test
+  void incrementalReplaceMatchesAFullRebuild() {
+    Random random = new Random(3);
+    List<Models.Intervention> data = new ArrayList<>();
+    for (int i = 0; i < 400; i++) {
+      int start = random.nextInt(7 * 24 * 60);
+      data.add(at("I" + i, "R" + random.nextInt(12), start, start + 30 + random.nextInt(300)));
+    }
+    PlanningLayout incremental = new PlanningLayout(Models.Intervention::resourceIds);
+    incremental.rebuild(List.copyOf(data), FROM, TO);
+    for (int step = 0; step < 150; step++) {
+      int index = random.nextInt(data.size());
+      Models.Intervention previous = data.get(index);
+      int start = random.nextInt(7 * 24 * 60);
+      Models.Intervention moved =
+          at(previous.id(), "R" + random.nextInt(12), start, start + 30 + random.nextInt(300));
+      data.set(index, moved);
+      incremental.replace(List.copyOf(data), previous, moved);
+
+      PlanningLayout full = new PlanningLayout(Models.Intervention::resourceIds);
+      full.rebuild(data, FROM, TO);
+      for (int r = 0; r < 12; r++) {
+        String resourceId = "R" + r;
+        assertEquals(full.laneCount(resourceId), incremental.laneCount(resourceId), resourceId);
+      }
+      assertEquals(
+          full.placement(moved.id(), moved.resourceId()).lane(),
+          incremental.placement(moved.id(), moved.resourceId()).lane());
+    }
+  }
+
+  @Test
+  void removalDropsThePlacementAndOutOfWindowTilesAreIgnored() {
+    Models.Intervention kept = at("A", "R1", 0, 60);
+    Models.Intervention outside = at("B", "R1", -600, -300);
+    PlanningLayout layout = new PlanningLayout(Models.Intervention::resourceIds);
+    layout.rebuild(List.of(kept, outside), FROM, TO);
+    assertNull(layout.placement("B", "R1"));
+
+    layout.replace(List.of(), kept, null);
+    assertNull(layout.placement("A", "R1"));
+    assertTrue(layout.placements("R1").isEmpty());
+  }
+
+  @Test
+  void horizontalQueryMatchesABruteForceScan() {
+    Random random = new Random(7);
+    List<Models.Intervention> data = new ArrayList<>();
+    for (int i = 0; i < 600; i++) {
+      int start = random.nextInt(7 * 24 * 60);
+      data.add(at("I" + i, "R" + random.nextInt(3), start, start + 10 + random.nextInt(900)));
+    }
+    PlanningLayout layout = new PlanningLayout(Models.Intervention::resourceIds);
+    layout.rebuild(data, FROM, TO);
+    layout.ensureGeometry(1, instant -> (int) Duration.between(FROM, instant).toMinutes() / 10);
+    for (int probe = 0; probe < 200; probe++) {
+      int minX = random.nextInt(1100);
+      int maxX = minX + random.nextInt(40);
+      Set<String> expected = new HashSet<>();
+      for (PlanningLayout.Placement placement : layout.placements("R1")) {
+        if (placement.x2() >= minX && placement.x1() <= maxX) {
+          expected.add(placement.intervention.id());
+        }
+      }
+      Set<String> actual = new HashSet<>();
+      layout.placementsBetween("R1", minX, maxX).forEach(p -> actual.add(p.intervention.id()));
+      assertEquals(expected, actual);
+    }
+
+    Models.Intervention moved = at("I0", "R1", 0, 30);
+    layout.replace(data, data.get(0), moved);
+    assertTrue(layout.placementsBetween("R1", 0, 0).stream().anyMatch(p -> p.intervention == moved));
+    assertEquals(moved, layout.intervention("I0"));
+  }
+
+  private static Models.Intervention at(String id, String resourceId, int from, int to) {
+    return new Models.Intervention(
+        id,
+        "AG",
+        List.of(resourceId),
+        "C",
+        null,
+        id,
+        FROM.plus(Duration.ofMinutes(from)),
+        FROM.plus(Duration.ofMinutes(to)),
+        null,
+        null,
+        null);
+  }
+}
@@ -0,0 +1,229 @@
+package com.location.client.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.location.client.core.MockDataSource;
+import com.location.client.core.Models;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class PlanningLoaderTest {
+  private static final OffsetDateTime FROM =
+      OffsetDateTime.of(2025, 3, 3, 0, 0, 0, 0, ZoneOffset.UTC);
+
+  @Test
+  void independentReadsRunInParallelAndFiltersApplyOffTheEdt() {
+    CountDownLatch allStarted = new CountDownLatch(3);
+    FixedSource source = new FixedSource(allStarted);
+    PlanningLoader loader = new PlanningLoader(source, Models.Intervention::resourceIds);
+
+    PlanningLoader.Snapshot snapshot =
+        loader
+            .load(query("A1", true), PlanningLoader.EXECUTOR, () -> false)
+            .orTimeout(10, TimeUnit.SECONDS)
+            .join();
+
+    assertEquals(
+        List.of("R1", "R2"), snapshot.resources().stream().map(Models.Resource::id).toList());
+    assertEquals(
+        Set.of("I1", "I2"),
+        Set.copyOf(snapshot.interventions().stream().map(Models.Intervention::id).toList()));
+    assertEquals(1, snapshot.conflicts().size());
+    assertEquals(Set.of("I1", "I2"), snapshot.interventionTags().keySet());
+  }
+
+  @Test
+  void supersededLoadStopsBeforeFollowUpReads() {
+    FixedSource source = new FixedSource(new CountDownLatch(0));
+    PlanningLoader loader = new PlanningLoader(source, Models.Intervention::resourceIds);
+
+    CompletionException error =
+        assertThrows(
+            CompletionException.class,
+            () -> loader.load(query(null, false), Runnable::run, () -> true).join());
+
+    assertInstanceOf(CancellationException.class, error.getCause());
+    assertEquals(0, source.tagReads.get());
+    assertEquals(0, source.interventionReads.get());
+  }
+
+  @Test
+  void aggregateSnapshotReplacesSeparateReads() {
+    Instant start = FROM.toInstant();
+    FixedSource source =
+        new FixedSource(new CountDownLatch(0)) {
+          @Override
+          public Models.PlanningSnapshot loadPlanningSnapshot(
+              OffsetDateTime from,
+              OffsetDateTime to,
+              String agencyId,
+              String tags,
+              java.util.function.Predicate<Models.Intervention> keep) {
+            return new Models.PlanningSnapshot(
+                42L,
+                List.of(new Models.Agency("A1", "Agence 1")),
+                List.of(new Models.ResourceType("T1", "Camions", "truck")),
+                java.util.Map.of("R1", "T1", "R2", "T1"),
+                List.of(resource("R2", "Camion B", "A1"), resource("R1", "Camion A", "A1")),
+                List.of(),
+                List.of(
+                    intervention("I1", "A1", "R1", start, 120),
+                    intervention("I3", "A1", "R2", start, 60)),
+                List.of(),
+                java.util.Map.of("I1", List.of("urgent"), "I3", List.of()));
+          }
+        };
+    PlanningLoader loader = new PlanningLoader(source, Models.Intervention::resourceIds);
+
+    PlanningLoader.Snapshot snapshot =
+        loader
+            .load(
+                new PlanningLoader.Query(
+                    "A1", null, null, null, null, null, "urg", false, false, FROM,
+                    FROM.plusDays(7), Set.of(), "__UNTYPED__"),
+                Runnable::run,
+                () -> false)
+            .join();
+
+    assertEquals(42L, snapshot.version());
+    assertEquals(
+        List.of("R1", "R2"), snapshot.resources().stream().map(Models.Resource::id).toList());
+    assertEquals("T1", snapshot.typeIdByResource().get("R1"));
+    assertEquals(
+        List.of("I1"), snapshot.interventions().stream().map(Models.Intervention::id).toList());
+    assertEquals(0, source.interventionReads.get());
+    assertEquals(0, source.tagReads.get());
+  }
+
+  @Test
+  void resourceTagsMatchWholeTagsAndKeepOnlyTheirInterventions() {
+    FixedSource source =
+        new FixedSource(new CountDownLatch(0)) {
+          @Override
+          public List<Models.Resource> listResources() {
+            return List.of(
+                new Models.Resource("R1", "Camion A", null, null, "A1", " Grue, Levage", null),
+                new Models.Resource("R2", "Camion B", null, null, "A1", "grue-mobile", null));
+          }
+        };
+    PlanningLoader loader = new PlanningLoader(source, Models.Intervention::resourceIds);
+    PlanningLoader.Query query =
+        new PlanningLoader.Query(
+            "A1", "levage,GRUE", null, null, null, null, null, false, false, FROM,
+            FROM.plusDays(7), Set.of(), "__UNTYPED__");
+
+    PlanningLoader.Snapshot snapshot = loader.load(query, Runnable::run, () -> false).join();
+
+    assertEquals(List.of("R1"), snapshot.resources().stream().map(Models.Resource::id).toList());
+    assertEquals(
+        Set.of("I1", "I2"),
+        Set.copyOf(snapshot.interventions().stream().map(Models.Intervention::id).toList()));
+  }
+
+  private static PlanningLoader.Query query(String agencyId, boolean onlyConflicts) {
+    return new PlanningLoader.Query(
+        agencyId, null, null, null, null, null, null, onlyConflicts, false, FROM,
+        FROM.plusDays(7), Set.of(), "__UNTYPED__");
+  }
+
+  /** Source figée : trois lectures ne se terminent que si elles tournent en même temps. */
+  private static class FixedSource extends MockDataSource {
+    private final CountDownLatch allStarted;
+    final AtomicInteger tagReads = new AtomicInteger();
+    final AtomicInteger interventionReads = new AtomicInteger();
+
+    FixedSource(CountDownLatch allStarted) {
+      this.allStarted = allStarted;
+    }
+
+    private void rendezVous() {
+      allStarted.countDown();
+      try {
+        if (!allStarted.await(5, TimeUnit.SECONDS)) {
+          throw new IllegalStateException("lectures séquentielles");
+        }
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(ex);
+      }
+    }
+
+    @Override
+    public List<Models.Agency> listAgencies() {
+      rendezVous();
+      return List.of(new Models.Agency("A1", "Agence 1"));
+    }
+
+    @Override
+    public List<Models.Resource> listResources() {
+      rendezVous();
+      return List.of(
+          resource("R2", "Camion B", "A1"),
+          resource("R1", "Camion A", "A1"),
+          resource("R3", "Grue", "A2"));
+    }
+
+    @Override
+    public List<Models.ResourceType> listResourceTypes() {
+      return List.of();
+    }
+
+    @Override
+    public String getResourceTypeForResource(String resourceId) {
+      return null;
+    }
+
+    @Override
+    public List<Models.Client> listClients() {
+      return List.of();
+    }
+
+    @Override
+    public List<Models.Intervention> listInterventions(
+        OffsetDateTime from, OffsetDateTime to, String resourceId) {
+      interventionReads.incrementAndGet();
+      rendezVous();
+      Instant start = FROM.toInstant();
+      return List.of(
+          intervention("I1", "A1", "R1", start, 120),
+          intervention("I2", "A1", "R1", start.plus(Duration.ofMinutes(60)), 120),
+          intervention("I3", "A1", "R2", start, 60),
+          intervention("I4", "A2", "R3", start, 60));
+    }
+
+    @Override
+    public List<Models.Unavailability> listUnavailabilities(
+        OffsetDateTime from, OffsetDateTime to, String resourceId) {
+      return List.of();
+    }
+
+    @Override
+    public List<String> getInterventionTags(String interventionId) {
+      tagReads.incrementAndGet();
+      return List.of("tag-" + interventionId);
+    }
+  }
+
+  private static Models.Resource resource(String id, String name, String agencyId) {
+    return new Models.Resource(id, name, null, null, agencyId, null, null);
+  }
+
+  private static Models.Intervention intervention(
+      String id, String agencyId, String resourceId, Instant start, int minutes) {
+    return new Models.Intervention(
+        id, agencyId, List.of(resourceId), "C1", null, id, start,
+        start.plus(Duration.ofMinutes(minutes)), null, null, null);
+  }
+}
@@ -0,0 +1,68 @@
+package com.location.client.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class SearchIndexTest {
+  record Item(String id, String title, String notes) {}
+
+  private static SearchIndex<Item> index() {
+    return new SearchIndex<>(Item::id, i -> java.util.Arrays.asList(i.title(), i.notes()));
+  }
+
+  @Test
+  void topKMatchesAFullSortOfTheScores() {
+    Random random = new Random(20);
+    String[] words = {"Martin", "Durand", "Levage", "Grue", "Transport", "Chantier", "Nacelle"};
+    List<Item> items = new ArrayList<>();
+    for (int i = 0; i < 5_000; i++) {
+      String title = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+      items.add(new Item("I" + i, title + " " + i, i % 3 == 0 ? null : "Notes " + i));
+    }
+    SearchIndex<Item> index = index();
+    index.update(items);
+
+    for (String query : new String[] {"mrt", "gru 12", "notes 4", "chantier", "zzz"}) {
+      List<Item> expected = new ArrayList<>(items);
+      expected.removeIf(i -> score(i, query) == 0);
+      expected.sort(Comparator.comparingInt((Item i) -> score(i, query)).reversed());
+      List<Item> actual = index.search(query, 50).stream().map(SearchIndex.Hit::value).toList();
+      assertEquals(expected.subList(0, Math.min(50, expected.size())), actual, query);
+    }
+  }
+
+  @Test
+  void updateKeepsUnchangedEntriesAndDropsMissingOnes() {
+    SearchIndex<Item> index = index();
+    index.update(List.of(new Item("1", "Grue 40t", null), new Item("2", "Nacelle", null)));
+    index.update(
+        List.of(new Item("2", "Nacelle", "Levage urgent"), new Item("3", "Porte-char", null)));
+
+    assertEquals(2, index.size());
+    assertTrue(index.search("grue", 10).isEmpty());
+    SearchIndex.Hit<Item> hit = index.search("urgent", 10).get(0);
+    assertEquals("2", hit.value().id());
+    assertEquals("Levage urgent", hit.key());
+    assertEquals("3", index.search("PORTE", 10).get(0).value().id());
+  }
+
+  @Test
+  void emptyQueryListsEntriesInIndexOrder() {
+    SearchIndex<Item> index = index();
+    index.update(List.of(new Item("b", "B", null), new Item("a", "A", null)));
+    assertEquals(
+        List.of("b", "a"), index.search("", 10).stream().map(h -> h.value().id()).toList());
+  }
+
+  private static int score(Item item, String query) {
+    int title = SearchIndex.fuzzyScore(item.title().toLowerCase(), query);
+    int notes = item.notes() == null ? 0 : SearchIndex.fuzzyScore(item.notes().toLowerCase(), query);
+    return Math.max(title, notes);
+  }
+}
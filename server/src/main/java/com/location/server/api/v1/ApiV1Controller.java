@@ -5,35 +5,49 @@ import com.location.server.api.v1.dto.ApiV1Dtos.CreateInterventionRequest;
 import com.location.server.api.v1.dto.ApiV1Dtos.CreateRecurringUnavailabilityRequest;
 import com.location.server.api.v1.dto.ApiV1Dtos.CreateUnavailabilityRequest;
 import com.location.server.api.v1.dto.ApiV1Dtos.InterventionDto;
+import com.location.server.api.v1.dto.ApiV1Dtos.InterventionPageDto;
+import com.location.server.api.v1.dto.ApiV1Dtos.JobDto;
 import com.location.server.api.v1.dto.ApiV1Dtos.ResourceDto;
 import com.location.server.api.v1.dto.ApiV1Dtos.RecurringUnavailabilityDto;
 import com.location.server.api.v1.dto.ApiV1Dtos.UnavailabilityDto;
 import com.location.server.api.v1.dto.ApiV1Dtos.UpdateInterventionRequest;
 import com.location.server.api.v1.dto.ApiV1Dtos.SaveAgencyRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.location.server.api.AgencyContext;
 import com.location.server.domain.Agency;
+import com.location.server.domain.Intervention;
+import com.location.server.domain.RecurringUnavailability;
+import com.location.server.domain.Resource;
+import com.location.server.domain.Unavailability;
 import com.location.server.repo.AgencyRepository;
 import com.location.server.repo.ClientRepository;
 import com.location.server.repo.InterventionRepository;
 import com.location.server.repo.ResourceRepository;
 import com.location.server.repo.RecurringUnavailabilityRepository;
 import com.location.server.repo.UnavailabilityRepository;
+import com.location.server.service.ChangeFeed;
+import com.location.server.service.InterventionQueryService;
 import com.location.server.service.InterventionService;
 import com.location.server.service.MailGateway;
+import com.location.server.service.MailJobService;
 import com.location.server.service.PdfService;
+import com.location.server.service.RecurringUnavailabilityIndex;
+import com.location.server.service.ReferenceCache;
 import com.location.server.service.TemplateService;
 import com.location.server.service.UnavailabilityService;
 import com.location.server.service.UnavailabilityQueryService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.DateTimeException;
 import java.time.OffsetDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.nio.charset.StandardCharsets;
-import java.util.UUID;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -49,6 +63,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/v1")
@@ -62,9 +77,16 @@ public class ApiV1Controller {
   private final UnavailabilityService unavailabilityService;
   private final RecurringUnavailabilityRepository recurringUnavailabilityRepository;
   private final UnavailabilityQueryService unavailabilityQueryService;
+  private final RecurringUnavailabilityIndex recurringUnavailabilityIndex;
   private final MailGateway mailGateway;
+  private final MailJobService mailJobService;
   private final PdfService pdfService;
   private final TemplateService templateService;
+  private final InterventionQueryService interventionQueryService;
+  private final ObjectMapper objectMapper;
+  private final CsvStreamer csvStreamer;
+  private final ChangeFeed changeFeed;
+  private final ReferenceCache referenceCache;
 
   public ApiV1Controller(
       AgencyRepository agencyRepository,
@@ -76,9 +98,16 @@ public class ApiV1Controller {
       UnavailabilityService unavailabilityService,
       RecurringUnavailabilityRepository recurringUnavailabilityRepository,
       UnavailabilityQueryService unavailabilityQueryService,
+      RecurringUnavailabilityIndex recurringUnavailabilityIndex,
       MailGateway mailGateway,
+      MailJobService mailJobService,
       PdfService pdfService,
-      TemplateService templateService) {
+      TemplateService templateService,
+      InterventionQueryService interventionQueryService,
+      ObjectMapper objectMapper,
+      CsvStreamer csvStreamer,
+      ChangeFeed changeFeed,
+      ReferenceCache referenceCache) {
     this.agencyRepository = agencyRepository;
     this.clientRepository = clientRepository;
     this.resourceRepository = resourceRepository;
@@ -88,9 +117,16 @@ public class ApiV1Controller {
     this.unavailabilityService = unavailabilityService;
     this.recurringUnavailabilityRepository = recurringUnavailabilityRepository;
     this.unavailabilityQueryService = unavailabilityQueryService;
+    this.recurringUnavailabilityIndex = recurringUnavailabilityIndex;
     this.mailGateway = mailGateway;
+    this.mailJobService = mailJobService;
     this.pdfService = pdfService;
     this.templateService = templateService;
+    this.interventionQueryService = interventionQueryService;
+    this.objectMapper = objectMapper;
+    this.csvStreamer = csvStreamer;
+    this.changeFeed = changeFeed;
+    this.referenceCache = referenceCache;
   }
 
   @GetMapping("/system/features")
@@ -142,73 +178,64 @@ public class ApiV1Controller {
     } else {
       agency = new Agency(UUID.randomUUID().toString(), request.name());
     }
+    boolean zoneChanged =
+        request.timeZone() != null && !request.timeZone().equals(agency.getTimeZone());
+    if (zoneChanged) {
+      agency.setTimeZone(validZone(request.timeZone()));
+    }
     agencyRepository.save(agency);
+    if (zoneChanged) {
+      recurringUnavailabilityIndex.zoneChanged();
+    }
     return AgencyDto.of(agency);
   }
 
   @GetMapping(value = "/clients/csv", produces = "text/csv")
-  public ResponseEntity<byte[]> exportClientsCsv() {
-    StringBuilder csv =
-        new StringBuilder("id;name;email;phone;address;zip;city;vatNumber;iban\n");
-    clientRepository
-        .findAll()
-        .forEach(
-            client ->
-                csv.append(client.getId())
-                    .append(';')
-                    .append(sanitize(client.getName()))
-                    .append(';')
-                    .append(client.getEmail() == null ? "" : client.getEmail())
-                    .append(';')
-                    .append(client.getPhone() == null ? "" : sanitize(client.getPhone()))
-                    .append(';')
-                    .append(client.getAddress() == null ? "" : sanitize(client.getAddress()))
-                    .append(';')
-                    .append(client.getZip() == null ? "" : sanitize(client.getZip()))
-                    .append(';')
-                    .append(client.getCity() == null ? "" : sanitize(client.getCity()))
-                    .append(';')
-                    .append(client.getVatNumber() == null ? "" : sanitize(client.getVatNumber()))
-                    .append(';')
-                    .append(client.getIban() == null ? "" : sanitize(client.getIban()))
-                    .append('\n'));
-    byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
-    return ResponseEntity.ok()
-        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"clients.csv\"")
-        .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
-        .body(bytes);
+  public ResponseEntity<StreamingResponseBody> exportClientsCsv() {
+    return csvStreamer.stream(
+        "clients.csv",
+        "id;name;email;phone;address;zip;city;vatNumber;iban",
+        clientRepository::streamAll,
+        client ->
+            new Object[] {
+              client.getId(),
+              client.getName(),
+              client.getEmail(),
+              client.getPhone(),
+              client.getAddress(),
+              client.getZip(),
+              client.getCity(),
+              client.getVatNumber(),
+              client.getIban()
+            });
   }
 
+  /** Liste commune à toutes les agences, mise en cache par jeu de tags normalisé. */
   @GetMapping("/resources")
   public List<ResourceDto> resources(@RequestParam(required = false) String tags) {
-    return resourceRepository.searchByTags(tags).stream().map(ResourceDto::of).collect(Collectors.toList());
+    return referenceCache.get(
+        ReferenceCache.RESOURCES,
+        null,
+        "tags:" + String.join(",", Resource.normalizeTags(tags)),
+        () -> resourceRepository.searchByTags(tags).stream().map(ResourceDto::of).toList());
   }
 
   @GetMapping(value = "/resources/csv", produces = "text/csv")
-  public ResponseEntity<byte[]> exportResourcesCsv(@RequestParam(required = false) String tags) {
-    StringBuilder csv =
-        new StringBuilder("id;name;licensePlate;capacityTons;tags;agencyId\n");
-    resourceRepository
-        .searchByTags(tags)
-        .forEach(
-            resource ->
-                csv.append(resource.getId())
-                    .append(';')
-                    .append(sanitize(resource.getName()))
-                    .append(';')
-                    .append(sanitize(resource.getLicensePlate()))
-                    .append(';')
-                    .append(resource.getCapacityTons() == null ? "" : resource.getCapacityTons())
-                    .append(';')
-                    .append(resource.getTags() == null ? "" : resource.getTags())
-                    .append(';')
-                    .append(resource.getAgency().getId())
-                    .append('\n'));
-    byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
-    return ResponseEntity.ok()
-        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"resources.csv\"")
-        .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
-        .body(bytes);
+  public ResponseEntity<StreamingResponseBody> exportResourcesCsv(
+      @RequestParam(required = false) String tags) {
+    return csvStreamer.stream(
+        "resources.csv",
+        "id;name;licensePlate;capacityTons;tags;agencyId",
+        () -> resourceRepository.streamByTags(tags),
+        resource ->
+            new Object[] {
+              resource.getId(),
+              resource.getName(),
+              resource.getLicensePlate(),
+              resource.getCapacityTons(),
+              resource.getTags(),
+              resource.getAgency().getId()
+            });
   }
 
   @GetMapping("/unavailabilities")
@@ -228,7 +255,7 @@ public class ApiV1Controller {
   }
 
   @GetMapping(value = "/unavailabilities/csv", produces = "text/csv")
-  public ResponseEntity<byte[]> exportUnavailabilitiesCsv(
+  public ResponseEntity<StreamingResponseBody> exportUnavailabilitiesCsv(
       @RequestParam(required = false)
           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
           OffsetDateTime from,
@@ -236,27 +263,14 @@ public class ApiV1Controller {
           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
           OffsetDateTime to,
       @RequestParam(required = false) String resourceId) {
-    var spans = unavailabilityQueryService.search(from, to, resourceId);
-    StringBuilder csv = new StringBuilder("id;resourceId;start;end;reason;recurring\n");
-    spans.forEach(
+    return csvStreamer.stream(
+        "unavailabilities.csv",
+        "id;resourceId;start;end;reason;recurring",
+        () -> unavailabilityQueryService.stream(from, to, resourceId),
         span ->
-            csv.append(span.id())
-                .append(';')
-                .append(span.resourceId())
-                .append(';')
-                .append(span.start())
-                .append(';')
-                .append(span.end())
-                .append(';')
-                .append(sanitize(span.reason()))
-                .append(';')
-                .append(span.recurring())
-                .append('\n'));
-    byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
-    return ResponseEntity.ok()
-        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"unavailabilities.csv\"")
-        .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
-        .body(bytes);
+            new Object[] {
+              span.id(), span.resourceId(), span.start(), span.end(), span.reason(), span.recurring()
+            });
   }
 
   @GetMapping("/interventions")
@@ -269,14 +283,58 @@ public class ApiV1Controller {
           OffsetDateTime to,
       @RequestParam(required = false) String resourceId) {
     return interventionRepository
-        .search(from, to, resourceId)
+        .searchRows(from, to, resourceId)
         .stream()
         .map(InterventionDto::of)
         .collect(Collectors.toList());
   }
 
+  @GetMapping("/interventions/page")
+  public InterventionPageDto interventionsPage(
+      @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          OffsetDateTime from,
+      @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          OffsetDateTime to,
+      @RequestParam(required = false) String resourceId,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(required = false) Integer limit) {
+    var page = interventionQueryService.page(from, to, resourceId, cursor, limit);
+    return new InterventionPageDto(
+        page.items().stream().map(InterventionDto::of).toList(), page.nextCursor());
+  }
+
+  @GetMapping(value = "/interventions", produces = "application/x-ndjson")
+  public ResponseEntity<StreamingResponseBody> interventionsNdjson(
+      @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          OffsetDateTime from,
+      @RequestParam(required = false)
+          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          OffsetDateTime to,
+      @RequestParam(required = false) String resourceId) {
+    StreamingResponseBody body =
+        out ->
+            interventionQueryService.forEach(
+                from,
+                to,
+                resourceId,
+                row -> {
+                  try {
+                    out.write(objectMapper.writeValueAsBytes(InterventionDto.of(row)));
+                    out.write('\n');
+                  } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                  }
+                });
+    return ResponseEntity.ok()
+        .contentType(MediaType.parseMediaType("application/x-ndjson"))
+        .body(body);
+  }
+
   @GetMapping(value = "/interventions/csv", produces = "text/csv")
-  public ResponseEntity<byte[]> exportCsv(
+  public ResponseEntity<StreamingResponseBody> exportCsv(
       @RequestParam(required = false)
           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
           OffsetDateTime from,
@@ -286,41 +344,21 @@ public class ApiV1Controller {
       @RequestParam(required = false) String resourceId,
       @RequestParam(required = false) String clientId,
       @RequestParam(required = false) String q) {
-    List<InterventionDto> data =
-        interventionRepository.search(from, to, resourceId).stream().map(InterventionDto::of).toList();
-    Stream<InterventionDto> stream = data.stream();
-    if (clientId != null && !clientId.isBlank()) {
-      stream = stream.filter(item -> clientId.equals(item.clientId()));
-    }
-    if (q != null && !q.isBlank()) {
-      String query = q.toLowerCase();
-      stream =
-          stream.filter(
-              item -> item.title() != null && item.title().toLowerCase().contains(query));
-    }
-    StringBuilder csv =
-        new StringBuilder("id;title;agencyId;resourceId;clientId;start;end\n");
-    stream.forEach(
-        item ->
-            csv.append(item.id())
-                .append(';')
-                .append(sanitize(item.title()))
-                .append(';')
-                .append(item.agencyId())
-                .append(';')
-                .append(item.resourceId())
-                .append(';')
-                .append(item.clientId())
-                .append(';')
-                .append(item.start())
-                .append(';')
-                .append(item.end())
-                .append('\n'));
-    byte[] bytes = csv.toString().getBytes(StandardCharsets.UTF_8);
-    return ResponseEntity.ok()
-        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"interventions.csv\"")
-        .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
-        .body(bytes);
+    String client = clientId == null || clientId.isBlank() ? null : clientId;
+    String titleLike = q == null || q.isBlank() ? null : containsPattern(q);
+    return csvStreamer.stream(
+        "interventions.csv",
+        "id;title;agencyId;resourceId;clientId;start;end",
+        () -> interventionRepository.streamExportRows(from, to, resourceId, null, client, titleLike),
+        row ->
+            new Object[] {
+              row.id(), row.title(), row.agencyId(), row.resourceId(), row.clientId(), row.start(), row.end()
+            });
+  }
+
+  private static String containsPattern(String q) {
+    String escaped = q.toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    return "%" + escaped + "%";
   }
 
   private static String sanitize(String value) {
@@ -330,13 +368,24 @@ public class ApiV1Controller {
     return value.replace(';', ',');
   }
 
+  private static String validZone(String zone) {
+    if (zone.isBlank()) {
+      return null;
+    }
+    try {
+      return ZoneId.of(zone).getId();
+    } catch (DateTimeException ex) {
+      throw new IllegalArgumentException("Fuseau horaire invalide: " + zone);
+    }
+  }
+
   private static String nullToEmpty(String value) {
     return value == null ? "" : value;
   }
 
   @PostMapping("/interventions")
   public InterventionDto create(@Valid @RequestBody CreateInterventionRequest request) {
-    return InterventionDto.of(
+    return publish(
         interventionService.create(
             request.agencyId(),
             primaryResourceId(request.resourceIds(), request.resourceId()),
@@ -353,36 +402,58 @@ public class ApiV1Controller {
   @PutMapping("/interventions/{id}")
   public InterventionDto update(
       @PathVariable String id, @Valid @RequestBody UpdateInterventionRequest request) {
-    return InterventionDto.of(
-        interventionService.update(
-            id,
-            request.agencyId(),
-            primaryResourceId(request.resourceIds(), request.resourceId()),
-            request.driverId(),
-            request.clientId(),
-            request.title(),
-            request.start(),
-            request.end(),
-            request.notes(),
-            request.internalNotes(),
-            request.price()));
+    String previousAgencyId = interventionRepository.findAgencyIdById(id).orElse(null);
+    InterventionDto dto =
+        publish(
+            interventionService.update(
+                id,
+                request.agencyId(),
+                primaryResourceId(request.resourceIds(), request.resourceId()),
+                request.driverId(),
+                request.clientId(),
+                request.title(),
+                request.start(),
+                request.end(),
+                request.notes(),
+                request.internalNotes(),
+                request.price()));
+    if (previousAgencyId != null && !previousAgencyId.equals(dto.agencyId())) {
+      // Déplacée vers une autre agence : l'ancienne la retire de son planning.
+      changeFeed.publish(previousAgencyId, "intervention", "delete", id, null);
+    }
+    return dto;
   }
 
   @DeleteMapping("/interventions/{id}")
   public ResponseEntity<Void> delete(@PathVariable String id) {
-    interventionService.delete(id);
+    interventionService
+        .delete(id)
+        .ifPresent(
+            deleted ->
+                changeFeed.publish(
+                    deleted.getAgency().getId(), "intervention", "delete", id, null));
     return ResponseEntity.noContent().build();
   }
 
+  private InterventionDto publish(Intervention intervention) {
+    InterventionDto dto = InterventionDto.of(intervention);
+    changeFeed.publish(dto.agencyId(), "intervention", "upsert", dto.id(), dto);
+    return dto;
+  }
+
   @PostMapping("/unavailabilities")
   public UnavailabilityDto createUnavailability(
       @Valid @RequestBody CreateUnavailabilityRequest request) {
-    return UnavailabilityDto.of(
+    Unavailability saved =
         unavailabilityService.create(
             primaryResourceId(request.resourceIds(), request.resourceId()),
             request.start(),
             request.end(),
-            request.reason()));
+            request.reason());
+    UnavailabilityDto dto = UnavailabilityDto.of(saved);
+    changeFeed.publish(
+        saved.getResource().getAgency().getId(), "unavailability", "upsert", dto.id(), dto);
+    return dto;
   }
 
   @GetMapping("/recurring-unavailabilities")
@@ -398,17 +469,25 @@ public class ApiV1Controller {
   @PostMapping("/recurring-unavailabilities")
   public RecurringUnavailabilityDto createRecurring(
       @Valid @RequestBody CreateRecurringUnavailabilityRequest request) {
-    return RecurringUnavailabilityDto.of(
+    RecurringUnavailability saved =
         unavailabilityService.createRecurring(
             primaryResourceId(request.resourceIds(), request.resourceId()),
             request.dayOfWeek(),
             request.start(),
             request.end(),
-            request.reason()));
+            request.reason());
+    RecurringUnavailabilityDto dto = RecurringUnavailabilityDto.of(saved);
+    changeFeed.publish(
+        saved.getResource().getAgency().getId(),
+        "recurring-unavailability",
+        "upsert",
+        dto.id(),
+        dto);
+    return dto;
   }
 
-  private static String primaryResourceId(
-      java.util.List<String> resourceIds, String legacyResourceId) {
+  /** Première ressource de {@code resourceIds}, sinon l'ancien champ unique {@code resourceId}. */
+  static String primaryResourceId(java.util.List<String> resourceIds, String legacyResourceId) {
     if (resourceIds != null
         && !resourceIds.isEmpty()
         && resourceIds.get(0) != null
@@ -484,41 +563,43 @@ public class ApiV1Controller {
   public record BulkEmailRequest(List<String> ids, @Email String toOverride) {}
 
   @PostMapping("/interventions/email-bulk")
-  public ResponseEntity<Void> emailBulk(@Valid @RequestBody BulkEmailRequest request) {
+  public ResponseEntity<JobDto> emailBulk(@Valid @RequestBody BulkEmailRequest request) {
     if (request.ids() == null || request.ids().isEmpty()) {
       return ResponseEntity.badRequest().build();
     }
-    for (String id : request.ids()) {
-      var intervention =
-          interventionRepository
-              .findById(id)
-              .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
-      String recipient =
-          request.toOverride() != null && !request.toOverride().isBlank()
-              ? request.toOverride()
-              : nullToEmpty(intervention.getClient().getEmail());
-      if (recipient.isBlank()) {
-        continue;
-      }
-      byte[] pdf = pdfService.buildInterventionPdf(intervention);
-      String subjectTemplate = intervention.getAgency().getEmailSubjectTemplate();
-      String bodyTemplate = intervention.getAgency().getEmailBodyTemplate();
-      String subject =
-          subjectTemplate == null || subjectTemplate.isBlank()
-              ? "Intervention " + sanitize(intervention.getTitle())
-              : templateService.renderSubject(subjectTemplate, intervention);
-      String body =
-          bodyTemplate == null || bodyTemplate.isBlank()
-              ? "Bonjour,\nVeuillez trouver la fiche intervention en pièce jointe."
-              : templateService.renderBody(bodyTemplate, intervention);
-      mailGateway.send(
-          new MailGateway.Mail(
-              recipient,
-              subject,
-              body,
-              pdf,
-              "intervention-" + intervention.getId() + ".pdf"));
+    String toOverride = request.toOverride();
+    String jobId =
+        mailJobService.submit(
+            "interventions-email",
+            AgencyContext.get(),
+            request.ids(),
+            ids ->
+                interventionRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Intervention::getId, i -> i)),
+            intervention -> interventionMail(intervention, toOverride));
+    return JobController.accepted(mailJobService.find(jobId).orElseThrow());
+  }
+
+  private MailGateway.Mail interventionMail(Intervention intervention, String toOverride) {
+    String recipient =
+        toOverride != null && !toOverride.isBlank()
+            ? toOverride
+            : nullToEmpty(intervention.getClient().getEmail());
+    if (recipient.isBlank()) {
+      return null;
     }
-    return ResponseEntity.accepted().build();
+    byte[] pdf = pdfService.buildInterventionPdf(intervention);
+    String subjectTemplate = intervention.getAgency().getEmailSubjectTemplate();
+    String bodyTemplate = intervention.getAgency().getEmailBodyTemplate();
+    String subject =
+        subjectTemplate == null || subjectTemplate.isBlank()
+            ? "Intervention " + sanitize(intervention.getTitle())
+            : templateService.renderSubject(subjectTemplate, intervention);
+    String body =
+        bodyTemplate == null || bodyTemplate.isBlank()
+            ? "Bonjour,\nVeuillez trouver la fiche intervention en pièce jointe."
+            : templateService.renderBody(bodyTemplate, intervention);
+    return new MailGateway.Mail(
+        recipient, subject, body, pdf, "intervention-" + intervention.getId() + ".pdf");
   }
 }
@@ -0,0 +1,27 @@
+package com.location.server.api.v1;
+
+import com.location.server.api.AgencyContext;
+import com.location.server.service.ChangeFeed;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/** Changements (interventions, indisponibilités, ressources) de l'agence courante. */
+@RestController
+@RequestMapping("/api/v1/changes")
+public class ChangeFeedController {
+  private final ChangeFeed changeFeed;
+
+  public ChangeFeedController(ChangeFeed changeFeed) {
+    this.changeFeed = changeFeed;
+  }
+
+  @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter changes(
+      @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+    return changeFeed.subscribe(AgencyContext.require(), lastEventId);
+  }
+}
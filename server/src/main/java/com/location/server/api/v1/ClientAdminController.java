@@ -38,7 +38,7 @@ public class ClientAdminController {
 
   @GetMapping
   public List<ClientDto> listClients() {
-    return clientRepository.findAll().stream().map(ClientDto::of).collect(Collectors.toList());
+    return clientRepository.findAllForListing().stream().map(ClientDto::of).collect(Collectors.toList());
   }
 
   @PostMapping
@@ -1,6 +1,7 @@
 package com.location.server.api.v1;
 
 import com.location.server.api.AgencyContext;
+import com.location.server.api.v1.dto.ApiV1Dtos;
 import com.location.server.domain.CommercialDocument;
 import com.location.server.domain.CommercialDocument.DocType;
 import com.location.server.domain.CommercialDocumentLine;
@@ -8,6 +9,7 @@ import com.location.server.repo.CommercialDocumentRepository;
 import com.location.server.service.CommercialDocumentPdfService;
 import com.location.server.service.CommercialDocumentService;
 import com.location.server.service.MailGateway;
+import com.location.server.service.MailJobService;
 import com.location.server.service.TemplateService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
@@ -38,6 +40,7 @@ public class CommercialDocumentController {
   private final CommercialDocumentService documentService;
   private final CommercialDocumentPdfService pdfService;
   private final MailGateway mailGateway;
+  private final MailJobService mailJobService;
   private final TemplateService templateService;
 
   public CommercialDocumentController(
@@ -45,11 +48,13 @@ public class CommercialDocumentController {
       CommercialDocumentService documentService,
       CommercialDocumentPdfService pdfService,
       MailGateway mailGateway,
+      MailJobService mailJobService,
       TemplateService templateService) {
     this.documentRepository = documentRepository;
     this.documentService = documentService;
     this.pdfService = pdfService;
     this.mailGateway = mailGateway;
+    this.mailJobService = mailJobService;
     this.templateService = templateService;
   }
 
@@ -136,7 +141,7 @@ public class CommercialDocumentController {
 
   @DeleteMapping("/{id}")
   public void delete(@PathVariable String id) {
-    documentRepository.deleteById(id);
+    documentService.delete(id);
   }
 
   @PostMapping("/{id}/transition")
@@ -167,15 +172,19 @@ public class CommercialDocumentController {
   }
 
   @PostMapping("/email-batch")
-  public ResponseEntity<Void> emailBatch(@Valid @RequestBody EmailBatchRequest request) {
-    for (String documentId : request.ids()) {
-      CommercialDocument document = documentRepository.findById(documentId).orElseThrow();
-      boolean attachPdf = request.attachPdf() == null ? true : request.attachPdf();
-      MailGateway.Mail mail =
-          buildMail(request.to(), request.subject(), request.message(), document, attachPdf);
-      mailGateway.send(mail);
-    }
-    return ResponseEntity.accepted().build();
+  public ResponseEntity<ApiV1Dtos.JobDto> emailBatch(@Valid @RequestBody EmailBatchRequest request) {
+    boolean attachPdf = request.attachPdf() == null ? true : request.attachPdf();
+    String jobId =
+        mailJobService.submit(
+            "documents-email",
+            AgencyContext.get(),
+            request.ids(),
+            ids ->
+                documentRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(CommercialDocument::getId, d -> d)),
+            document ->
+                buildMail(request.to(), request.subject(), request.message(), document, attachPdf));
+    return JobController.accepted(mailJobService.find(jobId).orElseThrow());
   }
 
   private MailGateway.Mail buildMail(
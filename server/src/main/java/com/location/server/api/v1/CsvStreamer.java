@@ -0,0 +1,87 @@
+package com.location.server.api.v1;
+
+import jakarta.persistence.EntityManager;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Écrit les exports CSV (séparateur ';') au fil de l'eau depuis un curseur base, sans construire
+ * le fichier en mémoire.
+ */
+@Component
+public class CsvStreamer {
+  private static final int CLEAR_EVERY = 500;
+
+  private final TransactionTemplate readOnly;
+  private final EntityManager entityManager;
+
+  public CsvStreamer(PlatformTransactionManager transactionManager, EntityManager entityManager) {
+    this.readOnly = new TransactionTemplate(transactionManager);
+    this.readOnly.setReadOnly(true);
+    this.entityManager = entityManager;
+  }
+
+  /**
+   * @param rows ouvert dans une transaction en lecture seule, pendant l'écriture de la réponse
+   * @param columns valeurs d'une ligne ; {@code null} donne une cellule vide
+   */
+  public <T> ResponseEntity<StreamingResponseBody> stream(
+      String filename, String header, Supplier<Stream<T>> rows, Function<T, Object[]> columns) {
+    StreamingResponseBody body =
+        out -> {
+          Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+          writer.write(header);
+          writer.write('\n');
+          readOnly.executeWithoutResult(
+              status -> {
+                int count = 0;
+                try (Stream<T> stream = rows.get()) {
+                  for (T row : (Iterable<T>) stream::iterator) {
+                    writeRow(writer, columns.apply(row));
+                    if (++count % CLEAR_EVERY == 0) {
+                      entityManager.clear();
+                    }
+                  }
+                } catch (IOException e) {
+                  throw new UncheckedIOException(e);
+                }
+              });
+          writer.flush();
+        };
+    return ResponseEntity.ok()
+        .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+        .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
+        .body(body);
+  }
+
+  private static void writeRow(Writer writer, Object[] values) throws IOException {
+    for (int i = 0; i < values.length; i++) {
+      if (i > 0) {
+        writer.write(';');
+      }
+      writer.write(sanitize(values[i]));
+    }
+    writer.write('\n');
+  }
+
+  static String sanitize(Object value) {
+    if (value == null) {
+      return "";
+    }
+    return value.toString().replace(';', ',').replace('\n', ' ').replace('\r', ' ');
+  }
+}
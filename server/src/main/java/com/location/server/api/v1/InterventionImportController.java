@@ -0,0 +1,206 @@
+package com.location.server.api.v1;
+
+import com.location.server.api.AgencyContext;
+import com.location.server.api.v1.dto.ApiV1Dtos.CreateInterventionRequest;
+import com.location.server.service.ChangeFeed;
+import com.location.server.service.InterventionImportService;
+import com.location.server.service.InterventionImportService.Draft;
+import com.location.server.service.InterventionImportService.Outcome;
+import com.location.server.service.InterventionImportService.Report;
+import jakarta.validation.Validator;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Import groupé d'interventions, en JSON (mêmes champs que la création unitaire) ou en CSV
+ * ({@code ;}, ligne d'en-tête, colonnes de l'export plus {@code driverId}, {@code notes}, {@code
+ * internalNotes} et {@code price}). Une agence absente prend celle de l'en-tête {@code
+ * X-Agency-Id}. Chaque ligne est validée comme une création unitaire ({@link
+ * CreateInterventionRequest}) ; une ligne invalide est refusée seule.
+ */
+@RestController
+@RequestMapping("/api/v1/interventions")
+public class InterventionImportController {
+  static final String TEXT_CSV = "text/csv";
+
+  private final InterventionImportService importService;
+  private final ChangeFeed changeFeed;
+  private final Validator validator;
+
+  public InterventionImportController(
+      InterventionImportService importService, ChangeFeed changeFeed, Validator validator) {
+    this.importService = importService;
+    this.changeFeed = changeFeed;
+    this.validator = validator;
+  }
+
+  @PostMapping(
+      value = "/import",
+      consumes = MediaType.APPLICATION_JSON_VALUE,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public Report importJson(
+      @RequestBody List<CreateInterventionRequest> rows,
+      @RequestParam(value = "rejectResourceOverlaps", defaultValue = "false")
+          boolean rejectResourceOverlaps) {
+    List<Draft> drafts = new ArrayList<>(rows.size());
+    for (CreateInterventionRequest row : rows) {
+      drafts.add(draft(row));
+    }
+    return run(drafts, rejectResourceOverlaps);
+  }
+
+  /** Une ligne mal formée (date, prix, nombre de colonnes) rejette tout le fichier. */
+  @PostMapping(
+      value = "/import",
+      consumes = TEXT_CSV,
+      produces = MediaType.APPLICATION_JSON_VALUE)
+  public Report importCsv(
+      @RequestBody String csv,
+      @RequestParam(value = "rejectResourceOverlaps", defaultValue = "false")
+          boolean rejectResourceOverlaps) {
+    return run(parseCsv(csv), rejectResourceOverlaps);
+  }
+
+  private Report run(List<Draft> drafts, boolean rejectResourceOverlaps) {
+    Report report = importService.importAll(drafts, rejectResourceOverlaps);
+    Map<String, Integer> createdByAgency = new TreeMap<>();
+    for (Outcome outcome : report.outcomes()) {
+      if (outcome.isCreated()) {
+        createdByAgency.merge(drafts.get(outcome.row()).agencyId(), 1, Integer::sum);
+      }
+    }
+    // un seul événement par agence : le client recharge le planning au lieu de N mises à jour
+    createdByAgency.forEach(
+        (agencyId, count) -> changeFeed.publish(agencyId, "interventions", "import", null, count));
+    return report;
+  }
+
+  List<Draft> parseCsv(String csv) {
+    List<Draft> drafts = new ArrayList<>();
+    if (csv == null || csv.isBlank()) {
+      return drafts;
+    }
+    String[] lines = csv.split("\r?\n");
+    Map<String, Integer> columns = new HashMap<>();
+    String[] header = lines[0].replace("\uFEFF", "").split(";", -1);
+    for (int i = 0; i < header.length; i++) {
+      columns.put(header[i].trim().toLowerCase(Locale.ROOT), i);
+    }
+    for (String required : List.of("resourceid", "clientid", "title", "start", "end")) {
+      if (!columns.containsKey(required)) {
+        throw new IllegalArgumentException("Colonne manquante dans l'en-tête : " + required);
+      }
+    }
+    for (int line = 1; line < lines.length; line++) {
+      if (lines[line].isBlank()) {
+        continue;
+      }
+      String[] cells = lines[line].split(";", -1);
+      if (cells.length != header.length) {
+        throw new IllegalArgumentException(
+            "Ligne " + (line + 1) + " : " + header.length + " colonnes attendues");
+      }
+      Row row = new Row(columns, cells, line + 1);
+      drafts.add(
+          draft(
+              new CreateInterventionRequest(
+                  null,
+                  row.text("agencyid"),
+                  row.text("resourceid"),
+                  row.text("driverid"),
+                  row.text("clientid"),
+                  row.text("title"),
+                  row.date("start"),
+                  row.date("end"),
+                  row.text("notes"),
+                  row.text("internalnotes"),
+                  row.price())));
+    }
+    return drafts;
+  }
+
+  /** {@code row}, agence et ressource principale résolues, refusée si une contrainte échoue. */
+  private Draft draft(CreateInterventionRequest row) {
+    if (row == null) {
+      return Draft.rejected("Ligne vide");
+    }
+    CreateInterventionRequest request =
+        new CreateInterventionRequest(
+            null,
+            agencyOrCurrent(row.agencyId()),
+            ApiV1Controller.primaryResourceId(row.resourceIds(), row.resourceId()),
+            row.driverId(),
+            row.clientId(),
+            row.title(),
+            row.start(),
+            row.end(),
+            row.notes(),
+            row.internalNotes(),
+            row.price());
+    String violations =
+        validator.validate(request).stream()
+            .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+            .sorted()
+            .collect(Collectors.joining("; "));
+    if (!violations.isEmpty()) {
+      return Draft.rejected(violations);
+    }
+    return new Draft(
+        request.agencyId(),
+        request.resourceId(),
+        request.driverId(),
+        request.clientId(),
+        request.title(),
+        request.start(),
+        request.end(),
+        request.notes(),
+        request.internalNotes(),
+        request.price());
+  }
+
+  private record Row(Map<String, Integer> columns, String[] cells, int line) {
+    String text(String column) {
+      Integer index = columns.get(column);
+      if (index == null) {
+        return null;
+      }
+      String value = cells[index].trim();
+      return value.isEmpty() ? null : value;
+    }
+
+    OffsetDateTime date(String column) {
+      String value = text(column);
+      try {
+        return value == null ? null : OffsetDateTime.parse(value);
+      } catch (DateTimeParseException e) {
+        throw new IllegalArgumentException("Ligne " + line + " : date invalide (" + column + ")");
+      }
+    }
+
+    Double price() {
+      String value = text("price");
+      try {
+        return value == null ? null : Double.valueOf(value.replace(',', '.'));
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException("Ligne " + line + " : prix invalide");
+      }
+    }
+  }
+
+  private static String agencyOrCurrent(String agencyId) {
+    return agencyId == null || agencyId.isBlank() ? AgencyContext.get() : agencyId;
+  }
+}
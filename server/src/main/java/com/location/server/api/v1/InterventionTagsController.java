@@ -1,10 +1,10 @@
 package com.location.server.api.v1;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import com.location.server.repo.InterventionRepository;
+import com.location.server.service.InterventionTagService;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,15 +18,37 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequestMapping("/api/v1/interventions")
 public class InterventionTagsController {
+  /** Nombre maximal d'identifiants par appel groupé. */
+  static final int MAX_BULK_IDS = 500;
 
-  private static final Map<String, List<String>> tagsByIntervention = new ConcurrentHashMap<>();
+  private final InterventionTagService tagService;
+  private final InterventionRepository interventionRepository;
+
+  public InterventionTagsController(
+      InterventionTagService tagService, InterventionRepository interventionRepository) {
+    this.tagService = tagService;
+    this.interventionRepository = interventionRepository;
+  }
 
   @GetMapping(value = "/{id}/tags", produces = MediaType.APPLICATION_JSON_VALUE)
   public ResponseEntity<List<String>> getTags(@PathVariable("id") String id) {
     if (id == null || id.isBlank()) {
       return ResponseEntity.ok(List.of());
     }
-    return ResponseEntity.ok(tagsByIntervention.getOrDefault(id, List.of()));
+    return ResponseEntity.ok(tagService.tagsOf(id));
+  }
+
+  /** Tags de plusieurs interventions en un aller-retour : {@code ?ids=a,b,c}. */
+  @GetMapping(value = "/tags", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<Map<String, List<String>>> getTagsBulk(
+      @RequestParam(value = "ids", required = false, defaultValue = "") String ids) {
+    List<String> requested =
+        Arrays.stream(ids.split(",")).map(String::trim).filter(s -> !s.isEmpty()).toList();
+    if (requested.size() > MAX_BULK_IDS) {
+      throw new IllegalArgumentException(
+          "Trop d'interventions demandées (" + MAX_BULK_IDS + " maximum)");
+    }
+    return ResponseEntity.ok(tagService.tagsOf(requested));
   }
 
   @PostMapping(value = "/{id}/tags", consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -35,34 +57,16 @@ public class InterventionTagsController {
     if (id == null || id.isBlank()) {
       return ResponseEntity.ok().build();
     }
-    tagsByIntervention.put(id, tags == null ? List.of() : new ArrayList<>(tags));
+    if (!interventionRepository.existsById(id)) {
+      return ResponseEntity.notFound().build();
+    }
+    tagService.replace(id, tags);
     return ResponseEntity.ok().build();
   }
 
   @GetMapping(value = "/tags/suggest", produces = MediaType.APPLICATION_JSON_VALUE)
   public ResponseEntity<List<String>> suggestTags(
       @RequestParam(value = "limit", required = false, defaultValue = "20") int limit) {
-    Map<String, Integer> frequency = new HashMap<>();
-    for (List<String> tags : tagsByIntervention.values()) {
-      for (String tag : tags) {
-        if (tag == null) {
-          continue;
-        }
-        String normalized = tag.trim();
-        if (normalized.isEmpty()) {
-          continue;
-        }
-        frequency.merge(normalized, 1, Integer::sum);
-      }
-    }
-
-    List<String> sorted = new ArrayList<>(frequency.keySet());
-    sorted.sort((a, b) -> Integer.compare(frequency.getOrDefault(b, 0), frequency.getOrDefault(a, 0)));
-
-    int effectiveLimit = Math.max(1, limit);
-    if (sorted.size() > effectiveLimit) {
-      sorted = sorted.subList(0, effectiveLimit);
-    }
-    return ResponseEntity.ok(sorted);
+    return ResponseEntity.ok(tagService.suggest(limit));
   }
 }
@@ -0,0 +1,58 @@
+package com.location.server.api.v1;
+
+import com.location.server.api.AgencyContext;
+import com.location.server.api.v1.dto.ApiV1Dtos.JobDto;
+import com.location.server.service.MailJobService;
+import java.net.URI;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/v1/jobs")
+public class JobController {
+  private final MailJobService mailJobService;
+
+  public JobController(MailJobService mailJobService) {
+    this.mailJobService = mailJobService;
+  }
+
+  @GetMapping("/{id}")
+  public JobDto get(@PathVariable String id) {
+    return JobDto.of(
+        mailJobService
+            .find(id)
+            .filter(JobController::visible)
+            .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)));
+  }
+
+  /** Relance les seuls éléments en échec. */
+  @PostMapping("/{id}/retry")
+  public ResponseEntity<JobDto> retry(@PathVariable String id) {
+    mailJobService
+        .find(id)
+        .filter(JobController::visible)
+        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    try {
+      return accepted(mailJobService.retry(id).orElseThrow());
+    } catch (IllegalStateException ex) {
+      throw new ResponseStatusException(HttpStatus.CONFLICT, ex.getMessage());
+    }
+  }
+
+  static ResponseEntity<JobDto> accepted(MailJobService.JobView job) {
+    return ResponseEntity.accepted()
+        .location(URI.create("/api/v1/jobs/" + job.id()))
+        .body(JobDto.of(job));
+  }
+
+  private static boolean visible(MailJobService.JobView job) {
+    String agencyId = AgencyContext.get();
+    return job.agencyId() == null || agencyId == null || agencyId.equals(job.agencyId());
+  }
+}
@@ -0,0 +1,72 @@
+package com.location.server.api.v1;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.location.server.api.AgencyContext;
+import com.location.server.api.v1.dto.ApiV1Dtos.PlanningSnapshotDto;
+import com.location.server.service.PlanningSnapshotService;
+import com.location.server.service.ServerMetrics;
+import java.time.OffsetDateTime;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+/**
+ * Une vue du planning en un aller-retour : agences, types, ressources (avec leur type), clients,
+ * interventions et tags, indisponibilités ponctuelles et récurrentes dépliées. Sans {@code
+ * agency}, toutes les agences ; {@code tags} ne garde que les ressources qui les portent tous. La
+ * période est obligatoire et bornée ; la réponse, sans champs nuls, est écrite en flux et
+ * compressée comme les autres JSON.
+ */
+@RestController
+@RequestMapping("/api/v1/planning")
+public class PlanningSnapshotController {
+
+  private final PlanningSnapshotService snapshotService;
+  private final ServerMetrics metrics;
+  private final ObjectWriter writer;
+
+  public PlanningSnapshotController(
+      PlanningSnapshotService snapshotService, ServerMetrics metrics, ObjectMapper objectMapper) {
+    this.snapshotService = snapshotService;
+    this.metrics = metrics;
+    this.writer =
+        objectMapper
+            .copy()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false)
+            .writer();
+  }
+
+  @GetMapping(value = "/snapshot", produces = MediaType.APPLICATION_JSON_VALUE)
+  public ResponseEntity<StreamingResponseBody> snapshot(
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          OffsetDateTime from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          OffsetDateTime to,
+      @RequestParam(value = "agency", required = false) String agency,
+      @RequestParam(value = "tags", required = false) String tags) {
+    String agencyId = agency == null || agency.isBlank() ? null : agency;
+    PlanningSnapshotDto dto =
+        PlanningSnapshotDto.of(
+            snapshotService.load(agencyId, tags, from, to), agencyId, from, to);
+    String requestAgency = AgencyContext.get();
+    StreamingResponseBody body =
+        out -> {
+          long start = System.nanoTime();
+          try {
+            writer.writeValue(out, dto);
+          } finally {
+            metrics.recordOperation("json.write", requestAgency, System.nanoTime() - start);
+          }
+        };
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+  }
+}
@@ -7,6 +7,8 @@ import com.location.server.domain.Resource;
 import com.location.server.domain.ResourceType;
 import com.location.server.repo.ResourceRepository;
 import com.location.server.repo.ResourceTypeRepository;
+import com.location.server.service.ChangeFeed;
+import com.location.server.service.ReferenceCache;
 import jakarta.validation.Valid;
 import java.net.URI;
 import java.util.Comparator;
@@ -31,19 +33,33 @@ public class ResourceTypeController {
 
   private final ResourceTypeRepository resourceTypeRepository;
   private final ResourceRepository resourceRepository;
+  private final ChangeFeed changeFeed;
+  private final ReferenceCache cache;
 
   public ResourceTypeController(
-      ResourceTypeRepository resourceTypeRepository, ResourceRepository resourceRepository) {
+      ResourceTypeRepository resourceTypeRepository,
+      ResourceRepository resourceRepository,
+      ChangeFeed changeFeed,
+      ReferenceCache cache) {
     this.resourceTypeRepository = resourceTypeRepository;
     this.resourceRepository = resourceRepository;
+    this.changeFeed = changeFeed;
+    this.cache = cache;
   }
 
+  /** Types partagés par toutes les agences : une seule partition du cache. */
   @GetMapping("/resource-types")
   public List<ResourceTypeDto> list() {
-    return resourceTypeRepository.findAll().stream()
-        .sorted(Comparator.comparing(ResourceType::getName, String.CASE_INSENSITIVE_ORDER))
-        .map(ResourceTypeDto::of)
-        .toList();
+    return cache.get(
+        ReferenceCache.RESOURCE_TYPES,
+        null,
+        "all",
+        () ->
+            resourceTypeRepository.findAll().stream()
+                .sorted(
+                    Comparator.comparing(ResourceType::getName, String.CASE_INSENSITIVE_ORDER))
+                .map(ResourceTypeDto::of)
+                .toList());
   }
 
   @PostMapping("/resource-types")
@@ -109,6 +125,7 @@ public class ResourceTypeController {
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Type inconnu"));
     resource.setResourceType(type);
     resourceRepository.save(resource);
+    publishResource(resource);
     return new ResourceTypeAssignmentDto(type.getId());
   }
 
@@ -121,6 +138,16 @@ public class ResourceTypeController {
             .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Ressource inconnue"));
     resource.setResourceType(null);
     resourceRepository.save(resource);
+    publishResource(resource);
     return ResponseEntity.noContent().build();
   }
+
+  private void publishResource(Resource resource) {
+    changeFeed.publish(
+        resource.getAgency() == null ? null : resource.getAgency().getId(),
+        "resource",
+        "upsert",
+        resource.getId(),
+        null);
+  }
 }
@@ -8,6 +8,9 @@ import com.location.server.domain.RecurringUnavailability;
 import com.location.server.domain.Resource;
 import com.location.server.domain.ResourceType;
 import com.location.server.domain.Unavailability;
+import com.location.server.repo.InterventionRow;
+import com.location.server.service.MailJobService;
+import com.location.server.service.PlanningSnapshotService;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -21,9 +24,10 @@ import java.util.Locale;
 public final class ApiV1Dtos {
   private ApiV1Dtos() {}
 
-  public record AgencyDto(String id, String name, String legalFooter, String iban, String logoDataUri) {
+  public record AgencyDto(
+      String id, String name, String legalFooter, String iban, String logoDataUri, String timeZone) {
     public static AgencyDto of(Agency agency) {
-      return new AgencyDto(agency.getId(), agency.getName(), null, null, null);
+      return new AgencyDto(agency.getId(), agency.getName(), null, null, null, agency.getTimeZone());
     }
   }
 
@@ -32,7 +36,8 @@ public final class ApiV1Dtos {
       @NotBlank @Size(max = 128) String name,
       String legalFooter,
       String iban,
-      String logoDataUri) {}
+      String logoDataUri,
+      String timeZone) {}
 
   public record ClientDto(
       String id,
@@ -155,6 +160,54 @@ public final class ApiV1Dtos {
           intervention.getPrice(),
           java.util.List.of(intervention.getResource().getId()));
     }
+
+    public static InterventionDto of(InterventionRow row) {
+      return new InterventionDto(
+          row.id(),
+          row.title(),
+          row.agencyId(),
+          row.resourceId(),
+          row.driverId(),
+          row.clientId(),
+          row.start(),
+          row.end(),
+          row.notes(),
+          row.internalNotes(),
+          row.price(),
+          java.util.List.of(row.resourceId()));
+    }
+  }
+
+  public record InterventionPageDto(java.util.List<InterventionDto> items, String nextCursor) {}
+
+  public record JobItemDto(String id, String status, String error) {}
+
+  public record JobDto(
+      String id,
+      String kind,
+      String state,
+      int total,
+      int sent,
+      int skipped,
+      int failed,
+      java.time.Instant createdAt,
+      java.time.Instant finishedAt,
+      java.util.List<JobItemDto> failures) {
+    public static JobDto of(MailJobService.JobView job) {
+      return new JobDto(
+          job.id(),
+          job.kind(),
+          job.state().name(),
+          job.total(),
+          job.sent(),
+          job.skipped(),
+          job.failed(),
+          job.createdAt(),
+          job.finishedAt(),
+          job.failures().stream()
+              .map(item -> new JobItemDto(item.id(), item.status().name(), item.error()))
+              .toList());
+    }
   }
 
   public record UnavailabilityDto(
@@ -175,6 +228,92 @@ public final class ApiV1Dtos {
     }
   }
 
+  /** Ressource du planning : l'agence n'y figure que par son identifiant. */
+  public record PlanningResourceDto(
+      String id,
+      String name,
+      String licensePlate,
+      Integer colorRgb,
+      String agencyId,
+      String tags,
+      Integer capacityTons,
+      String resourceTypeId) {
+    public static PlanningResourceDto of(Resource resource) {
+      return new PlanningResourceDto(
+          resource.getId(),
+          resource.getName(),
+          resource.getLicensePlate(),
+          resource.getColorRgb(),
+          resource.getAgency().getId(),
+          resource.getTags(),
+          resource.getCapacityTons(),
+          resource.getResourceType() == null ? null : resource.getResourceType().getId());
+    }
+  }
+
+  /**
+   * Vue planning complète ({@code GET /api/v1/planning/snapshot}), écrite sans champs nuls. Les
+   * interventions omettent {@code resourceIds} (redondant avec {@code resourceId}) et {@code tags}
+   * ne liste que les interventions qui en ont.
+   */
+  public record PlanningSnapshotDto(
+      long version,
+      String agencyId,
+      OffsetDateTime from,
+      OffsetDateTime to,
+      java.util.List<AgencyDto> agencies,
+      java.util.List<ResourceTypeDto> resourceTypes,
+      java.util.List<PlanningResourceDto> resources,
+      java.util.List<ClientDto> clients,
+      java.util.List<InterventionDto> interventions,
+      java.util.List<UnavailabilityDto> unavailabilities,
+      java.util.Map<String, java.util.List<String>> tags) {
+    public static PlanningSnapshotDto of(
+        PlanningSnapshotService.Snapshot snapshot,
+        String agencyId,
+        OffsetDateTime from,
+        OffsetDateTime to) {
+      return new PlanningSnapshotDto(
+          snapshot.version(),
+          agencyId,
+          from,
+          to,
+          snapshot.agencies().stream().map(AgencyDto::of).toList(),
+          snapshot.resourceTypes().stream().map(ResourceTypeDto::of).toList(),
+          snapshot.resources().stream().map(PlanningResourceDto::of).toList(),
+          snapshot.clients().stream().map(ClientDto::of).toList(),
+          snapshot.interventions().stream()
+              .map(
+                  row ->
+                      new InterventionDto(
+                          row.id(),
+                          row.title(),
+                          row.agencyId(),
+                          row.resourceId(),
+                          row.driverId(),
+                          row.clientId(),
+                          row.start(),
+                          row.end(),
+                          row.notes(),
+                          row.internalNotes(),
+                          row.price(),
+                          null))
+              .toList(),
+          snapshot.unavailabilities().stream()
+              .map(
+                  span ->
+                      new UnavailabilityDto(
+                          span.id(),
+                          span.resourceId(),
+                          span.start(),
+                          span.end(),
+                          span.reason(),
+                          span.recurring()))
+              .toList(),
+          snapshot.tags());
+    }
+  }
+
   public record RecurringUnavailabilityDto(
       String id,
       String resourceId,
@@ -2,16 +2,23 @@ package com.location.server.config;
 
 import com.location.server.api.AgencyContext;
 import com.location.server.repo.AgencyRepository;
+import com.location.server.service.ReferenceCache;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.servlet.HandlerInterceptor;
 
 public class AgencyHeaderInterceptor implements HandlerInterceptor {
+  /** Attribut de requête portant l'agence validée, lu après coup par les métriques. */
+  public static final String AGENCY_ATTRIBUTE =
+      AgencyHeaderInterceptor.class.getName() + ".agency";
+
   private final AgencyRepository agencyRepository;
+  private final ReferenceCache cache;
 
-  public AgencyHeaderInterceptor(AgencyRepository agencyRepository) {
+  public AgencyHeaderInterceptor(AgencyRepository agencyRepository, ReferenceCache cache) {
     this.agencyRepository = agencyRepository;
+    this.cache = cache;
   }
 
   @Override
@@ -26,14 +33,25 @@ public class AgencyHeaderInterceptor implements HandlerInterceptor {
       response.sendError(HttpStatus.BAD_REQUEST.value(), "Header X-Agency-Id is required");
       return false;
     }
-    if (!agencyRepository.existsById(agencyId)) {
+    if (!isKnown(agencyId)) {
       response.sendError(HttpStatus.FORBIDDEN.value(), "Unknown agency");
       return false;
     }
     AgencyContext.set(agencyId);
+    request.setAttribute(AGENCY_ATTRIBUTE, agencyId);
     return true;
   }
 
+  /** Seules les agences existantes sont mises en cache : une agence créée est vue aussitôt. */
+  private boolean isKnown(String agencyId) {
+    return cache.get(
+            ReferenceCache.AGENCIES,
+            agencyId,
+            "exists",
+            () -> agencyRepository.existsById(agencyId) ? Boolean.TRUE : null)
+        != null;
+  }
+
   @Override
   public void afterCompletion(
       HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
@@ -1,13 +1,34 @@
 package com.location.server.config;
 
 import com.location.server.service.MailGateway;
+import com.location.server.service.ServerMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.mail.javamail.JavaMailSender;
 
 @Configuration
 public class MailConfig {
+  /**
+   * {@code app.mail.gateway=smtp} envoie réellement via JavaMail ({@code spring.mail.host} requis,
+   * le démarrage échoue sinon) ; toute autre valeur journalise les mails (dev).
+   */
   @Bean
-  public MailGateway mailGateway() {
-    return new MailGateway.DevMailGateway();
+  public MailGateway mailGateway(
+      @Value("${app.mail.gateway:dev}") String gateway,
+      @Value("${app.mail.from:}") String from,
+      ObjectProvider<JavaMailSender> mailSender,
+      ServerMetrics metrics) {
+    if ("smtp".equalsIgnoreCase(gateway)) {
+      JavaMailSender sender = mailSender.getIfAvailable();
+      if (sender == null) {
+        throw new IllegalStateException(
+            "app.mail.gateway=smtp mais aucun JavaMailSender : renseigner spring.mail.host");
+      }
+      return new MailGateway.TimedMailGateway(
+          new MailGateway.SmtpMailGateway(sender, from), metrics);
+    }
+    return new MailGateway.TimedMailGateway(new MailGateway.DevMailGateway(), metrics);
   }
 }
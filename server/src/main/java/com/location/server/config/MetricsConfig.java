@@ -0,0 +1,53 @@
+package com.location.server.config;
+
+import io.micrometer.common.KeyValues;
+import io.micrometer.observation.ObservationPredicate;
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Collections;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+/**
+ * Mesure {@code http.server.requests} : ajoute l'agence de la requête (une fois validée par
+ * {@link AgencyHeaderInterceptor}, {@code none} sinon) et écarte les flux SSE, ouverts pour des
+ * heures, ainsi que les appels à l'actuator.
+ */
+@Configuration
+public class MetricsConfig {
+
+  @Bean
+  ServerRequestObservationConvention agencyRequestObservationConvention() {
+    return new DefaultServerRequestObservationConvention() {
+      @Override
+      public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        Object agency = context.getCarrier().getAttribute(AgencyHeaderInterceptor.AGENCY_ATTRIBUTE);
+        return super.getLowCardinalityKeyValues(context)
+            .and("agency", agency == null ? "none" : agency.toString());
+      }
+    };
+  }
+
+  @Bean
+  ObservationPredicate longLivedRequestsPredicate() {
+    return (name, context) ->
+        !(context instanceof ServerRequestObservationContext request
+            && isLongLived(request.getCarrier()));
+  }
+
+  private static boolean isLongLived(HttpServletRequest request) {
+    String path = request.getRequestURI();
+    if (path != null && path.startsWith("/actuator/")) {
+      return true;
+    }
+    for (String accept : Collections.list(request.getHeaders("Accept"))) {
+      if (accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
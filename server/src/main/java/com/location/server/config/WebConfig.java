@@ -1,20 +1,92 @@
 package com.location.server.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.location.server.repo.AgencyRepository;
+import com.location.server.service.ReferenceCache;
+import com.location.server.service.ServerMetrics;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
+  /** Listes de référence, relues à chaque rafraîchissement du client mais rarement modifiées. */
+  static final String[] REFERENCE_LISTS = {
+    "/api/v1/agencies",
+    "/api/v1/resources",
+    "/api/v1/resource-types",
+    "/api/v1/clients",
+    "/api/v1/templates/*"
+  };
+
   private final AgencyRepository agencyRepository;
+  private final ReferenceCache referenceCache;
+  private final ServerMetrics metrics;
 
-  public WebConfig(AgencyRepository agencyRepository) {
+  public WebConfig(
+      AgencyRepository agencyRepository, ReferenceCache referenceCache, ServerMetrics metrics) {
     this.agencyRepository = agencyRepository;
+    this.referenceCache = referenceCache;
+    this.metrics = metrics;
   }
 
   @Override
   public void addInterceptors(InterceptorRegistry registry) {
-    registry.addInterceptor(new AgencyHeaderInterceptor(agencyRepository));
+    registry.addInterceptor(new AgencyHeaderInterceptor(agencyRepository, referenceCache));
+  }
+
+  /** Remplace le convertisseur JSON par une variante qui chronomètre l'écriture des corps. */
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    for (int i = 0; i < converters.size(); i++) {
+      if (converters.get(i) instanceof MappingJackson2HttpMessageConverter json
+          && !(json instanceof TimedJsonConverter)) {
+        converters.set(i, new TimedJsonConverter(json.getObjectMapper(), metrics));
+      }
+    }
+  }
+
+  /**
+   * ETag fort (empreinte du corps) sur les listes de référence : un client qui renvoie
+   * {@code If-None-Match} reçoit 304 sans corps tant que la liste n'a pas changé.
+   */
+  @Bean
+  public FilterRegistrationBean<ShallowEtagHeaderFilter> referenceListEtagFilter() {
+    FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+        new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+    registration.addUrlPatterns(REFERENCE_LISTS);
+    registration.setName("referenceListEtagFilter");
+    return registration;
+  }
+
+  /** Sérialisation Jackson mesurée sous {@code json.write}. */
+  static final class TimedJsonConverter extends MappingJackson2HttpMessageConverter {
+    private final ServerMetrics metrics;
+
+    TimedJsonConverter(ObjectMapper objectMapper, ServerMetrics metrics) {
+      super(objectMapper);
+      this.metrics = metrics;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+        throws IOException, HttpMessageNotWritableException {
+      long start = System.nanoTime();
+      try {
+        super.writeInternal(object, type, outputMessage);
+      } finally {
+        metrics.recordOperation("json.write", System.nanoTime() - start);
+      }
+    }
   }
 }
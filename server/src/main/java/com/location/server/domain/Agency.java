@@ -32,6 +32,9 @@ public class Agency {
   @Column(name = "logo_png")
   private byte[] logoPng;
 
+  @Column(name = "time_zone", length = 64)
+  private String timeZone;
+
   protected Agency() {}
 
   public Agency(String id, String name) {
@@ -94,4 +97,12 @@ public class Agency {
   public void setLogoPng(byte[] logoPng) {
     this.logoPng = logoPng;
   }
+
+  public String getTimeZone() {
+    return timeZone;
+  }
+
+  public void setTimeZone(String timeZone) {
+    this.timeZone = timeZone;
+  }
 }
@@ -14,7 +14,8 @@ import java.time.OffsetDateTime;
     name = "intervention",
     indexes = {
       @Index(name = "idx_intervention_resource_start_end", columnList = "resource_id,start_ts,end_ts"),
-      @Index(name = "idx_intervention_driver_start_end", columnList = "driver_id,start_ts,end_ts")
+      @Index(name = "idx_intervention_driver_start_end", columnList = "driver_id,start_ts,end_ts"),
+      @Index(name = "idx_intervention_start_id", columnList = "start_ts,id")
     })
 public class Intervention {
   @Id
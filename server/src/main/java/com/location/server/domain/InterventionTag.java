@@ -0,0 +1,75 @@
+package com.location.server.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import java.io.Serializable;
+import org.springframework.data.domain.Persistable;
+
+/** Tag libre d'une intervention, à sa place dans la liste saisie. */
+@Entity
+@Table(name = "intervention_tag")
+@IdClass(InterventionTag.Key.class)
+public class InterventionTag implements Persistable<InterventionTag.Key> {
+
+  public record Key(String interventionId, int sortOrder) implements Serializable {
+    public Key() {
+      this(null, 0);
+    }
+  }
+
+  @Id
+  @Column(name = "intervention_id", nullable = false, length = 36)
+  private String interventionId;
+
+  @Id
+  @Column(name = "sort_order", nullable = false)
+  private int sortOrder;
+
+  @Column(nullable = false, length = 80)
+  private String tag;
+
+  /** Les lignes sont toujours réécrites après suppression : insertion directe, sans lecture. */
+  @Transient private boolean fresh = true;
+
+  public InterventionTag() {}
+
+  public InterventionTag(String interventionId, int sortOrder, String tag) {
+    this.interventionId = interventionId;
+    this.sortOrder = sortOrder;
+    this.tag = tag;
+  }
+
+  @Override
+  public Key getId() {
+    return new Key(interventionId, sortOrder);
+  }
+
+  @Override
+  public boolean isNew() {
+    return fresh;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markStored() {
+    fresh = false;
+  }
+
+  public String getInterventionId() {
+    return interventionId;
+  }
+
+  public int getSortOrder() {
+    return sortOrder;
+  }
+
+  public String getTag() {
+    return tag;
+  }
+}
@@ -1,12 +1,17 @@
 package com.location.server.domain;
 
+import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
 
 @Entity
 @Table(name = "resource")
@@ -28,9 +33,16 @@ public class Resource {
   @JoinColumn(name = "agency_id")
   private Agency agency;
 
+  /** Tags tels que saisis, séparés par des virgules. */
   @Column(length = 255)
   private String tags;
 
+  /** Tags normalisés ({@link #normalizeTags}), une ligne chacun : index du filtrage en base. */
+  @ElementCollection
+  @CollectionTable(name = "resource_tag", joinColumns = @JoinColumn(name = "resource_id"))
+  @Column(name = "tag", nullable = false, length = 255)
+  private Set<String> tagIndex = new LinkedHashSet<>();
+
   @Column(name = "capacity_tons")
   private Integer capacityTons;
 
@@ -57,7 +69,7 @@ public class Resource {
       String tags,
       Integer capacityTons) {
     this(id, name, licensePlate, colorRgb, agency);
-    this.tags = tags;
+    setTags(tags);
     this.capacityTons = capacityTons;
   }
 
@@ -107,6 +119,29 @@ public class Resource {
 
   public void setTags(String tags) {
     this.tags = tags;
+    this.tagIndex = normalizeTags(tags);
+  }
+
+  public Set<String> getTagIndex() {
+    return tagIndex;
+  }
+
+  /**
+   * Tags distincts d'une liste séparée par des virgules : espaces retirés, minuscules, vides
+   * ignorés. « Grue, grue-mobile » donne {@code [grue, grue-mobile]}.
+   */
+  public static Set<String> normalizeTags(String tagsCsv) {
+    Set<String> out = new LinkedHashSet<>();
+    if (tagsCsv == null) {
+      return out;
+    }
+    for (String tag : tagsCsv.split(",")) {
+      String normalized = tag.trim().toLowerCase(Locale.ROOT);
+      if (!normalized.isEmpty()) {
+        out.add(normalized);
+      }
+    }
+    return out;
   }
 
   public Integer getCapacityTons() {
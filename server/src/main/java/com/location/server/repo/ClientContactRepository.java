@@ -1,10 +1,14 @@
 package com.location.server.repo;
 
 import com.location.server.domain.ClientContact;
+import jakarta.persistence.QueryHint;
 import java.util.List;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 public interface ClientContactRepository extends JpaRepository<ClientContact, String> {
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
   List<ClientContact> findByClient_IdOrderByLastNameAscFirstNameAsc(String clientId);
 
   void deleteByClient_Id(String clientId);
@@ -1,6 +1,20 @@
 package com.location.server.repo;
 
 import com.location.server.domain.Client;
+import jakarta.persistence.QueryHint;
+import java.util.List;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
-public interface ClientRepository extends JpaRepository<Client, String> {}
+public interface ClientRepository extends JpaRepository<Client, String> {
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query("select c from Client c order by c.name, c.id")
+  List<Client> findAllForListing();
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query("select c from Client c order by c.name, c.id")
+  Stream<Client> streamAll();
+}
@@ -3,11 +3,13 @@ package com.location.server.repo;
 import com.location.server.domain.CommercialDocument;
 import java.time.OffsetDateTime;
 import java.util.List;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 public interface CommercialDocumentRepository extends JpaRepository<CommercialDocument, String> {
+  @EntityGraph(attributePaths = {"agency", "client", "lines"})
   @Query(
       "select d from CommercialDocument d "
           + "where d.agency.id = :agencyId "
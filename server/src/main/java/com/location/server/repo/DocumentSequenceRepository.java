@@ -4,8 +4,30 @@ import com.location.server.domain.CommercialDocument;
 import com.location.server.domain.DocumentSequence;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface DocumentSequenceRepository extends JpaRepository<DocumentSequence, String> {
   Optional<DocumentSequence> findByAgencyIdAndYearAndType(
       String agencyId, int year, CommercialDocument.DocType type);
+
+  /** Incrément atomique ; la ligne reste verrouillée jusqu'à la fin de la transaction. */
+  @Modifying
+  @Query(
+      "update DocumentSequence s set s.lastNumber = s.lastNumber + :count "
+          + "where s.agency.id = :agencyId and s.year = :year and s.type = :type")
+  int increment(
+      @Param("agencyId") String agencyId,
+      @Param("year") int year,
+      @Param("type") CommercialDocument.DocType type,
+      @Param("count") int count);
+
+  @Query(
+      "select s.lastNumber from DocumentSequence s "
+          + "where s.agency.id = :agencyId and s.year = :year and s.type = :type")
+  int findLastNumber(
+      @Param("agencyId") String agencyId,
+      @Param("year") int year,
+      @Param("type") CommercialDocument.DocType type);
 }
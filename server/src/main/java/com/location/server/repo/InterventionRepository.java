@@ -1,13 +1,30 @@
 package com.location.server.repo;
 
 import com.location.server.domain.Intervention;
+import jakarta.persistence.QueryHint;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 public interface InterventionRepository extends JpaRepository<Intervention, String> {
+  String ROW_SELECT =
+      "select new com.location.server.repo.InterventionRow(i.id, i.title, i.agency.id, "
+          + "i.resource.id, d.id, i.client.id, i.start, i.end, i.notes, i.internalNotes, i.price) "
+          + "from Intervention i left join i.driver d ";
+  String ROW_FILTER =
+      "where (:rid is null or i.resource.id = :rid) "
+          + "and (:from is null or i.end > :from) and (:to is null or i.start < :to) ";
+
+  @EntityGraph(attributePaths = {"agency", "resource", "client", "driver"})
   @Query(
       "select i from Intervention i where (:rid is null or i.resource.id = :rid) "
           + "and (:from is null or i.end > :from) and (:to is null or i.start < :to)")
@@ -45,4 +62,76 @@ public interface InterventionRepository extends JpaRepository<Intervention, Stri
       @Param("driverId") String driverId,
       @Param("start") OffsetDateTime start,
       @Param("end") OffsetDateTime end);
+
+  @Query("select i.agency.id from Intervention i where i.id = :id")
+  Optional<String> findAgencyIdById(@Param("id") String id);
+
+  @Query("select i.id as id, i.start as start, i.end as end from Intervention i where i.resource.id = :rid")
+  List<TimeSlot> findSlotsByResource(@Param("rid") String resourceId);
+
+  @Query(
+      "select i.id as id, i.start as start, i.end as end from Intervention i where i.driver.id = :driverId")
+  List<TimeSlot> findSlotsByDriver(@Param("driverId") String driverId);
+
+  @Query(
+      "select i.resource.id as ownerId, i.id as id, i.start as start, i.end as end from Intervention i where i.resource.id in :rids")
+  List<OwnedTimeSlot> findSlotsByResources(@Param("rids") Collection<String> resourceIds);
+
+  @Query(
+      "select i.driver.id as ownerId, i.id as id, i.start as start, i.end as end from Intervention i where i.driver.id in :driverIds")
+  List<OwnedTimeSlot> findSlotsByDrivers(@Param("driverIds") Collection<String> driverIds);
+
+  @Query(ROW_SELECT + ROW_FILTER + "order by i.start, i.id")
+  List<InterventionRow> searchRows(
+      @Param("from") OffsetDateTime from,
+      @Param("to") OffsetDateTime to,
+      @Param("rid") String resourceId);
+
+  @Query(
+      ROW_SELECT
+          + ROW_FILTER
+          + "and (:agencyId is null or i.agency.id = :agencyId) order by i.start, i.id")
+  List<InterventionRow> searchAgencyRows(
+      @Param("from") OffsetDateTime from,
+      @Param("to") OffsetDateTime to,
+      @Param("rid") String resourceId,
+      @Param("agencyId") String agencyId);
+
+  /** Pagination par curseur (start, id) : strictement après le dernier élément renvoyé. */
+  @Query(
+      ROW_SELECT
+          + ROW_FILTER
+          + "and (:afterStart is null or i.start > :afterStart "
+          + "or (i.start = :afterStart and i.id > :afterId)) order by i.start, i.id")
+  List<InterventionRow> searchRowsAfter(
+      @Param("from") OffsetDateTime from,
+      @Param("to") OffsetDateTime to,
+      @Param("rid") String resourceId,
+      @Param("afterStart") OffsetDateTime afterStart,
+      @Param("afterId") String afterId,
+      Limit limit);
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query(ROW_SELECT + ROW_FILTER + "order by i.start, i.id")
+  Stream<InterventionRow> streamRows(
+      @Param("from") OffsetDateTime from,
+      @Param("to") OffsetDateTime to,
+      @Param("rid") String resourceId);
+
+  /** Flux d'export : filtres agence, client et texte (titre, motif LIKE déjà échappé) en base. */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query(
+      ROW_SELECT
+          + ROW_FILTER
+          + "and (:agencyId is null or i.agency.id = :agencyId) "
+          + "and (:clientId is null or i.client.id = :clientId) "
+          + "and (:titleLike is null or lower(i.title) like :titleLike escape '\\') "
+          + "order by i.start, i.id")
+  Stream<InterventionRow> streamExportRows(
+      @Param("from") OffsetDateTime from,
+      @Param("to") OffsetDateTime to,
+      @Param("rid") String resourceId,
+      @Param("agencyId") String agencyId,
+      @Param("clientId") String clientId,
+      @Param("titleLike") String titleLike);
 }
@@ -0,0 +1,17 @@
+package com.location.server.repo;
+
+import java.time.OffsetDateTime;
+
+/** Projection à plat d'une intervention (identifiants des associations, sans jointure). */
+public record InterventionRow(
+    String id,
+    String title,
+    String agencyId,
+    String resourceId,
+    String driverId,
+    String clientId,
+    OffsetDateTime start,
+    OffsetDateTime end,
+    String notes,
+    String internalNotes,
+    Double price) {}
@@ -0,0 +1,35 @@
+package com.location.server.repo;
+
+import com.location.server.domain.InterventionTag;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface InterventionTagRepository
+    extends JpaRepository<InterventionTag, InterventionTag.Key> {
+
+  @Query(
+      "select t from InterventionTag t where t.interventionId in :ids "
+          + "order by t.interventionId, t.sortOrder")
+  List<InterventionTag> findByInterventionIds(@Param("ids") Collection<String> ids);
+
+  /**
+   * Paires (intervention, tag) dans l'ordre de saisie. Lecture sans entité gérée : une réécriture
+   * qui suit ({@link #deleteByInterventionId} puis insertion) ne bute sur aucune ligne en mémoire.
+   */
+  @Query(
+      "select t.interventionId, t.tag from InterventionTag t where t.interventionId in :ids "
+          + "order by t.interventionId, t.sortOrder")
+  List<Object[]> findTagsByInterventionIds(@Param("ids") Collection<String> ids);
+
+  @Modifying(flushAutomatically = true)
+  @Query("delete from InterventionTag t where t.interventionId = :id")
+  int deleteByInterventionId(@Param("id") String interventionId);
+
+  /** Paires (tag, nombre d'interventions) pour initialiser l'index de fréquence. */
+  @Query("select t.tag, count(t) from InterventionTag t group by t.tag")
+  List<Object[]> countByTag();
+}
@@ -0,0 +1,6 @@
+package com.location.server.repo;
+
+/** Créneau accompagné de sa ressource ou de son chauffeur, pour les chargements groupés. */
+public interface OwnedTimeSlot extends TimeSlot {
+  String getOwnerId();
+}
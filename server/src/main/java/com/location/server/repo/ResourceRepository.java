@@ -2,36 +2,77 @@ package com.location.server.repo;
 
 import com.location.server.domain.Resource;
 import com.location.server.domain.ResourceType;
-import java.util.Arrays;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 public interface ResourceRepository extends JpaRepository<Resource, String> {
+  /** Identifiants des ressources qui ont chacun des {@code :count} tags de {@code :tags}. */
+  String TAGGED_IDS =
+      "select t.id from Resource t join t.tagIndex tag where tag in :tags "
+          + "group by t.id having count(tag) = :count";
 
   List<Resource> findByResourceType(ResourceType resourceType);
 
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query("select r from Resource r join fetch r.agency order by r.name, r.id")
+  Stream<Resource> streamAll();
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query(
+      "select r from Resource r join fetch r.agency a where a.id = :agencyId order by r.name, r.id")
+  Stream<Resource> streamByAgency(@Param("agencyId") String agencyId);
+
+  /** Ressources d'une agence (toutes si {@code agencyId} est nul), agence et type chargés. */
+  @Query(
+      "select r from Resource r join fetch r.agency a left join fetch r.resourceType "
+          + "where (:agencyId is null or a.id = :agencyId) order by r.name, r.id")
+  List<Resource> findForPlanning(@Param("agencyId") String agencyId);
+
+  @Query(
+      "select r from Resource r join fetch r.agency a left join fetch r.resourceType "
+          + "where (:agencyId is null or a.id = :agencyId) and r.id in ("
+          + TAGGED_IDS
+          + ") order by r.name, r.id")
+  List<Resource> findForPlanningByAllTags(
+      @Param("agencyId") String agencyId,
+      @Param("tags") Collection<String> tags,
+      @Param("count") long count);
+
+  /**
+   * Ressources portant tous les tags demandés (déjà normalisés), filtrées en base sur l'index
+   * {@code resource_tag}. {@code count} : nombre de tags distincts demandés.
+   */
+  @Query(
+      "select r from Resource r join fetch r.agency where r.id in ("
+          + TAGGED_IDS
+          + ") order by r.name, r.id")
+  List<Resource> findByAllTags(
+      @Param("tags") Collection<String> tags, @Param("count") long count);
+
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+  @Query(
+      "select r from Resource r join fetch r.agency where r.id in ("
+          + TAGGED_IDS
+          + ") order by r.name, r.id")
+  Stream<Resource> streamByAllTags(
+      @Param("tags") Collection<String> tags, @Param("count") long count);
+
+  /** Tous les tags listés (séparés par des virgules, casse ignorée) ; tout si aucun tag. */
   default List<Resource> searchByTags(String tagsCsv) {
-    if (tagsCsv == null || tagsCsv.isBlank()) {
-      return findAll();
-    }
-    List<String> requested =
-        Arrays.stream(tagsCsv.toLowerCase().split("\\s*,\\s*")).filter(s -> !s.isBlank()).collect(Collectors.toList());
-    if (requested.isEmpty()) {
-      return findAll();
-    }
-    return findAll().stream()
-        .filter(resource -> resource.getTags() != null)
-        .filter(
-            resource -> {
-              String lower = resource.getTags().toLowerCase();
-              for (String tag : requested) {
-                if (!lower.contains(tag)) {
-                  return false;
-                }
-              }
-              return true;
-            })
-        .collect(Collectors.toList());
+    Set<String> tags = Resource.normalizeTags(tagsCsv);
+    return tags.isEmpty() ? findAll() : findByAllTags(tags, tags.size());
+  }
+
+  default Stream<Resource> streamByTags(String tagsCsv) {
+    Set<String> tags = Resource.normalizeTags(tagsCsv);
+    return tags.isEmpty() ? streamAll() : streamByAllTags(tags, tags.size());
   }
 }
@@ -0,0 +1,12 @@
+package com.location.server.repo;
+
+import java.time.OffsetDateTime;
+
+/** Projection légère (id, début, fin) utilisée pour l'index de conflits. */
+public interface TimeSlot {
+  String getId();
+
+  OffsetDateTime getStart();
+
+  OffsetDateTime getEnd();
+}
@@ -2,6 +2,7 @@ package com.location.server.repo;
 
 import com.location.server.domain.Unavailability;
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
@@ -14,8 +15,20 @@ public interface UnavailabilityRepository extends JpaRepository<Unavailability,
                               @Param("to") OffsetDateTime to,
                               @Param("rid") String resourceId);
 
+  @Query("select u from Unavailability u where u.resource.id in :rids " +
+      "and u.end > :from and u.start < :to")
+  List<Unavailability> searchByResources(@Param("from") OffsetDateTime from,
+                                         @Param("to") OffsetDateTime to,
+                                         @Param("rids") Collection<String> resourceIds);
+
   @Query("select count(u)>0 from Unavailability u where u.resource.id=:rid and u.end > :start and u.start < :end")
   boolean existsOverlap(@Param("rid") String resourceId,
                         @Param("start") OffsetDateTime start,
                         @Param("end") OffsetDateTime end);
+
+  @Query("select u.id as id, u.start as start, u.end as end from Unavailability u where u.resource.id = :rid")
+  List<TimeSlot> findSlotsByResource(@Param("rid") String resourceId);
+
+  @Query("select u.resource.id as ownerId, u.id as id, u.start as start, u.end as end from Unavailability u where u.resource.id in :rids")
+  List<OwnedTimeSlot> findSlotsByResources(@Param("rids") Collection<String> resourceIds);
 }
@@ -1,25 +1,31 @@
 package com.location.server.security;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.User;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+/**
+ * Authentifie les requêtes porteuses d'un jeton {@code Bearer}. Un jeton déjà vu est servi par
+ * {@link VerifiedTokenCache} ; un jeton refusé laisse la requête anonyme, que la configuration de
+ * sécurité rejette ensuite si le chemin l'exige.
+ */
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
+  private static final Logger LOGGER = LoggerFactory.getLogger(JwtAuthFilter.class);
 
-  private final JwtService jwtService;
+  private final VerifiedTokenCache tokenCache;
 
-  public JwtAuthFilter(JwtService jwtService) {
-    this.jwtService = jwtService;
+  public JwtAuthFilter(VerifiedTokenCache tokenCache) {
+    this.tokenCache = tokenCache;
   }
 
   @Override
@@ -28,15 +34,11 @@ public class JwtAuthFilter extends OncePerRequestFilter {
       throws ServletException, IOException {
     String header = request.getHeader("Authorization");
     if (StringUtils.hasText(header) && header.startsWith("Bearer ")) {
-      String token = header.substring(7);
-      var claims = jwtService.parseToken(token);
-      if (claims != null) {
-        var principal =
-            User.withUsername(claims.getSubject()).password("N/A").authorities("USER").build();
-        var auth =
-            new UsernamePasswordAuthenticationToken(principal, token, principal.getAuthorities());
-        auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-        SecurityContextHolder.getContext().setAuthentication(auth);
+      try {
+        SecurityContextHolder.getContext()
+            .setAuthentication(tokenCache.authenticate(header.substring(7)));
+      } catch (JwtException | IllegalArgumentException ex) {
+        LOGGER.debug("Jeton refusé sur {} : {}", request.getRequestURI(), ex.getMessage());
       }
     }
     filterChain.doFilter(request, response);
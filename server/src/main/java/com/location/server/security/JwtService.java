@@ -1,6 +1,8 @@
 package com.location.server.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
@@ -15,6 +17,7 @@ import org.springframework.stereotype.Service;
 public class JwtService {
 
   private final Key key;
+  private final JwtParser parser;
 
   public JwtService(@Value("${app.jwt.secret:}") String secret) {
     String envSecret =
@@ -25,6 +28,7 @@ public class JwtService {
       effective = (effective + "................................").substring(0, 32);
     }
     this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(encodeBase64(effective)));
+    this.parser = Jwts.parserBuilder().setSigningKey(key).build();
   }
 
   private static String encodeBase64(String s) {
@@ -39,11 +43,13 @@ public class JwtService {
         .compact();
   }
 
+  /**
+   * Claims d'un jeton signé par ce serveur et non expiré.
+   *
+   * @throws JwtException jeton mal formé, de signature invalide ou expiré
+   * @throws IllegalArgumentException jeton vide
+   */
   public Claims parseToken(String token) {
-    try {
-      return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
-    } catch (Exception e) {
-      return null;
-    }
+    return parser.parseClaimsJws(token).getBody();
   }
 }
@@ -28,7 +28,7 @@ public class SecurityConfig {
         .authorizeHttpRequests(
             auth ->
                 auth.requestMatchers("/auth/**", "/api/system/ping").permitAll()
-                    .requestMatchers("/api/**").authenticated()
+                    .requestMatchers("/api/**", "/actuator/prometheus").authenticated()
                     .anyRequest().permitAll())
         .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
     return http.build();
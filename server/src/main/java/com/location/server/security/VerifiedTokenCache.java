@@ -0,0 +1,112 @@
+package com.location.server.security;
+
+import com.location.server.service.ServerMetrics;
+import io.jsonwebtoken.Claims;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Jetons déjà vérifiés, indexés par l'empreinte SHA-256 du jeton (jamais le jeton lui-même) et
+ * conservés jusqu'à leur {@code exp}. Un jeton revu est accepté sans nouvelle vérification HMAC ni
+ * lecture JSON. Seuls le sujet et l'échéance sont gardés : chaque requête reçoit sa propre
+ * authentification, que la chaîne de sécurité peut modifier sans toucher aux autres. Au
+ * plus {@code app.jwt.cache.max-entries} jetons ; les lectures sont comptées (cache {@code jwt})
+ * dans {@link ServerMetrics}.
+ */
+@Component
+public class VerifiedTokenCache {
+  static final String METRIC = "jwt";
+
+  private record Verified(String subject, long expiresAtMillis) {}
+
+  private final Map<String, Verified> entries = new ConcurrentHashMap<>();
+  private final JwtService jwtService;
+  private final ServerMetrics metrics;
+  private final int maxEntries;
+  private final LongSupplier clock;
+
+  @Autowired
+  public VerifiedTokenCache(
+      JwtService jwtService,
+      ServerMetrics metrics,
+      @Value("${app.jwt.cache.max-entries:10000}") int maxEntries) {
+    this(jwtService, metrics, maxEntries, System::currentTimeMillis);
+  }
+
+  VerifiedTokenCache(
+      JwtService jwtService, ServerMetrics metrics, int maxEntries, LongSupplier clock) {
+    this.jwtService = jwtService;
+    this.metrics = metrics;
+    this.maxEntries = maxEntries;
+    this.clock = clock;
+  }
+
+  /**
+   * Authentification portée par {@code token}, vérifié au premier passage seulement.
+   *
+   * @throws io.jsonwebtoken.JwtException jeton invalide ou expiré
+   * @throws IllegalArgumentException jeton vide
+   */
+  public Authentication authenticate(String token) {
+    String key = digest(token);
+    long now = clock.getAsLong();
+    Verified verified = entries.get(key);
+    if (verified != null) {
+      if (now < verified.expiresAtMillis()) {
+        metrics.countCache(METRIC, null, true);
+        return authentication(verified.subject());
+      }
+      entries.remove(key, verified);
+    }
+    metrics.countCache(METRIC, null, false);
+    Claims claims = jwtService.parseToken(token);
+    Authentication authentication = authentication(claims.getSubject());
+    Date expiration = claims.getExpiration();
+    if (expiration != null) {
+      store(key, new Verified(claims.getSubject(), expiration.getTime()), now);
+    }
+    return authentication;
+  }
+
+  private static Authentication authentication(String subject) {
+    UserDetails principal = User.withUsername(subject).password("N/A").authorities("USER").build();
+    return UsernamePasswordAuthenticationToken.authenticated(
+        principal, null, principal.getAuthorities());
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  private void store(String key, Verified verified, long now) {
+    if (entries.size() >= maxEntries) {
+      entries.values().removeIf(v -> now >= v.expiresAtMillis());
+    }
+    if (entries.size() < maxEntries) {
+      entries.put(key, verified);
+    }
+  }
+
+  private static String digest(String token) {
+    try {
+      byte[] hash =
+          MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+      return Base64.getEncoder().encodeToString(hash);
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+}
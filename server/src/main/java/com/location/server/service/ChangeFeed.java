@@ -0,0 +1,293 @@
+package com.location.server.service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Flux de changements par agence (SSE). Un seul thread numérote les événements, tient l'historique
+ * et les répartit dans l'ordre des versions ; chaque abonné a sa propre file, vidée par le pool
+ * d'envoi, si bien qu'un client lent ne retarde que lui. Un client dont la file déborde ou dont un
+ * envoi reste bloqué plus de {@code app.changes.send-timeout-seconds} est déconnecté. Les derniers
+ * événements sont conservés pour reprendre un flux interrompu à partir de {@code Last-Event-ID}.
+ */
+@Component
+public class ChangeFeed {
+  public record Change(long version, String entity, String op, String id, Object data) {}
+
+  private record Entry(String agencyId, Change change) {}
+
+  private final int historySize;
+  private final int maxPending;
+  private final long sendTimeoutNanos;
+  /** Versions démarrant à l'horloge du démarrage : un identifiant d'un autre cycle est détecté. */
+  private volatile long version = System.currentTimeMillis() * 1000;
+  private final long firstVersion = version + 1;
+  private final Deque<Entry> history = new ArrayDeque<>();
+  private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+  private final Set<Subscriber> pingSubscribers = ConcurrentHashMap.newKeySet();
+  private final ScheduledExecutorService broadcaster =
+      Executors.newSingleThreadScheduledExecutor(daemon("change-feed"));
+  private final ExecutorService senders = Executors.newCachedThreadPool(daemon("change-feed-send"));
+
+  public ChangeFeed(
+      @Value("${app.changes.history:2048}") int historySize,
+      @Value("${app.changes.heartbeat-seconds:15}") long heartbeatSeconds,
+      @Value("${app.changes.max-pending:256}") int maxPending,
+      @Value("${app.changes.send-timeout-seconds:30}") long sendTimeoutSeconds) {
+    this.historySize = historySize;
+    this.maxPending = maxPending;
+    this.sendTimeoutNanos = TimeUnit.SECONDS.toNanos(sendTimeoutSeconds);
+    broadcaster.scheduleAtFixedRate(
+        this::heartbeat, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+  }
+
+  /** Publie après commit de la transaction courante, immédiatement sinon. */
+  public void publish(String agencyId, String entity, String op, String id, Object data) {
+    if (agencyId == null) {
+      return;
+    }
+    Runnable dispatch = () -> broadcaster.execute(() -> broadcast(agencyId, entity, op, id, data));
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              dispatch.run();
+            }
+          });
+    } else {
+      dispatch.run();
+    }
+  }
+
+  /**
+   * Abonne un client à son agence. Les événements postérieurs à {@code lastEventId} encore en
+   * mémoire sont rejoués ; s'ils ne le sont plus, un événement {@code reset} demande un
+   * rechargement complet.
+   */
+  public SseEmitter subscribe(String agencyId, Long lastEventId) {
+    Subscriber subscriber = new Subscriber();
+    Set<Subscriber> set = subscribers.computeIfAbsent(agencyId, k -> ConcurrentHashMap.newKeySet());
+    subscriber.onClose(() -> set.remove(subscriber));
+    broadcaster.execute(
+        () -> {
+          boolean open =
+              lastEventId != null
+                  ? replay(subscriber, agencyId, lastEventId)
+                  : subscriber.offer(marker("hello", version));
+          if (open) {
+            set.add(subscriber);
+          }
+        });
+    return subscriber.emitter;
+  }
+
+  /** Battement de cœur seul, pour le témoin de connexion. */
+  public SseEmitter subscribePings() {
+    Subscriber subscriber = new Subscriber();
+    subscriber.onClose(() -> pingSubscribers.remove(subscriber));
+    broadcaster.execute(
+        () -> {
+          if (subscriber.offer(ChangeFeed::ping)) {
+            pingSubscribers.add(subscriber);
+          }
+        });
+    return subscriber.emitter;
+  }
+
+  long currentVersion() {
+    return version;
+  }
+
+  private boolean replay(Subscriber subscriber, String agencyId, long lastEventId) {
+    long oldest = history.isEmpty() ? version + 1 : history.peekFirst().change().version();
+    boolean known =
+        lastEventId >= firstVersion - 1 && lastEventId <= version && lastEventId + 1 >= oldest;
+    List<Change> missed = new ArrayList<>();
+    if (known) {
+      for (Entry entry : history) {
+        if (entry.change().version() > lastEventId && entry.agencyId().equals(agencyId)) {
+          missed.add(entry.change());
+        }
+      }
+    }
+    if (!known || missed.size() > maxPending) {
+      return subscriber.offer(marker("reset", version));
+    }
+    for (Change change : missed) {
+      if (!subscriber.offer(() -> event(change))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void broadcast(String agencyId, String entity, String op, String id, Object data) {
+    Change change = new Change(version + 1, entity, op, id, data);
+    version = change.version();
+    history.addLast(new Entry(agencyId, change));
+    while (history.size() > historySize) {
+      history.removeFirst();
+    }
+    Set<Subscriber> set = subscribers.get(agencyId);
+    if (set != null) {
+      set.removeIf(subscriber -> !subscriber.offer(() -> event(change)));
+    }
+  }
+
+  private void heartbeat() {
+    long now = System.nanoTime();
+    pingSubscribers.removeIf(subscriber -> !subscriber.heartbeat(now));
+    subscribers.values().forEach(set -> set.removeIf(subscriber -> !subscriber.heartbeat(now)));
+  }
+
+  private static SseEmitter.SseEventBuilder event(Change change) {
+    return SseEmitter.event()
+        .id(Long.toString(change.version()))
+        .name("change")
+        .data(change, MediaType.APPLICATION_JSON);
+  }
+
+  /** {@code hello} ou {@code reset}, porteur de la version courante. */
+  private static Supplier<SseEmitter.SseEventBuilder> marker(String name, long current) {
+    return () -> SseEmitter.event().id(Long.toString(current)).name(name).data(current);
+  }
+
+  private static SseEmitter.SseEventBuilder ping() {
+    return SseEmitter.event().name("ping").data(Instant.now().toString(), MediaType.TEXT_PLAIN);
+  }
+
+  private static ThreadFactory daemon(String name) {
+    return r -> {
+      Thread t = new Thread(r, name);
+      t.setDaemon(true);
+      return t;
+    };
+  }
+
+  /**
+   * Un client abonné et sa file d'événements. Un constructeur d'événement ne sert qu'une fois :
+   * la file garde des fabriques, appelées au moment de l'envoi.
+   */
+  private final class Subscriber {
+    private final SseEmitter emitter = new SseEmitter(0L);
+    private final Deque<Supplier<SseEmitter.SseEventBuilder>> pending = new ArrayDeque<>();
+    private boolean draining;
+    private boolean closed;
+    /** Début de l'envoi en cours, 0 hors envoi. */
+    private volatile long sendingSince;
+
+    void onClose(Runnable remove) {
+      Runnable close =
+          () -> {
+            synchronized (this) {
+              closed = true;
+              pending.clear();
+            }
+            remove.run();
+          };
+      emitter.onCompletion(close);
+      emitter.onTimeout(close);
+      emitter.onError(e -> close.run());
+    }
+
+    /** Met l'événement en file ; faux si le client est (ou vient d'être) déconnecté. */
+    boolean offer(Supplier<SseEmitter.SseEventBuilder> event) {
+      synchronized (this) {
+        if (closed) {
+          return false;
+        }
+        if (pending.size() < maxPending) {
+          pending.addLast(event);
+          if (!draining) {
+            draining = true;
+            senders.execute(this::drain);
+          }
+          return true;
+        }
+      }
+      drop(new IllegalStateException("Client trop lent, file d'envoi pleine"));
+      return false;
+    }
+
+    /** Ping périodique ; faux si le client est déconnecté ou bloqué sur un envoi trop long. */
+    boolean heartbeat(long now) {
+      long since = sendingSince;
+      if (since != 0L && now - since > sendTimeoutNanos) {
+        drop(new IllegalStateException("Envoi bloqué, client déconnecté"));
+        return false;
+      }
+      return offer(ChangeFeed::ping);
+    }
+
+    private void drain() {
+      while (true) {
+        Supplier<SseEmitter.SseEventBuilder> next;
+        synchronized (this) {
+          next = closed ? null : pending.pollFirst();
+          if (next == null) {
+            draining = false;
+            return;
+          }
+        }
+        sendingSince = System.nanoTime();
+        try {
+          emitter.send(next.get());
+        } catch (IOException | IllegalStateException ex) {
+          drop(ex);
+          return;
+        } finally {
+          sendingSince = 0L;
+        }
+      }
+    }
+
+    private void drop(Throwable cause) {
+      synchronized (this) {
+        if (closed) {
+          return;
+        }
+        closed = true;
+        pending.clear();
+        draining = false;
+      }
+      emitter.completeWithError(cause);
+    }
+
+    void complete() {
+      synchronized (this) {
+        closed = true;
+        pending.clear();
+      }
+      emitter.complete();
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    broadcaster.shutdownNow();
+    senders.shutdownNow();
+    pingSubscribers.forEach(Subscriber::complete);
+    subscribers.values().forEach(set -> set.forEach(Subscriber::complete));
+  }
+}
@@ -16,12 +16,66 @@ import com.lowagie.text.pdf.PdfWriter;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.springframework.stereotype.Service;
 
 @Service
 public class CommercialDocumentPdfService {
+  private record CachedLogo(byte[] source, Image image) {}
+
+  private final PdfCache pdfCache;
+  private final ServerMetrics metrics;
+  private final Map<String, CachedLogo> logos = new ConcurrentHashMap<>();
+  private volatile Image defaultLogo;
+
+  public CommercialDocumentPdfService(PdfCache pdfCache, ServerMetrics metrics) {
+    this.pdfCache = pdfCache;
+    this.metrics = metrics;
+  }
+
   public byte[] build(CommercialDocument document) {
+    return pdfCache.get(
+        "document",
+        document.getId(),
+        fingerprint(document),
+        () -> metrics.time("pdf.document", () -> render(document)));
+  }
+
+  private static String fingerprint(CommercialDocument document) {
+    Agency agency = document.getAgency();
+    var client = document.getClient();
+    List<Object> parts =
+        new ArrayList<>(
+            List.of(
+                String.valueOf(document.getType()),
+                String.valueOf(document.getReference()),
+                String.valueOf(document.getDate()),
+                String.valueOf(document.getTotalHt()),
+                String.valueOf(document.getTotalVat()),
+                String.valueOf(document.getTotalTtc()),
+                String.valueOf(agency.getName()),
+                String.valueOf(agency.getLegalFooter()),
+                String.valueOf(agency.getIban()),
+                agency.getLogoPng() == null ? new byte[0] : agency.getLogoPng(),
+                String.valueOf(client.getName()),
+                formatClientAddress(document),
+                String.valueOf(client.getVatNumber()),
+                String.valueOf(client.getIban())));
+    for (CommercialDocumentLine line : document.getLines()) {
+      parts.add(line.getDesignation());
+      parts.add(line.getQuantity());
+      parts.add(line.getUnitPrice());
+      parts.add(line.getVatRate());
+    }
+    return PdfCache.fingerprint(parts.toArray());
+  }
+
+  private byte[] render(CommercialDocument document) {
     try {
       ByteArrayOutputStream baos = new ByteArrayOutputStream();
       Document pdf = new Document(PageSize.A4, 36, 36, 36, 36);
@@ -100,7 +154,7 @@ public class CommercialDocumentPdfService {
         hasText(document.getAgency().getName())
             ? document.getAgency().getName()
             : System.getenv().getOrDefault("AGENCY_NAME", "LOCATION");
-    Image logo = loadLogo(document.getAgency().getLogoPng());
+    Image logo = loadLogo(document.getAgency());
     PdfPTable header = new PdfPTable(logo != null ? 2 : 1);
     header.setWidthPercentage(100);
     header.getDefaultCell().setBorder(0);
@@ -171,17 +225,29 @@ public class CommercialDocumentPdfService {
     }
   }
 
-  private Image loadLogo(byte[] custom) {
+  /** Logo décodé une seule fois par agence, tant que ses octets ne changent pas. */
+  private Image loadLogo(Agency agency) {
     try {
+      byte[] custom = agency.getLogoPng();
       if (custom != null && custom.length > 0) {
-        return buildLogo(custom);
+        CachedLogo cached = logos.get(agency.getId());
+        if (cached == null || !Arrays.equals(cached.source(), custom)) {
+          cached = new CachedLogo(custom.clone(), buildLogo(custom));
+          logos.put(agency.getId(), cached);
+        }
+        return Image.getInstance(cached.image());
       }
-      try (InputStream input = getClass().getResourceAsStream("/static/logo.png")) {
-        if (input == null) {
-          return null;
+      Image fallback = defaultLogo;
+      if (fallback == null) {
+        try (InputStream input = getClass().getResourceAsStream("/static/logo.png")) {
+          if (input == null) {
+            return null;
+          }
+          fallback = buildLogo(input.readAllBytes());
+          defaultLogo = fallback;
         }
-        return buildLogo(input.readAllBytes());
       }
+      return Image.getInstance(fallback);
     } catch (Exception e) {
       return null;
     }
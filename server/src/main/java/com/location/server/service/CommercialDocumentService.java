@@ -27,18 +27,21 @@ public class CommercialDocumentService {
   private final AgencyRepository agencyRepository;
   private final ClientRepository clientRepository;
   private final DocumentNumberingService documentNumberingService;
+  private final PdfCache pdfCache;
 
   public CommercialDocumentService(
       CommercialDocumentRepository documentRepository,
       CommercialDocumentLineRepository lineRepository,
       AgencyRepository agencyRepository,
       ClientRepository clientRepository,
-      DocumentNumberingService documentNumberingService) {
+      DocumentNumberingService documentNumberingService,
+      PdfCache pdfCache) {
     this.documentRepository = documentRepository;
     this.lineRepository = lineRepository;
     this.agencyRepository = agencyRepository;
     this.clientRepository = clientRepository;
     this.documentNumberingService = documentNumberingService;
+    this.pdfCache = pdfCache;
   }
 
   @Transactional
@@ -99,6 +102,7 @@ public class CommercialDocumentService {
     }
     document.getLines().addAll(newLines);
     recomputeTotals(document);
+    pdfCache.invalidate("document", id);
     return documentRepository.save(document);
   }
 
@@ -119,6 +123,7 @@ public class CommercialDocumentService {
     copy.setReference(
         documentNumberingService.nextReference(copy.getAgency(), toType, copy.getDate()));
     documentRepository.save(copy);
+    pdfCache.invalidate("document", id);
 
     int index = 1;
     for (CommercialDocumentLine line : source.getLines()) {
@@ -137,6 +142,12 @@ public class CommercialDocumentService {
     return documentRepository.save(copy);
   }
 
+  @Transactional
+  public void delete(String id) {
+    documentRepository.deleteById(id);
+    pdfCache.invalidate("document", id);
+  }
+
   private void recomputeTotals(CommercialDocument document) {
     BigDecimal totalHt = BigDecimal.ZERO;
     BigDecimal totalVat = BigDecimal.ZERO;
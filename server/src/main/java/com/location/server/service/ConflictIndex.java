@@ -0,0 +1,305 @@
+package com.location.server.service;
+
+import com.location.server.domain.RecurringUnavailability;
+import com.location.server.repo.InterventionRepository;
+import com.location.server.repo.OwnedTimeSlot;
+import com.location.server.repo.TimeSlot;
+import com.location.server.repo.UnavailabilityRepository;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Index mémoire des créneaux occupés (interventions par ressource et par chauffeur,
+ * indisponibilités ponctuelles et récurrentes par ressource) pour les contrôles de conflit.
+ *
+ * <p>Chaque clé est chargée paresseusement depuis l'état validé, gardée au plus {@code
+ * app.conflicts.index.ttl-seconds} et au plus {@code app.conflicts.index.max-keys} clés par
+ * famille (les moins récemment lues sortent en premier). Une clé écrite par une transaction
+ * ({@link ConflictIndexInvalidator}, quel que soit le chemin d'écriture) est lue en base par cette
+ * transaction, qui voit ainsi ses propres écritures sans les exposer, puis évincée à sa fin, validée
+ * ou non. Une clé chargée pendant qu'une autre transaction se termine n'est pas conservée.
+ */
+@Component
+public class ConflictIndex {
+  /** Taille maximale d'une clause {@code in} des chargements groupés. */
+  private static final int PRELOAD_CHUNK = 500;
+
+  private record Cached(IntervalTree tree, long loadedAt) {}
+
+  /** Une famille de clés (ressource, chauffeur…), bornée en taille et en durée. */
+  private final class Slots {
+    private final Function<String, List<TimeSlot>> loader;
+    private final Map<String, Cached> entries;
+
+    Slots(Function<String, List<TimeSlot>> loader) {
+      this.loader = loader;
+      this.entries =
+          Collections.synchronizedMap(
+              new LinkedHashMap<String, Cached>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+                  return size() > maxKeys;
+                }
+              });
+    }
+
+    IntervalTree tree(String key) {
+      if (writtenInTransaction(this, key)) {
+        return load(key);
+      }
+      long now = System.nanoTime();
+      Cached cached = entries.get(key);
+      if (cached != null && now - cached.loadedAt() < ttlNanos) {
+        return cached.tree();
+      }
+      long seen = generation.get();
+      IntervalTree loaded = load(key);
+      keep(key, loaded, seen, now);
+      return loaded;
+    }
+
+    boolean cached(String key) {
+      Cached cached = entries.get(key);
+      return cached != null && System.nanoTime() - cached.loadedAt() < ttlNanos;
+    }
+
+    /** Conserve {@code tree} sauf si une écriture s'est terminée depuis {@code seen}. */
+    void keep(String key, IntervalTree tree, long seen, long now) {
+      if (seen == generation.get() && !writtenInTransaction(this, key)) {
+        entries.put(key, new Cached(tree, now));
+      }
+    }
+
+    void evict(String key) {
+      entries.remove(key);
+    }
+
+    private IntervalTree load(String key) {
+      IntervalTree loaded = new IntervalTree();
+      for (TimeSlot slot : loader.apply(key)) {
+        loaded.put(slot.getId(), millis(slot.getStart()), millis(slot.getEnd()));
+      }
+      return loaded;
+    }
+  }
+
+  private final InterventionRepository interventionRepository;
+  private final UnavailabilityRepository unavailabilityRepository;
+  private final RecurringUnavailabilityIndex recurringIndex;
+  private final ServerMetrics metrics;
+  private final int maxKeys;
+  private final long ttlNanos;
+  /** Incrémenté à la fin de chaque transaction ayant écrit des créneaux. */
+  private final AtomicLong generation = new AtomicLong();
+
+  private final Slots interventionsByResource;
+  private final Slots interventionsByDriver;
+  private final Slots unavailabilitiesByResource;
+
+  public ConflictIndex(
+      InterventionRepository interventionRepository,
+      UnavailabilityRepository unavailabilityRepository,
+      RecurringUnavailabilityIndex recurringIndex,
+      ServerMetrics metrics,
+      @Value("${app.conflicts.index.max-keys:10000}") int maxKeys,
+      @Value("${app.conflicts.index.ttl-seconds:900}") long ttlSeconds) {
+    this.interventionRepository = interventionRepository;
+    this.unavailabilityRepository = unavailabilityRepository;
+    this.recurringIndex = recurringIndex;
+    this.metrics = metrics;
+    this.maxKeys = Math.max(1, maxKeys);
+    this.ttlNanos = Duration.ofSeconds(ttlSeconds).toNanos();
+    this.interventionsByResource =
+        new Slots(interventionRepository::findSlotsByResource);
+    this.interventionsByDriver =
+        new Slots(interventionRepository::findSlotsByDriver);
+    this.unavailabilitiesByResource =
+        new Slots(unavailabilityRepository::findSlotsByResource);
+  }
+
+  public boolean resourceBusy(
+      String resourceId, OffsetDateTime start, OffsetDateTime end, String excludeInterventionId) {
+    return metrics.time(
+        "conflict.resource",
+        () ->
+            interventionsByResource
+                .tree(resourceId)
+                .anyOverlap(millis(start), millis(end), excludeInterventionId));
+  }
+
+  public boolean driverBusy(
+      String driverId, OffsetDateTime start, OffsetDateTime end, String excludeInterventionId) {
+    if (driverId == null || driverId.isBlank()) {
+      return false;
+    }
+    return metrics.time(
+        "conflict.driver",
+        () ->
+            interventionsByDriver
+                .tree(driverId)
+                .anyOverlap(millis(start), millis(end), excludeInterventionId));
+  }
+
+  /** Indisponibilité ponctuelle ou occurrence récurrente chevauchant [start, end). */
+  public boolean resourceUnavailable(String resourceId, OffsetDateTime start, OffsetDateTime end) {
+    return metrics.time(
+        "conflict.unavailability",
+        () -> hasUnavailability(resourceId, start, end) || hasRecurring(resourceId, start, end));
+  }
+
+  public boolean hasUnavailability(String resourceId, OffsetDateTime start, OffsetDateTime end) {
+    return unavailabilitiesByResource.tree(resourceId).anyOverlap(millis(start), millis(end), null);
+  }
+
+  public boolean hasRecurring(String resourceId, OffsetDateTime start, OffsetDateTime end) {
+    return recurringIndex.overlaps(resourceId, start, end);
+  }
+
+  /**
+   * Charge en quelques requêtes groupées les clés pas encore en mémoire, avant une série de
+   * contrôles (import) qui les aurait sinon chargées une à une.
+   */
+  public void preload(Collection<String> resourceIds, Collection<String> driverIds) {
+    preload(
+        interventionsByResource, resourceIds, interventionRepository::findSlotsByResources);
+    preload(interventionsByDriver, driverIds, interventionRepository::findSlotsByDrivers);
+    preload(
+        unavailabilitiesByResource, resourceIds, unavailabilityRepository::findSlotsByResources);
+  }
+
+  /**
+   * La transaction courante écrit des interventions de {@code resourceId} / {@code driverId} :
+   * ses contrôles suivants lisent ces clés en base, et elles sont évincées à sa fin. À appeler dès
+   * l'écriture, avant le flush qui la signale aussi à {@link ConflictIndexInvalidator}.
+   */
+  public void interventionWritten(String resourceId, String driverId) {
+    written(interventionsByResource, resourceId);
+    written(interventionsByDriver, driverId);
+  }
+
+  /** Comme {@link #interventionWritten}, pour les indisponibilités ponctuelles. */
+  public void unavailabilityWritten(String resourceId) {
+    written(unavailabilitiesByResource, resourceId);
+  }
+
+  public void recurringSaved(RecurringUnavailability recurring) {
+    recurringIndex.ruleSaved(recurring);
+  }
+
+  public void clear() {
+    generation.incrementAndGet();
+    interventionsByResource.entries.clear();
+    interventionsByDriver.entries.clear();
+    unavailabilitiesByResource.entries.clear();
+    recurringIndex.clear();
+  }
+
+  private void preload(
+      Slots slots,
+      Collection<String> keys,
+      Function<Collection<String>, List<OwnedTimeSlot>> loader) {
+    List<String> missing = new ArrayList<>();
+    for (String key : keys) {
+      if (key != null && !key.isBlank() && !slots.cached(key)) {
+        missing.add(key);
+      }
+    }
+    for (int from = 0; from < missing.size(); from += PRELOAD_CHUNK) {
+      List<String> chunk = missing.subList(from, Math.min(missing.size(), from + PRELOAD_CHUNK));
+      long seen = generation.get();
+      long now = System.nanoTime();
+      Map<String, IntervalTree> loaded = new HashMap<>();
+      chunk.forEach(key -> loaded.put(key, new IntervalTree()));
+      for (OwnedTimeSlot slot : loader.apply(chunk)) {
+        loaded
+            .get(slot.getOwnerId())
+            .put(slot.getId(), millis(slot.getStart()), millis(slot.getEnd()));
+      }
+      loaded.forEach((key, tree) -> slots.keep(key, tree, seen, now));
+    }
+  }
+
+  private void written(Slots slots, String key) {
+    if (key == null || key.isBlank()) {
+      return;
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      generation.incrementAndGet();
+      slots.evict(key);
+      return;
+    }
+    writtenKeys().computeIfAbsent(slots, s -> new HashSet<>()).add(key);
+  }
+
+  private boolean writtenInTransaction(Slots slots, String key) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return false;
+    }
+    @SuppressWarnings("unchecked")
+    Map<Slots, Set<String>> written =
+        (Map<Slots, Set<String>>) TransactionSynchronizationManager.getResource(this);
+    return written != null && written.getOrDefault(slots, Set.of()).contains(key);
+  }
+
+  /** Clés écrites par la transaction courante, évincées à sa fin. */
+  private Map<Slots, Set<String>> writtenKeys() {
+    @SuppressWarnings("unchecked")
+    Map<Slots, Set<String>> written =
+        (Map<Slots, Set<String>>) TransactionSynchronizationManager.getResource(this);
+    if (written != null) {
+      return written;
+    }
+    Map<Slots, Set<String>> created = new HashMap<>();
+    TransactionSynchronizationManager.bindResource(this, created);
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(ConflictIndex.this);
+            generation.incrementAndGet();
+            created.forEach((slots, keys) -> keys.forEach(slots::evict));
+          }
+        });
+    return created;
+  }
+
+  /**
+   * Rejoue l'écriture après commit (un autre thread a pu charger la clé entre-temps depuis un
+   * état antérieur) et évince les clés concernées en cas d'annulation.
+   */
+  static void afterTransaction(Runnable onCommit, Runnable onRollback) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCompletion(int status) {
+            if (status == STATUS_COMMITTED) {
+              onCommit.run();
+            } else {
+              onRollback.run();
+            }
+          }
+        });
+  }
+
+  private static long millis(OffsetDateTime t) {
+    return t.toInstant().toEpochMilli();
+  }
+}
@@ -0,0 +1,102 @@
+package com.location.server.service;
+
+import com.location.server.domain.Driver;
+import com.location.server.domain.Intervention;
+import com.location.server.domain.Resource;
+import com.location.server.domain.Unavailability;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Signale à {@link ConflictIndex} chaque écriture d'intervention ou d'indisponibilité au moment de
+ * son flush, quel que soit le chemin (service, import, dépôt appelé directement) : la transaction
+ * relit ces clés en base et l'index les évince à sa fin. Pour une modification, l'ancienne
+ * ressource et l'ancien chauffeur sont évincés aussi.
+ */
+@Component
+class ConflictIndexInvalidator
+    implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+  private final EntityManagerFactory entityManagerFactory;
+  private final ConflictIndex index;
+
+  ConflictIndexInvalidator(EntityManagerFactory entityManagerFactory, ConflictIndex index) {
+    this.entityManagerFactory = entityManagerFactory;
+    this.index = index;
+  }
+
+  @PostConstruct
+  void register() {
+    EventListenerRegistry registry =
+        entityManagerFactory
+            .unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .requireService(EventListenerRegistry.class);
+    registry.appendListeners(EventType.POST_INSERT, this);
+    registry.appendListeners(EventType.POST_UPDATE, this);
+    registry.appendListeners(EventType.POST_DELETE, this);
+  }
+
+  @Override
+  public void onPostInsert(PostInsertEvent event) {
+    written(event.getEntity());
+  }
+
+  @Override
+  public void onPostUpdate(PostUpdateEvent event) {
+    Object entity = event.getEntity();
+    if (!(entity instanceof Intervention) && !(entity instanceof Unavailability)) {
+      return;
+    }
+    written(entity);
+    Object[] previous = event.getOldState();
+    if (previous == null) {
+      index.clear();
+      return;
+    }
+    String[] names = event.getPersister().getPropertyNames();
+    for (int i = 0; i < names.length; i++) {
+      if ("resource".equals(names[i]) && previous[i] instanceof Resource resource) {
+        if (entity instanceof Intervention) {
+          index.interventionWritten(resource.getId(), null);
+        } else {
+          index.unavailabilityWritten(resource.getId());
+        }
+      } else if ("driver".equals(names[i]) && previous[i] instanceof Driver driver) {
+        index.interventionWritten(null, driver.getId());
+      }
+    }
+  }
+
+  @Override
+  public void onPostDelete(PostDeleteEvent event) {
+    written(event.getEntity());
+  }
+
+  @Override
+  public boolean requiresPostCommitHandling(EntityPersister persister) {
+    return false;
+  }
+
+  private void written(Object entity) {
+    if (entity instanceof Intervention intervention) {
+      index.interventionWritten(
+          intervention.getResource() == null ? null : intervention.getResource().getId(),
+          intervention.getDriver() == null ? null : intervention.getDriver().getId());
+    } else if (entity instanceof Unavailability unavailability) {
+      index.unavailabilityWritten(
+          unavailability.getResource() == null ? null : unavailability.getResource().getId());
+    }
+  }
+}
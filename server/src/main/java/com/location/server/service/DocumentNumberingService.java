@@ -2,14 +2,41 @@ package com.location.server.service;
 
 import com.location.server.domain.Agency;
 import com.location.server.domain.CommercialDocument;
-import com.location.server.domain.DocumentSequence;
 import com.location.server.repo.DocumentSequenceRepository;
 import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+/**
+ * Numérotation des documents par agence / année / type.
+ *
+ * <p>Les factures doivent rester sans trou : leur numéro est pris par incrément atomique dans la
+ * transaction de l'appelant, et disparaît avec elle en cas de rollback. Les autres types réservent
+ * des blocs de {@code app.numbering.block-size} numéros et les distribuent depuis la mémoire du
+ * nœud ; un bloc non épuisé à l'arrêt laisse un trou.
+ *
+ * <p>Toutes les écritures passent par la connexion de l'appelant : une seconde connexion prise
+ * pendant que l'appelant garde la sienne épuiserait le pool dès que les appels simultanés sont
+ * aussi nombreux que ses connexions. Un bloc réservé n'est donc partagé qu'après le commit de la
+ * transaction qui l'a réservé ; en cas de rollback, la réservation est annulée avec elle.
+ *
+ * <p>Une séquence absente est créée par un {@code insert} ordinaire, dans un point de sauvegarde de
+ * cette même transaction : si un appel concurrent l'a créée entre-temps, la contrainte d'unicité
+ * fait échouer l'insertion, seul le point de sauvegarde est annulé et l'incrément trouve la ligne.
+ */
 @Service
 public class DocumentNumberingService {
 
@@ -20,27 +47,117 @@ public class DocumentNumberingService {
           CommercialDocument.DocType.DELIVERY, "BL",
           CommercialDocument.DocType.INVOICE, "FA");
 
+  private record SequenceKey(String agencyId, int year, CommercialDocument.DocType type) {}
+
+  /** Plages réservées et validées, distribuées dans l'ordre. */
+  private static final class Block {
+    private final Deque<int[]> ranges = new ArrayDeque<>();
+
+    /** Prochain numéro disponible, ou 0 si toutes les plages sont épuisées. */
+    synchronized int take() {
+      int[] head = ranges.peekFirst();
+      if (head == null) {
+        return 0;
+      }
+      int next = head[0]++;
+      if (head[0] > head[1]) {
+        ranges.pollFirst();
+      }
+      return next;
+    }
+
+    synchronized void add(int first, int last) {
+      if (first <= last) {
+        ranges.addLast(new int[] {first, last});
+      }
+    }
+  }
+
+  private static final String INSERT_SEQUENCE =
+      "insert into doc_sequence (id, agency_id, doc_year, doc_type, last_no) "
+          + "values (?, ?, ?, ?, 0)";
+
   private final DocumentSequenceRepository repository;
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate savepoint;
+  private final int blockSize;
+  private final Map<SequenceKey, Block> blocks = new ConcurrentHashMap<>();
+  private final ServerMetrics metrics;
 
-  public DocumentNumberingService(DocumentSequenceRepository repository) {
+  public DocumentNumberingService(
+      DocumentSequenceRepository repository,
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      @Value("${app.numbering.block-size:20}") int blockSize,
+      ServerMetrics metrics) {
     this.repository = repository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.savepoint = new TransactionTemplate(transactionManager);
+    this.savepoint.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    this.blockSize = Math.max(1, blockSize);
+    this.metrics = metrics;
   }
 
   @Transactional
   public String nextReference(Agency agency, CommercialDocument.DocType type, OffsetDateTime date) {
     int year = date.getYear();
-    DocumentSequence sequence =
-        repository
-            .findByAgencyIdAndYearAndType(agency.getId(), year, type)
-            .orElseGet(
-                () ->
-                    repository.save(
-                        new DocumentSequence(
-                            UUID.randomUUID().toString(), agency, year, type, /*lastNumber=*/ 0)));
-    int next = sequence.getLastNumber() + 1;
-    sequence.setLastNumber(next);
-    repository.save(sequence);
+    int next =
+        metrics.time(
+            "numbering.next",
+            () ->
+                type == CommercialDocument.DocType.INVOICE || blockSize == 1
+                    ? reserve(agency, year, type, 1)
+                    : nextFromBlock(agency, year, type));
     String prefix = PREFIXES.getOrDefault(type, type.name());
     return "%s-%d-%04d".formatted(prefix, year, next);
   }
+
+  private int nextFromBlock(Agency agency, int year, CommercialDocument.DocType type) {
+    Block block =
+        blocks.computeIfAbsent(new SequenceKey(agency.getId(), year, type), key -> new Block());
+    int next = block.take();
+    if (next > 0) {
+      return next;
+    }
+    // Bloc épuisé : réservation sur la connexion de l'appelant, sans verrou Java. Les appels
+    // concurrents attendent le verrou de ligne, pas une connexion du pool.
+    int last = reserve(agency, year, type, blockSize);
+    int first = last - blockSize + 1;
+    afterCommit(() -> block.add(first + 1, last));
+    return first;
+  }
+
+  /** Réserve {@code count} numéros et renvoie le dernier. */
+  private int reserve(Agency agency, int year, CommercialDocument.DocType type, int count) {
+    if (repository.increment(agency.getId(), year, type, count) == 0) {
+      createIfAbsent(agency.getId(), year, type);
+      repository.increment(agency.getId(), year, type, count);
+    }
+    return repository.findLastNumber(agency.getId(), year, type);
+  }
+
+  private void createIfAbsent(String agencyId, int year, CommercialDocument.DocType type) {
+    try {
+      savepoint.executeWithoutResult(
+          status ->
+              jdbcTemplate.update(
+                  INSERT_SEQUENCE, UUID.randomUUID().toString(), agencyId, year, type.name()));
+    } catch (DataIntegrityViolationException createdConcurrently) {
+      // Créée en parallèle par un autre appel : l'incrément qui suit la trouve.
+    }
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      action.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            action.run();
+          }
+        });
+  }
 }
@@ -0,0 +1,188 @@
+package com.location.server.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Arbre d'intervalles semi-ouverts [start, end) (AVL augmenté du max des fins), indexé par (start,
+ * id). Non thread-safe : l'appelant synchronise.
+ */
+final class IntervalTree {
+  record Interval(String id, long start, long end) {}
+
+  private static final class Node {
+    String id;
+    long start;
+    long end;
+    long maxEnd;
+    int height = 1;
+    Node left;
+    Node right;
+
+    Node(String id, long start, long end) {
+      this.id = id;
+      this.start = start;
+      this.end = end;
+      this.maxEnd = end;
+    }
+  }
+
+  private Node root;
+  private final Map<String, Long> startById = new HashMap<>();
+
+  int size() {
+    return startById.size();
+  }
+
+  void put(String id, long start, long end) {
+    remove(id);
+    root = insert(root, new Node(id, start, end));
+    startById.put(id, start);
+  }
+
+  boolean remove(String id) {
+    Long start = startById.remove(id);
+    if (start == null) {
+      return false;
+    }
+    root = delete(root, start, id);
+    return true;
+  }
+
+  /** Vrai si un intervalle (autre que {@code excludeId}) chevauche [start, end). */
+  boolean anyOverlap(long start, long end, String excludeId) {
+    return anyOverlap(root, start, end, excludeId);
+  }
+
+  void forEachOverlap(long start, long end, Consumer<Interval> action) {
+    forEachOverlap(root, start, end, action);
+  }
+
+  private static boolean anyOverlap(Node n, long start, long end, String excludeId) {
+    if (n == null || n.maxEnd <= start) {
+      return false;
+    }
+    if (anyOverlap(n.left, start, end, excludeId)) {
+      return true;
+    }
+    if (n.start >= end) {
+      return false;
+    }
+    if (n.end > start && !n.id.equals(excludeId)) {
+      return true;
+    }
+    return anyOverlap(n.right, start, end, excludeId);
+  }
+
+  private static void forEachOverlap(Node n, long start, long end, Consumer<Interval> action) {
+    if (n == null || n.maxEnd <= start) {
+      return;
+    }
+    forEachOverlap(n.left, start, end, action);
+    if (n.start >= end) {
+      return;
+    }
+    if (n.end > start) {
+      action.accept(new Interval(n.id, n.start, n.end));
+    }
+    forEachOverlap(n.right, start, end, action);
+  }
+
+  private static int compare(long startA, String idA, long startB, String idB) {
+    int c = Long.compare(startA, startB);
+    return c != 0 ? c : idA.compareTo(idB);
+  }
+
+  private static Node insert(Node n, Node added) {
+    if (n == null) {
+      return added;
+    }
+    if (compare(added.start, added.id, n.start, n.id) < 0) {
+      n.left = insert(n.left, added);
+    } else {
+      n.right = insert(n.right, added);
+    }
+    return balance(n);
+  }
+
+  private static Node delete(Node n, long start, String id) {
+    if (n == null) {
+      return null;
+    }
+    int c = compare(start, id, n.start, n.id);
+    if (c < 0) {
+      n.left = delete(n.left, start, id);
+    } else if (c > 0) {
+      n.right = delete(n.right, start, id);
+    } else {
+      if (n.left == null) {
+        return n.right;
+      }
+      if (n.right == null) {
+        return n.left;
+      }
+      Node successor = n.right;
+      while (successor.left != null) {
+        successor = successor.left;
+      }
+      n.right = delete(n.right, successor.start, successor.id);
+      n.id = successor.id;
+      n.start = successor.start;
+      n.end = successor.end;
+    }
+    return balance(n);
+  }
+
+  private static int height(Node n) {
+    return n == null ? 0 : n.height;
+  }
+
+  private static void update(Node n) {
+    n.height = 1 + Math.max(height(n.left), height(n.right));
+    long max = n.end;
+    if (n.left != null) {
+      max = Math.max(max, n.left.maxEnd);
+    }
+    if (n.right != null) {
+      max = Math.max(max, n.right.maxEnd);
+    }
+    n.maxEnd = max;
+  }
+
+  private static Node balance(Node n) {
+    update(n);
+    int factor = height(n.left) - height(n.right);
+    if (factor > 1) {
+      if (height(n.left.left) < height(n.left.right)) {
+        n.left = rotateLeft(n.left);
+      }
+      return rotateRight(n);
+    }
+    if (factor < -1) {
+      if (height(n.right.right) < height(n.right.left)) {
+        n.right = rotateRight(n.right);
+      }
+      return rotateLeft(n);
+    }
+    return n;
+  }
+
+  private static Node rotateRight(Node n) {
+    Node l = n.left;
+    n.left = l.right;
+    l.right = n;
+    update(n);
+    update(l);
+    return l;
+  }
+
+  private static Node rotateLeft(Node n) {
+    Node r = n.right;
+    n.right = r.left;
+    r.left = n;
+    update(n);
+    update(r);
+    return r;
+  }
+}
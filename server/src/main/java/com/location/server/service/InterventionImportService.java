@@ -0,0 +1,292 @@
+package com.location.server.service;
+
+import com.location.server.domain.Agency;
+import com.location.server.domain.Client;
+import com.location.server.domain.Driver;
+import com.location.server.domain.Intervention;
+import com.location.server.domain.Resource;
+import com.location.server.repo.AgencyRepository;
+import com.location.server.repo.ClientRepository;
+import com.location.server.repo.DriverRepository;
+import com.location.server.repo.ResourceRepository;
+import jakarta.persistence.EntityManager;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Création groupée d'interventions (import ERP, génération de jeux d'essai). Le lot est validé
+ * d'un seul passage : références chargées en une requête par type, créneaux des ressources et
+ * chauffeurs concernés préchargés dans {@link ConflictIndex}, conflits internes au lot suivis dans
+ * des arbres d'intervalles locaux. Les lignes acceptées sont insérées par lots JDBC ; chaque ligne
+ * reçoit son propre résultat, une ligne refusée n'empêche pas les autres.
+ */
+@Service
+public class InterventionImportService {
+  /** Nombre maximal de lignes par appel. */
+  public static final int MAX_ROWS = 5000;
+
+  private static final int LOOKUP_CHUNK = 500;
+
+  /** Ligne à importer ; {@code error} : refusée par l'appelant, qui valide les champs. */
+  public record Draft(
+      String agencyId,
+      String resourceId,
+      String driverId,
+      String clientId,
+      String title,
+      OffsetDateTime start,
+      OffsetDateTime end,
+      String notes,
+      String internalNotes,
+      Double price,
+      String error) {
+    public Draft(
+        String agencyId,
+        String resourceId,
+        String driverId,
+        String clientId,
+        String title,
+        OffsetDateTime start,
+        OffsetDateTime end,
+        String notes,
+        String internalNotes,
+        Double price) {
+      this(
+          agencyId,
+          resourceId,
+          driverId,
+          clientId,
+          title,
+          start,
+          end,
+          notes,
+          internalNotes,
+          price,
+          null);
+    }
+
+    public static Draft rejected(String error) {
+      return new Draft(null, null, null, null, null, null, null, null, null, null, error);
+    }
+  }
+
+  /** {@code status} : {@code created}, {@code invalid} ou {@code conflict}. */
+  public record Outcome(int row, String status, String id, String message) {
+    static Outcome created(int row, String id) {
+      return new Outcome(row, "created", id, null);
+    }
+
+    static Outcome invalid(int row, String message) {
+      return new Outcome(row, "invalid", null, message);
+    }
+
+    static Outcome conflict(int row, String message) {
+      return new Outcome(row, "conflict", null, message);
+    }
+
+    public boolean isCreated() {
+      return "created".equals(status);
+    }
+  }
+
+  public record Report(int created, int rejected, List<Outcome> outcomes) {}
+
+  private final AgencyRepository agencyRepository;
+  private final ResourceRepository resourceRepository;
+  private final ClientRepository clientRepository;
+  private final DriverRepository driverRepository;
+  private final ConflictIndex conflictIndex;
+  private final EntityManager entityManager;
+  private final ServerMetrics metrics;
+
+  public InterventionImportService(
+      AgencyRepository agencyRepository,
+      ResourceRepository resourceRepository,
+      ClientRepository clientRepository,
+      DriverRepository driverRepository,
+      ConflictIndex conflictIndex,
+      EntityManager entityManager,
+      ServerMetrics metrics) {
+    this.agencyRepository = agencyRepository;
+    this.resourceRepository = resourceRepository;
+    this.clientRepository = clientRepository;
+    this.driverRepository = driverRepository;
+    this.conflictIndex = conflictIndex;
+    this.entityManager = entityManager;
+    this.metrics = metrics;
+  }
+
+  /**
+   * Crée les lignes de {@code drafts}, dont les champs ont été validés par l'appelant (mêmes
+   * contraintes que la création unitaire) ; restent vérifiés ici l'ordre des dates et les
+   * références. Comme la création unitaire, un chevauchement
+   * chauffeur ou une indisponibilité de la ressource refuse la ligne ; un chevauchement sur la
+   * ressource n'est refusé que si {@code rejectResourceOverlaps}.
+   */
+  @Transactional
+  public Report importAll(List<Draft> drafts, boolean rejectResourceOverlaps) {
+    if (drafts.size() > MAX_ROWS) {
+      throw new IllegalArgumentException("Trop de lignes à importer (" + MAX_ROWS + " maximum)");
+    }
+    long started = System.nanoTime();
+    try {
+      return run(drafts, rejectResourceOverlaps);
+    } finally {
+      metrics.recordOperation("intervention.import", System.nanoTime() - started);
+    }
+  }
+
+  private Report run(List<Draft> drafts, boolean rejectResourceOverlaps) {
+    Map<String, Agency> agencies =
+        load(agencyRepository, drafts, Draft::agencyId, Agency::getId);
+    Map<String, Resource> resources =
+        load(resourceRepository, drafts, Draft::resourceId, Resource::getId);
+    Map<String, Client> clients = load(clientRepository, drafts, Draft::clientId, Client::getId);
+    Map<String, Driver> drivers = load(driverRepository, drafts, Draft::driverId, Driver::getId);
+    conflictIndex.preload(resources.keySet(), drivers.keySet());
+
+    Map<String, IntervalTree> batchByResource = new HashMap<>();
+    Map<String, IntervalTree> batchByDriver = new HashMap<>();
+    List<Outcome> outcomes = new ArrayList<>(drafts.size());
+    List<Intervention> accepted = new ArrayList<>();
+    for (int row = 0; row < drafts.size(); row++) {
+      Draft draft = drafts.get(row);
+      String error = validate(draft);
+      if (error == null) {
+        error = missingReference(draft, agencies, resources, clients, drivers);
+      }
+      if (error != null) {
+        outcomes.add(Outcome.invalid(row, error));
+        continue;
+      }
+      String driverId = blankToNull(draft.driverId());
+      long start = draft.start().toInstant().toEpochMilli();
+      long end = draft.end().toInstant().toEpochMilli();
+      String conflict = null;
+      if (driverId != null
+          && (conflictIndex.driverBusy(driverId, draft.start(), draft.end(), null)
+              || overlaps(batchByDriver, driverId, start, end))) {
+        conflict = "Intervention en conflit pour le chauffeur " + driverId;
+      } else if (conflictIndex.resourceUnavailable(draft.resourceId(), draft.start(), draft.end())) {
+        conflict = "Ressource indisponible sur le créneau";
+      } else if (rejectResourceOverlaps
+          && (conflictIndex.resourceBusy(draft.resourceId(), draft.start(), draft.end(), null)
+              || overlaps(batchByResource, draft.resourceId(), start, end))) {
+        conflict = "Ressource déjà réservée sur le créneau";
+      }
+      if (conflict != null) {
+        outcomes.add(Outcome.conflict(row, conflict));
+        continue;
+      }
+      Intervention intervention =
+          new Intervention(
+              UUID.randomUUID().toString(),
+              draft.title().trim(),
+              draft.start(),
+              draft.end(),
+              agencies.get(draft.agencyId()),
+              resources.get(draft.resourceId()),
+              clients.get(draft.clientId()),
+              driverId == null ? null : drivers.get(driverId),
+              draft.notes(),
+              draft.internalNotes(),
+              draft.price());
+      // persist plutôt que save : l'identifiant est fourni, save ferait un select par ligne
+      entityManager.persist(intervention);
+      accepted.add(intervention);
+      batchByResource
+          .computeIfAbsent(draft.resourceId(), k -> new IntervalTree())
+          .put(intervention.getId(), start, end);
+      if (driverId != null) {
+        batchByDriver
+            .computeIfAbsent(driverId, k -> new IntervalTree())
+            .put(intervention.getId(), start, end);
+      }
+      outcomes.add(Outcome.created(row, intervention.getId()));
+    }
+    // Le flush signale les créneaux écrits à l'index des conflits (ConflictIndexInvalidator).
+    entityManager.flush();
+    return new Report(accepted.size(), drafts.size() - accepted.size(), outcomes);
+  }
+
+  private static String validate(Draft draft) {
+    if (draft.error() != null) {
+      return draft.error();
+    }
+    if (!draft.start().isBefore(draft.end())) {
+      return "Le début doit précéder la fin";
+    }
+    return null;
+  }
+
+  private static String missingReference(
+      Draft draft,
+      Map<String, Agency> agencies,
+      Map<String, Resource> resources,
+      Map<String, Client> clients,
+      Map<String, Driver> drivers) {
+    if (!agencies.containsKey(draft.agencyId())) {
+      return "Agence inconnue : " + draft.agencyId();
+    }
+    if (!resources.containsKey(draft.resourceId())) {
+      return "Ressource inconnue : " + draft.resourceId();
+    }
+    if (!clients.containsKey(draft.clientId())) {
+      return "Client inconnu : " + draft.clientId();
+    }
+    String driverId = blankToNull(draft.driverId());
+    if (driverId != null && !drivers.containsKey(driverId)) {
+      return "Chauffeur inconnu : " + driverId;
+    }
+    return null;
+  }
+
+  /** Entités référencées par le lot, en une requête par tranche d'identifiants. */
+  private static <T> Map<String, T> load(
+      JpaRepository<T, String> repository,
+      List<Draft> drafts,
+      Function<Draft, String> referenceOf,
+      Function<T, String> idOf) {
+    Set<String> ids = new LinkedHashSet<>();
+    for (Draft draft : drafts) {
+      String id = blankToNull(referenceOf.apply(draft));
+      if (id != null) {
+        ids.add(id);
+      }
+    }
+    List<String> all = new ArrayList<>(ids);
+    Map<String, T> found = new HashMap<>();
+    for (int from = 0; from < all.size(); from += LOOKUP_CHUNK) {
+      Collection<String> chunk = all.subList(from, Math.min(all.size(), from + LOOKUP_CHUNK));
+      for (T entity : repository.findAllById(chunk)) {
+        found.put(idOf.apply(entity), entity);
+      }
+    }
+    return found;
+  }
+
+  private static boolean overlaps(
+      Map<String, IntervalTree> trees, String key, long start, long end) {
+    IntervalTree tree = trees.get(key);
+    return tree != null && tree.anyOverlap(start, end, null);
+  }
+
+  private static boolean isBlank(String value) {
+    return value == null || value.isBlank();
+  }
+
+  private static String blankToNull(String value) {
+    return isBlank(value) ? null : value;
+  }
+}
@@ -0,0 +1,79 @@
+package com.location.server.service;
+
+import com.location.server.repo.InterventionRepository;
+import com.location.server.repo.InterventionRow;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/** Lectures d'interventions en volume : pages par curseur (start, id) et parcours en flux. */
+@Service
+public class InterventionQueryService {
+  public static final int DEFAULT_PAGE_SIZE = 500;
+  public static final int MAX_PAGE_SIZE = 5000;
+
+  public record Page(List<InterventionRow> items, String nextCursor) {}
+
+  private final InterventionRepository interventionRepository;
+
+  public InterventionQueryService(InterventionRepository interventionRepository) {
+    this.interventionRepository = interventionRepository;
+  }
+
+  @Transactional(readOnly = true)
+  public Page page(
+      OffsetDateTime from, OffsetDateTime to, String resourceId, String cursor, Integer limit) {
+    int size = limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    OffsetDateTime afterStart = null;
+    String afterId = null;
+    if (cursor != null && !cursor.isBlank()) {
+      String decoded;
+      try {
+        decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+      } catch (IllegalArgumentException ex) {
+        throw new IllegalArgumentException("Curseur invalide");
+      }
+      int sep = decoded.indexOf('|');
+      if (sep <= 0) {
+        throw new IllegalArgumentException("Curseur invalide");
+      }
+      try {
+        afterStart = OffsetDateTime.parse(decoded.substring(0, sep));
+      } catch (DateTimeParseException ex) {
+        throw new IllegalArgumentException("Curseur invalide");
+      }
+      afterId = decoded.substring(sep + 1);
+    }
+    List<InterventionRow> rows =
+        interventionRepository.searchRowsAfter(
+            from, to, resourceId, afterStart, afterId, Limit.of(size + 1));
+    if (rows.size() <= size) {
+      return new Page(rows, null);
+    }
+    List<InterventionRow> items = rows.subList(0, size);
+    return new Page(List.copyOf(items), cursorOf(items.get(size - 1)));
+  }
+
+  /** Parcourt les interventions dans l'ordre (start, id) sans les matérialiser en liste. */
+  @Transactional(readOnly = true)
+  public void forEach(
+      OffsetDateTime from, OffsetDateTime to, String resourceId, Consumer<InterventionRow> action) {
+    try (Stream<InterventionRow> rows = interventionRepository.streamRows(from, to, resourceId)) {
+      rows.forEach(action);
+    }
+  }
+
+  static String cursorOf(InterventionRow row) {
+    String raw = row.start().toString() + '|' + row.id();
+    return Base64.getUrlEncoder()
+        .withoutPadding()
+        .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+}
@@ -10,8 +10,8 @@ import com.location.server.repo.ClientRepository;
 import com.location.server.repo.DriverRepository;
 import com.location.server.repo.InterventionRepository;
 import com.location.server.repo.ResourceRepository;
-import com.location.server.repo.UnavailabilityRepository;
 import java.time.OffsetDateTime;
+import java.util.Optional;
 import java.util.UUID;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -23,7 +23,9 @@ public class InterventionService {
   private final ResourceRepository resourceRepository;
   private final ClientRepository clientRepository;
   private final DriverRepository driverRepository;
-  private final UnavailabilityRepository unavailabilityRepository;
+  private final ConflictIndex conflictIndex;
+  private final PdfCache pdfCache;
+  private final ServerMetrics metrics;
 
   public InterventionService(
       InterventionRepository interventionRepository,
@@ -31,13 +33,17 @@ public class InterventionService {
       ResourceRepository resourceRepository,
       ClientRepository clientRepository,
       DriverRepository driverRepository,
-      UnavailabilityRepository unavailabilityRepository) {
+      ConflictIndex conflictIndex,
+      PdfCache pdfCache,
+      ServerMetrics metrics) {
     this.interventionRepository = interventionRepository;
     this.agencyRepository = agencyRepository;
     this.resourceRepository = resourceRepository;
     this.clientRepository = clientRepository;
     this.driverRepository = driverRepository;
-    this.unavailabilityRepository = unavailabilityRepository;
+    this.conflictIndex = conflictIndex;
+    this.pdfCache = pdfCache;
+    this.metrics = metrics;
   }
 
   @Transactional
@@ -52,16 +58,41 @@ public class InterventionService {
       String notes,
       String internalNotes,
       Double price) {
+    return metrics.time(
+        "intervention.create",
+        () ->
+            doCreate(
+                agencyId,
+                resourceId,
+                driverId,
+                clientId,
+                title,
+                start,
+                end,
+                notes,
+                internalNotes,
+                price));
+  }
+
+  private Intervention doCreate(
+      String agencyId,
+      String resourceId,
+      String driverId,
+      String clientId,
+      String title,
+      OffsetDateTime start,
+      OffsetDateTime end,
+      String notes,
+      String internalNotes,
+      Double price) {
     if (!start.isBefore(end)) {
       throw new IllegalArgumentException("start must be before end");
     }
-    if (driverId != null
-        && !driverId.isBlank()
-        && interventionRepository.existsDriverOverlap(driverId, start, end)) {
+    if (conflictIndex.driverBusy(driverId, start, end, null)) {
       throw new AssignmentConflictException(
           "Intervention en conflit pour le chauffeur " + driverId);
     }
-    if (unavailabilityRepository.existsOverlap(resourceId, start, end)) {
+    if (conflictIndex.resourceUnavailable(resourceId, start, end)) {
       throw new AssignmentConflictException("Ressource indisponible sur le créneau");
     }
     Agency agency = agencyRepository.findById(agencyId).orElseThrow();
@@ -82,7 +113,9 @@ public class InterventionService {
             notes,
             internalNotes,
             price);
-    return interventionRepository.save(intervention);
+    Intervention saved = interventionRepository.save(intervention);
+    conflictIndex.interventionWritten(resourceId, driverId(saved));
+    return saved;
   }
 
   @Transactional
@@ -98,19 +131,48 @@ public class InterventionService {
       String notes,
       String internalNotes,
       Double price) {
+    return metrics.time(
+        "intervention.update",
+        () ->
+            doUpdate(
+                id,
+                agencyId,
+                resourceId,
+                driverId,
+                clientId,
+                title,
+                start,
+                end,
+                notes,
+                internalNotes,
+                price));
+  }
+
+  private Intervention doUpdate(
+      String id,
+      String agencyId,
+      String resourceId,
+      String driverId,
+      String clientId,
+      String title,
+      OffsetDateTime start,
+      OffsetDateTime end,
+      String notes,
+      String internalNotes,
+      Double price) {
     if (!start.isBefore(end)) {
       throw new IllegalArgumentException("start must be before end");
     }
-    if (driverId != null
-        && !driverId.isBlank()
-        && interventionRepository.existsDriverOverlapExcluding(id, driverId, start, end)) {
+    if (conflictIndex.driverBusy(driverId, start, end, id)) {
       throw new AssignmentConflictException(
           "Intervention en conflit pour le chauffeur " + driverId);
     }
-    if (unavailabilityRepository.existsOverlap(resourceId, start, end)) {
+    if (conflictIndex.resourceUnavailable(resourceId, start, end)) {
       throw new AssignmentConflictException("Ressource indisponible sur le créneau");
     }
     Intervention intervention = interventionRepository.findById(id).orElseThrow();
+    String previousResourceId = intervention.getResource().getId();
+    String previousDriverId = driverId(intervention);
     if (!intervention.getAgency().getId().equals(agencyId)) {
       intervention.setAgency(agencyRepository.findById(agencyId).orElseThrow());
     }
@@ -132,11 +194,28 @@ public class InterventionService {
     intervention.setNotes(notes);
     intervention.setInternalNotes(internalNotes);
     intervention.setPrice(price);
-    return interventionRepository.save(intervention);
+    Intervention saved = interventionRepository.save(intervention);
+    conflictIndex.interventionWritten(previousResourceId, previousDriverId);
+    conflictIndex.interventionWritten(saved.getResource().getId(), driverId(saved));
+    pdfCache.invalidate("intervention", id);
+    return saved;
   }
 
+  /** Supprime l'intervention et la renvoie, si elle existait. */
   @Transactional
-  public void delete(String id) {
-    interventionRepository.deleteById(id);
+  public Optional<Intervention> delete(String id) {
+    Optional<Intervention> existing = interventionRepository.findById(id);
+    existing.ifPresent(
+        intervention -> {
+          interventionRepository.delete(intervention);
+          conflictIndex.interventionWritten(
+              intervention.getResource().getId(), driverId(intervention));
+          pdfCache.invalidate("intervention", id);
+        });
+    return existing;
+  }
+
+  private static String driverId(Intervention intervention) {
+    return intervention.getDriver() == null ? null : intervention.getDriver().getId();
   }
 }
@@ -0,0 +1,50 @@
+package com.location.server.service;
+
+import com.location.server.domain.Intervention;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Signale à {@link InterventionTagService} chaque suppression d'intervention, quel que soit le
+ * chemin : la base supprime ses tags en cascade sans passer par le service.
+ */
+@Component
+class InterventionTagInvalidator implements PostDeleteEventListener {
+
+  private final EntityManagerFactory entityManagerFactory;
+  private final InterventionTagService tagService;
+
+  InterventionTagInvalidator(
+      EntityManagerFactory entityManagerFactory, InterventionTagService tagService) {
+    this.entityManagerFactory = entityManagerFactory;
+    this.tagService = tagService;
+  }
+
+  @PostConstruct
+  void register() {
+    entityManagerFactory
+        .unwrap(SessionFactoryImplementor.class)
+        .getServiceRegistry()
+        .requireService(EventListenerRegistry.class)
+        .appendListeners(EventType.POST_DELETE, this);
+  }
+
+  @Override
+  public void onPostDelete(PostDeleteEvent event) {
+    if (event.getEntity() instanceof Intervention) {
+      tagService.interventionDeleted();
+    }
+  }
+
+  @Override
+  public boolean requiresPostCommitHandling(EntityPersister persister) {
+    return false;
+  }
+}
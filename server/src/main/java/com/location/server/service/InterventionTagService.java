@@ -0,0 +1,199 @@
+package com.location.server.service;
+
+import com.location.server.domain.InterventionTag;
+import com.location.server.repo.InterventionTagRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tags libres des interventions, persistés en base. Un index de fréquence (nombre d'interventions
+ * par tag, trié) est chargé une fois puis tenu à jour à chaque remplacement validé : les
+ * suggestions ne recomptent plus tous les tags. Un chargement qui chevauche le commit d'une
+ * écriture n'est pas conservé (il compterait deux fois ce que l'ajustement ajoute ensuite), et la
+ * suppression d'une intervention, dont les tags partent en cascade dans la base, le fait recharger.
+ */
+@Service
+public class InterventionTagService {
+  static final int MAX_TAG_LENGTH = 80;
+  /** Taille maximale d'une clause {@code in} envoyée à la base. */
+  private static final int LOOKUP_CHUNK = 500;
+
+  private record TagCount(String tag, long count) {}
+
+  private final InterventionTagRepository repository;
+  private final Map<String, Long> counts = new HashMap<>();
+  private final TreeSet<TagCount> ranking =
+      new TreeSet<>(
+          Comparator.comparingLong(TagCount::count).reversed().thenComparing(TagCount::tag));
+  private boolean loaded;
+  /** Écritures entre leur commit et leur ajustement ; incrémenté avant le commit. */
+  private final AtomicInteger committing = new AtomicInteger();
+  /** Incrémenté à la fin de chaque écriture, validée ou non. */
+  private final AtomicLong written = new AtomicLong();
+
+  public InterventionTagService(InterventionTagRepository repository) {
+    this.repository = repository;
+  }
+
+  @Transactional(readOnly = true)
+  public List<String> tagsOf(String interventionId) {
+    return tagsOf(List.of(interventionId)).getOrDefault(interventionId, List.of());
+  }
+
+  /** Tags de chaque intervention demandée (liste vide si aucun), en une requête par tranche. */
+  @Transactional(readOnly = true)
+  public Map<String, List<String>> tagsOf(Collection<String> interventionIds) {
+    Map<String, List<String>> out = new LinkedHashMap<>();
+    List<String> ids = new ArrayList<>(new LinkedHashSet<>(interventionIds));
+    ids.forEach(id -> out.put(id, new ArrayList<>()));
+    for (int from = 0; from < ids.size(); from += LOOKUP_CHUNK) {
+      List<String> chunk = ids.subList(from, Math.min(ids.size(), from + LOOKUP_CHUNK));
+      for (Object[] row : repository.findTagsByInterventionIds(chunk)) {
+        out.get((String) row[0]).add((String) row[1]);
+      }
+    }
+    out.replaceAll((id, tags) -> List.copyOf(tags));
+    return out;
+  }
+
+  /** Remplace les tags de l'intervention (espaces retirés, vides et doublons ignorés). */
+  @Transactional
+  public List<String> replace(String interventionId, List<String> tags) {
+    List<String> normalized = normalize(tags);
+    List<String> previous = tagsOf(interventionId);
+    repository.deleteByInterventionId(interventionId);
+    List<InterventionTag> rows = new ArrayList<>();
+    for (int i = 0; i < normalized.size(); i++) {
+      rows.add(new InterventionTag(interventionId, i, normalized.get(i)));
+    }
+    repository.saveAll(rows);
+    afterWrite(() -> adjust(previous, normalized));
+    return normalized;
+  }
+
+  /**
+   * Une intervention est supprimée ({@link InterventionTagInvalidator}) : ses tags disparaissent
+   * par la cascade de la base, l'index est rechargé à la prochaine suggestion.
+   */
+  void interventionDeleted() {
+    afterWrite(this::invalidate);
+  }
+
+  /** Tags les plus utilisés, du plus fréquent au moins fréquent. */
+  public synchronized List<String> suggest(int limit) {
+    ensureLoaded();
+    List<String> out = new ArrayList<>();
+    for (TagCount entry : ranking) {
+      if (out.size() >= Math.max(1, limit)) {
+        break;
+      }
+      out.add(entry.tag());
+    }
+    return out;
+  }
+
+  static List<String> normalize(List<String> tags) {
+    LinkedHashSet<String> out = new LinkedHashSet<>();
+    if (tags != null) {
+      for (String tag : tags) {
+        String trimmed = tag == null ? "" : tag.trim();
+        if (trimmed.isEmpty()) {
+          continue;
+        }
+        if (trimmed.length() > MAX_TAG_LENGTH) {
+          throw new IllegalArgumentException(
+              "Tag trop long (" + MAX_TAG_LENGTH + " caractères maximum)");
+        }
+        out.add(trimmed);
+      }
+    }
+    return List.copyOf(out);
+  }
+
+  private void ensureLoaded() {
+    if (loaded) {
+      return;
+    }
+    counts.clear();
+    ranking.clear();
+    long seen = written.get();
+    boolean quiet = committing.get() == 0;
+    for (Object[] row : repository.countByTag()) {
+      counts.put((String) row[0], ((Number) row[1]).longValue());
+    }
+    counts.forEach((tag, count) -> ranking.add(new TagCount(tag, count)));
+    // Une écriture validée pendant la lecture serait comptée puis ajustée : relire la prochaine
+    // fois, ce résultat ne sert qu'à l'appel en cours.
+    loaded = quiet && committing.get() == 0 && written.get() == seen;
+  }
+
+  private synchronized void invalidate() {
+    loaded = false;
+  }
+
+  private synchronized void adjust(List<String> removed, List<String> added) {
+    if (!loaded) {
+      return;
+    }
+    removed.forEach(tag -> add(tag, -1));
+    added.forEach(tag -> add(tag, 1));
+  }
+
+  private void add(String tag, long delta) {
+    long before = counts.getOrDefault(tag, 0L);
+    long after = Math.max(0, before + delta);
+    ranking.remove(new TagCount(tag, before));
+    if (after == 0) {
+      counts.remove(tag);
+    } else {
+      counts.put(tag, after);
+      ranking.add(new TagCount(tag, after));
+    }
+  }
+
+  /** {@code onCommit} une fois la transaction courante validée, tout de suite hors transaction. */
+  private void afterWrite(Runnable onCommit) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      written.incrementAndGet();
+      onCommit.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          private boolean counted;
+
+          @Override
+          public void beforeCommit(boolean readOnly) {
+            committing.incrementAndGet();
+            counted = true;
+          }
+
+          @Override
+          public void afterCompletion(int status) {
+            try {
+              if (status == STATUS_COMMITTED) {
+                onCommit.run();
+              }
+            } finally {
+              written.incrementAndGet();
+              if (counted) {
+                committing.decrementAndGet();
+              }
+            }
+          }
+        });
+  }
+}
@@ -1,10 +1,35 @@
 package com.location.server.service;
 
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
 public interface MailGateway {
   record Mail(String to, String subject, String body, byte[] pdfAttachment, String filename) {}
 
   void send(Mail mail);
 
+  /** Envoie un lot ; renvoie les échecs indexés par position dans {@code mails}. */
+  default Map<Integer, Exception> sendAll(List<Mail> mails) {
+    Map<Integer, Exception> failures = new HashMap<>();
+    for (int i = 0; i < mails.size(); i++) {
+      try {
+        send(mails.get(i));
+      } catch (RuntimeException ex) {
+        failures.put(i, ex);
+      }
+    }
+    return failures;
+  }
+
   class DevMailGateway implements MailGateway {
     @Override
     public void send(Mail mail) {
@@ -13,4 +38,96 @@ public interface MailGateway {
           "[DEV MAIL] to=" + mail.to() + " subject=" + mail.subject() + " attachment=" + attachment);
     }
   }
+
+  /** Chronomètre les envois d'une autre passerelle ({@code mail.send}, {@code mail.batch}). */
+  class TimedMailGateway implements MailGateway {
+    private final MailGateway delegate;
+    private final ServerMetrics metrics;
+
+    public TimedMailGateway(MailGateway delegate, ServerMetrics metrics) {
+      this.delegate = delegate;
+      this.metrics = metrics;
+    }
+
+    @Override
+    public void send(Mail mail) {
+      metrics.time("mail.send", () -> delegate.send(mail));
+    }
+
+    @Override
+    public Map<Integer, Exception> sendAll(List<Mail> mails) {
+      return metrics.time("mail.batch", () -> delegate.sendAll(mails));
+    }
+  }
+
+  /** Envoi SMTP : un lot réutilise une seule connexion au serveur. */
+  class SmtpMailGateway implements MailGateway {
+    private final JavaMailSender mailSender;
+    private final String from;
+
+    public SmtpMailGateway(JavaMailSender mailSender, String from) {
+      this.mailSender = mailSender;
+      this.from = from;
+    }
+
+    @Override
+    public void send(Mail mail) {
+      mailSender.send(toMessage(mail));
+    }
+
+    @Override
+    public Map<Integer, Exception> sendAll(List<Mail> mails) {
+      Map<Integer, Exception> failures = new HashMap<>();
+      Map<MimeMessage, Integer> positions = new LinkedHashMap<>();
+      for (int i = 0; i < mails.size(); i++) {
+        try {
+          positions.put(toMessage(mails.get(i)), i);
+        } catch (RuntimeException ex) {
+          failures.put(i, ex);
+        }
+      }
+      if (positions.isEmpty()) {
+        return failures;
+      }
+      try {
+        mailSender.send(positions.keySet().toArray(MimeMessage[]::new));
+      } catch (MailSendException ex) {
+        if (ex.getFailedMessages().isEmpty()) {
+          positions.values().forEach(i -> failures.put(i, ex));
+        }
+        ex.getFailedMessages()
+            .forEach(
+                (message, error) -> {
+                  Integer i = positions.get(message);
+                  if (i != null) {
+                    failures.put(i, error);
+                  }
+                });
+      } catch (MailException ex) {
+        positions.values().forEach(i -> failures.put(i, ex));
+      }
+      return failures;
+    }
+
+    private MimeMessage toMessage(Mail mail) {
+      try {
+        MimeMessage message = mailSender.createMimeMessage();
+        boolean multipart = mail.pdfAttachment() != null;
+        MimeMessageHelper helper = new MimeMessageHelper(message, multipart, "UTF-8");
+        if (from != null && !from.isBlank()) {
+          helper.setFrom(from);
+        }
+        helper.setTo(mail.to());
+        helper.setSubject(mail.subject() == null ? "" : mail.subject());
+        helper.setText(mail.body() == null ? "" : mail.body());
+        if (multipart) {
+          String filename = mail.filename() == null ? "document.pdf" : mail.filename();
+          helper.addAttachment(filename, new ByteArrayResource(mail.pdfAttachment()), "application/pdf");
+        }
+        return message;
+      } catch (MessagingException ex) {
+        throw new IllegalArgumentException("Mail invalide: " + ex.getMessage(), ex);
+      }
+    }
+  }
 }
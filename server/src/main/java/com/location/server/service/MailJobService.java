@@ -0,0 +1,334 @@
+package com.location.server.service;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Envois de mails en masse en tâche de fond : chargement des entités par lots, rendu (PDF) en
+ * parallèle sur un pool borné, envoi du lot via {@link MailGateway#sendAll}. Chaque job conserve
+ * son avancement et ses échecs par élément, et peut être relancé sur les seuls échecs. Un job
+ * terminé est oublié après {@code app.mail.jobs.retention-minutes}, et au plus {@code MAX_JOBS}
+ * jobs sont gardés quel que soit leur état (les plus anciens sortent en premier).
+ */
+@Service
+public class MailJobService {
+  public enum State {
+    QUEUED,
+    RUNNING,
+    DONE
+  }
+
+  public enum ItemStatus {
+    PENDING,
+    SENT,
+    SKIPPED,
+    FAILED
+  }
+
+  public record ItemResult(String id, ItemStatus status, String error) {}
+
+  public record JobView(
+      String id,
+      String kind,
+      String agencyId,
+      State state,
+      int total,
+      int sent,
+      int skipped,
+      int failed,
+      Instant createdAt,
+      Instant finishedAt,
+      List<ItemResult> failures) {}
+
+  static final int CHUNK_SIZE = 25;
+  private static final int MAX_JOBS = 200;
+
+  private final MailGateway mailGateway;
+  private final TransactionTemplate readOnly;
+  private final Duration retention;
+  private final Clock clock;
+  private final ExecutorService dispatcher;
+  private final ThreadPoolExecutor renderPool;
+  private final Map<String, Job<?>> jobs =
+      new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Job<?>> eldest) {
+          return size() > MAX_JOBS;
+        }
+      };
+
+  @Autowired
+  public MailJobService(
+      MailGateway mailGateway,
+      PlatformTransactionManager transactionManager,
+      @Value("${app.mail.jobs.render-threads:0}") int renderThreads,
+      @Value("${app.mail.jobs.retention-minutes:60}") long retentionMinutes) {
+    this(
+        mailGateway,
+        transactionManager,
+        renderThreads,
+        Duration.ofMinutes(retentionMinutes),
+        Clock.systemUTC());
+  }
+
+  MailJobService(
+      MailGateway mailGateway,
+      PlatformTransactionManager transactionManager,
+      int renderThreads,
+      Duration retention,
+      Clock clock) {
+    this.mailGateway = mailGateway;
+    this.retention = retention;
+    this.clock = clock;
+    this.readOnly = new TransactionTemplate(transactionManager);
+    this.readOnly.setReadOnly(true);
+    int threads =
+        renderThreads > 0 ? renderThreads : Math.max(2, Runtime.getRuntime().availableProcessors());
+    AtomicInteger seq = new AtomicInteger();
+    this.renderPool =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            60,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(CHUNK_SIZE * 2),
+            r -> daemon(r, "mail-render-" + seq.incrementAndGet()),
+            new ThreadPoolExecutor.CallerRunsPolicy());
+    this.renderPool.allowCoreThreadTimeOut(true);
+    this.dispatcher = Executors.newSingleThreadExecutor(r -> daemon(r, "mail-jobs"));
+  }
+
+  /**
+   * @param loader charge un lot d'identifiants (transaction en lecture seule) ; un identifiant
+   *     absent du résultat est marqué en échec
+   * @param renderer construit le mail d'une entité ; {@code null} si l'élément est à ignorer
+   *     (pas de destinataire)
+   */
+  public <T> String submit(
+      String kind,
+      String agencyId,
+      List<String> ids,
+      Function<List<String>, Map<String, T>> loader,
+      Function<T, MailGateway.Mail> renderer) {
+    Job<T> job =
+        new Job<>(
+            UUID.randomUUID().toString(), kind, agencyId, loader, renderer, Instant.now(clock));
+    List<String> distinct = ids.stream().distinct().toList();
+    distinct.forEach(id -> job.items.put(id, new ItemResult(id, ItemStatus.PENDING, null)));
+    synchronized (jobs) {
+      Instant horizon = Instant.now(clock).minus(retention);
+      jobs.values().removeIf(existing -> existing.finishedBefore(horizon));
+      jobs.put(job.id, job);
+    }
+    dispatcher.execute(() -> run(job, distinct));
+    return job.id;
+  }
+
+  public Optional<JobView> find(String id) {
+    return Optional.ofNullable(job(id)).map(Job::view);
+  }
+
+  /** Relance les éléments en échec d'un job terminé. */
+  public Optional<JobView> retry(String id) {
+    Job<?> job = job(id);
+    if (job == null) {
+      return Optional.empty();
+    }
+    List<String> failed;
+    synchronized (job) {
+      if (job.state != State.DONE) {
+        throw new IllegalStateException("Job en cours");
+      }
+      failed =
+          job.items.values().stream()
+              .filter(item -> item.status() == ItemStatus.FAILED)
+              .map(ItemResult::id)
+              .toList();
+      failed.forEach(itemId -> job.set(itemId, ItemStatus.PENDING, null));
+      job.state = State.QUEUED;
+      job.finishedAt = null;
+    }
+    Job<?> queued = job;
+    dispatcher.execute(() -> run(queued, failed));
+    return Optional.of(job.view());
+  }
+
+  private <T> void run(Job<T> job, List<String> ids) {
+    synchronized (job) {
+      job.state = State.RUNNING;
+    }
+    for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+      List<String> chunk = ids.subList(from, Math.min(ids.size(), from + CHUNK_SIZE));
+      try {
+        runChunk(job, chunk);
+      } catch (RuntimeException ex) {
+        chunk.forEach(id -> job.fail(id, ex));
+      }
+    }
+    synchronized (job) {
+      job.state = State.DONE;
+      job.finishedAt = Instant.now(clock);
+    }
+  }
+
+  /** Le job {@code id}, sauf s'il est terminé depuis plus que la durée de rétention. */
+  private Job<?> job(String id) {
+    synchronized (jobs) {
+      Job<?> job = jobs.get(id);
+      if (job != null && job.finishedBefore(Instant.now(clock).minus(retention))) {
+        jobs.remove(id);
+        return null;
+      }
+      return job;
+    }
+  }
+
+  private <T> void runChunk(Job<T> job, List<String> chunk) {
+    Map<String, T> loaded = readOnly.execute(status -> job.loader.apply(chunk));
+    List<String> renderedIds = new ArrayList<>();
+    List<Future<MailGateway.Mail>> futures = new ArrayList<>();
+    for (String id : chunk) {
+      T entity = loaded == null ? null : loaded.get(id);
+      if (entity == null) {
+        job.set(id, ItemStatus.FAILED, "Introuvable");
+        continue;
+      }
+      renderedIds.add(id);
+      futures.add(renderPool.submit(() -> job.renderer.apply(entity)));
+    }
+    List<String> mailIds = new ArrayList<>();
+    List<MailGateway.Mail> mails = new ArrayList<>();
+    for (int i = 0; i < futures.size(); i++) {
+      String id = renderedIds.get(i);
+      try {
+        MailGateway.Mail mail = futures.get(i).get();
+        if (mail == null) {
+          job.set(id, ItemStatus.SKIPPED, null);
+        } else {
+          mailIds.add(id);
+          mails.add(mail);
+        }
+      } catch (ExecutionException ex) {
+        job.fail(id, ex.getCause());
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        job.fail(id, ex);
+      }
+    }
+    if (mails.isEmpty()) {
+      return;
+    }
+    Map<Integer, Exception> failures = mailGateway.sendAll(mails);
+    for (int i = 0; i < mailIds.size(); i++) {
+      Exception failure = failures.get(i);
+      if (failure == null) {
+        job.set(mailIds.get(i), ItemStatus.SENT, null);
+      } else {
+        job.fail(mailIds.get(i), failure);
+      }
+    }
+  }
+
+  @PreDestroy
+  void shutdown() {
+    dispatcher.shutdownNow();
+    renderPool.shutdownNow();
+  }
+
+  private static Thread daemon(Runnable runnable, String name) {
+    Thread thread = new Thread(runnable, name);
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  private static final class Job<T> {
+    final String id;
+    final String kind;
+    final String agencyId;
+    final Function<List<String>, Map<String, T>> loader;
+    final Function<T, MailGateway.Mail> renderer;
+    final Map<String, ItemResult> items = new LinkedHashMap<>();
+    final Instant createdAt;
+    State state = State.QUEUED;
+    Instant finishedAt;
+
+    Job(
+        String id,
+        String kind,
+        String agencyId,
+        Function<List<String>, Map<String, T>> loader,
+        Function<T, MailGateway.Mail> renderer,
+        Instant createdAt) {
+      this.id = id;
+      this.kind = kind;
+      this.agencyId = agencyId;
+      this.loader = loader;
+      this.renderer = renderer;
+      this.createdAt = createdAt;
+    }
+
+    synchronized boolean finishedBefore(Instant horizon) {
+      return state == State.DONE && finishedAt.isBefore(horizon);
+    }
+
+    synchronized void set(String itemId, ItemStatus status, String error) {
+      items.put(itemId, new ItemResult(itemId, status, error));
+    }
+
+    void fail(String itemId, Throwable error) {
+      String message = error.getMessage();
+      set(
+          itemId,
+          ItemStatus.FAILED,
+          message == null || message.isBlank() ? error.getClass().getSimpleName() : message);
+    }
+
+    synchronized JobView view() {
+      int sent = 0;
+      int skipped = 0;
+      List<ItemResult> failures = new ArrayList<>();
+      for (ItemResult item : items.values()) {
+        switch (item.status()) {
+          case SENT -> sent++;
+          case SKIPPED -> skipped++;
+          case FAILED -> failures.add(item);
+          default -> {}
+        }
+      }
+      return new JobView(
+          id,
+          kind,
+          agencyId,
+          state,
+          items.size(),
+          sent,
+          skipped,
+          failures.size(),
+          createdAt,
+          finishedAt,
+          List.copyOf(failures));
+    }
+  }
+}
@@ -13,12 +13,14 @@ import org.springframework.stereotype.Service;
 @Service
 public class MailService {
   private final JavaMailSender mailSender;
+  private final ServerMetrics metrics;
 
   @Value("${app.mail.from:}")
   private String defaultFrom;
 
-  public MailService(JavaMailSender mailSender) {
+  public MailService(JavaMailSender mailSender, ServerMetrics metrics) {
     this.mailSender = mailSender;
+    this.metrics = metrics;
   }
 
   public void send(
@@ -72,6 +74,6 @@ public class MailService {
       }
     }
 
-    mailSender.send(message);
+    metrics.time("mail.send", () -> mailSender.send(message));
   }
 }
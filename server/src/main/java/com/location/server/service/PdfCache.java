@@ -0,0 +1,173 @@
+package com.location.server.service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache des PDF générés, borné en octets (LRU), avec un second niveau optionnel sur disque
+ * ({@code app.pdf.cache.dir}). Une entrée est indexée par type + identifiant et n'est servie que
+ * si l'empreinte du contenu rendu n'a pas changé.
+ */
+@Component
+public class PdfCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(PdfCache.class);
+
+  private record Entry(String fingerprint, byte[] pdf) {}
+
+  private final long maxBytes;
+  private final Path directory;
+  private final Map<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+  private long weight;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  public PdfCache(
+      @Value("${app.pdf.cache.max-bytes:33554432}") long maxBytes,
+      @Value("${app.pdf.cache.dir:}") String directory) {
+    this.maxBytes = maxBytes;
+    this.directory = directory == null || directory.isBlank() ? null : Path.of(directory);
+    if (this.directory != null) {
+      try {
+        Files.createDirectories(this.directory);
+      } catch (IOException ex) {
+        throw new IllegalStateException("Répertoire de cache PDF inaccessible: " + directory, ex);
+      }
+    }
+  }
+
+  public byte[] get(String kind, String id, String fingerprint, Supplier<byte[]> render) {
+    String key = kind + "-" + id;
+    synchronized (this) {
+      Entry entry = entries.get(key);
+      if (entry != null && entry.fingerprint().equals(fingerprint)) {
+        hits.incrementAndGet();
+        return entry.pdf();
+      }
+    }
+    byte[] pdf = readDisk(key, fingerprint);
+    if (pdf != null) {
+      hits.incrementAndGet();
+    } else {
+      misses.incrementAndGet();
+      pdf = render.get();
+      writeDisk(key, fingerprint, pdf);
+    }
+    put(key, new Entry(fingerprint, pdf));
+    return pdf;
+  }
+
+  public void invalidate(String kind, String id) {
+    String key = kind + "-" + id;
+    synchronized (this) {
+      Entry removed = entries.remove(key);
+      if (removed != null) {
+        weight -= removed.pdf().length;
+      }
+    }
+    deleteDisk(key);
+  }
+
+  public synchronized void clear() {
+    entries.clear();
+    weight = 0;
+  }
+
+  public long hits() {
+    return hits.get();
+  }
+
+  public long misses() {
+    return misses.get();
+  }
+
+  /** Empreinte SHA-256 des valeurs qui entrent dans le rendu. */
+  public static String fingerprint(Object... parts) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      for (Object part : parts) {
+        if (part instanceof byte[] bytes) {
+          digest.update(bytes);
+        } else {
+          digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+        }
+        digest.update((byte) 0);
+      }
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private synchronized void put(String key, Entry entry) {
+    if (entry.pdf().length > maxBytes) {
+      return;
+    }
+    Entry previous = entries.put(key, entry);
+    weight += entry.pdf().length - (previous == null ? 0 : previous.pdf().length);
+    Iterator<Entry> eldest = entries.values().iterator();
+    while (weight > maxBytes && eldest.hasNext()) {
+      weight -= eldest.next().pdf().length;
+      eldest.remove();
+    }
+  }
+
+  private byte[] readDisk(String key, String fingerprint) {
+    if (directory == null) {
+      return null;
+    }
+    Path file = directory.resolve(key + "." + fingerprint + ".pdf");
+    try {
+      return Files.exists(file) ? Files.readAllBytes(file) : null;
+    } catch (IOException ex) {
+      LOGGER.warn("Lecture du cache PDF impossible: {}", file, ex);
+      return null;
+    }
+  }
+
+  private void writeDisk(String key, String fingerprint, byte[] pdf) {
+    if (directory == null) {
+      return;
+    }
+    deleteDisk(key);
+    try {
+      Path tmp = Files.createTempFile(directory, key, ".tmp");
+      Files.write(tmp, pdf);
+      Files.move(
+          tmp,
+          directory.resolve(key + "." + fingerprint + ".pdf"),
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException ex) {
+      LOGGER.warn("Écriture du cache PDF impossible: {}", key, ex);
+    }
+  }
+
+  private void deleteDisk(String key) {
+    if (directory == null) {
+      return;
+    }
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, key + ".*.pdf")) {
+      for (Path file : files) {
+        Files.deleteIfExists(file);
+      }
+    } catch (IOException ex) {
+      LOGGER.warn("Purge du cache PDF impossible: {}", key, ex);
+    }
+  }
+}
@@ -23,7 +23,33 @@ public class PdfService {
   private static final DateTimeFormatter DATE_TIME_FORMATTER =
       DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm", Locale.FRENCH);
 
+  private final PdfCache pdfCache;
+  private final ServerMetrics metrics;
+
+  public PdfService(PdfCache pdfCache, ServerMetrics metrics) {
+    this.pdfCache = pdfCache;
+    this.metrics = metrics;
+  }
+
   public byte[] buildInterventionPdf(Intervention intervention) {
+    return pdfCache.get(
+        "intervention",
+        intervention.getId(),
+        fingerprint(intervention),
+        () -> metrics.time("pdf.intervention", () -> render(intervention)));
+  }
+
+  private static String fingerprint(Intervention intervention) {
+    return PdfCache.fingerprint(
+        intervention.getTitle(),
+        intervention.getAgency().getName(),
+        buildClient(intervention.getClient()),
+        buildResource(intervention.getResource()),
+        intervention.getStart().format(DATE_TIME_FORMATTER),
+        intervention.getEnd().format(DATE_TIME_FORMATTER));
+  }
+
+  private byte[] render(Intervention intervention) {
     try {
       ByteArrayOutputStream output = new ByteArrayOutputStream();
       Document document = new Document(PageSize.A4, 36, 36, 36, 36);
@@ -0,0 +1,131 @@
+package com.location.server.service;
+
+import com.location.server.domain.Agency;
+import com.location.server.domain.Client;
+import com.location.server.domain.Resource;
+import com.location.server.domain.ResourceType;
+import com.location.server.repo.AgencyRepository;
+import com.location.server.repo.ClientRepository;
+import com.location.server.repo.InterventionRepository;
+import com.location.server.repo.InterventionRow;
+import com.location.server.repo.ResourceRepository;
+import com.location.server.repo.ResourceTypeRepository;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Tout ce qu'affiche une vue du planning, lu en une transaction et en requêtes groupées : une par
+ * type de données, plus une par tranche pour les tags. {@code version} est la version du flux de
+ * changements lue avant les données : tout événement de version inférieure ou égale y est déjà.
+ */
+@Service
+public class PlanningSnapshotService {
+
+  public record Snapshot(
+      long version,
+      List<Agency> agencies,
+      List<ResourceType> resourceTypes,
+      List<Resource> resources,
+      List<Client> clients,
+      List<InterventionRow> interventions,
+      List<UnavailabilityQueryService.Span> unavailabilities,
+      Map<String, List<String>> tags) {}
+
+  private final AgencyRepository agencyRepository;
+  private final ResourceTypeRepository resourceTypeRepository;
+  private final ResourceRepository resourceRepository;
+  private final ClientRepository clientRepository;
+  private final InterventionRepository interventionRepository;
+  private final UnavailabilityQueryService unavailabilityQueryService;
+  private final InterventionTagService tagService;
+  private final ChangeFeed changeFeed;
+  private final ServerMetrics metrics;
+  private final Duration maxRange;
+
+  public PlanningSnapshotService(
+      AgencyRepository agencyRepository,
+      ResourceTypeRepository resourceTypeRepository,
+      ResourceRepository resourceRepository,
+      ClientRepository clientRepository,
+      InterventionRepository interventionRepository,
+      UnavailabilityQueryService unavailabilityQueryService,
+      InterventionTagService tagService,
+      ChangeFeed changeFeed,
+      ServerMetrics metrics,
+      @Value("${app.planning.snapshot.max-days:92}") long maxDays) {
+    this.agencyRepository = agencyRepository;
+    this.resourceTypeRepository = resourceTypeRepository;
+    this.resourceRepository = resourceRepository;
+    this.clientRepository = clientRepository;
+    this.interventionRepository = interventionRepository;
+    this.unavailabilityQueryService = unavailabilityQueryService;
+    this.tagService = tagService;
+    this.changeFeed = changeFeed;
+    this.metrics = metrics;
+    this.maxRange = Duration.ofDays(Math.max(1, maxDays));
+  }
+
+  /**
+   * Vue de {@code agencyId} (toutes agences si nul) sur {@code [from, to[}, fenêtre obligatoire et
+   * d'au plus {@code app.planning.snapshot.max-days} jours. Avec {@code tags}, seules les
+   * ressources portant tous ces tags, et leurs indisponibilités, sont retenues.
+   */
+  @Transactional(readOnly = true)
+  public Snapshot load(String agencyId, String tags, OffsetDateTime from, OffsetDateTime to) {
+    if (from == null || to == null) {
+      throw new IllegalArgumentException("La période (from, to) est obligatoire");
+    }
+    if (!from.isBefore(to)) {
+      throw new IllegalArgumentException("Le début doit précéder la fin");
+    }
+    if (Duration.between(from, to).compareTo(maxRange) > 0) {
+      throw new IllegalArgumentException("Période limitée à " + maxRange.toDays() + " jours");
+    }
+    return metrics.time("planning.snapshot", () -> read(agencyId, tags, from, to));
+  }
+
+  private Snapshot read(String agencyId, String tagsCsv, OffsetDateTime from, OffsetDateTime to) {
+    long version = changeFeed.currentVersion();
+    List<ResourceType> types =
+        resourceTypeRepository.findAll().stream()
+            .sorted(Comparator.comparing(ResourceType::getName, String.CASE_INSENSITIVE_ORDER))
+            .toList();
+    Set<String> resourceTags = Resource.normalizeTags(tagsCsv);
+    List<Resource> resources =
+        resourceTags.isEmpty()
+            ? resourceRepository.findForPlanning(agencyId)
+            : resourceRepository.findForPlanningByAllTags(
+                agencyId, resourceTags, resourceTags.size());
+    List<InterventionRow> interventions =
+        interventionRepository.searchAgencyRows(from, to, null, agencyId);
+    List<UnavailabilityQueryService.Span> unavailabilities =
+        unavailabilityQueryService.searchResources(
+            resources.stream().map(Resource::getId).toList(), from, to);
+    Map<String, List<String>> tags = new LinkedHashMap<>();
+    tagService
+        .tagsOf(interventions.stream().map(InterventionRow::id).toList())
+        .forEach(
+            (id, values) -> {
+              if (!values.isEmpty()) {
+                tags.put(id, values);
+              }
+            });
+    return new Snapshot(
+        version,
+        agencyRepository.findAll(),
+        types,
+        resources,
+        clientRepository.findAllForListing(),
+        interventions,
+        unavailabilities,
+        tags);
+  }
+}
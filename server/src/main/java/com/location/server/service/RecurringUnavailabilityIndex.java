@@ -0,0 +1,285 @@
+package com.location.server.service;
+
+import com.location.server.domain.Agency;
+import com.location.server.domain.RecurringUnavailability;
+import com.location.server.repo.RecurringUnavailabilityRepository;
+import com.location.server.service.UnavailabilityQueryService.Span;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Règles d'indisponibilité récurrentes rangées par ressource puis par jour de semaine, dépliées
+ * semaine par semaine dans le fuseau de l'agence (changements d'heure compris). Les occurrences
+ * d'une semaine sont calculées une fois puis gardées en cache jusqu'à la modification d'une règle
+ * de la ressource.
+ */
+@Component
+public class RecurringUnavailabilityIndex {
+  private static final int WEEKS_PER_RESOURCE = 128;
+
+  record Rule(
+      String id, String resourceId, DayOfWeek day, LocalTime start, LocalTime end, String reason) {
+    static Rule of(RecurringUnavailability recurring) {
+      return new Rule(
+          recurring.getId(),
+          recurring.getResource().getId(),
+          recurring.getDayOfWeek(),
+          recurring.getStartTime(),
+          recurring.getEndTime(),
+          recurring.getReason());
+    }
+  }
+
+  private final RecurringUnavailabilityRepository repository;
+  private final ZoneId defaultZone;
+  private final Map<String, ResourceRules> byResource = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+  private volatile boolean loaded;
+
+  public RecurringUnavailabilityIndex(
+      RecurringUnavailabilityRepository repository,
+      @Value("${app.default-zone:UTC}") String defaultZone) {
+    this.repository = repository;
+    this.defaultZone = ZoneId.of(defaultZone);
+  }
+
+  /**
+   * Occurrences chevauchant [from, to) dans l'ordre chronologique, toutes ressources confondues
+   * quand {@code resourceId} est nul (jour par jour, comme le dépliage d'origine). Le flux est
+   * paresseux : seules les semaines effectivement parcourues sont dépliées.
+   */
+  public Stream<Span> occurrences(String resourceId, OffsetDateTime from, OffsetDateTime to) {
+    ensureLoaded();
+    if (resourceId != null) {
+      ResourceRules rules = byResource.get(resourceId);
+      return rules == null ? Stream.empty() : rules.occurrences(from, to);
+    }
+    return merged(List.copyOf(byResource.values()), from, to);
+  }
+
+  /** Comme {@link #occurrences(String, OffsetDateTime, OffsetDateTime)}, pour ces ressources. */
+  public Stream<Span> occurrences(
+      Collection<String> resourceIds, OffsetDateTime from, OffsetDateTime to) {
+    ensureLoaded();
+    List<ResourceRules> selected = new ArrayList<>();
+    for (String resourceId : resourceIds) {
+      ResourceRules rules = byResource.get(resourceId);
+      if (rules != null) {
+        selected.add(rules);
+      }
+    }
+    return merged(selected, from, to);
+  }
+
+  private static Stream<Span> merged(
+      List<ResourceRules> selected, OffsetDateTime from, OffsetDateTime to) {
+    List<Iterator<Span>> sources = new ArrayList<>();
+    for (ResourceRules rules : selected) {
+      sources.add(rules.occurrences(from, to).iterator());
+    }
+    return StreamSupport.stream(
+        Spliterators.spliteratorUnknownSize(new Merged(sources), Spliterator.ORDERED), false);
+  }
+
+  public boolean overlaps(String resourceId, OffsetDateTime from, OffsetDateTime to) {
+    return occurrences(resourceId, from, to).findAny().isPresent();
+  }
+
+  /** Ajoute ou remplace une règle, et purge les semaines déjà dépliées de sa ressource. */
+  public void ruleSaved(RecurringUnavailability recurring) {
+    Rule rule = Rule.of(recurring);
+    ZoneId zone = zoneOf(recurring.getResource().getAgency());
+    Runnable apply =
+        () -> {
+          if (!loaded) {
+            return;
+          }
+          byResource.values().forEach(rules -> rules.without(rule.id()));
+          byResource.compute(
+              rule.resourceId(),
+              (id, rules) -> {
+                List<Rule> list = rules == null ? new ArrayList<>() : rules.rules();
+                list.add(rule);
+                return new ResourceRules(zone, list);
+              });
+        };
+    apply.run();
+    ConflictIndex.afterTransaction(apply, this::clear);
+  }
+
+  /**
+   * Le fuseau d'une agence change : l'index est vidé une fois la transaction validée (tout de
+   * suite hors transaction), pour qu'aucune lecture concurrente ne le recharge avec l'ancien.
+   */
+  public void zoneChanged() {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      clear();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            clear();
+          }
+        });
+  }
+
+  public void clear() {
+    generation.incrementAndGet();
+    loaded = false;
+    byResource.clear();
+  }
+
+  private void ensureLoaded() {
+    if (loaded) {
+      return;
+    }
+    synchronized (this) {
+      if (loaded) {
+        return;
+      }
+      long seen = generation.get();
+      Map<String, List<Rule>> rules = new LinkedHashMap<>();
+      Map<String, ZoneId> zones = new LinkedHashMap<>();
+      for (RecurringUnavailability recurring : repository.search(null)) {
+        Rule rule = Rule.of(recurring);
+        rules.computeIfAbsent(rule.resourceId(), id -> new ArrayList<>()).add(rule);
+        zones.putIfAbsent(rule.resourceId(), zoneOf(recurring.getResource().getAgency()));
+      }
+      rules.forEach((id, list) -> byResource.put(id, new ResourceRules(zones.get(id), list)));
+      // Un vidage pendant le chargement (fuseau modifié) impose de relire au prochain appel.
+      loaded = seen == generation.get();
+      ConflictIndex.afterTransaction(() -> {}, this::clear);
+    }
+  }
+
+  /** Fusion paresseuse de flux chronologiques, par début d'occurrence. */
+  private static final class Merged implements Iterator<Span> {
+    private record Head(Span span, Iterator<Span> rest) {}
+
+    private final PriorityQueue<Head> heads =
+        new PriorityQueue<>(Comparator.comparing((Head head) -> head.span().start()));
+
+    Merged(List<Iterator<Span>> sources) {
+      sources.forEach(this::advance);
+    }
+
+    @Override
+    public boolean hasNext() {
+      return !heads.isEmpty();
+    }
+
+    @Override
+    public Span next() {
+      Head head = heads.poll();
+      if (head == null) {
+        throw new NoSuchElementException();
+      }
+      advance(head.rest());
+      return head.span();
+    }
+
+    private void advance(Iterator<Span> source) {
+      if (source.hasNext()) {
+        heads.add(new Head(source.next(), source));
+      }
+    }
+  }
+
+  private ZoneId zoneOf(Agency agency) {
+    String zone = agency == null ? null : agency.getTimeZone();
+    return zone == null || zone.isBlank() ? defaultZone : ZoneId.of(zone);
+  }
+
+  /** Règles d'une ressource et cache LRU de leurs occurrences, par lundi de semaine locale. */
+  private static final class ResourceRules {
+    private final ZoneId zone;
+    private final Map<DayOfWeek, List<Rule>> byDay = new EnumMap<>(DayOfWeek.class);
+    private final Map<LocalDate, List<Span>> weeks =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<LocalDate, List<Span>> eldest) {
+            return size() > WEEKS_PER_RESOURCE;
+          }
+        };
+
+    ResourceRules(ZoneId zone, List<Rule> rules) {
+      this.zone = zone;
+      for (Rule rule : rules) {
+        byDay.computeIfAbsent(rule.day(), d -> new ArrayList<>()).add(rule);
+      }
+      byDay.values().forEach(list -> list.sort(Comparator.comparing(Rule::start)));
+    }
+
+    synchronized List<Rule> rules() {
+      List<Rule> all = new ArrayList<>();
+      byDay.values().forEach(all::addAll);
+      return all;
+    }
+
+    synchronized void without(String ruleId) {
+      if (byDay.values().stream().anyMatch(list -> list.removeIf(r -> r.id().equals(ruleId)))) {
+        weeks.clear();
+      }
+    }
+
+    Stream<Span> occurrences(OffsetDateTime from, OffsetDateTime to) {
+      LocalDate first =
+          from.atZoneSameInstant(zone)
+              .toLocalDate()
+              .with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+      LocalDate last = to.atZoneSameInstant(zone).toLocalDate();
+      return Stream.iterate(first, monday -> !monday.isAfter(last), monday -> monday.plusWeeks(1))
+          .flatMap(monday -> week(monday).stream())
+          .filter(span -> span.end().isAfter(from) && span.start().isBefore(to));
+    }
+
+    private synchronized List<Span> week(LocalDate monday) {
+      return weeks.computeIfAbsent(monday, this::expand);
+    }
+
+    private List<Span> expand(LocalDate monday) {
+      List<Span> spans = new ArrayList<>();
+      for (int offset = 0; offset < 7; offset++) {
+        LocalDate day = monday.plusDays(offset);
+        for (Rule rule : byDay.getOrDefault(day.getDayOfWeek(), List.of())) {
+          spans.add(
+              new Span(
+                  "ru:" + rule.id() + ":" + day,
+                  rule.resourceId(),
+                  ZonedDateTime.of(day, rule.start(), zone).toOffsetDateTime(),
+                  ZonedDateTime.of(day, rule.end(), zone).toOffsetDateTime(),
+                  rule.reason(),
+                  true));
+        }
+      }
+      return List.copyOf(spans);
+    }
+  }
+}
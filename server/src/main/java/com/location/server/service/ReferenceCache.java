@@ -0,0 +1,100 @@
+package com.location.server.service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache applicatif des données de référence (agences connues, ressources, types, modèles),
+ * découpé en partitions par cache et par agence. Une entrée expire après {@code
+ * app.cache.reference.ttl-seconds} ; toute écriture validée sur l'entité source vide la partition
+ * concernée ({@link ReferenceCacheInvalidator}). Chaque lecture est comptée (hit/miss) dans {@link
+ * ServerMetrics}.
+ */
+@Component
+public class ReferenceCache {
+  public static final String AGENCIES = "agencies";
+  public static final String RESOURCES = "resources";
+  public static final String RESOURCE_TYPES = "resource-types";
+  public static final String TEMPLATES = "templates";
+
+  private record PartitionKey(String cache, String agencyId) {}
+
+  private record Entry(Object value, long expiresAt) {}
+
+  private final Map<PartitionKey, Map<String, Entry>> partitions = new ConcurrentHashMap<>();
+  private final long ttlNanos;
+  private final int maxEntries;
+  private final ServerMetrics metrics;
+  private final LongSupplier clock;
+
+  @Autowired
+  public ReferenceCache(
+      @Value("${app.cache.reference.ttl-seconds:300}") long ttlSeconds,
+      @Value("${app.cache.reference.max-entries:1000}") int maxEntries,
+      ServerMetrics metrics) {
+    this(Duration.ofSeconds(ttlSeconds), maxEntries, metrics, System::nanoTime);
+  }
+
+  ReferenceCache(Duration ttl, int maxEntries, ServerMetrics metrics, LongSupplier clock) {
+    this.ttlNanos = ttl.toNanos();
+    this.maxEntries = maxEntries;
+    this.metrics = metrics;
+    this.clock = clock;
+  }
+
+  /**
+   * Valeur de {@code key} dans la partition ({@code cache}, {@code agencyId}), chargée par {@code
+   * loader} si absente ou expirée. {@code agencyId} nul désigne la partition partagée. Une valeur
+   * nulle n'est pas conservée : le chargement suivant la relira.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T get(String cache, String agencyId, String key, Supplier<T> loader) {
+    Map<String, Entry> partition =
+        partitions.computeIfAbsent(
+            new PartitionKey(cache, agencyId), k -> new ConcurrentHashMap<>());
+    long now = clock.getAsLong();
+    Entry entry = partition.get(key);
+    if (entry != null && now - entry.expiresAt() < 0) {
+      metrics.countCache(cache, agencyId, true);
+      return (T) entry.value();
+    }
+    metrics.countCache(cache, agencyId, false);
+    T value = loader.get();
+    if (value != null) {
+      if (partition.size() >= maxEntries) {
+        partition.values().removeIf(e -> now - e.expiresAt() >= 0);
+      }
+      if (partition.size() < maxEntries) {
+        // Une partition vidée entre-temps n'est plus référencée : la valeur, peut-être déjà
+        // périmée, n'y est jamais relue.
+        partition.put(key, new Entry(value, now + ttlNanos));
+      }
+    }
+    return value;
+  }
+
+  /** Vide la partition ({@code cache}, {@code agencyId}). */
+  public void invalidate(String cache, String agencyId) {
+    partitions.remove(new PartitionKey(cache, agencyId));
+  }
+
+  /** Vide toutes les partitions de {@code cache}. */
+  public void invalidateAll(String cache) {
+    partitions.keySet().removeIf(k -> k.cache().equals(cache));
+  }
+
+  /** Vide toutes les partitions de {@code agencyId}, quel que soit le cache. */
+  public void invalidateAgency(String agencyId) {
+    partitions.keySet().removeIf(k -> agencyId != null && agencyId.equals(k.agencyId()));
+  }
+
+  public void clear() {
+    partitions.clear();
+  }
+}
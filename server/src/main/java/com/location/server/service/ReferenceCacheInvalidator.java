@@ -0,0 +1,99 @@
+package com.location.server.service;
+
+import com.location.server.domain.Agency;
+import com.location.server.domain.DocumentTemplate;
+import com.location.server.domain.EmailTemplate;
+import com.location.server.domain.Resource;
+import com.location.server.domain.ResourceType;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Vide les partitions de {@link ReferenceCache} après chaque insertion, modification ou
+ * suppression validée d'une entité de référence, quel que soit le chemin d'écriture (contrôleur,
+ * service, chargement des données de démo). Après validation seulement : une lecture concurrente
+ * ne peut pas remettre en cache l'état d'avant.
+ */
+@Component
+class ReferenceCacheInvalidator
+    implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+  private final EntityManagerFactory entityManagerFactory;
+  private final ReferenceCache cache;
+
+  ReferenceCacheInvalidator(EntityManagerFactory entityManagerFactory, ReferenceCache cache) {
+    this.entityManagerFactory = entityManagerFactory;
+    this.cache = cache;
+  }
+
+  @PostConstruct
+  void register() {
+    EventListenerRegistry registry =
+        entityManagerFactory
+            .unwrap(SessionFactoryImplementor.class)
+            .getServiceRegistry()
+            .requireService(EventListenerRegistry.class);
+    registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+    registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+    registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+  }
+
+  @Override
+  public void onPostInsert(PostInsertEvent event) {
+    changed(event.getEntity());
+  }
+
+  @Override
+  public void onPostUpdate(PostUpdateEvent event) {
+    changed(event.getEntity());
+  }
+
+  @Override
+  public void onPostDelete(PostDeleteEvent event) {
+    changed(event.getEntity());
+  }
+
+  @Override
+  public void onPostInsertCommitFailed(PostInsertEvent event) {}
+
+  @Override
+  public void onPostUpdateCommitFailed(PostUpdateEvent event) {}
+
+  @Override
+  public void onPostDeleteCommitFailed(PostDeleteEvent event) {}
+
+  @Override
+  public boolean requiresPostCommitHandling(EntityPersister persister) {
+    return true;
+  }
+
+  private void changed(Object entity) {
+    if (entity instanceof Agency agency) {
+      cache.invalidateAgency(agency.getId());
+      // Les ressources embarquent leur agence.
+      cache.invalidateAll(ReferenceCache.RESOURCES);
+    } else if (entity instanceof Resource) {
+      cache.invalidateAll(ReferenceCache.RESOURCES);
+    } else if (entity instanceof ResourceType) {
+      cache.invalidateAll(ReferenceCache.RESOURCE_TYPES);
+      cache.invalidateAll(ReferenceCache.RESOURCES);
+    } else if (entity instanceof EmailTemplate template) {
+      cache.invalidate(ReferenceCache.TEMPLATES, template.getAgency().getId());
+    } else if (entity instanceof DocumentTemplate template) {
+      cache.invalidate(ReferenceCache.TEMPLATES, template.getAgency().getId());
+    }
+  }
+}
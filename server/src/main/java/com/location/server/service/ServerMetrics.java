@@ -0,0 +1,71 @@
+package com.location.server.service;
+
+import com.location.server.api.AgencyContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mesures métier publiées dans le {@link MeterRegistry} de l'application (exposé sur {@code
+ * /actuator/prometheus}, à côté des mesures standard HTTP, Hikari et Hibernate) : le minuteur
+ * {@code location.operation} (opération métier, agence) et le compteur {@code
+ * location.cache.requests} (cache, agence, {@code hit}/{@code miss}) de {@link ReferenceCache}.
+ * L'agence est celle de la requête en cours, {@code none} hors requête.
+ */
+@Component
+public class ServerMetrics {
+  static final String OPERATION = "location.operation";
+  static final String CACHE = "location.cache.requests";
+
+  private final MeterRegistry registry;
+
+  public ServerMetrics(MeterRegistry registry) {
+    this.registry = registry;
+  }
+
+  public <T> T time(String operation, Supplier<T> action) {
+    long start = System.nanoTime();
+    try {
+      return action.get();
+    } finally {
+      recordOperation(operation, System.nanoTime() - start);
+    }
+  }
+
+  public void time(String operation, Runnable action) {
+    long start = System.nanoTime();
+    try {
+      action.run();
+    } finally {
+      recordOperation(operation, System.nanoTime() - start);
+    }
+  }
+
+  public void recordOperation(String operation, long nanos) {
+    recordOperation(operation, AgencyContext.get(), nanos);
+  }
+
+  /** Pour une opération terminée hors du thread de la requête (réponse écrite en flux). */
+  public void recordOperation(String operation, String agencyId, long nanos) {
+    Timer.builder(OPERATION)
+        .description("Durée des opérations métier (PDF, e-mail, numérotation...)")
+        .tag("operation", operation)
+        .tag("agency", agencyLabel(agencyId))
+        .register(registry)
+        .record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /** Une lecture du cache {@code cache} pour la partition {@code agencyId} (nulle : partagée). */
+  public void countCache(String cache, String agencyId, boolean hit) {
+    registry
+        .counter(
+            CACHE, "cache", cache, "agency", agencyLabel(agencyId), "result", hit ? "hit" : "miss")
+        .increment();
+  }
+
+  private static String agencyLabel(String agencyId) {
+    return agencyId == null || agencyId.isBlank() ? "none" : agencyId;
+  }
+}
@@ -24,14 +24,17 @@ public class TemplateService {
   private final EmailTemplateRepository emailTemplateRepository;
   private final AgencyRepository agencyRepository;
   private final DocumentTemplateRepository documentTemplateRepository;
+  private final ReferenceCache cache;
 
   public TemplateService(
       EmailTemplateRepository emailTemplateRepository,
       AgencyRepository agencyRepository,
-      DocumentTemplateRepository documentTemplateRepository) {
+      DocumentTemplateRepository documentTemplateRepository,
+      ReferenceCache cache) {
     this.emailTemplateRepository = emailTemplateRepository;
     this.agencyRepository = agencyRepository;
     this.documentTemplateRepository = documentTemplateRepository;
+    this.cache = cache;
   }
 
   public String renderSubject(String template, Intervention intervention) {
@@ -42,9 +45,14 @@ public class TemplateService {
     return render(template, intervention);
   }
 
+  /** Modèle d'e-mail de l'agence, servi par {@link ReferenceCache} (absence comprise). */
   public Optional<EmailTemplate> findDocumentEmailTemplate(
       String agencyId, CommercialDocument.DocType docType) {
-    return emailTemplateRepository.findByAgencyIdAndDocumentType(agencyId, docType);
+    return cache.get(
+        ReferenceCache.TEMPLATES,
+        agencyId,
+        "email:" + docType,
+        () -> emailTemplateRepository.findByAgencyIdAndDocumentType(agencyId, docType));
   }
 
   @Transactional
@@ -65,7 +73,11 @@ public class TemplateService {
 
   public Optional<DocumentTemplate> findDocumentTemplate(
       String agencyId, CommercialDocument.DocType docType) {
-    return documentTemplateRepository.findByAgencyIdAndDocumentType(agencyId, docType);
+    return cache.get(
+        ReferenceCache.TEMPLATES,
+        agencyId,
+        "document:" + docType,
+        () -> documentTemplateRepository.findByAgencyIdAndDocumentType(agencyId, docType));
   }
 
   @Transactional
@@ -1,19 +1,18 @@
 package com.location.server.service;
 
-import com.location.server.domain.RecurringUnavailability;
-import com.location.server.domain.Unavailability;
-import com.location.server.repo.RecurringUnavailabilityRepository;
 import com.location.server.repo.UnavailabilityRepository;
-import java.time.DayOfWeek;
-import java.time.LocalDate;
+import com.location.server.domain.Unavailability;
 import java.time.OffsetDateTime;
-import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 import org.springframework.stereotype.Service;
 
 @Service
 public class UnavailabilityQueryService {
+  /** Taille maximale d'une clause {@code in} de {@link #searchResources}. */
+  private static final int RESOURCE_CHUNK = 500;
 
   public record Span(
       String id,
@@ -24,58 +23,65 @@ public class UnavailabilityQueryService {
       boolean recurring) {}
 
   private final UnavailabilityRepository unavailabilityRepository;
-  private final RecurringUnavailabilityRepository recurringUnavailabilityRepository;
+  private final RecurringUnavailabilityIndex recurringIndex;
+  private final ServerMetrics metrics;
 
   public UnavailabilityQueryService(
       UnavailabilityRepository unavailabilityRepository,
-      RecurringUnavailabilityRepository recurringUnavailabilityRepository) {
+      RecurringUnavailabilityIndex recurringIndex,
+      ServerMetrics metrics) {
     this.unavailabilityRepository = unavailabilityRepository;
-    this.recurringUnavailabilityRepository = recurringUnavailabilityRepository;
+    this.recurringIndex = recurringIndex;
+    this.metrics = metrics;
   }
 
   public List<Span> search(OffsetDateTime from, OffsetDateTime to, String resourceId) {
-    List<Span> result = new ArrayList<>();
-    for (Unavailability unavailability :
-        unavailabilityRepository.search(from, to, resourceId)) {
-      result.add(
-          new Span(
-              unavailability.getId(),
-              unavailability.getResource().getId(),
-              unavailability.getStart(),
-              unavailability.getEnd(),
-              unavailability.getReason(),
-              false));
-    }
+    return metrics.time("unavailability.search", () -> stream(from, to, resourceId).toList());
+  }
+
+  /**
+   * Indisponibilités ponctuelles puis occurrences récurrentes, ces dernières dépliées au fil de la
+   * lecture (uniquement sur une fenêtre bornée).
+   */
+  public Stream<Span> stream(OffsetDateTime from, OffsetDateTime to, String resourceId) {
+    Stream<Span> punctual =
+        unavailabilityRepository.search(from, to, resourceId).stream()
+            .map(UnavailabilityQueryService::span);
     if (from == null || to == null) {
-      return result;
-    }
-    List<RecurringUnavailability> recurring =
-        recurringUnavailabilityRepository.search(resourceId);
-    LocalDate day = from.toLocalDate();
-    LocalDate end = to.toLocalDate();
-    while (!day.isAfter(end)) {
-      DayOfWeek dow = day.getDayOfWeek();
-      for (RecurringUnavailability ru : recurring) {
-        if (ru.getDayOfWeek() != dow) {
-          continue;
-        }
-        OffsetDateTime start =
-            day.atTime(ru.getStartTime()).atOffset(ZoneOffset.UTC);
-        OffsetDateTime endTime = day.atTime(ru.getEndTime()).atOffset(ZoneOffset.UTC);
-        if (endTime.isAfter(from) && start.isBefore(to)) {
-          result.add(
-              new Span(
-                  "ru:" + ru.getId() + ":" + day,
-                  ru.getResource().getId(),
-                  start,
-                  endTime,
-                  ru.getReason(),
-                  true));
-        }
-      }
-      day = day.plusDays(1);
+      return punctual;
     }
-    return result;
+    return Stream.concat(punctual, recurringIndex.occurrences(resourceId, from, to));
+  }
+
+  /**
+   * Comme {@link #search}, limité à {@code resourceIds} et sur une fenêtre bornée : le filtre est
+   * appliqué par la requête (par tranches) et par l'index des règles récurrentes.
+   */
+  public List<Span> searchResources(
+      Collection<String> resourceIds, OffsetDateTime from, OffsetDateTime to) {
+    return metrics.time(
+        "unavailability.search",
+        () -> {
+          List<String> ids = List.copyOf(resourceIds);
+          List<Span> out = new ArrayList<>();
+          for (int start = 0; start < ids.size(); start += RESOURCE_CHUNK) {
+            List<String> chunk = ids.subList(start, Math.min(ids.size(), start + RESOURCE_CHUNK));
+            unavailabilityRepository.searchByResources(from, to, chunk).stream()
+                .map(UnavailabilityQueryService::span)
+                .forEach(out::add);
+          }
+          recurringIndex.occurrences(ids, from, to).forEach(out::add);
+          return out;
+        });
   }
-}
 
+  private static Span span(Unavailability unavailability) {
+    return new Span(
+        unavailability.getId(),
+        unavailability.getResource().getId(),
+        unavailability.getStart(),
+        unavailability.getEnd(),
+        unavailability.getReason(),
+        false);
+  }
+}
@@ -3,7 +3,6 @@ package com.location.server.service;
 import com.location.server.domain.RecurringUnavailability;
 import com.location.server.domain.Resource;
 import com.location.server.domain.Unavailability;
-import com.location.server.repo.InterventionRepository;
 import com.location.server.repo.RecurringUnavailabilityRepository;
 import com.location.server.repo.ResourceRepository;
 import com.location.server.repo.UnavailabilityRepository;
@@ -18,17 +17,17 @@ import org.springframework.transaction.annotation.Transactional;
 public class UnavailabilityService {
   private final UnavailabilityRepository unavailabilityRepository;
   private final ResourceRepository resourceRepository;
-  private final InterventionRepository interventionRepository;
+  private final ConflictIndex conflictIndex;
   private final RecurringUnavailabilityRepository recurringUnavailabilityRepository;
 
   public UnavailabilityService(
       UnavailabilityRepository unavailabilityRepository,
       ResourceRepository resourceRepository,
-      InterventionRepository interventionRepository,
+      ConflictIndex conflictIndex,
       RecurringUnavailabilityRepository recurringUnavailabilityRepository) {
     this.unavailabilityRepository = unavailabilityRepository;
     this.resourceRepository = resourceRepository;
-    this.interventionRepository = interventionRepository;
+    this.conflictIndex = conflictIndex;
     this.recurringUnavailabilityRepository = recurringUnavailabilityRepository;
   }
 
@@ -37,16 +36,18 @@ public class UnavailabilityService {
     if (!start.isBefore(end)) {
       throw new IllegalArgumentException("start must be before end");
     }
-    if (unavailabilityRepository.existsOverlap(resourceId, start, end)) {
+    if (conflictIndex.hasUnavailability(resourceId, start, end)) {
       throw new AssignmentConflictException("Chevauchement avec une indisponibilité existante");
     }
-    if (interventionRepository.existsOverlap(resourceId, start, end)) {
+    if (conflictIndex.resourceBusy(resourceId, start, end, null)) {
       throw new AssignmentConflictException("Chevauchement avec une intervention existante");
     }
     Resource resource = resourceRepository.findById(resourceId).orElseThrow();
     Unavailability unavailability =
         new Unavailability(UUID.randomUUID().toString(), resource, start, end, reason);
-    return unavailabilityRepository.save(unavailability);
+    Unavailability saved = unavailabilityRepository.save(unavailability);
+    conflictIndex.unavailabilityWritten(resourceId);
+    return saved;
   }
 
   @Transactional
@@ -59,6 +60,8 @@ public class UnavailabilityService {
     RecurringUnavailability recurring =
         new RecurringUnavailability(
             UUID.randomUUID().toString(), resource, dayOfWeek, start, end, reason);
-    return recurringUnavailabilityRepository.save(recurring);
+    RecurringUnavailability saved = recurringUnavailabilityRepository.save(recurring);
+    conflictIndex.recurringSaved(saved);
+    return saved;
   }
 }
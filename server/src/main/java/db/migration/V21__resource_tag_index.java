@@ -0,0 +1,71 @@
+package db.migration;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * Table {@code resource_tag} (un tag normalisé par ligne) remplie à partir de la colonne {@code
+ * resource.tags}. En Java plutôt qu'en SQL : découper une liste à virgules n'a pas d'écriture
+ * commune à H2 et PostgreSQL. Le découpage reprend celui de {@code Resource.normalizeTags}, figé
+ * ici comme l'est toute migration.
+ */
+public class V21__resource_tag_index extends BaseJavaMigration {
+  private static final int BATCH = 500;
+
+  @Override
+  public void migrate(Context context) throws Exception {
+    Connection connection = context.getConnection();
+    try (Statement ddl = connection.createStatement()) {
+      ddl.execute(
+          "CREATE TABLE IF NOT EXISTS resource_tag ("
+              + " resource_id VARCHAR(36) NOT NULL,"
+              + " tag VARCHAR(255) NOT NULL,"
+              + " CONSTRAINT pk_resource_tag PRIMARY KEY (resource_id, tag),"
+              + " CONSTRAINT fk_resource_tag_resource FOREIGN KEY (resource_id)"
+              + " REFERENCES resource(id) ON DELETE CASCADE)");
+      ddl.execute(
+          "CREATE INDEX IF NOT EXISTS idx_resource_tag_tag ON resource_tag(tag, resource_id)");
+    }
+    try (Statement select = connection.createStatement();
+        ResultSet rows =
+            select.executeQuery("SELECT id, tags FROM resource WHERE tags IS NOT NULL");
+        PreparedStatement insert =
+            connection.prepareStatement(
+                "INSERT INTO resource_tag(resource_id, tag) VALUES (?, ?)")) {
+      int pending = 0;
+      while (rows.next()) {
+        String id = rows.getString(1);
+        for (String tag : split(rows.getString(2))) {
+          insert.setString(1, id);
+          insert.setString(2, tag);
+          insert.addBatch();
+          if (++pending == BATCH) {
+            insert.executeBatch();
+            pending = 0;
+          }
+        }
+      }
+      if (pending > 0) {
+        insert.executeBatch();
+      }
+    }
+  }
+
+  private static Set<String> split(String tagsCsv) {
+    Set<String> out = new LinkedHashSet<>();
+    for (String tag : tagsCsv.split(",")) {
+      String normalized = tag.trim().toLowerCase(Locale.ROOT);
+      if (!normalized.isEmpty()) {
+        out.add(normalized);
+      }
+    }
+    return out;
+  }
+}
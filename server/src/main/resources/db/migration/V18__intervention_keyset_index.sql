@@ -0,0 +1,2 @@
+-- Keyset pagination on (start_ts, id)
+CREATE INDEX IF NOT EXISTS idx_intervention_start_id ON intervention(start_ts, id);
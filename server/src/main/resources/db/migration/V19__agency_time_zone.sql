@@ -0,0 +1 @@
+ALTER TABLE agency ADD COLUMN IF NOT EXISTS time_zone VARCHAR(64);
@@ -0,0 +1,10 @@
+CREATE TABLE IF NOT EXISTS intervention_tag (
+  intervention_id VARCHAR(36) NOT NULL,
+  sort_order INT NOT NULL,
+  tag VARCHAR(80) NOT NULL,
+  CONSTRAINT pk_intervention_tag PRIMARY KEY (intervention_id, sort_order),
+  CONSTRAINT fk_intervention_tag_intervention FOREIGN KEY (intervention_id)
+    REFERENCES intervention(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_intervention_tag_tag ON intervention_tag(tag);
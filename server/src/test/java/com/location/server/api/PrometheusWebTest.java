@@ -0,0 +1,110 @@
+package com.location.server.api;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.location.server.domain.Agency;
+import com.location.server.repo.AgencyRepository;
+import com.location.server.security.JwtService;
+import jakarta.servlet.Filter;
+import java.time.Instant;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.filter.ServerHttpObservationFilter;
+
+@SpringBootTest
+@ActiveProfiles("dev")
+@AutoConfigureObservability(tracing = false)
+class PrometheusWebTest {
+
+  @Autowired WebApplicationContext context;
+  @Autowired FilterRegistrationBean<ServerHttpObservationFilter> observationFilter;
+  @Autowired AgencyRepository agencyRepository;
+  @Autowired JwtService jwtService;
+
+  MockMvc mvc;
+
+  @BeforeEach
+  void setUp() {
+    agencyRepository.save(new Agency("PROM-A", "Agence Prometheus"));
+    mvc =
+        MockMvcBuilders.webAppContextSetup(context)
+            .addFilter(observationFilter.getFilter())
+            .build();
+  }
+
+  @Test
+  void scrapeExposesRequestOperationAndPoolSeries() throws Exception {
+    mvc.perform(get("/api/v1/agencies").header("X-Agency-Id", "PROM-A"))
+        .andExpect(status().isOk());
+    mvc.perform(get("/api/v1/agencies")).andExpect(status().isBadRequest());
+
+    String body = scrape();
+
+    assertThat(body)
+        .contains("# TYPE http_server_requests_seconds histogram")
+        .contains("http_server_requests_seconds_bucket{agency=\"PROM-A\"")
+        .contains("location_operation_seconds_count{agency=\"PROM-A\",operation=\"json.write\"}")
+        .contains("hikaricp_connections_max{pool=")
+        .contains("location_cache_requests_total{agency=\"PROM-A\",cache=\"agencies\"")
+        .doesNotContain("uri=\"/actuator/prometheus\"");
+    assertThat(body.lines())
+        .anyMatch(
+            line ->
+                line.startsWith("http_server_requests_seconds_count{agency=\"PROM-A\"")
+                    && line.contains("status=\"200\"")
+                    && line.contains("uri=\"/api/v1/agencies\""))
+        .anyMatch(
+            line ->
+                line.startsWith("http_server_requests_seconds_count{agency=\"none\"")
+                    && line.contains("status=\"400\""));
+  }
+
+  @Test
+  void scrapeRequiresAuthentication() throws Exception {
+    MockMvc secured =
+        MockMvcBuilders.webAppContextSetup(context)
+            .addFilters(context.getBean("springSecurityFilterChain", Filter.class))
+            .build();
+    String token =
+        jwtService.generateToken(
+            Map.of("sub", "scraper"), Instant.now().plusSeconds(60).getEpochSecond());
+
+    secured.perform(get("/actuator/prometheus")).andExpect(status().isForbidden());
+    secured
+        .perform(get("/actuator/prometheus").header("Authorization", "Bearer " + token))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void eventStreamsStayOutOfTheLatencyHistogram() throws Exception {
+    MvcResult stream =
+        mvc.perform(get("/api/system/ping").accept(MediaType.TEXT_EVENT_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    stream.getRequest().getAsyncContext().complete();
+
+    assertThat(scrape()).doesNotContain("uri=\"/api/system/ping\"");
+  }
+
+  private String scrape() throws Exception {
+    return mvc.perform(get("/actuator/prometheus"))
+        .andExpect(status().isOk())
+        .andReturn()
+        .getResponse()
+        .getContentAsString();
+  }
+}
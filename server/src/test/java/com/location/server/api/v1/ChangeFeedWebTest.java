@@ -0,0 +1,125 @@
+package com.location.server.api.v1;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.location.server.domain.Agency;
+import com.location.server.domain.Client;
+import com.location.server.domain.Intervention;
+import com.location.server.domain.Resource;
+import com.location.server.repo.AgencyRepository;
+import com.location.server.repo.ClientRepository;
+import com.location.server.repo.InterventionRepository;
+import com.location.server.repo.ResourceRepository;
+import com.location.server.service.ChangeFeed;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("dev")
+class ChangeFeedWebTest {
+
+  @Autowired MockMvc mvc;
+  @Autowired AgencyRepository agencyRepository;
+  @Autowired ChangeFeed changeFeed;
+  @Autowired ClientRepository clientRepository;
+  @Autowired ResourceRepository resourceRepository;
+  @Autowired InterventionRepository interventionRepository;
+
+  @BeforeEach
+  void setUp() {
+    agencyRepository.save(new Agency("FEED-A", "Agence A"));
+    agencyRepository.save(new Agency("FEED-B", "Agence B"));
+  }
+
+  @Test
+  void subscriberOnlyReceivesChangesOfItsAgency() throws Exception {
+    MockHttpServletResponse response = subscribe(null);
+    awaitContains(response, "event:hello");
+
+    changeFeed.publish("FEED-B", "intervention", "upsert", "I-B", Map.of("id", "I-B"));
+    changeFeed.publish("FEED-A", "intervention", "upsert", "I-A", Map.of("id", "I-A"));
+
+    awaitContains(response, "\"id\":\"I-A\"");
+    assertThat(response.getContentAsString()).doesNotContain("I-B");
+  }
+
+  @Test
+  void reconnectReplaysMissedChangesOrAsksForReset() throws Exception {
+    MockHttpServletResponse first = subscribe(null);
+    awaitContains(first, "event:hello");
+    long lastSeen = Long.parseLong(first.getContentAsString().split("id:")[1].split("\\R")[0].trim());
+
+    changeFeed.publish("FEED-A", "intervention", "delete", "I-1", null);
+    changeFeed.publish("FEED-A", "intervention", "delete", "I-2", null);
+
+    MockHttpServletResponse resumed = subscribe(lastSeen);
+    awaitContains(resumed, "\"id\":\"I-2\"");
+    assertThat(resumed.getContentAsString()).contains("\"id\":\"I-1\"").doesNotContain("reset");
+
+    MockHttpServletResponse stale = subscribe(1L);
+    awaitContains(stale, "event:reset");
+  }
+
+  @Test
+  void interventionMovedToAnotherAgencyIsRemovedFromThePreviousOne() throws Exception {
+    Agency previous = agencyRepository.findById("FEED-B").orElseThrow();
+    Client client = clientRepository.save(new Client("FEED-C", "Client", "feed@example.test"));
+    Resource resource =
+        resourceRepository.save(new Resource("FEED-R", "Grue", "FE-001-ED", null, previous));
+    OffsetDateTime start = OffsetDateTime.of(2025, 3, 3, 8, 0, 0, 0, ZoneOffset.UTC);
+    interventionRepository.save(
+        new Intervention("FEED-I", "Levage", start, start.plusHours(2), previous, resource, client));
+    MockHttpServletResponse feedB = subscribe("FEED-B", null);
+    awaitContains(feedB, "event:hello");
+
+    mvc.perform(
+            put("/api/v1/interventions/FEED-I")
+                .header("X-Agency-Id", "FEED-A")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    """
+                    {"agencyId":"FEED-A","resourceId":"FEED-R","clientId":"FEED-C",\
+                    "title":"Levage","start":"%s","end":"%s"}"""
+                        .formatted(start, start.plusHours(2))))
+        .andExpect(status().isOk());
+
+    awaitContains(feedB, "\"op\":\"delete\"");
+    assertThat(feedB.getContentAsString()).contains("\"id\":\"FEED-I\"");
+  }
+
+  private MockHttpServletResponse subscribe(Long lastEventId) throws Exception {
+    return subscribe("FEED-A", lastEventId);
+  }
+
+  private MockHttpServletResponse subscribe(String agencyId, Long lastEventId) throws Exception {
+    var req = get("/api/v1/changes").header("X-Agency-Id", agencyId);
+    if (lastEventId != null) {
+      req.header("Last-Event-ID", lastEventId);
+    }
+    return mvc.perform(req).andExpect(request().asyncStarted()).andReturn().getResponse();
+  }
+
+  private static void awaitContains(MockHttpServletResponse response, String expected)
+      throws Exception {
+    long deadline = System.currentTimeMillis() + 5_000;
+    while (!response.getContentAsString().contains(expected)) {
+      assertThat(System.currentTimeMillis()).as("attente de %s", expected).isLessThan(deadline);
+      Thread.sleep(20);
+    }
+  }
+}
@@ -0,0 +1,102 @@
+package com.location.server.api.v1;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.location.server.domain.Agency;
+import com.location.server.domain.Client;
+import com.location.server.domain.Intervention;
+import com.location.server.domain.Resource;
+import com.location.server.repo.AgencyRepository;
+import com.location.server.repo.ClientRepository;
+import com.location.server.repo.InterventionRepository;
+import com.location.server.repo.ResourceRepository;
+import com.location.server.repo.UnavailabilityRepository;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("dev")
+class CsvStreamingWebTest {
+  @Autowired MockMvc mvc;
+  @Autowired AgencyRepository agencyRepository;
+  @Autowired ClientRepository clientRepository;
+  @Autowired ResourceRepository resourceRepository;
+  @Autowired InterventionRepository interventionRepository;
+  @Autowired UnavailabilityRepository unavailabilityRepository;
+
+  private final OffsetDateTime base = OffsetDateTime.of(2025, 2, 3, 8, 0, 0, 0, ZoneOffset.UTC);
+
+  @BeforeEach
+  void setup() {
+    interventionRepository.deleteAll();
+    unavailabilityRepository.deleteAll();
+    resourceRepository.deleteAll();
+    clientRepository.deleteAll();
+    agencyRepository.deleteAll();
+
+    Agency a1 = agencyRepository.save(new Agency("A1", "Agence 1"));
+    Agency a2 = agencyRepository.save(new Agency("A2", "Agence 2"));
+    Client c1 = clientRepository.save(new Client("C1", "Dupont; Fils", "c1@example.test"));
+    Client c2 = clientRepository.save(new Client("C2", "Martin", "c2@example.test"));
+    Resource r1 = resourceRepository.save(new Resource("R1", "Grue", "AA-1", null, a1));
+    Resource r2 = resourceRepository.save(new Resource("R2", "Camion", "AA-2", null, a2));
+    interventionRepository.save(
+        new Intervention("I1", "Levage 100%", base, base.plusHours(1), a1, r1, c1, null, null, null, null));
+    interventionRepository.save(
+        new Intervention("I2", "Levage 1000", base, base.plusHours(1), a1, r1, c2, null, null, null, null));
+    interventionRepository.save(
+        new Intervention("I3", "Transport", base, base.plusHours(1), a2, r2, c2, null, null, null, null));
+  }
+
+  @Test
+  void interventionsCsvFiltersClientAndTextInQuery() throws Exception {
+    String byText = body(get("/api/v1/interventions/csv").param("q", "0%"));
+    assertThat(byText.lines()).hasSize(2);
+    assertThat(byText).startsWith("id;title;agencyId;resourceId;clientId;start;end\n");
+    assertThat(byText).contains("I1;Levage 100%;A1;R1;C1;");
+
+    String byClient = body(get("/api/v1/interventions/csv").param("clientId", "C2"));
+    assertThat(byClient.lines()).hasSize(3).noneMatch(line -> line.startsWith("I1;"));
+  }
+
+  @Test
+  void agencyExportsOnlyContainTheCurrentAgency() throws Exception {
+    String resources = body(get("/api/v1/resources.csv"));
+    assertThat(resources.lines()).hasSize(2);
+    assertThat(resources).contains("R1;Grue;AA-1;;;A1");
+
+    String interventions =
+        body(
+            get("/api/v1/interventions.csv")
+                .param("from", base.minusDays(1).toString())
+                .param("to", base.plusDays(1).toString()));
+    assertThat(interventions.lines()).hasSize(3).noneMatch(line -> line.startsWith("I3;"));
+
+    String clients = body(get("/api/v1/clients.csv"));
+    assertThat(clients).contains("C1;Dupont, Fils;c1@example.test");
+  }
+
+  private String body(MockHttpServletRequestBuilder request) throws Exception {
+    MvcResult started =
+        mvc.perform(request.header("X-Agency-Id", "A1")).andExpect(request().asyncStarted()).andReturn();
+    return mvc.perform(asyncDispatch(started))
+        .andExpect(status().isOk())
+        .andReturn()
+        .getResponse()
+        .getContentAsString();
+  }
+}
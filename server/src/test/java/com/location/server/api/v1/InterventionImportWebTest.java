@@ -0,0 +1,200 @@
+package com.location.server.api.v1;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.jayway.jsonpath.JsonPath;
+import com.location.server.domain.Agency;
+import com.location.server.domain.Client;
+import com.location.server.domain.Driver;
+import com.location.server.domain.Resource;
+import com.location.server.domain.Unavailability;
+import com.location.server.repo.AgencyRepository;
+import com.location.server.repo.ClientRepository;
+import com.location.server.repo.DriverRepository;
+import com.location.server.repo.InterventionRepository;
+import com.location.server.repo.ResourceRepository;
+import com.location.server.repo.UnavailabilityRepository;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("dev")
+class InterventionImportWebTest {
+
+  private static final OffsetDateTime DAY =
+      OffsetDateTime.of(2025, 3, 4, 0, 0, 0, 0, ZoneOffset.UTC);
+
+  @Autowired MockMvc mvc;
+  @Autowired AgencyRepository agencyRepository;
+  @Autowired ClientRepository clientRepository;
+  @Autowired ResourceRepository resourceRepository;
+  @Autowired DriverRepository driverRepository;
+  @Autowired UnavailabilityRepository unavailabilityRepository;
+  @Autowired InterventionRepository interventionRepository;
+
+  @BeforeEach
+  void setUp() {
+    Agency agency = agencyRepository.save(new Agency("IMP-A", "Agence import"));
+    clientRepository.save(new Client("IMP-C", "Client", "import@example.test"));
+    driverRepository.save(new Driver("IMP-D", "Chauffeur", "driver@example.test"));
+    resourceRepository.save(new Resource("IMP-R1", "Grue", "IM-001-AA", null, agency));
+    Resource r2 =
+        resourceRepository.save(new Resource("IMP-R2", "Nacelle", "IM-002-AA", null, agency));
+    unavailabilityRepository.save(
+        new Unavailability("IMP-U", r2, at(12), at(14), "Contrôle technique"));
+  }
+
+  @Test
+  void jsonBatchReportsEachRowAndChecksConflictsInsideTheBatch() throws Exception {
+    String body =
+        "["
+            + row("IMP-R1", "IMP-D", 8, 10)
+            + ","
+            + row("IMP-RX", null, 8, 10)
+            + ","
+            + row("IMP-R2", "IMP-D", 9, 11)
+            + ","
+            + row("IMP-R2", null, 13, 15)
+            + ","
+            + row("IMP-R1", null, 9, 11)
+            + "]";
+
+    String response =
+        mvc.perform(
+                post("/api/v1/interventions/import")
+                    .header("X-Agency-Id", "IMP-A")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.created").value(2))
+            .andExpect(jsonPath("$.rejected").value(3))
+            .andExpect(jsonPath("$.outcomes[0].status").value("created"))
+            .andExpect(jsonPath("$.outcomes[1].status").value("invalid"))
+            .andExpect(jsonPath("$.outcomes[1].message").value("Ressource inconnue : IMP-RX"))
+            .andExpect(jsonPath("$.outcomes[2].status").value("conflict"))
+            .andExpect(jsonPath("$.outcomes[3].status").value("conflict"))
+            .andExpect(
+                jsonPath("$.outcomes[3].message").value("Ressource indisponible sur le créneau"))
+            .andExpect(jsonPath("$.outcomes[4].status").value("created"))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    String firstId = JsonPath.read(response, "$.outcomes[0].id");
+    assertThat(interventionRepository.findById(firstId))
+        .hasValueSatisfying(i -> assertThat(i.getDriver().getId()).isEqualTo("IMP-D"));
+
+    mvc.perform(
+            post("/api/v1/interventions/import")
+                .param("rejectResourceOverlaps", "true")
+                .header("X-Agency-Id", "IMP-A")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(
+                    "[" + row("IMP-R1", null, 9, 10) + "," + row("IMP-R1", null, 16, 17) + "]"))
+        .andExpect(status().isOk())
+        .andExpect(
+            jsonPath("$.outcomes[0].message").value("Ressource déjà réservée sur le créneau"))
+        .andExpect(jsonPath("$.outcomes[1].status").value("created"));
+  }
+
+  @Test
+  void csvUsesTheExportColumnsAndTheHeaderAgency() throws Exception {
+    String csv =
+        "id;title;agencyId;resourceId;clientId;start;end;price\n"
+            + ";Levage;;IMP-R1;IMP-C;"
+            + at(18)
+            + ";"
+            + at(19)
+            + ";120,5\n"
+            + "\n"
+            + "x;À l'envers;IMP-A;IMP-R1;IMP-C;"
+            + at(20)
+            + ";"
+            + at(19)
+            + ";\n";
+
+    String response =
+        mvc.perform(
+                post("/api/v1/interventions/import")
+                    .header("X-Agency-Id", "IMP-A")
+                    .contentType("text/csv")
+                    .content(csv))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.created").value(1))
+            .andExpect(jsonPath("$.outcomes[1].message").value("Le début doit précéder la fin"))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    String id = JsonPath.read(response, "$.outcomes[0].id");
+    assertThat(interventionRepository.findById(id))
+        .hasValueSatisfying(
+            i -> {
+              assertThat(i.getAgency().getId()).isEqualTo("IMP-A");
+              assertThat(i.getPrice()).isEqualTo(120.5);
+            });
+
+    mvc.perform(
+            post("/api/v1/interventions/import")
+                .header("X-Agency-Id", "IMP-A")
+                .contentType("text/csv")
+                .content("title;resourceId;clientId;start;end\nA;IMP-R1;IMP-C;demain;" + at(9)))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void rowsAreValidatedLikeASingleCreation() throws Exception {
+    String longTitle =
+        row("IMP-R1", null, 8, 10).replace("\"Import\"", "\"" + "x".repeat(141) + "\"");
+    String body =
+        "["
+            + longTitle
+            + ","
+            + row("IMP-R1", null, 11, 12).replace("\"clientId\":\"IMP-C\",", "")
+            + ","
+            + row("IMP-R1", null, 13, 14)
+            + "]";
+
+    mvc.perform(
+            post("/api/v1/interventions/import")
+                .header("X-Agency-Id", "IMP-A")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.created").value(1))
+        .andExpect(jsonPath("$.outcomes[0].status").value("invalid"))
+        .andExpect(jsonPath("$.outcomes[0].message").value(startsWith("title: ")))
+        .andExpect(jsonPath("$.outcomes[1].status").value("invalid"))
+        .andExpect(jsonPath("$.outcomes[1].message").value(startsWith("clientId: ")))
+        .andExpect(jsonPath("$.outcomes[2].status").value("created"));
+  }
+
+  private static String row(String resourceId, String driverId, int startHour, int endHour) {
+    return "{\"resourceId\":\""
+        + resourceId
+        + "\",\"clientId\":\"IMP-C\",\"title\":\"Import\","
+        + (driverId == null ? "" : "\"driverId\":\"" + driverId + "\",")
+        + "\"start\":\""
+        + at(startHour)
+        + "\",\"end\":\""
+        + at(endHour)
+        + "\"}";
+  }
+
+  private static OffsetDateTime at(int hour) {
+    return DAY.plusHours(hour);
+  }
+}
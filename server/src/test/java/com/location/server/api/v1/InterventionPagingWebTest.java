@@ -0,0 +1,118 @@
+package com.location.server.api.v1;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.location.server.domain.Agency;
+import com.location.server.domain.Client;
+import com.location.server.domain.Intervention;
+import com.location.server.domain.Resource;
+import com.location.server.repo.AgencyRepository;
+import com.location.server.repo.ClientRepository;
+import com.location.server.repo.InterventionRepository;
+import com.location.server.repo.ResourceRepository;
+import com.location.server.repo.UnavailabilityRepository;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("dev")
+class InterventionPagingWebTest {
+
+  @Autowired MockMvc mvc;
+  @Autowired ObjectMapper objectMapper;
+  @Autowired AgencyRepository agencyRepository;
+  @Autowired ClientRepository clientRepository;
+  @Autowired ResourceRepository resourceRepository;
+  @Autowired InterventionRepository interventionRepository;
+  @Autowired UnavailabilityRepository unavailabilityRepository;
+
+  private final OffsetDateTime base = OffsetDateTime.of(2025, 3, 3, 8, 0, 0, 0, ZoneOffset.UTC);
+
+  @BeforeEach
+  void setUp() {
+    interventionRepository.deleteAll();
+    unavailabilityRepository.deleteAll();
+    resourceRepository.deleteAll();
+    clientRepository.deleteAll();
+    agencyRepository.deleteAll();
+
+    Agency agency = agencyRepository.save(new Agency("A", "Agence"));
+    Client client = clientRepository.save(new Client("C", "Client", "client@example.test"));
+    Resource resource = resourceRepository.save(new Resource("R", "Camion", "AA-000-AA", null, agency));
+    // Two interventions share each start time so the cursor has to break ties on id.
+    for (int i = 0; i < 7; i++) {
+      interventionRepository.save(
+          new Intervention(
+              "I" + i, "Interv " + i, base.plusHours(i / 2), base.plusHours(i / 2 + 1),
+              agency, resource, client, null, null, null, null));
+    }
+  }
+
+  @Test
+  void pagesFollowStartThenIdWithoutGapsOrDuplicates() throws Exception {
+    List<String> ids = new ArrayList<>();
+    String cursor = null;
+    int pages = 0;
+    do {
+      var req = get("/api/v1/interventions/page").header("X-Agency-Id", "A").param("limit", "3");
+      if (cursor != null) {
+        req.param("cursor", cursor);
+      }
+      JsonNode page =
+          objectMapper.readTree(
+              mvc.perform(req).andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+      page.get("items").forEach(item -> ids.add(item.get("id").asText()));
+      cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+      pages++;
+    } while (cursor != null);
+
+    assertThat(pages).isEqualTo(3);
+    assertThat(ids).containsExactly("I0", "I1", "I2", "I3", "I4", "I5", "I6");
+  }
+
+  @Test
+  void invalidCursorIsRejected() throws Exception {
+    mvc.perform(get("/api/v1/interventions/page").header("X-Agency-Id", "A").param("cursor", "%%%"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void ndjsonStreamsOneInterventionPerLine() throws Exception {
+    MvcResult started =
+        mvc.perform(
+                get("/api/v1/interventions")
+                    .header("X-Agency-Id", "A")
+                    .param("from", base.plusHours(1).toString())
+                    .accept("application/x-ndjson"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    String body =
+        mvc.perform(asyncDispatch(started))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+    String[] lines = body.strip().split("\n");
+    assertThat(lines).hasSize(5);
+    assertThat(objectMapper.readTree(lines[0]).get("id").asText()).isEqualTo("I2");
+    assertThat(objectMapper.readTree(lines[4]).get("resourceId").asText()).isEqualTo("R");
+  }
+}
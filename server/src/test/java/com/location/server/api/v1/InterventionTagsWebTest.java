@@ -0,0 +1,134 @@
+package com.location.server.api.v1;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.location.server.domain.Agency;
+import com.location.server.domain.Client;
+import com.location.server.domain.Intervention;
+import com.location.server.domain.Resource;
+import com.location.server.repo.AgencyRepository;
+import com.location.server.repo.ClientRepository;
+import com.location.server.repo.InterventionRepository;
+import com.location.server.repo.InterventionTagRepository;
+import com.location.server.repo.ResourceRepository;
+import com.location.server.service.InterventionService;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("dev")
+class InterventionTagsWebTest {
+
+  @Autowired MockMvc mvc;
+  @Autowired AgencyRepository agencyRepository;
+  @Autowired ClientRepository clientRepository;
+  @Autowired ResourceRepository resourceRepository;
+  @Autowired InterventionRepository interventionRepository;
+  @Autowired InterventionTagRepository tagRepository;
+  @Autowired InterventionService interventionService;
+
+  @BeforeEach
+  void setUp() {
+    Agency agency = agencyRepository.save(new Agency("TAG-A", "Agence tags"));
+    Client client = clientRepository.save(new Client("TAG-C", "Client", "tags@example.test"));
+    Resource resource =
+        resourceRepository.save(new Resource("TAG-R", "Ressource", "TG-001-AA", null, agency));
+    OffsetDateTime start = OffsetDateTime.of(2025, 2, 3, 8, 0, 0, 0, ZoneOffset.UTC);
+    for (String id : new String[] {"TAG-I1", "TAG-I2", "TAG-I3"}) {
+      interventionRepository.save(
+          new Intervention(id, id, start, start.plusHours(1), agency, resource, client));
+    }
+  }
+
+  @Test
+  void tagsArePersistedAndReadInOneBulkCall() throws Exception {
+    setTags("TAG-I1", "[\" urgent \",\"grue\",\"urgent\",\"\"]");
+    setTags("TAG-I2", "[\"grue\"]");
+
+    mvc.perform(get("/api/v1/interventions/TAG-I1/tags").header("X-Agency-Id", "TAG-A"))
+        .andExpect(status().isOk())
+        .andExpect(content().json("[\"urgent\",\"grue\"]", true));
+    assertThat(tagRepository.findByInterventionIds(java.util.List.of("TAG-I1"))).hasSize(2);
+
+    mvc.perform(
+            get("/api/v1/interventions/tags")
+                .param("ids", "TAG-I1,TAG-I2,TAG-I3")
+                .header("X-Agency-Id", "TAG-A"))
+        .andExpect(status().isOk())
+        .andExpect(
+            content()
+                .json(
+                    "{\"TAG-I1\":[\"urgent\",\"grue\"],\"TAG-I2\":[\"grue\"],\"TAG-I3\":[]}",
+                    true));
+  }
+
+  @Test
+  void suggestionsFollowWritesAndDeletions() throws Exception {
+    setTags("TAG-I1", "[\"zz-rare\",\"zz-commun\"]");
+    setTags("TAG-I2", "[\"zz-commun\"]");
+    setTags("TAG-I3", "[\"zz-commun\",\"zz-moyen\"]");
+    setTags("TAG-I1", "[\"zz-moyen\",\"zz-commun\"]");
+
+    String suggested =
+        mvc.perform(
+                get("/api/v1/interventions/tags/suggest")
+                    .param("limit", "100")
+                    .header("X-Agency-Id", "TAG-A"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    assertThat(suggested).contains("zz-commun").doesNotContain("zz-rare");
+    assertThat(suggested.indexOf("zz-commun")).isLessThan(suggested.indexOf("zz-moyen"));
+
+    interventionService.delete("TAG-I3");
+    interventionService.delete("TAG-I1");
+    String afterDelete =
+        mvc.perform(
+                get("/api/v1/interventions/tags/suggest")
+                    .param("limit", "100")
+                    .header("X-Agency-Id", "TAG-A"))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    assertThat(afterDelete).contains("zz-commun").doesNotContain("zz-moyen");
+  }
+
+  @Test
+  void unknownInterventionIsRejected() throws Exception {
+    mvc.perform(
+            post("/api/v1/interventions/TAG-NOPE/tags")
+                .header("X-Agency-Id", "TAG-A")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[\"x\"]"))
+        .andExpect(status().isNotFound());
+    mvc.perform(
+            get("/api/v1/interventions/tags")
+                .param("ids", "TAG-NOPE")
+                .header("X-Agency-Id", "TAG-A"))
+        .andExpect(jsonPath("$['TAG-NOPE']").isEmpty());
+  }
+
+  private void setTags(String id, String json) throws Exception {
+    mvc.perform(
+            post("/api/v1/interventions/" + id + "/tags")
+                .header("X-Agency-Id", "TAG-A")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(json))
+        .andExpect(status().isOk());
+  }
+}
@@ -0,0 +1,140 @@
+package com.location.server.api.v1;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.location.server.domain.Agency;
+import com.location.server.domain.Client;
+import com.location.server.domain.Intervention;
+import com.location.server.domain.Resource;
+import com.location.server.domain.ResourceType;
+import com.location.server.domain.Unavailability;
+import com.location.server.repo.AgencyRepository;
+import com.location.server.repo.ClientRepository;
+import com.location.server.repo.InterventionRepository;
+import com.location.server.repo.ResourceRepository;
+import com.location.server.repo.ResourceTypeRepository;
+import com.location.server.repo.UnavailabilityRepository;
+import com.location.server.service.InterventionTagService;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("dev")
+class PlanningSnapshotWebTest {
+
+  private static final OffsetDateTime DAY =
+      OffsetDateTime.of(2025, 4, 7, 0, 0, 0, 0, ZoneOffset.UTC);
+
+  @Autowired MockMvc mvc;
+  @Autowired AgencyRepository agencyRepository;
+  @Autowired ClientRepository clientRepository;
+  @Autowired ResourceTypeRepository resourceTypeRepository;
+  @Autowired ResourceRepository resourceRepository;
+  @Autowired InterventionRepository interventionRepository;
+  @Autowired UnavailabilityRepository unavailabilityRepository;
+  @Autowired InterventionTagService tagService;
+
+  @BeforeEach
+  void setUp() {
+    Agency agency = agencyRepository.save(new Agency("SNAP-A", "Agence snapshot"));
+    Agency other = agencyRepository.save(new Agency("SNAP-B", "Autre agence"));
+    Client client = clientRepository.save(new Client("SNAP-C", "Client", "snap@example.test"));
+    ResourceType type = resourceTypeRepository.save(new ResourceType("SNAP-T", "Grues", "crane"));
+    Resource crane = new Resource("SNAP-R1", "Grue", "SN-001-AA", null, agency);
+    crane.setResourceType(type);
+    resourceRepository.save(crane);
+    Resource foreign =
+        resourceRepository.save(new Resource("SNAP-R2", "Camion", "SN-002-AA", null, other));
+    interventionRepository.save(
+        new Intervention(
+            "SNAP-I1", "Levage", DAY.plusHours(8), DAY.plusHours(10), agency, crane, client));
+    interventionRepository.save(
+        new Intervention(
+            "SNAP-I2",
+            "Hors plage",
+            DAY.plusDays(9),
+            DAY.plusDays(9).plusHours(1),
+            agency,
+            crane,
+            client));
+    interventionRepository.save(
+        new Intervention(
+            "SNAP-I3", "Autre", DAY.plusHours(8), DAY.plusHours(9), other, foreign, client));
+    unavailabilityRepository.save(
+        new Unavailability("SNAP-U", crane, DAY.plusHours(12), DAY.plusHours(13), "Révision"));
+    unavailabilityRepository.save(
+        new Unavailability("SNAP-U2", foreign, DAY.plusHours(12), DAY.plusHours(13), "Vidange"));
+    tagService.replace("SNAP-I1", List.of("urgent"));
+  }
+
+  @Test
+  void snapshotAssemblesTheAgencyViewInOneResponse() throws Exception {
+    MvcResult started =
+        mvc.perform(
+                get("/api/v1/planning/snapshot")
+                    .param("from", DAY.toString())
+                    .param("to", DAY.plusDays(7).toString())
+                    .param("agency", "SNAP-A")
+                    .header("X-Agency-Id", "SNAP-A"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    mvc.perform(asyncDispatch(started))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.version").isNumber())
+        .andExpect(jsonPath("$.agencyId").value("SNAP-A"))
+        .andExpect(jsonPath("$.agencies[*].id", hasItem("SNAP-B")))
+        .andExpect(jsonPath("$.resourceTypes[*].id", hasItem("SNAP-T")))
+        .andExpect(jsonPath("$.resources[*].id", contains("SNAP-R1")))
+        .andExpect(jsonPath("$.resources[0].resourceTypeId").value("SNAP-T"))
+        .andExpect(jsonPath("$.resources[0].agencyId").value("SNAP-A"))
+        .andExpect(jsonPath("$.clients[*].id", hasItem("SNAP-C")))
+        .andExpect(jsonPath("$.interventions[*].id", contains("SNAP-I1")))
+        .andExpect(jsonPath("$.interventions[0].resourceIds").doesNotExist())
+        .andExpect(jsonPath("$.interventions[0].driverId").doesNotExist())
+        .andExpect(jsonPath("$.unavailabilities[*].id", contains("SNAP-U")))
+        .andExpect(jsonPath("$.tags.SNAP-I1[0]").value("urgent"))
+        .andExpect(jsonPath("$.interventions[*].id", not(hasItem("SNAP-I3"))));
+  }
+
+  @Test
+  void invertedRangeIsRejected() throws Exception {
+    mvc.perform(
+            get("/api/v1/planning/snapshot")
+                .param("from", DAY.plusDays(1).toString())
+                .param("to", DAY.toString())
+                .header("X-Agency-Id", "SNAP-A"))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void missingOrOversizedRangeIsRejected() throws Exception {
+    mvc.perform(
+            get("/api/v1/planning/snapshot")
+                .param("from", DAY.toString())
+                .header("X-Agency-Id", "SNAP-A"))
+        .andExpect(status().isBadRequest());
+    mvc.perform(
+            get("/api/v1/planning/snapshot")
+                .param("from", DAY.toString())
+                .param("to", DAY.plusDays(200).toString())
+                .header("X-Agency-Id", "SNAP-A"))
+        .andExpect(status().isBadRequest());
+  }
+}
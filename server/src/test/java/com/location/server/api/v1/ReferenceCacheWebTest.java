@@ -0,0 +1,82 @@
+package com.location.server.api.v1;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.location.server.domain.Agency;
+import com.location.server.domain.CommercialDocument;
+import com.location.server.domain.EmailTemplate;
+import com.location.server.domain.ResourceType;
+import com.location.server.repo.AgencyRepository;
+import com.location.server.repo.EmailTemplateRepository;
+import com.location.server.repo.ResourceTypeRepository;
+import com.location.server.service.TemplateService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("dev")
+class ReferenceCacheWebTest {
+
+  @Autowired MockMvc mvc;
+  @Autowired AgencyRepository agencyRepository;
+  @Autowired ResourceTypeRepository resourceTypeRepository;
+  @Autowired TemplateService templateService;
+  @Autowired EmailTemplateRepository emailTemplateRepository;
+
+  @BeforeEach
+  void setUp() {
+    agencyRepository.save(new Agency("CACHE-A", "Agence cache"));
+  }
+
+  @AfterEach
+  void tearDown() {
+    emailTemplateRepository
+        .findByAgencyIdAndDocumentType("CACHE-A", CommercialDocument.DocType.QUOTE)
+        .ifPresent(emailTemplateRepository::delete);
+  }
+
+  @Test
+  void committedWritesAreVisibleDespiteTheCache() throws Exception {
+    mvc.perform(get("/api/v1/resource-types").header("X-Agency-Id", "CACHE-A"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[*].id", not(hasItem("CACHE-T"))));
+    resourceTypeRepository.save(new ResourceType("CACHE-T", "Chariots", "forklift"));
+    mvc.perform(get("/api/v1/resource-types").header("X-Agency-Id", "CACHE-A"))
+        .andExpect(jsonPath("$[*].id", hasItem("CACHE-T")));
+
+    mvc.perform(get("/api/v1/agencies").header("X-Agency-Id", "CACHE-B"))
+        .andExpect(status().isForbidden());
+    agencyRepository.save(new Agency("CACHE-B", "Agence créée ensuite"));
+    mvc.perform(get("/api/v1/agencies").header("X-Agency-Id", "CACHE-B"))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void templatesAreCachedPerAgencyUntilSaved() {
+    CommercialDocument.DocType type = CommercialDocument.DocType.QUOTE;
+    assertThat(templateService.findDocumentEmailTemplate("CACHE-A", type)).isEmpty();
+    assertThat(templateService.findDocumentEmailTemplate("CACHE-A", type)).isEmpty();
+
+    templateService.saveDocumentEmailTemplate("CACHE-A", type, "Devis", "Bonjour");
+    assertThat(templateService.findDocumentEmailTemplate("CACHE-A", type))
+        .map(EmailTemplate::getSubject)
+        .contains("Devis");
+
+    templateService.saveDocumentEmailTemplate("CACHE-A", type, "Devis v2", "Bonjour");
+    assertThat(templateService.findDocumentEmailTemplate("CACHE-A", type))
+        .map(EmailTemplate::getSubject)
+        .contains("Devis v2");
+  }
+}
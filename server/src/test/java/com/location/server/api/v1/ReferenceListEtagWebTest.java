@@ -0,0 +1,74 @@
+package com.location.server.api.v1;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.location.server.domain.Agency;
+import com.location.server.repo.AgencyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+@SpringBootTest
+@ActiveProfiles("dev")
+class ReferenceListEtagWebTest {
+
+  @Autowired WebApplicationContext context;
+  @Autowired FilterRegistrationBean<ShallowEtagHeaderFilter> referenceListEtagFilter;
+  @Autowired AgencyRepository agencyRepository;
+
+  MockMvc mvc;
+
+  @BeforeEach
+  void setUp() {
+    agencyRepository.save(new Agency("ETAG-A", "Agence ETag"));
+    mvc =
+        MockMvcBuilders.webAppContextSetup(context)
+            .defaultRequest(get("/").header("X-Agency-Id", "ETAG-A"))
+            .addFilter(
+                referenceListEtagFilter.getFilter(),
+                referenceListEtagFilter.getUrlPatterns().toArray(new String[0]))
+            .build();
+  }
+
+  @Test
+  void unchangedListIsRevalidatedWithoutBody() throws Exception {
+    String etag =
+        mvc.perform(get("/api/v1/agencies"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader("ETag");
+    assertThat(etag).isNotBlank().doesNotStartWith("W/");
+
+    String body =
+        mvc.perform(get("/api/v1/agencies").header("If-None-Match", etag))
+            .andExpect(status().isNotModified())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+    assertThat(body).isEmpty();
+
+    agencyRepository.save(new Agency("ETAG-B", "Autre agence"));
+    mvc.perform(get("/api/v1/agencies").header("If-None-Match", etag))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  void interventionStreamsAreNotBuffered() throws Exception {
+    String etag =
+        mvc.perform(get("/api/v1/interventions/csv"))
+            .andReturn()
+            .getResponse()
+            .getHeader("ETag");
+    assertThat(etag).isNull();
+  }
+}
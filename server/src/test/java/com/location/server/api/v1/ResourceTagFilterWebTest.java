@@ -0,0 +1,89 @@
+package com.location.server.api.v1;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.location.server.domain.Agency;
+import com.location.server.domain.Resource;
+import com.location.server.repo.AgencyRepository;
+import com.location.server.repo.ResourceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("dev")
+class ResourceTagFilterWebTest {
+
+  @Autowired MockMvc mvc;
+  @Autowired AgencyRepository agencyRepository;
+  @Autowired ResourceRepository resourceRepository;
+
+  @BeforeEach
+  void setUp() {
+    Agency agency = agencyRepository.save(new Agency("TAG-A", "Agence tags"));
+    resourceRepository.save(
+        new Resource("TAG-R1", "Grue 40t", "TG-001-AA", null, agency, " Zzgrue, ZZLevage ", 40));
+    resourceRepository.save(
+        new Resource("TAG-R2", "Grue mobile", "TG-002-AA", null, agency, "zzgrue-mobile", 20));
+    resourceRepository.save(
+        new Resource("TAG-R3", "Nacelle", "TG-003-AA", null, agency, "zzgrue", 2));
+  }
+
+  @Test
+  void resourcesMatchEveryRequestedTagExactly() throws Exception {
+    mvc.perform(get("/api/v1/resources").param("tags", "ZZGRUE").header("X-Agency-Id", "TAG-A"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[*].id", contains("TAG-R1", "TAG-R3")));
+
+    mvc.perform(
+            get("/api/v1/resources")
+                .param("tags", "zzlevage, zzgrue,")
+                .header("X-Agency-Id", "TAG-A"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[*].id", contains("TAG-R1")));
+
+    MvcResult started =
+        mvc.perform(
+                get("/api/v1/resources/csv")
+                    .param("tags", "zzgrue,zzlevage")
+                    .header("X-Agency-Id", "TAG-A"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    mvc.perform(asyncDispatch(started))
+        .andExpect(status().isOk())
+        .andExpect(content().string(containsString("TAG-R1;")))
+        .andExpect(content().string(not(containsString("TAG-R2;"))))
+        .andExpect(content().string(not(containsString("TAG-R3;"))));
+  }
+
+  @Test
+  void snapshotKeepsOnlyTaggedResources() throws Exception {
+    MvcResult started =
+        mvc.perform(
+                get("/api/v1/planning/snapshot")
+                    .param("from", "2025-04-07T00:00:00Z")
+                    .param("to", "2025-04-14T00:00:00Z")
+                    .param("agency", "TAG-A")
+                    .param("tags", "zzgrue-mobile")
+                    .header("X-Agency-Id", "TAG-A"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+    mvc.perform(asyncDispatch(started))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.resources[*].id", contains("TAG-R2")));
+  }
+}
@@ -0,0 +1,96 @@
+package com.location.server.repo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.location.server.domain.Agency;
+import com.location.server.domain.Client;
+import com.location.server.domain.CommercialDocument;
+import com.location.server.domain.CommercialDocument.DocStatus;
+import com.location.server.domain.CommercialDocument.DocType;
+import com.location.server.domain.CommercialDocumentLine;
+import com.location.server.domain.Driver;
+import com.location.server.domain.Intervention;
+import com.location.server.domain.Resource;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ListQueryCountTest {
+
+  @Autowired TestEntityManager em;
+  @Autowired EntityManagerFactory entityManagerFactory;
+  @Autowired InterventionRepository interventionRepository;
+  @Autowired CommercialDocumentRepository documentRepository;
+  @Autowired ClientRepository clientRepository;
+
+  private final OffsetDateTime base = OffsetDateTime.of(2025, 4, 7, 8, 0, 0, 0, ZoneOffset.UTC);
+  private Statistics statistics;
+
+  @BeforeEach
+  void setUp() {
+    Agency agency = em.persist(new Agency("QA", "Agence"));
+    for (int i = 0; i < 4; i++) {
+      Client client = em.persist(new Client("QC" + i, "Client " + i, "c" + i + "@example.test"));
+      Resource resource = em.persist(new Resource("QR" + i, "Camion " + i, "AA-" + i, null, agency));
+      Driver driver = em.persist(new Driver("QD" + i, "Chauffeur " + i, null));
+      em.persist(
+          new Intervention(
+              "QI" + i, "Interv " + i, base.plusHours(i), base.plusHours(i + 1),
+              agency, resource, client, driver, null, null, null));
+      CommercialDocument document =
+          new CommercialDocument(
+              "QDOC" + i, DocType.QUOTE, DocStatus.DRAFT, "D-" + i, "Devis " + i, base, agency, client);
+      for (int l = 0; l < 3; l++) {
+        document
+            .getLines()
+            .add(
+                new CommercialDocumentLine(
+                    "QL" + i + "-" + l, document, l, "Ligne " + l,
+                    BigDecimal.ONE, BigDecimal.TEN, new BigDecimal("0.2")));
+      }
+      em.persist(document);
+    }
+    em.flush();
+    em.clear();
+    statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    statistics.clear();
+  }
+
+  @Test
+  void interventionSearchLoadsAssociationsInOneQuery() {
+    var interventions = interventionRepository.search(base, base.plusDays(1), null);
+
+    assertThat(interventions).hasSize(4);
+    interventions.forEach(
+        i -> assertThat(i.getDriver().getName() + i.getClient().getName() + i.getResource().getName()).isNotBlank());
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  @Test
+  void documentSearchLoadsLinesAndClientsInOneQuery() {
+    var documents = documentRepository.search("QA", DocType.QUOTE, null, null, null);
+
+    assertThat(documents).hasSize(4);
+    documents.forEach(
+        d -> {
+          assertThat(d.getLines()).hasSize(3);
+          assertThat(d.getClient().getName()).startsWith("Client");
+        });
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+
+  @Test
+  void clientListingIsASingleReadOnlyQuery() {
+    assertThat(clientRepository.findAllForListing()).extracting(Client::getId).startsWith("QC0");
+    assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+  }
+}
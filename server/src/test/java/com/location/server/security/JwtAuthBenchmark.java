@@ -0,0 +1,63 @@
+package com.location.server.security;
+
+import com.location.server.service.ServerMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Coût du filtre d'authentification par requête ({@code -Dbench=true}) : jeton vérifié à chaque
+ * fois (cache de taille nulle) puis jeton déjà vu. 20 000 passages de chauffe, puis la médiane de
+ * cinq séries de 20 000.
+ */
+@EnabledIfSystemProperty(named = "bench", matches = "true")
+class JwtAuthBenchmark {
+  private static final int REQUESTS = 20_000;
+
+  @Test
+  void authOverheadPerRequest() throws Exception {
+    JwtService jwtService = new JwtService("bench-secret-bench-secret-bench-secret");
+    String token =
+        jwtService.generateToken(
+            Map.of("sub", "poste-1"), Instant.now().plusSeconds(3600).getEpochSecond());
+    for (int size : new int[] {0, 10_000}) {
+      JwtAuthFilter filter =
+          new JwtAuthFilter(new VerifiedTokenCache(jwtService, new ServerMetrics(new SimpleMeterRegistry()), size));
+      long nanos = median(() -> run(filter, token));
+      System.out.printf(
+          "auth %s : %.2f µs/requête%n",
+          size == 0 ? "vérification complète" : "jeton en cache", nanos / 1e3 / REQUESTS);
+    }
+  }
+
+  private static void run(JwtAuthFilter filter, String token) {
+    try {
+      for (int i = 0; i < REQUESTS; i++) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/resources");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        SecurityContextHolder.clearContext();
+      }
+    } catch (Exception ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private static long median(Runnable task) {
+    task.run();
+    long[] samples = new long[5];
+    for (int i = 0; i < samples.length; i++) {
+      long start = System.nanoTime();
+      task.run();
+      samples[i] = System.nanoTime() - start;
+    }
+    java.util.Arrays.sort(samples);
+    return samples[samples.length / 2];
+  }
+}
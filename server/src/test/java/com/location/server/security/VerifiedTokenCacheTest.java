@@ -0,0 +1,105 @@
+package com.location.server.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.location.server.service.ServerMetrics;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+class VerifiedTokenCacheTest {
+
+  private static final String SECRET = "test-secret-test-secret-test-secret";
+
+  private final AtomicInteger parses = new AtomicInteger();
+  private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+  private final JwtService jwtService =
+      new JwtService(SECRET) {
+        @Override
+        public Claims parseToken(String token) {
+          parses.incrementAndGet();
+          return super.parseToken(token);
+        }
+      };
+  private final VerifiedTokenCache cache =
+      new VerifiedTokenCache(jwtService, new ServerMetrics(new SimpleMeterRegistry()), 2, now::get);
+
+  @AfterEach
+  void clearContext() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  void verifiesOnceAndBuildsAFreshAuthenticationPerRequestUntilExp() {
+    long exp = Instant.now().plusSeconds(600).getEpochSecond();
+    String token = jwtService.generateToken(Map.of("sub", "demo"), exp);
+
+    Authentication first = cache.authenticate(token);
+    first.setAuthenticated(false);
+    Authentication second = cache.authenticate(token);
+
+    assertThat(second).isNotSameAs(first);
+    assertThat(second.isAuthenticated()).isTrue();
+    assertThat(second.getName()).isEqualTo("demo");
+    assertThat(second.getPrincipal()).isNotSameAs(first.getPrincipal());
+    assertThat(parses).hasValue(1);
+
+    now.set(exp * 1000);
+    assertThat(cache.authenticate(token).getName()).isEqualTo("demo");
+    assertThat(parses).hasValue(2);
+  }
+
+  @Test
+  void parseErrorsPropagateAndAreNeverCached() {
+    long past = Instant.now().minusSeconds(60).getEpochSecond();
+    String expired = jwtService.generateToken(Map.of("sub", "demo"), past);
+    String foreign =
+        new JwtService("another-secret-another-secret-another")
+            .generateToken(Map.of("sub", "demo"), past + 3600);
+
+    assertThatThrownBy(() -> jwtService.parseToken(expired))
+        .isInstanceOf(ExpiredJwtException.class);
+    assertThatThrownBy(() -> cache.authenticate(foreign)).isInstanceOf(JwtException.class);
+    assertThatThrownBy(() -> cache.authenticate("")).isInstanceOf(IllegalArgumentException.class);
+    assertThat(cache.size()).isZero();
+  }
+
+  @Test
+  void keepsAtMostTheConfiguredNumberOfTokens() {
+    long exp = Instant.now().plusSeconds(600).getEpochSecond();
+    for (String user : new String[] {"a", "b", "c"}) {
+      cache.authenticate(jwtService.generateToken(Map.of("sub", user), exp));
+    }
+    assertThat(cache.size()).isEqualTo(2);
+  }
+
+  @Test
+  void filterLeavesRejectedRequestsAnonymous() throws Exception {
+    JwtAuthFilter filter = new JwtAuthFilter(cache);
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/agencies");
+    request.addHeader("Authorization", "Bearer pas-un-jeton");
+    filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+
+    long exp = Instant.now().plusSeconds(600).getEpochSecond();
+    MockHttpServletRequest valid = new MockHttpServletRequest("GET", "/api/v1/agencies");
+    valid.addHeader(
+        "Authorization", "Bearer " + jwtService.generateToken(Map.of("sub", "demo"), exp));
+    filter.doFilter(valid, new MockHttpServletResponse(), new MockFilterChain());
+    assertThat(SecurityContextHolder.getContext().getAuthentication().getName())
+        .isEqualTo("demo");
+  }
+}
@@ -0,0 +1,135 @@
+package com.location.server.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.location.server.domain.Agency;
+import com.location.server.domain.Client;
+import com.location.server.domain.Driver;
+import com.location.server.domain.Intervention;
+import com.location.server.domain.Resource;
+import com.location.server.repo.AgencyRepository;
+import com.location.server.repo.ClientRepository;
+import com.location.server.repo.DriverRepository;
+import com.location.server.repo.InterventionRepository;
+import com.location.server.repo.ResourceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+@DataJpaTest
+@Import({
+  InterventionService.class,
+  UnavailabilityService.class,
+  ConflictIndex.class,
+  ConflictIndexInvalidator.class,
+  RecurringUnavailabilityIndex.class,
+  PdfCache.class,
+  InterventionTagService.class,
+  ServerMetrics.class,
+  SimpleMeterRegistry.class
+})
+class ConflictIndexTest {
+
+  @Autowired AgencyRepository agencyRepository;
+  @Autowired ClientRepository clientRepository;
+  @Autowired ResourceRepository resourceRepository;
+  @Autowired DriverRepository driverRepository;
+  @Autowired InterventionRepository interventionRepository;
+  @Autowired InterventionService interventionService;
+  @Autowired UnavailabilityService unavailabilityService;
+  @Autowired ConflictIndex conflictIndex;
+
+  // 2025-01-06 is a Monday
+  private static final OffsetDateTime MONDAY_8H =
+      OffsetDateTime.of(2025, 1, 6, 8, 0, 0, 0, ZoneOffset.UTC);
+
+  @BeforeEach
+  void setUp() {
+    Agency agency = agencyRepository.save(new Agency("CI-A", "Agence"));
+    clientRepository.save(new Client("CI-C", "Client", "client@example.test"));
+    resourceRepository.save(new Resource("CI-R1", "Camion 1", "AA-001-AA", null, agency));
+    resourceRepository.save(new Resource("CI-R2", "Camion 2", "AA-002-AA", null, agency));
+    driverRepository.save(new Driver("CI-D", "Paul", "paul@example.test"));
+  }
+
+  @Test
+  void recurringSlotBlocksIntervention() {
+    unavailabilityService.createRecurring(
+        "CI-R1", DayOfWeek.MONDAY, LocalTime.of(9, 0), LocalTime.of(10, 0), "Entretien");
+
+    assertThrows(
+        AssignmentConflictException.class,
+        () -> create("CI-R1", MONDAY_8H.plusMinutes(30), MONDAY_8H.plusMinutes(90)));
+    create("CI-R1", MONDAY_8H.plusDays(1), MONDAY_8H.plusDays(1).plusHours(4));
+  }
+
+  @Test
+  void driverMoveIsReflectedImmediately() {
+    Intervention first = create("CI-R1", MONDAY_8H, MONDAY_8H.plusHours(2));
+    assertThat(conflictIndex.driverBusy("CI-D", MONDAY_8H.plusHours(1), MONDAY_8H.plusHours(3), null))
+        .isTrue();
+    assertThat(
+            conflictIndex.driverBusy(
+                "CI-D", MONDAY_8H.plusHours(1), MONDAY_8H.plusHours(3), first.getId()))
+        .isFalse();
+
+    interventionService.update(
+        first.getId(),
+        "CI-A",
+        "CI-R2",
+        "CI-D",
+        "CI-C",
+        "Déplacée",
+        MONDAY_8H.plusHours(4),
+        MONDAY_8H.plusHours(5),
+        null,
+        null,
+        null);
+
+    assertThat(conflictIndex.resourceBusy("CI-R1", MONDAY_8H, MONDAY_8H.plusHours(2), null))
+        .isFalse();
+    assertThat(conflictIndex.resourceBusy("CI-R2", MONDAY_8H.plusHours(4), MONDAY_8H.plusHours(5), null))
+        .isTrue();
+    create("CI-R1", MONDAY_8H, MONDAY_8H.plusHours(2));
+
+    interventionService.delete(first.getId());
+    assertThat(conflictIndex.resourceBusy("CI-R2", MONDAY_8H, MONDAY_8H.plusDays(1), null))
+        .isFalse();
+  }
+
+  @Test
+  void writesThatBypassTheServiceAreSeenOnceFlushed() {
+    assertThat(conflictIndex.resourceBusy("CI-R2", MONDAY_8H, MONDAY_8H.plusHours(2), null))
+        .isFalse();
+
+    interventionRepository.saveAndFlush(
+        new Intervention(
+            "CI-DIRECT",
+            "Saisie directe",
+            MONDAY_8H,
+            MONDAY_8H.plusHours(1),
+            agencyRepository.findById("CI-A").orElseThrow(),
+            resourceRepository.findById("CI-R2").orElseThrow(),
+            clientRepository.findById("CI-C").orElseThrow(),
+            null,
+            null,
+            null,
+            null));
+
+    assertThat(conflictIndex.resourceBusy("CI-R2", MONDAY_8H, MONDAY_8H.plusHours(2), null))
+        .isTrue();
+  }
+
+  private Intervention create(String resourceId, OffsetDateTime start, OffsetDateTime end) {
+    return interventionService.create(
+        "CI-A", resourceId, "CI-D", "CI-C", "Interv", start, end, null, null, null);
+  }
+}
@@ -0,0 +1,126 @@
+package com.location.server.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.location.server.domain.Agency;
+import com.location.server.domain.CommercialDocument.DocType;
+import com.location.server.repo.AgencyRepository;
+import com.location.server.repo.DocumentSequenceRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Tourne sur un pool Hikari plus petit que le nombre de threads : un appel qui attendrait une
+ * seconde connexion en gardant la sienne bloquerait ici jusqu'au timeout du pool.
+ */
+@DataJpaTest(
+    properties = {
+      "app.numbering.block-size=7",
+      "spring.datasource.hikari.maximum-pool-size=" + DocumentNumberingConcurrencyTest.POOL_SIZE,
+      "spring.datasource.hikari.connection-timeout=2000"
+    })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({DocumentNumberingService.class, ServerMetrics.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DocumentNumberingConcurrencyTest {
+  static final int POOL_SIZE = 3;
+  private static final int THREADS = 12;
+  private static final int PER_THREAD = 40;
+
+  @Autowired DocumentNumberingService numbering;
+  @Autowired AgencyRepository agencyRepository;
+  @Autowired DocumentSequenceRepository sequenceRepository;
+  @Autowired DataSource dataSource;
+
+  private final OffsetDateTime date = OffsetDateTime.of(2025, 1, 31, 18, 0, 0, 0, ZoneOffset.UTC);
+  private Agency agency;
+
+  @BeforeEach
+  void setUp() {
+    agency = agencyRepository.save(new Agency("NUM", "Agence numérotation"));
+  }
+
+  @AfterEach
+  void tearDown() {
+    sequenceRepository.deleteAll();
+    agencyRepository.deleteById("NUM");
+  }
+
+  @Test
+  void runsOnAPoolSmallerThanTheCallerCount() {
+    assertThat(dataSource).isInstanceOf(HikariDataSource.class);
+    assertThat(((HikariDataSource) dataSource).getMaximumPoolSize()).isLessThan(THREADS);
+  }
+
+  @Test
+  void invoicesAreUniqueAndGaplessUnderContention() throws Exception {
+    List<String> references = hammer(DocType.INVOICE);
+
+    assertThat(references).doesNotHaveDuplicates();
+    assertThat(references.stream().map(r -> r.substring(r.lastIndexOf('-') + 1)).map(Integer::valueOf))
+        .containsExactlyInAnyOrderElementsOf(
+            IntStream.rangeClosed(1, THREADS * PER_THREAD).boxed().toList());
+    assertThat(sequenceRepository.findLastNumber("NUM", 2025, DocType.INVOICE))
+        .isEqualTo(THREADS * PER_THREAD);
+  }
+
+  @Test
+  void blockAllocatedTypesNeverHandOutTheSameNumberTwice() throws Exception {
+    List<String> references = hammer(DocType.QUOTE);
+
+    assertThat(references).doesNotHaveDuplicates().hasSize(THREADS * PER_THREAD);
+    assertThat(references).allMatch(r -> r.startsWith("DV-2025-"));
+    // Un seul nœud : les blocs sont consommés en entier, la séquence ne dépasse que des reliquats
+    // des blocs réservés en même temps, au plus un par thread.
+    assertThat(sequenceRepository.findLastNumber("NUM", 2025, DocType.QUOTE))
+        .isBetween(THREADS * PER_THREAD, THREADS * PER_THREAD + THREADS * 6);
+  }
+
+  private List<String> hammer(DocType type) throws Exception {
+    ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+    CountDownLatch start = new CountDownLatch(1);
+    try {
+      List<Future<List<String>>> futures = new ArrayList<>();
+      for (int t = 0; t < THREADS; t++) {
+        Callable<List<String>> worker =
+            () -> {
+              start.await();
+              List<String> refs = new ArrayList<>();
+              for (int i = 0; i < PER_THREAD; i++) {
+                refs.add(numbering.nextReference(agency, type, date));
+              }
+              return refs;
+            };
+        futures.add(pool.submit(worker));
+      }
+      start.countDown();
+      List<String> all = new ArrayList<>();
+      for (Future<List<String>> future : futures) {
+        all.addAll(future.get());
+      }
+      return all;
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+}
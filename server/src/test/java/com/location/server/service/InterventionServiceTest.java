@@ -12,6 +12,7 @@ import com.location.server.repo.ClientRepository;
 import com.location.server.repo.DriverRepository;
 import com.location.server.repo.ResourceRepository;
 import com.location.server.repo.UnavailabilityRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,7 +22,16 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
 
 @DataJpaTest
-@Import(InterventionService.class)
+@Import({
+  InterventionService.class,
+  ConflictIndex.class,
+  ConflictIndexInvalidator.class,
+  RecurringUnavailabilityIndex.class,
+  PdfCache.class,
+  InterventionTagService.class,
+  ServerMetrics.class,
+  SimpleMeterRegistry.class
+})
 class InterventionServiceTest {
 
   @Autowired AgencyRepository agencyRepository;
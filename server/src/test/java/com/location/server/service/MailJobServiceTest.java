@@ -0,0 +1,180 @@
+package com.location.server.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+class MailJobServiceTest {
+
+  /** Passerelle de test : échoue une fois pour les destinataires listés. */
+  static final class RecordingGateway implements MailGateway {
+    final List<List<Mail>> batches = new ArrayList<>();
+    final Set<String> failOnce = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void send(Mail mail) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public synchronized Map<Integer, Exception> sendAll(List<Mail> mails) {
+      batches.add(List.copyOf(mails));
+      Map<Integer, Exception> failures = new HashMap<>();
+      for (int i = 0; i < mails.size(); i++) {
+        if (failOnce.remove(mails.get(i).to())) {
+          failures.put(i, new IllegalStateException("SMTP refusé"));
+        }
+      }
+      return failures;
+    }
+  }
+
+  private final RecordingGateway gateway = new RecordingGateway();
+  private final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2025-01-01T08:00:00Z"));
+  private final Clock clock =
+      new Clock() {
+        @Override
+        public ZoneId getZone() {
+          return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+          return this;
+        }
+
+        @Override
+        public Instant instant() {
+          return now.get();
+        }
+      };
+  private final MailJobService service =
+      new MailJobService(gateway, new NoopTransactionManager(), 4, Duration.ofMinutes(60), clock);
+
+  @AfterEach
+  void tearDown() {
+    service.shutdown();
+  }
+
+  @Test
+  void sendsInBatchesAndReportsPerItemOutcome() throws Exception {
+    List<String> ids = IntStream.range(0, 60).mapToObj(i -> "I" + i).collect(Collectors.toList());
+    ids.add("missing");
+    ids.add("I0");
+    gateway.failOnce.add("I7@example.test");
+
+    String jobId =
+        service.submit("test", "A", ids, loader(), id -> id.equals("I3") ? null : mail(id));
+    MailJobService.JobView job = await(jobId);
+
+    assertThat(job.total()).isEqualTo(61);
+    assertThat(job.sent()).isEqualTo(58);
+    assertThat(job.skipped()).isEqualTo(1);
+    assertThat(job.failures())
+        .extracting(MailJobService.ItemResult::id, MailJobService.ItemResult::error)
+        .containsExactlyInAnyOrder(
+            org.assertj.core.groups.Tuple.tuple("missing", "Introuvable"),
+            org.assertj.core.groups.Tuple.tuple("I7", "SMTP refusé"));
+    assertThat(gateway.batches).hasSize(3);
+    assertThat(gateway.batches).allSatisfy(b -> assertThat(b).hasSizeLessThanOrEqualTo(MailJobService.CHUNK_SIZE));
+  }
+
+  @Test
+  void retryOnlyResendsFailedItems() throws Exception {
+    gateway.failOnce.add("I1@example.test");
+    String jobId = service.submit("test", "A", List.of("I0", "I1", "I2"), loader(), MailJobServiceTest::mail);
+    assertThat(await(jobId).failed()).isEqualTo(1);
+
+    service.retry(jobId).orElseThrow();
+    MailJobService.JobView retried = await(jobId);
+
+    assertThat(retried.sent()).isEqualTo(3);
+    assertThat(retried.failures()).isEmpty();
+    assertThat(gateway.batches.get(1)).extracting(MailGateway.Mail::to).containsExactly("I1@example.test");
+  }
+
+  @Test
+  void renderErrorsFailOnlyTheirItem() throws Exception {
+    String jobId =
+        service.submit(
+            "test",
+            "A",
+            List.of("I0", "I1"),
+            loader(),
+            id -> {
+              if (id.equals("I0")) {
+                throw new IllegalArgumentException("PDF illisible");
+              }
+              return mail(id);
+            });
+    MailJobService.JobView job = await(jobId);
+
+    assertThat(job.sent()).isEqualTo(1);
+    assertThat(job.failures()).singleElement().extracting(MailJobService.ItemResult::error).isEqualTo("PDF illisible");
+  }
+
+  @Test
+  void finishedJobsAreForgottenAfterRetention() throws Exception {
+    String jobId = service.submit("test", "A", List.of("I0"), loader(), MailJobServiceTest::mail);
+    await(jobId);
+
+    now.set(now.get().plus(Duration.ofMinutes(59)));
+    assertThat(service.find(jobId)).isPresent();
+    now.set(now.get().plus(Duration.ofMinutes(2)));
+    assertThat(service.find(jobId)).isEmpty();
+    assertThat(service.retry(jobId)).isEmpty();
+  }
+
+  private static Function<List<String>, Map<String, String>> loader() {
+    return ids ->
+        ids.stream().filter(id -> id.startsWith("I")).collect(Collectors.toMap(id -> id, id -> id));
+  }
+
+  private static MailGateway.Mail mail(String id) {
+    return new MailGateway.Mail(id + "@example.test", "Sujet " + id, "Corps", new byte[] {1}, id + ".pdf");
+  }
+
+  private MailJobService.JobView await(String jobId) throws InterruptedException {
+    for (int i = 0; i < 500; i++) {
+      MailJobService.JobView job = service.find(jobId).orElseThrow();
+      if (job.state() == MailJobService.State.DONE) {
+        return job;
+      }
+      Thread.sleep(10);
+    }
+    throw new AssertionError("Job non terminé");
+  }
+
+  private static final class NoopTransactionManager implements PlatformTransactionManager {
+    @Override
+    public TransactionStatus getTransaction(TransactionDefinition definition) {
+      return new SimpleTransactionStatus();
+    }
+
+    @Override
+    public void commit(TransactionStatus status) {}
+
+    @Override
+    public void rollback(TransactionStatus status) {}
+  }
+}
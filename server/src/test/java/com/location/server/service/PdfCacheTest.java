@@ -0,0 +1,67 @@
+package com.location.server.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PdfCacheTest {
+
+  private final AtomicInteger renders = new AtomicInteger();
+
+  private Supplier<byte[]> render(int size) {
+    return () -> {
+      renders.incrementAndGet();
+      return new byte[size];
+    };
+  }
+
+  @Test
+  void servesSameFingerprintAndRerendersWhenContentChanges() {
+    PdfCache cache = new PdfCache(1024, "");
+    String v1 = PdfCache.fingerprint("Facture", "F-1", 10);
+
+    byte[] first = cache.get("document", "D1", v1, render(10));
+    byte[] second = cache.get("document", "D1", v1, render(10));
+    cache.get("document", "D1", PdfCache.fingerprint("Facture", "F-1", 11), render(10));
+
+    assertThat(second).isSameAs(first);
+    assertThat(renders).hasValue(2);
+    assertThat(cache.hits()).isEqualTo(1);
+    assertThat(cache.misses()).isEqualTo(2);
+  }
+
+  @Test
+  void evictsLeastRecentlyUsedBeyondWeight() {
+    PdfCache cache = new PdfCache(100, "");
+    cache.get("document", "D1", "a", render(40));
+    cache.get("document", "D2", "a", render(40));
+    cache.get("document", "D1", "a", render(40));
+    cache.get("document", "D3", "a", render(40));
+
+    cache.get("document", "D1", "a", render(40));
+    assertThat(renders).hasValue(3);
+    cache.get("document", "D2", "a", render(40));
+    assertThat(renders).hasValue(4);
+  }
+
+  @Test
+  void diskTierSurvivesRestartAndIsPurgedOnInvalidate(@TempDir Path dir) throws Exception {
+    new PdfCache(1024, dir.toString()).get("intervention", "I1", "v1", render(5));
+
+    PdfCache restarted = new PdfCache(1024, dir.toString());
+    restarted.get("intervention", "I1", "v1", render(5));
+    assertThat(renders).hasValue(1);
+
+    restarted.invalidate("intervention", "I1");
+    try (var files = Files.list(dir)) {
+      assertThat(files).isEmpty();
+    }
+    restarted.get("intervention", "I1", "v1", render(5));
+    assertThat(renders).hasValue(2);
+  }
+}
@@ -6,6 +6,7 @@ import com.location.server.domain.Agency;
 import com.location.server.domain.Resource;
 import com.location.server.repo.AgencyRepository;
 import com.location.server.repo.ResourceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
@@ -18,7 +19,15 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
 
 @DataJpaTest
-@Import({UnavailabilityService.class, UnavailabilityQueryService.class})
+@Import({
+  UnavailabilityService.class,
+  UnavailabilityQueryService.class,
+  ConflictIndex.class,
+  ConflictIndexInvalidator.class,
+  RecurringUnavailabilityIndex.class,
+  ServerMetrics.class,
+  SimpleMeterRegistry.class
+})
 class RecurringUnavailabilityExpansionTest {
 
   @Autowired AgencyRepository agencyRepository;
@@ -26,14 +35,23 @@ class RecurringUnavailabilityExpansionTest {
   @Autowired UnavailabilityService unavailabilityService;
   @Autowired UnavailabilityQueryService unavailabilityQueryService;
 
+  @Autowired RecurringUnavailabilityIndex recurringIndex;
+
   private String resourceId;
+  private String parisResourceId;
 
   @BeforeEach
   void setUp() {
+    recurringIndex.clear();
     Agency agency = agencyRepository.save(new Agency("AG", "Agence"));
     Resource resource =
         resourceRepository.save(new Resource("RES", "Ressource", "XX", null, agency));
     resourceId = resource.getId();
+    Agency paris = new Agency("PAR", "Paris");
+    paris.setTimeZone("Europe/Paris");
+    agencyRepository.save(paris);
+    parisResourceId =
+        resourceRepository.save(new Resource("RES-P", "Grue", "YY", null, paris)).getId();
   }
 
   @Test
@@ -53,5 +71,53 @@ class RecurringUnavailabilityExpansionTest {
                     && span.start().toLocalDate().equals(monday)
                     && span.resourceId().equals(resourceId));
   }
-}
 
+  @Test
+  void followsAgencyTimeZoneAcrossDaylightSavingChange() {
+    unavailabilityService.createRecurring(
+        parisResourceId, DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(10, 0), "Entretien");
+    // Passage à l'heure d'été le dimanche 30 mars 2025.
+    OffsetDateTime from = OffsetDateTime.of(2025, 3, 24, 0, 0, 0, 0, ZoneOffset.UTC);
+    OffsetDateTime to = OffsetDateTime.of(2025, 4, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    var spans = unavailabilityQueryService.search(from, to, parisResourceId);
+
+    assertThat(spans)
+        .extracting(span -> span.start().toInstant())
+        .containsExactly(
+            OffsetDateTime.of(2025, 3, 24, 7, 0, 0, 0, ZoneOffset.UTC).toInstant(),
+            OffsetDateTime.of(2025, 3, 31, 6, 0, 0, 0, ZoneOffset.UTC).toInstant());
+  }
+
+  @Test
+  void newRuleInvalidatesCachedWeeks() {
+    OffsetDateTime from = OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    OffsetDateTime to = OffsetDateTime.of(2026, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    unavailabilityService.createRecurring(
+        resourceId, DayOfWeek.FRIDAY, LocalTime.of(14, 0), LocalTime.of(15, 0), "Réunion");
+    assertThat(unavailabilityQueryService.search(from, to, resourceId)).hasSize(52);
+
+    unavailabilityService.createRecurring(
+        resourceId, DayOfWeek.WEDNESDAY, LocalTime.of(7, 0), LocalTime.of(8, 0), "Contrôle");
+
+    var spans = unavailabilityQueryService.search(from, to, resourceId);
+    assertThat(spans).hasSize(52 + 53);
+    assertThat(unavailabilityQueryService.search(from, to, null)).hasSize(52 + 53);
+  }
+
+  @Test
+  void allResourcesAreExpandedDayByDay() {
+    unavailabilityService.createRecurring(
+        resourceId, DayOfWeek.TUESDAY, LocalTime.of(9, 0), LocalTime.of(10, 0), "Lavage");
+    unavailabilityService.createRecurring(
+        parisResourceId, DayOfWeek.MONDAY, LocalTime.of(12, 0), LocalTime.of(13, 0), "Pause");
+    OffsetDateTime from = OffsetDateTime.of(2025, 1, 6, 0, 0, 0, 0, ZoneOffset.UTC);
+    OffsetDateTime to = OffsetDateTime.of(2025, 1, 15, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    var spans = unavailabilityQueryService.search(from, to, null);
+
+    assertThat(spans)
+        .extracting(span -> span.resourceId())
+        .containsExactly(parisResourceId, resourceId, parisResourceId, resourceId);
+  }
+}
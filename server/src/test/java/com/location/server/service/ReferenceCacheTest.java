@@ -0,0 +1,96 @@
+package com.location.server.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+class ReferenceCacheTest {
+
+  private final AtomicLong now = new AtomicLong();
+  private final AtomicInteger loads = new AtomicInteger();
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+  private final ServerMetrics metrics = new ServerMetrics(registry);
+  private final ReferenceCache cache =
+      new ReferenceCache(Duration.ofSeconds(10), 2, metrics, now::get);
+
+  private Supplier<String> load(String value) {
+    return () -> {
+      loads.incrementAndGet();
+      return value;
+    };
+  }
+
+  @Test
+  void servesUntilTtlAndCountsHitsAndMissesPerAgency() {
+    assertThat(cache.get("templates", "A1", "email", load("v1"))).isEqualTo("v1");
+    now.addAndGet(Duration.ofSeconds(9).toNanos());
+    assertThat(cache.get("templates", "A1", "email", load("v2"))).isEqualTo("v1");
+    now.addAndGet(Duration.ofSeconds(1).toNanos());
+    assertThat(cache.get("templates", "A1", "email", load("v3"))).isEqualTo("v3");
+
+    assertThat(loads).hasValue(2);
+    assertThat(cacheRequests("hit")).isEqualTo(1);
+    assertThat(cacheRequests("miss")).isEqualTo(2);
+  }
+
+  private double cacheRequests(String result) {
+    return registry
+        .get(ServerMetrics.CACHE)
+        .tags("cache", "templates", "agency", "A1", "result", result)
+        .counter()
+        .count();
+  }
+
+  @Test
+  void invalidatesOnePartitionOrOneAgency() {
+    cache.get("templates", "A1", "email", load("a1"));
+    cache.get("templates", "A2", "email", load("a2"));
+    cache.get("agencies", "A1", "exists", load("yes"));
+
+    cache.invalidate("templates", "A2");
+    cache.get("templates", "A1", "email", load("x"));
+    cache.get("templates", "A2", "email", load("x"));
+    assertThat(loads).hasValue(4);
+
+    cache.invalidateAgency("A1");
+    assertThat(cache.get("agencies", "A1", "exists", load("again"))).isEqualTo("again");
+    assertThat(cache.get("templates", "A2", "email", load("x"))).isEqualTo("x");
+    assertThat(loads).hasValue(5);
+  }
+
+  @Test
+  void nullValuesAndLoadsRacingAnInvalidationAreNotKept() {
+    cache.get("agencies", "A1", "exists", load(null));
+    cache.get("agencies", "A1", "exists", load(null));
+    assertThat(loads).hasValue(2);
+
+    cache.get(
+        "resources",
+        null,
+        "all",
+        () -> {
+          cache.invalidateAll("resources");
+          return "stale";
+        });
+    assertThat(cache.get("resources", null, "all", load("fresh"))).isEqualTo("fresh");
+  }
+
+  @Test
+  void fullPartitionDropsExpiredEntriesBeforeRefusingNewOnes() {
+    cache.get("resources", null, "a", load("a"));
+    cache.get("resources", null, "b", load("b"));
+    cache.get("resources", null, "c", load("c"));
+    cache.get("resources", null, "c", load("c"));
+    assertThat(loads).hasValue(4);
+
+    now.addAndGet(Duration.ofSeconds(10).toNanos());
+    cache.get("resources", null, "c", load("c"));
+    cache.get("resources", null, "c", load("c"));
+    assertThat(loads).hasValue(5);
+  }
+}
@@ -11,6 +11,7 @@ import com.location.server.repo.AgencyRepository;
 import com.location.server.repo.ClientRepository;
 import com.location.server.repo.InterventionRepository;
 import com.location.server.repo.ResourceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.math.BigDecimal;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
@@ -22,7 +23,12 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
 
 @DataJpaTest
-@Import(TemplateService.class)
+@Import({
+  TemplateService.class,
+  ReferenceCache.class,
+  ServerMetrics.class,
+  SimpleMeterRegistry.class
+})
 class TemplateServiceTest {
 
   @Autowired private AgencyRepository agencyRepository;